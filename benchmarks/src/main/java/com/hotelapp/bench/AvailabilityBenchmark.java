@@ -0,0 +1,59 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск свободных номеров на случайный период в ближайшие 300 дней: anti-join запрос сервиса,
+ * индекс броней в памяти и для сравнения прежний цикл findAll() + hasOverlaps() на каждый номер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Benchmark
+    public List<Room> getAvailableRooms(DatasetState data) {
+        int period = data.nextPeriod();
+        return data.bookingService.getAvailableRooms(data.start(period), data.end(period));
+    }
+
+    @Benchmark
+    public List<Room> getAvailableRoomsIndexed(DatasetState data) {
+        int period = data.nextPeriod();
+        return data.indexedBookingService.getAvailableRooms(data.start(period), data.end(period));
+    }
+
+    @Benchmark
+    public List<Room> legacyRoomLoop(DatasetState data) {
+        int period = data.nextPeriod();
+        LocalDate start = data.start(period);
+        LocalDate end = data.end(period);
+        List<Room> free = new ArrayList<>();
+        for (Room room : data.roomDAO.findAll()) {
+            if (room.getStatus() == Room.RoomStatus.FREE && !data.bookingDAO.hasOverlaps(room.getId(), start, end)) {
+                free.add(room);
+            }
+        }
+        return free;
+    }
+
+    @Benchmark
+    public List<Room> getAvailableRoomsFiltered(DatasetState data) {
+        int period = data.nextPeriod();
+        return data.bookingService.getAvailableRooms(data.start(period), data.end(period), "Люкс", 2, 300.0);
+    }
+}
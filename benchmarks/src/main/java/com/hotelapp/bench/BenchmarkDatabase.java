@@ -0,0 +1,89 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.tools.DatasetGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+
+/**
+ * BenchmarkDatabase — сгенерированные БД для бенчмарков. Файл на каждый размер (номера × гости × брони)
+ * создаётся один раз в каталоге -Dhotel.bench.dir (по умолчанию target/bench) и переиспользуется
+ * между запусками, поэтому результаты разных версий кода сравниваются на одних и тех же данных.
+ */
+public final class BenchmarkDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkDatabase.class);
+
+    // Меняется при изменении генератора, чтобы не сравнивать запуски на разных данных
+    private static final int FORMAT = 2;
+    private static final long SEED = 20240601L;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Переключает Database на БД заданного размера, создавая её при необходимости.
+     */
+    public static void open(int rooms, int guests, int bookings) {
+        Path file = prepare(rooms, guests, bookings);
+        configure(file);
+    }
+
+    /**
+     * То же, но на рабочей копии: для бенчмарков, которые изменяют данные.
+     */
+    public static void openCopy(int rooms, int guests, int bookings) {
+        Path file = prepare(rooms, guests, bookings);
+        Path copy = file.resolveSibling(file.getFileName().toString().replace(".db", "-work.db"));
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось скопировать " + file, e);
+        }
+        configure(copy);
+    }
+
+    private static void configure(Path file) {
+        DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+        config.setUrl("jdbc:sqlite:" + file);
+        if (System.getProperty("hotel.db.slowQuery.file") == null) {
+            config.setSlowQueryLogFile(file.resolveSibling("slow-queries.log").toString());
+        }
+        Database.configure(config);
+        Database.initialize();
+    }
+
+    private static synchronized Path prepare(int rooms, int guests, int bookings) {
+        Path dir = Path.of(System.getProperty("hotel.bench.dir", "target/bench"));
+        Path file = dir.resolve(String.format("hotel-v%d-r%d-g%d-b%d.db", FORMAT, rooms, guests, bookings));
+        if (Files.exists(file)) {
+            return file;
+        }
+        Path partial = dir.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(partial);
+            long started = System.nanoTime();
+            configure(partial);
+            DatasetGenerator generator = new DatasetGenerator();
+            generator.setRooms(rooms);
+            generator.setGuests(guests);
+            generator.setBookings(bookings);
+            generator.setSeed(SEED);
+            generator.generate();
+            Database.shutdown();
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Сгенерирована БД {} за {} мс", file, (System.nanoTime() - started) / 1_000_000);
+            return file;
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Не удалось сгенерировать " + file, e);
+        }
+    }
+}
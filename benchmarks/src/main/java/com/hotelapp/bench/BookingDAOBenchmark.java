@@ -0,0 +1,41 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.model.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение всех броней, броней за период и проверка пересечения периода для одного номера.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingDAOBenchmark {
+
+    @Benchmark
+    public List<Booking> findAll(DatasetState data) {
+        return data.bookingDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Booking> findOverlapping(DatasetState data) {
+        int period = data.nextPeriod();
+        return data.bookingDAO.findOverlapping(data.start(period), data.end(period));
+    }
+
+    @Benchmark
+    public boolean hasOverlaps(DatasetState data) {
+        int period = data.nextPeriod();
+        return data.bookingDAO.hasOverlaps(data.roomId(period), data.start(period), data.end(period));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.model.Booking;
+import com.hotelapp.ui.table.CellValues;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прокрутка таблицы броней из 10 000 строк окном из 40 видимых строк: значения ячеек через CellValues
+ * и прежние фабрики, создающие SimpleStringProperty на каждый запрос. Память на проход показывает
+ * профилировщик GC: java -jar target/benchmarks.jar CellValues -prof gc (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CellValuesBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int VISIBLE = 40;
+
+    private final List<TableColumn.CellDataFeatures<Booking, String>> cells = new ArrayList<>(ROWS);
+    private List<Callback<TableColumn.CellDataFeatures<Booking, String>, ObservableValue<String>>> cached;
+    private List<Callback<TableColumn.CellDataFeatures<Booking, String>, ObservableValue<String>>> legacy;
+
+    @Setup
+    public void setup() {
+        LocalDate day = LocalDate.now();
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking(i, 1, 1, day.plusDays(i % 365), day.plusDays(i % 365 + 2), Booking.BookingStatus.BOOKED);
+            booking.setGuestName("Гость " + i);
+            cells.add(new TableColumn.CellDataFeatures<>(null, null, booking));
+        }
+        cached = List.of(
+                CellValues.of(Booking::getGuestName),
+                CellValues.of(Booking::getCheckInText),
+                CellValues.of(row -> row.getStatus().name()));
+        legacy = List.of(
+                c -> new SimpleStringProperty(c.getValue().getGuestName()),
+                c -> new SimpleStringProperty(c.getValue().getCheckInDate().toString()),
+                c -> new SimpleStringProperty(c.getValue().getStatus().name()));
+        // Значения запоминаются при первом показе строки; замер — повторные проходы
+        scroll(cached);
+    }
+
+    @Benchmark
+    public int cached() {
+        return scroll(cached);
+    }
+
+    @Benchmark
+    public int legacy() {
+        return scroll(legacy);
+    }
+
+    private int scroll(List<Callback<TableColumn.CellDataFeatures<Booking, String>, ObservableValue<String>>> columns) {
+        int checksum = 0;
+        for (int top = 0; top + VISIBLE <= cells.size(); top += VISIBLE / 2) {
+            for (int row = top; row < top + VISIBLE; row++) {
+                for (int c = 0; c < columns.size(); c++) {
+                    checksum += columns.get(c).call(cells.get(row)).getValue().length();
+                }
+            }
+        }
+        return checksum;
+    }
+}
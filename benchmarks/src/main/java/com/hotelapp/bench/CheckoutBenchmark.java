@@ -0,0 +1,87 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import com.hotelapp.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выселение: смена статусов брони и номера, расчёт стоимости и запись оплаты.
+ * Работает на копии сгенерированной БД; заселённая бронь готовится перед каждым вызовом вне замера.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+
+    @Param("500")
+    public int rooms;
+
+    @Param("5000")
+    public int guests;
+
+    @Param("100000")
+    public int bookings;
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private BookingService bookingService;
+    private long[] nextFreeDay;
+    private int nextRoom;
+    private int bookingId;
+
+    @Setup(Level.Trial)
+    public void open() {
+        BenchmarkDatabase.openCopy(rooms, guests, bookings);
+        bookingService = new BookingService(bookingDAO, new RoomDAO(), new GuestDAO(), new PaymentDAO());
+        // Сгенерированные брони заканчиваются через год; новые ставим позже, чтобы не пересекались
+        nextFreeDay = new long[rooms];
+        Arrays.fill(nextFreeDay, LocalDate.now().plusDays(400).toEpochDay());
+    }
+
+    @Setup(Level.Invocation)
+    public void checkedInBooking() throws SQLException {
+        int room = nextRoom;
+        nextRoom = (nextRoom + 1) % rooms;
+        LocalDate checkIn = LocalDate.ofEpochDay(nextFreeDay[room]);
+        nextFreeDay[room] += 3;
+        Booking booking = new Booking(0, room + 1, 1 + room % guests, checkIn, checkIn.plusDays(3),
+                BookingStatus.CHECKED_IN);
+        bookingDAO.insert(booking);
+        bookingId = booking.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        Database.shutdown();
+    }
+
+    @Benchmark
+    public double checkOut() {
+        return bookingService.checkOut(bookingId, true);
+    }
+}
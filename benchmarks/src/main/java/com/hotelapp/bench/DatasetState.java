@@ -0,0 +1,107 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.index.IndexedBookingDAO;
+import com.hotelapp.model.Guest;
+import com.hotelapp.service.BookingService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * DatasetState — сгенерированная БД и DAO/сервисы поверх неё. Размер задаётся параметрами JMH:
+ * -p rooms=2000 -p guests=50000 -p bookings=1000000.
+ */
+@State(Scope.Benchmark)
+public class DatasetState {
+
+    private static final int PERIODS = 1024;
+
+    @Param("500")
+    public int rooms;
+
+    @Param("5000")
+    public int guests;
+
+    @Param("100000")
+    public int bookings;
+
+    public final RoomDAO roomDAO = new RoomDAO();
+    public final GuestDAO guestDAO = new GuestDAO();
+    public final BookingDAO bookingDAO = new BookingDAO();
+    public final PaymentDAO paymentDAO = new PaymentDAO();
+    public BookingService bookingService;
+    // Тот же сервис с индексом активных броней в памяти (hotel.bookingIndex)
+    public BookingService indexedBookingService;
+
+    // Заранее выбранные периоды и номера, чтобы генерация случайных чисел не попадала в замер
+    private final LocalDate[] starts = new LocalDate[PERIODS];
+    private final LocalDate[] ends = new LocalDate[PERIODS];
+    private final int[] roomIds = new int[PERIODS];
+    // Строки поиска гостя, как их вводят на стойке: фамилия с началом имени, начало паспорта, цифры телефона
+    private final String[] guestQueries = new String[PERIODS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void open() {
+        BenchmarkDatabase.open(rooms, guests, bookings);
+        bookingService = new BookingService(bookingDAO, roomDAO, guestDAO, paymentDAO);
+        BookingIntervalIndex index = BookingIntervalIndex.build(bookingDAO);
+        indexedBookingService = new BookingService(new IndexedBookingDAO(index), roomDAO, guestDAO, paymentDAO, index);
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < PERIODS; i++) {
+            starts[i] = today.plusDays(random.nextInt(300));
+            ends[i] = starts[i].plusDays(1 + random.nextInt(10));
+            roomIds[i] = 1 + random.nextInt(rooms);
+            Guest guest = guestDAO.findById(1 + random.nextInt(guests)).orElseThrow();
+            String[] name = guest.getName().split(" ");
+            guestQueries[i] = switch (i % 3) {
+                case 0 -> name[name.length - 1] + " " + name[0].substring(0, 2);
+                case 1 -> guest.getPassport().substring(0, 6);
+                default -> guest.getPhone() != null
+                        ? guest.getPhone().substring(guest.getPhone().length() - 9) : guest.getPassport();
+            };
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        Database.shutdown();
+    }
+
+    /**
+     * Переходит к следующему заранее выбранному периоду.
+     */
+    public int nextPeriod() {
+        next = (next + 1) % PERIODS;
+        return next;
+    }
+
+    public LocalDate start(int period) {
+        return starts[period];
+    }
+
+    public LocalDate end(int period) {
+        return ends[period];
+    }
+
+    public int roomId(int period) {
+        return roomIds[period];
+    }
+
+    public String guestQuery(int period) {
+        return guestQueries[period];
+    }
+}
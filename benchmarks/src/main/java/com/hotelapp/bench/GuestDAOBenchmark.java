@@ -0,0 +1,34 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.model.Guest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение всех гостей (экран «Гости» без постраничной загрузки) и полнотекстовый поиск гостя.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuestDAOBenchmark {
+
+    @Benchmark
+    public List<Guest> findAll(DatasetState data) {
+        return data.guestDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Guest> searchFullText(DatasetState data) {
+        return data.guestDAO.searchFullText(data.guestQuery(data.nextPeriod()), 20);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.index.DuplicatePair;
+import com.hotelapp.index.GuestDuplicates;
+import com.hotelapp.model.Guest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск дублей гостей по блокам (GuestDuplicates.find) на базе со случайными именами и 300 подброшенными дублями:
+ * опечатка в имени, переставленные слова с тем же телефоном, тот же паспорт в другом регистре.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuestDuplicatesBenchmark {
+
+    private static final int PLANTED = 300;
+    private static final String LETTERS = "абвгдежзиклмнопрстуфхцчшэюя";
+
+    @Param("200000")
+    public int guests;
+
+    private List<Guest> all;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(31);
+        all = new ArrayList<>(guests + PLANTED);
+        for (int i = 0; i < guests; i++) {
+            all.add(new Guest(i + 1, word(random, 5, 9) + " " + word(random, 4, 7), "MP" + (1_000_000 + i),
+                    "+7 9" + (10 + i % 90) + " " + (1_000_000 + i)));
+        }
+        for (int i = 0; i < PLANTED; i++) {
+            Guest original = all.get(random.nextInt(guests));
+            String[] words = original.getName().split(" ");
+            Guest duplicate = switch (i % 3) {
+                case 0 -> new Guest(0, typo(original.getName(), random), "XX" + i, null);
+                case 1 -> new Guest(0, words[1] + " " + words[0], "YY" + i, original.getPhone().replace(" ", "-"));
+                default -> new Guest(0, word(random, 5, 9) + " " + word(random, 4, 7), original.getPassport().toLowerCase(), null);
+            };
+            duplicate.setId(guests + i + 1);
+            all.add(duplicate);
+        }
+    }
+
+    @Benchmark
+    public List<DuplicatePair> find() {
+        return GuestDuplicates.find(all);
+    }
+
+    private static String typo(String name, Random random) {
+        int position = 1 + random.nextInt(name.length() - 2);
+        if (name.charAt(position) == ' ') {
+            position--;
+        }
+        return name.substring(0, position) + "о" + name.substring(position + 1);
+    }
+
+    private static String word(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость записи одного вызова в метрики — столько добавляет каждый метод DAO и сервиса.
+ * Без записи JFR событие DataAccessEvent не создаётся; contended — те же метрики из нескольких потоков.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private final MethodMetrics metrics = Metrics.method("MetricsBenchmark.done", "bench");
+    private final List<Integer> result = List.of(1, 2, 3);
+
+    @Benchmark
+    public List<Integer> done() {
+        return metrics.done(System.nanoTime(), result);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Integer> contended() {
+        return metrics.done(System.nanoTime(), result);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotelapp.bench;
+
+import com.hotelapp.util.ValidationUtils;
+import com.hotelapp.util.ValidationUtils.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Валидаторы форм на корректных и ошибочных значениях (ошибка цены идёт через NumberFormatException).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private String name;
+    private String passport;
+    private String phone;
+    private String roomNumber;
+    private String price;
+    private String capacity;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @Setup
+    public void setup() {
+        name = valid ? "Ковалёв Алесь" : "R2-D2";
+        passport = valid ? "mp7654321" : "MP76543";
+        phone = valid ? "+375 29 123 45 67" : "8 029 123 45 67";
+        roomNumber = valid ? "12-03" : "1A1";
+        price = valid ? "149.90" : "сто";
+        capacity = valid ? "3" : "7";
+        checkIn = LocalDate.now().plusDays(valid ? 1 : 5);
+        checkOut = LocalDate.now().plusDays(3);
+    }
+
+    @Benchmark
+    public ValidationResult validateName() {
+        return ValidationUtils.validateName(name);
+    }
+
+    @Benchmark
+    public ValidationResult validatePassport() {
+        return ValidationUtils.validatePassport(passport);
+    }
+
+    @Benchmark
+    public ValidationResult validatePhone() {
+        return ValidationUtils.validatePhone(phone);
+    }
+
+    @Benchmark
+    public ValidationResult validateRoomNumber() {
+        return ValidationUtils.validateRoomNumber(roomNumber);
+    }
+
+    @Benchmark
+    public ValidationResult validatePrice() {
+        return ValidationUtils.validatePrice(price);
+    }
+
+    @Benchmark
+    public ValidationResult validateCapacity() {
+        return ValidationUtils.validateCapacity(capacity);
+    }
+
+    @Benchmark
+    public ValidationResult validateBookingDates() {
+        return ValidationUtils.validateBookingDates(checkIn, checkOut);
+    }
+}
@@ -1,8 +1,26 @@
 package com.hotelapp;
 
+import com.hotelapp.cache.CacheStats;
+import com.hotelapp.cache.CachingGuestDAO;
+import com.hotelapp.cache.CachingRoomDAO;
+import com.hotelapp.capture.RecordingBookingService;
+import com.hotelapp.capture.RecordingGuestService;
+import com.hotelapp.capture.RecordingRoomService;
+import com.hotelapp.capture.WorkloadRecorder;
 import com.hotelapp.dao.*;
 import com.hotelapp.database.Database;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.index.IndexedBookingDAO;
+import com.hotelapp.jfr.FlightRecording;
+import com.hotelapp.metrics.MeteredAuthService;
+import com.hotelapp.metrics.MeteredBookingService;
+import com.hotelapp.metrics.MeteredGuestService;
+import com.hotelapp.metrics.MeteredPaymentService;
+import com.hotelapp.metrics.MeteredRoomService;
+import com.hotelapp.metrics.Metrics;
+import com.hotelapp.occupancy.OccupancyCalendar;
 import com.hotelapp.service.*;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -10,7 +28,12 @@ import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * MainApp — точка входа JavaFX. Отвечает за инициализацию БД, сервисов
@@ -25,6 +48,10 @@ public class MainApp extends Application {
     private static BookingService bookingService;
     private static PaymentService paymentService;
     private static AuthService authService;
+    private static BookingIntervalIndex intervalIndex;
+    private static CachingRoomDAO roomCache;
+    private static CachingGuestDAO guestCache;
+    private static WorkloadRecorder workloadRecorder;
 
     private Stage primaryStage;
 
@@ -34,14 +61,27 @@ public class MainApp extends Application {
             logger.info("Запуск приложения Hotel Admin");
             this.primaryStage = stage;
             this.primaryStage.setTitle("Hotel Admin");
+            String jfrFile = System.getProperty("hotel.jfr.file");
+            if (jfrFile != null && !jfrFile.isBlank()) {
+                FlightRecording.start(Path.of(jfrFile));
+            }
 
             logger.info("Инициализация базы данных...");
             Database.initialize();
             logger.info("База данных инициализирована");
+            String captureFile = System.getProperty("hotel.capture.file");
+            if (captureFile != null && !captureFile.isBlank()) {
+                try {
+                    workloadRecorder = WorkloadRecorder.start(Path.of(captureFile));
+                } catch (IOException | SQLException e) {
+                    logger.warn("Не удалось начать запись нагрузки: {}", e.getMessage());
+                }
+            }
 
             logger.info("Инициализация сервисов...");
             initServices();
             logger.info("Сервисы инициализированы");
+            Metrics.startReporter(Long.getLong("hotel.metrics.logIntervalMs", 300_000));
 
             logger.info("Загрузка окна логина...");
             showLoginView();
@@ -53,18 +93,82 @@ public class MainApp extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (intervalIndex != null) {
+            List<String> problems = intervalIndex.verify(new BookingDAO());
+            if (problems.isEmpty()) {
+                logger.info("Индекс броней согласован с БД: {}", intervalIndex.getStats());
+            } else {
+                logger.warn("Индекс броней расходится с БД ({} расхождений): {}", problems.size(), problems);
+            }
+        }
+        if (roomCache != null) {
+            for (CacheStats stats : roomCache.getStats()) {
+                logger.info("{}", stats);
+            }
+            for (CacheStats stats : guestCache.getStats()) {
+                logger.info("{}", stats);
+            }
+        }
+        BackgroundTasks.shutdown();
+        if (workloadRecorder != null) {
+            workloadRecorder.close();
+        }
+        Metrics.stopReporter();
+        Metrics.logSummary();
+        logger.info("Завершение работы. {}", Database.getPoolStats());
+        Database.shutdown();
+        FlightRecording.stop();
+    }
+
     private void initServices() {
         RoomDAO roomDAO = new RoomDAO();
         GuestDAO guestDAO = new GuestDAO();
+        if (Boolean.getBoolean("hotel.daoCache")) {
+            int maxSize = Integer.getInteger("hotel.daoCache.maxSize", 1000);
+            long ttlMillis = Long.getLong("hotel.daoCache.ttlMs", 0);
+            roomCache = new CachingRoomDAO(maxSize, ttlMillis);
+            guestCache = new CachingGuestDAO(maxSize, ttlMillis);
+            roomDAO = roomCache;
+            guestDAO = guestCache;
+            logger.info("Кэш номеров и гостей включён: до {} записей, TTL {} мс", maxSize, ttlMillis);
+        }
         BookingDAO bookingDAO = new BookingDAO();
         PaymentDAO paymentDAO = new PaymentDAO();
         UserDAO userDAO = new UserDAO();
 
-        roomService = new RoomService(roomDAO);
-        guestService = new GuestService(guestDAO);
-        paymentService = new PaymentService(paymentDAO);
-        bookingService = new BookingService(bookingDAO, roomDAO, guestDAO, paymentDAO);
-        authService = new AuthService(userDAO);
+        if (Boolean.getBoolean("hotel.bookingIndex")) {
+            intervalIndex = BookingIntervalIndex.build(bookingDAO);
+            bookingDAO = new IndexedBookingDAO(intervalIndex);
+            logger.info("Индекс броней в памяти построен: {}", intervalIndex.getStats());
+        }
+
+        if (workloadRecorder != null) {
+            roomService = new RecordingRoomService(roomDAO, workloadRecorder);
+            guestService = new RecordingGuestService(guestDAO, workloadRecorder);
+        } else {
+            roomService = new MeteredRoomService(roomDAO);
+            guestService = new MeteredGuestService(guestDAO);
+        }
+        if (Boolean.parseBoolean(System.getProperty("hotel.guestIndex", "true"))) {
+            // На большой базе гостей построение занимает секунды — запуск его не ждёт
+            BackgroundTasks.submit("guestIndex", guestService::loadTrigramIndex,
+                    guestIndex -> logger.info("Триграммный индекс гостей построен: {}", guestIndex), null);
+        }
+        paymentService = new MeteredPaymentService(paymentDAO);
+        if (workloadRecorder != null) {
+            bookingService = new RecordingBookingService(bookingDAO, roomDAO, guestDAO, paymentDAO, intervalIndex,
+                    workloadRecorder);
+        } else {
+            bookingService = new MeteredBookingService(bookingDAO, roomDAO, guestDAO, paymentDAO, intervalIndex);
+        }
+        if (Boolean.getBoolean("hotel.occupancyCalendar")) {
+            OccupancyCalendar calendar = OccupancyCalendar.build(bookingDAO, LocalDate.now(), 30, 365);
+            bookingService.setOccupancyCalendar(calendar);
+            logger.info("Календарь занятости построен: {} — {}", calendar.getWindowStart(), calendar.getWindowEnd());
+        }
+        authService = new MeteredAuthService(userDAO);
     }
 
     private void showLoginView() throws Exception {
@@ -0,0 +1,72 @@
+package com.hotelapp.cache;
+
+/**
+ * CacheStats — снимок статистики кэша.
+ */
+public final class CacheStats {
+
+    private final String cacheName;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long invalidationCount;
+
+    CacheStats(String cacheName, int size, int maxSize, long hitCount, long missCount,
+               long evictionCount, long expirationCount, long invalidationCount) {
+        this.cacheName = cacheName;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("кэш %s: записей=%d/%d, попаданий=%d, промахов=%d (%.0f%%), вытеснено=%d, истекло=%d, сброшено=%d",
+                cacheName, size, maxSize, hitCount, missCount, getHitRate() * 100,
+                evictionCount, expirationCount, invalidationCount);
+    }
+}
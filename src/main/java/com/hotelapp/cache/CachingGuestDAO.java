@@ -0,0 +1,110 @@
+package com.hotelapp.cache;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.model.Guest;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CachingGuestDAO — GuestDAO с кэшем чтения для findAll и findById.
+ * Любая запись сбрасывает затронутые записи кэша, а строки, прочитанные до сброса, в кэш уже не кладутся;
+ * наружу отдаются копии, чтобы изменения объектов в контроллерах не попадали в кэш.
+ */
+public class CachingGuestDAO extends GuestDAO {
+
+    private static final String ALL = "all";
+
+    private final LruCache<Integer, Guest> byId;
+    private final LruCache<String, List<Guest>> lists;
+
+    public CachingGuestDAO(int maxSize, long ttlMillis) {
+        this(new LruCache<>("guests.byId", maxSize, ttlMillis), new LruCache<>("guests.all", 1, ttlMillis));
+    }
+
+    CachingGuestDAO(LruCache<Integer, Guest> byId, LruCache<String, List<Guest>> lists) {
+        this.byId = byId;
+        this.lists = lists;
+    }
+
+    @Override
+    public List<Guest> findAll() {
+        List<Guest> cached = lists.get(ALL);
+        if (cached == null) {
+            // Поколения берутся до чтения: если запись успеет сбросить кэш, прочитанное в него не попадёт
+            long listGeneration = lists.generation();
+            long idGeneration = byId.generation();
+            cached = super.findAll();
+            lists.putIfCurrent(ALL, cached, listGeneration);
+            for (Guest guest : cached) {
+                byId.putIfCurrent(guest.getId(), copy(guest), idGeneration);
+            }
+        }
+        List<Guest> result = new ArrayList<>(cached.size());
+        for (Guest guest : cached) {
+            result.add(copy(guest));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Guest> findById(int id) {
+        Guest cached = byId.get(id);
+        if (cached == null) {
+            long generation = byId.generation();
+            Optional<Guest> loaded = super.findById(id);
+            loaded.ifPresent(guest -> byId.putIfCurrent(id, copy(guest), generation));
+            return loaded;
+        }
+        return Optional.of(copy(cached));
+    }
+
+    @Override
+    public int insert(Guest guest) throws SQLException {
+        try {
+            return super.insert(guest);
+        } finally {
+            lists.invalidateAll();
+        }
+    }
+
+    @Override
+    public void update(Guest guest) throws SQLException {
+        try {
+            super.update(guest);
+        } finally {
+            invalidate(guest.getId());
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        try {
+            super.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    public List<CacheStats> getStats() {
+        return List.of(byId.getStats(), lists.getStats());
+    }
+
+    private void invalidate(int id) {
+        byId.invalidate(id);
+        lists.invalidateAll();
+    }
+
+    private static Guest copy(Guest guest) {
+        Guest copy = new Guest(guest.getId(), guest.getName(), guest.getPassport(), guest.getPhone());
+        copy.setVersion(guest.getVersion());
+        return copy;
+    }
+}
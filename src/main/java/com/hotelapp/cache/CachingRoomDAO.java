@@ -0,0 +1,121 @@
+package com.hotelapp.cache;
+
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.model.Room;
+import com.hotelapp.model.Room.RoomStatus;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CachingRoomDAO — RoomDAO с кэшем чтения для findAll и findById.
+ * Любая запись сбрасывает затронутые записи кэша, а строки, прочитанные до сброса, в кэш уже не кладутся;
+ * наружу отдаются копии, чтобы изменения объектов в контроллерах не попадали в кэш.
+ */
+public class CachingRoomDAO extends RoomDAO {
+
+    private static final String ALL = "all";
+
+    private final LruCache<Integer, Room> byId;
+    private final LruCache<String, List<Room>> lists;
+
+    public CachingRoomDAO(int maxSize, long ttlMillis) {
+        this(new LruCache<>("rooms.byId", maxSize, ttlMillis), new LruCache<>("rooms.all", 1, ttlMillis));
+    }
+
+    CachingRoomDAO(LruCache<Integer, Room> byId, LruCache<String, List<Room>> lists) {
+        this.byId = byId;
+        this.lists = lists;
+    }
+
+    @Override
+    public List<Room> findAll() {
+        List<Room> cached = lists.get(ALL);
+        if (cached == null) {
+            // Поколения берутся до чтения: если запись успеет сбросить кэш, прочитанное в него не попадёт
+            long listGeneration = lists.generation();
+            long idGeneration = byId.generation();
+            cached = super.findAll();
+            lists.putIfCurrent(ALL, cached, listGeneration);
+            for (Room room : cached) {
+                byId.putIfCurrent(room.getId(), copy(room), idGeneration);
+            }
+        }
+        List<Room> result = new ArrayList<>(cached.size());
+        for (Room room : cached) {
+            result.add(copy(room));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Room> findById(int id) {
+        Room cached = byId.get(id);
+        if (cached == null) {
+            long generation = byId.generation();
+            Optional<Room> loaded = super.findById(id);
+            loaded.ifPresent(room -> byId.putIfCurrent(id, copy(room), generation));
+            return loaded;
+        }
+        return Optional.of(copy(cached));
+    }
+
+    @Override
+    public void insert(Room room) throws SQLException {
+        try {
+            super.insert(room);
+        } finally {
+            lists.invalidateAll();
+        }
+    }
+
+    @Override
+    public void update(Room room) throws SQLException {
+        try {
+            super.update(room);
+        } finally {
+            invalidate(room.getId());
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        try {
+            super.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void updateStatus(int id, RoomStatus status) throws SQLException {
+        try {
+            super.updateStatus(id, status);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    public List<CacheStats> getStats() {
+        return List.of(byId.getStats(), lists.getStats());
+    }
+
+    private void invalidate(int id) {
+        byId.invalidate(id);
+        lists.invalidateAll();
+    }
+
+    private static Room copy(Room room) {
+        Room copy = new Room(room.getId(), room.getNumber(), room.getType(), room.getPrice(),
+                room.getCapacity(), room.getStatus());
+        copy.setVersion(room.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,129 @@
+package com.hotelapp.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * LruCache — потокобезопасный кэш с ограничением размера (вытесняется давно не читанная запись)
+ * и необязательным временем жизни записей. Считает попадания, промахи и вытеснения.
+ * Каждый сброс меняет поколение кэша: значение, прочитанное из БД до сброса, putIfCurrent уже не положит.
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+    private long invalidationCount;
+    private long generation;
+
+    /**
+     * @param ttlMillis время жизни записи; 0 — без ограничения
+     */
+    public LruCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    LruCache(String name, int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Значение по ключу или null, если его нет или истёк срок жизни.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            expirationCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Текущее поколение кэша. Берётся до чтения из БД и передаётся в putIfCurrent.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Кладёт значение, только если с момента generation() кэш не сбрасывался.
+     * Иначе значение могло быть прочитано до записи в БД, и в кэш оно не попадает.
+     */
+    public synchronized boolean putIfCurrent(K key, V value, long generation) {
+        if (generation != this.generation) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        // Поколение меняется и без записи в кэше: её может прямо сейчас загружать другой поток
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidationCount++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidationCount += entries.size();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), maxSize, hitCount, missCount,
+                evictionCount, expirationCount, invalidationCount);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && clock.getAsLong() - entry.loadedAtNanos >= ttlNanos;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAtNanos;
+
+        private Entry(V value, long loadedAtNanos) {
+            this.value = value;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
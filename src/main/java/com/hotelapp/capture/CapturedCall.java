@@ -0,0 +1,62 @@
+package com.hotelapp.capture;
+
+import java.util.Arrays;
+
+/**
+ * CapturedCall — один записанный вызов сервиса: когда начался (от начала записи), сколько длился,
+ * в каком потоке, с какими аргументами и завершился ли исключением.
+ */
+public final class CapturedCall {
+
+    private final ServiceCall call;
+    private final long offsetNanos;
+    private final long durationNanos;
+    private final int thread;
+    private final boolean failed;
+    private final Object[] args;
+
+    CapturedCall(ServiceCall call, long offsetNanos, long durationNanos, int thread, boolean failed, Object[] args) {
+        this.call = call;
+        this.offsetNanos = offsetNanos;
+        this.durationNanos = durationNanos;
+        this.thread = thread;
+        this.failed = failed;
+        this.args = args;
+    }
+
+    public ServiceCall getCall() {
+        return call;
+    }
+
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Порядковый номер потока приложения, из которого пришёл вызов (1 — первый записанный поток).
+     */
+    public int getThread() {
+        return thread;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Аргументы в том виде, в котором их получил метод. Перечисления хранятся именами (String).
+     */
+    public Object[] getArgs() {
+        return args.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%.3f мс %s%s (%.3f мс%s, поток %d)", offsetNanos / 1e6, call, Arrays.toString(args),
+                durationNanos / 1e6, failed ? ", ошибка" : "", thread);
+    }
+}
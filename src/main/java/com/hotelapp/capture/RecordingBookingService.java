@@ -0,0 +1,112 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.metrics.MeteredBookingService;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Room;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RecordingBookingService — BookingService с метриками, который дополнительно пишет каждый вызов в журнал нагрузки.
+ */
+public class RecordingBookingService extends MeteredBookingService {
+
+    private final WorkloadRecorder recorder;
+
+    public RecordingBookingService(BookingDAO bookingDAO, RoomDAO roomDAO, GuestDAO guestDAO, PaymentDAO paymentDAO,
+                                   BookingIntervalIndex intervalIndex, WorkloadRecorder recorder) {
+        super(bookingDAO, roomDAO, guestDAO, paymentDAO, intervalIndex);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public List<Booking> getAllBookings() {
+        return recorder.call(ServiceCall.GET_ALL_BOOKINGS, super::getAllBookings);
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(String cursor, int pageSize) {
+        return recorder.call(ServiceCall.GET_BOOKINGS_PAGE, () -> super.getBookingsPage(cursor, pageSize),
+                cursor, pageSize);
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(BookingDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        return recorder.call(ServiceCall.GET_BOOKINGS_PAGE_SORTED,
+                () -> super.getBookingsPage(key, ascending, cursor, pageSize), key, ascending, cursor, pageSize);
+    }
+
+    @Override
+    public List<Booking> getBookingsRange(BookingDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return recorder.call(ServiceCall.GET_BOOKINGS_RANGE,
+                () -> super.getBookingsRange(key, ascending, offset, limit), key, ascending, offset, limit);
+    }
+
+    @Override
+    public int countBookings() {
+        return recorder.call(ServiceCall.COUNT_BOOKINGS, super::countBookings);
+    }
+
+    @Override
+    public List<Room> getAvailableRooms(LocalDate start, LocalDate end) {
+        return recorder.call(ServiceCall.GET_AVAILABLE_ROOMS, () -> super.getAvailableRooms(start, end), start, end);
+    }
+
+    @Override
+    public List<Room> getAvailableRooms(LocalDate start, LocalDate end, String type, Integer minCapacity,
+                                        Double maxPrice) {
+        return recorder.call(ServiceCall.GET_AVAILABLE_ROOMS_FILTERED,
+                () -> super.getAvailableRooms(start, end, type, minCapacity, maxPrice),
+                start, end, type, minCapacity, maxPrice);
+    }
+
+    @Override
+    public void createBooking(int guestId, int roomId, LocalDate start, LocalDate end) {
+        recorder.run(ServiceCall.CREATE_BOOKING, () -> super.createBooking(guestId, roomId, start, end),
+                guestId, roomId, start, end);
+    }
+
+    @Override
+    public void checkIn(int bookingId) {
+        recorder.run(ServiceCall.CHECK_IN, () -> super.checkIn(bookingId), bookingId);
+    }
+
+    @Override
+    public double checkOut(int bookingId, boolean paid) {
+        return recorder.call(ServiceCall.CHECK_OUT, () -> super.checkOut(bookingId, paid), bookingId, paid);
+    }
+
+    @Override
+    public double calculateTotalCost(Booking booking) {
+        return recorder.call(ServiceCall.CALCULATE_TOTAL_COST, () -> super.calculateTotalCost(booking), booking);
+    }
+
+    @Override
+    public List<Room> findFirstFreeRooms(String type, LocalDate start, LocalDate end, int limit) {
+        return recorder.call(ServiceCall.FIND_FIRST_FREE_ROOMS, () -> super.findFirstFreeRooms(type, start, end, limit),
+                type, start, end, limit);
+    }
+
+    @Override
+    public int[] getNightlyOccupancy(LocalDate start, LocalDate end) {
+        return recorder.call(ServiceCall.GET_NIGHTLY_OCCUPANCY, () -> super.getNightlyOccupancy(start, end),
+                start, end);
+    }
+
+    @Override
+    public List<Booking> getBookingsForCheckIn(LocalDate date) {
+        return recorder.call(ServiceCall.GET_BOOKINGS_FOR_CHECK_IN, () -> super.getBookingsForCheckIn(date), date);
+    }
+
+    @Override
+    public List<Booking> getBookingsForCheckOut() {
+        return recorder.call(ServiceCall.GET_BOOKINGS_FOR_CHECK_OUT, super::getBookingsForCheckOut);
+    }
+}
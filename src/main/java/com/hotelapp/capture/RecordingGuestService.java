@@ -0,0 +1,83 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
+import com.hotelapp.index.DuplicatePair;
+import com.hotelapp.index.GuestMatch;
+import com.hotelapp.metrics.MeteredGuestService;
+import com.hotelapp.model.Guest;
+
+import java.util.List;
+
+/**
+ * RecordingGuestService — GuestService с метриками, который дополнительно пишет каждый вызов в журнал нагрузки.
+ */
+public class RecordingGuestService extends MeteredGuestService {
+
+    private final WorkloadRecorder recorder;
+
+    public RecordingGuestService(GuestDAO guestDAO, WorkloadRecorder recorder) {
+        super(guestDAO);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public List<Guest> getAllGuests() {
+        return recorder.call(ServiceCall.GET_ALL_GUESTS, super::getAllGuests);
+    }
+
+    @Override
+    public Page<Guest> getGuestsPage(String cursor, int pageSize) {
+        return recorder.call(ServiceCall.GET_GUESTS_PAGE, () -> super.getGuestsPage(cursor, pageSize),
+                cursor, pageSize);
+    }
+
+    @Override
+    public Page<Guest> getGuestsPage(GuestDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        return recorder.call(ServiceCall.GET_GUESTS_PAGE_SORTED,
+                () -> super.getGuestsPage(key, ascending, cursor, pageSize), key, ascending, cursor, pageSize);
+    }
+
+    @Override
+    public List<Guest> getGuestsRange(GuestDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return recorder.call(ServiceCall.GET_GUESTS_RANGE, () -> super.getGuestsRange(key, ascending, offset, limit),
+                key, ascending, offset, limit);
+    }
+
+    @Override
+    public List<Guest> searchGuests(String query, int limit) {
+        return recorder.call(ServiceCall.SEARCH_GUESTS, () -> super.searchGuests(query, limit), query, limit);
+    }
+
+    @Override
+    public List<Guest> searchGuestsFullText(String query, int limit) {
+        return recorder.call(ServiceCall.SEARCH_GUESTS_FULL_TEXT, () -> super.searchGuestsFullText(query, limit),
+                query, limit);
+    }
+
+    @Override
+    public List<GuestMatch> findSimilarGuests(String name, String phone, int excludeId, int limit) {
+        return recorder.call(ServiceCall.FIND_SIMILAR_GUESTS,
+                () -> super.findSimilarGuests(name, phone, excludeId, limit), name, phone, excludeId, limit);
+    }
+
+    @Override
+    public List<DuplicatePair> findDuplicates() {
+        return recorder.call(ServiceCall.FIND_DUPLICATES, super::findDuplicates);
+    }
+
+    @Override
+    public int countGuests() {
+        return recorder.call(ServiceCall.COUNT_GUESTS, super::countGuests);
+    }
+
+    @Override
+    public void saveGuest(Guest guest) {
+        recorder.run(ServiceCall.SAVE_GUEST, () -> super.saveGuest(guest), guest);
+    }
+
+    @Override
+    public void deleteGuest(Guest guest) {
+        recorder.run(ServiceCall.DELETE_GUEST, () -> super.deleteGuest(guest), guest);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.dao.Changes;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.metrics.MeteredRoomService;
+import com.hotelapp.model.Room;
+import com.hotelapp.model.Room.RoomStatus;
+
+import java.util.List;
+
+/**
+ * RecordingRoomService — RoomService с метриками, который дополнительно пишет каждый вызов в журнал нагрузки.
+ */
+public class RecordingRoomService extends MeteredRoomService {
+
+    private final WorkloadRecorder recorder;
+
+    public RecordingRoomService(RoomDAO roomDAO, WorkloadRecorder recorder) {
+        super(roomDAO);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return recorder.call(ServiceCall.GET_ALL_ROOMS, super::getAllRooms);
+    }
+
+    @Override
+    public Changes<Room> getRoomChanges(long since) {
+        return recorder.call(ServiceCall.GET_ROOM_CHANGES, () -> super.getRoomChanges(since), since);
+    }
+
+    @Override
+    public void saveRoom(Room room) {
+        recorder.run(ServiceCall.SAVE_ROOM, () -> super.saveRoom(room), room);
+    }
+
+    @Override
+    public void deleteRoom(Room room) {
+        recorder.run(ServiceCall.DELETE_ROOM, () -> super.deleteRoom(room), room);
+    }
+
+    @Override
+    public void updateStatus(int id, RoomStatus status) {
+        recorder.run(ServiceCall.UPDATE_ROOM_STATUS, () -> super.updateStatus(id, status), id, status);
+    }
+}
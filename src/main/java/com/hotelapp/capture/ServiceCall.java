@@ -0,0 +1,68 @@
+package com.hotelapp.capture;
+
+/**
+ * ServiceCall — записываемые методы сервисов. Коды хранятся в журнале нагрузки,
+ * поэтому существующие не меняются, новые только добавляются.
+ */
+public enum ServiceCall {
+
+    GET_ALL_BOOKINGS(1),
+    GET_BOOKINGS_PAGE(2),
+    GET_BOOKINGS_PAGE_SORTED(3),
+    GET_BOOKINGS_RANGE(4),
+    COUNT_BOOKINGS(5),
+    GET_AVAILABLE_ROOMS(6),
+    GET_AVAILABLE_ROOMS_FILTERED(7),
+    CREATE_BOOKING(8),
+    CHECK_IN(9),
+    CHECK_OUT(10),
+    CALCULATE_TOTAL_COST(11),
+    FIND_FIRST_FREE_ROOMS(12),
+    GET_NIGHTLY_OCCUPANCY(13),
+    GET_BOOKINGS_FOR_CHECK_IN(14),
+    GET_BOOKINGS_FOR_CHECK_OUT(15),
+
+    GET_ALL_GUESTS(30),
+    GET_GUESTS_PAGE(31),
+    GET_GUESTS_PAGE_SORTED(32),
+    GET_GUESTS_RANGE(33),
+    SEARCH_GUESTS(34),
+    SEARCH_GUESTS_FULL_TEXT(35),
+    FIND_SIMILAR_GUESTS(36),
+    FIND_DUPLICATES(37),
+    COUNT_GUESTS(38),
+    SAVE_GUEST(39),
+    DELETE_GUEST(40),
+
+    GET_ALL_ROOMS(60),
+    GET_ROOM_CHANGES(61),
+    SAVE_ROOM(62),
+    DELETE_ROOM(63),
+    UPDATE_ROOM_STATUS(64);
+
+    private static final ServiceCall[] BY_CODE = new ServiceCall[128];
+
+    static {
+        for (ServiceCall call : values()) {
+            BY_CODE[call.code] = call;
+        }
+    }
+
+    private final int code;
+
+    ServiceCall(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static ServiceCall fromCode(int code) {
+        ServiceCall call = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (call == null) {
+            throw new IllegalArgumentException("Неизвестный код вызова в журнале: " + code);
+        }
+        return call;
+    }
+}
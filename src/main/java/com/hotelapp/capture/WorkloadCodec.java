@@ -0,0 +1,223 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import com.hotelapp.model.Room;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * WorkloadCodec — двоичный формат журнала нагрузки. Целые пишутся varint (со знаком — zigzag),
+ * каждое значение аргумента предваряется байтом типа, поэтому журнал читается без знания сигнатур методов.
+ */
+final class WorkloadCodec {
+
+    static final int MAGIC = 0x48434150; // "HCAP"
+    static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int FALSE = 4;
+    private static final int TRUE = 5;
+    private static final int STRING = 6;
+    private static final int DATE = 7;
+    private static final int ENUM = 8;
+    private static final int GUEST = 9;
+    private static final int ROOM = 10;
+    private static final int BOOKING = 11;
+
+    private WorkloadCodec() {
+    }
+
+    static void writeArgs(DataOutput out, Object[] args) throws IOException {
+        writeVarLong(out, args.length);
+        for (Object arg : args) {
+            writeValue(out, arg);
+        }
+    }
+
+    static Object[] readArgs(DataInput in) throws IOException {
+        int count = (int) readVarLong(in);
+        Object[] args = new Object[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = readValue(in);
+        }
+        return args;
+    }
+
+    static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            writeSigned(out, i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            writeSigned(out, l);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? TRUE : FALSE);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof LocalDate date) {
+            out.writeByte(DATE);
+            writeSigned(out, date.toEpochDay());
+        } else if (value instanceof Enum<?> e) {
+            out.writeByte(ENUM);
+            writeString(out, e.name());
+        } else if (value instanceof Guest guest) {
+            out.writeByte(GUEST);
+            writeSigned(out, guest.getId());
+            writeNullableString(out, guest.getName());
+            writeNullableString(out, guest.getPassport());
+            writeNullableString(out, guest.getPhone());
+            writeSigned(out, guest.getVersion());
+        } else if (value instanceof Room room) {
+            out.writeByte(ROOM);
+            writeSigned(out, room.getId());
+            writeNullableString(out, room.getNumber());
+            writeNullableString(out, room.getType());
+            out.writeDouble(room.getPrice());
+            writeSigned(out, room.getCapacity());
+            writeNullableString(out, room.getStatus() == null ? null : room.getStatus().name());
+            writeSigned(out, room.getVersion());
+        } else if (value instanceof Booking booking) {
+            out.writeByte(BOOKING);
+            writeSigned(out, booking.getId());
+            writeSigned(out, booking.getRoomId());
+            writeSigned(out, booking.getGuestId());
+            writeValue(out, booking.getCheckInDate());
+            writeValue(out, booking.getCheckOutDate());
+            writeNullableString(out, booking.getStatus() == null ? null : booking.getStatus().name());
+            writeSigned(out, booking.getVersion());
+        } else {
+            throw new IllegalArgumentException("Тип аргумента не поддерживается журналом: "
+                    + value.getClass().getName());
+        }
+    }
+
+    static Object readValue(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return (int) readSigned(in);
+            case LONG:
+                return readSigned(in);
+            case DOUBLE:
+                return in.readDouble();
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case STRING:
+            case ENUM:
+                return readString(in);
+            case DATE:
+                return LocalDate.ofEpochDay(readSigned(in));
+            case GUEST: {
+                Guest guest = new Guest((int) readSigned(in), readNullableString(in), readNullableString(in),
+                        readNullableString(in));
+                guest.setVersion(readSigned(in));
+                return guest;
+            }
+            case ROOM: {
+                int id = (int) readSigned(in);
+                String number = readNullableString(in);
+                String type = readNullableString(in);
+                double price = in.readDouble();
+                int capacity = (int) readSigned(in);
+                String status = readNullableString(in);
+                Room room = new Room(id, number, type, price, capacity,
+                        status == null ? null : Room.RoomStatus.valueOf(status));
+                room.setVersion(readSigned(in));
+                return room;
+            }
+            case BOOKING: {
+                int id = (int) readSigned(in);
+                int roomId = (int) readSigned(in);
+                int guestId = (int) readSigned(in);
+                LocalDate checkIn = (LocalDate) readValue(in);
+                LocalDate checkOut = (LocalDate) readValue(in);
+                String status = readNullableString(in);
+                Booking booking = new Booking(id, roomId, guestId, checkIn, checkOut,
+                        status == null ? null : Booking.BookingStatus.valueOf(status));
+                booking.setVersion(readSigned(in));
+                return booking;
+            }
+            default:
+                throw new IOException("Неизвестный тип значения в журнале: " + tag);
+        }
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Повреждённое число в журнале");
+    }
+
+    static void writeSigned(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readSigned(DataInput in) throws IOException {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(STRING);
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag == NULL) {
+            return null;
+        }
+        if (tag != STRING) {
+            throw new IOException("Ожидалась строка, тип " + tag);
+        }
+        return readString(in);
+    }
+}
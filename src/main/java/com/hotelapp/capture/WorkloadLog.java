@@ -0,0 +1,88 @@
+package com.hotelapp.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * WorkloadLog — прочитанный журнал нагрузки. Вызовы упорядочены по времени начала;
+ * в журнале они лежат в порядке завершения. Оборванная последняя запись (приложение упало) отбрасывается.
+ */
+public final class WorkloadLog {
+
+    private final long startedAtMillis;
+    private final String source;
+    private final List<CapturedCall> calls;
+
+    private WorkloadLog(long startedAtMillis, String source, List<CapturedCall> calls) {
+        this.startedAtMillis = startedAtMillis;
+        this.source = source;
+        this.calls = calls;
+    }
+
+    public static WorkloadLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != WorkloadCodec.MAGIC) {
+                throw new IOException("Файл не является журналом нагрузки: " + file);
+            }
+            long version = WorkloadCodec.readVarLong(in);
+            if (version != WorkloadCodec.VERSION) {
+                throw new IOException("Неподдерживаемая версия журнала нагрузки: " + version);
+            }
+            long startedAt = in.readLong();
+            String source = WorkloadCodec.readString(in);
+            List<CapturedCall> calls = new ArrayList<>();
+            while (true) {
+                int code = in.read();
+                if (code < 0) {
+                    break;
+                }
+                try {
+                    ServiceCall call = ServiceCall.fromCode(code);
+                    long offset = WorkloadCodec.readVarLong(in);
+                    long duration = WorkloadCodec.readVarLong(in);
+                    int thread = (int) WorkloadCodec.readVarLong(in);
+                    boolean failed = (in.readUnsignedByte() & 1) != 0;
+                    calls.add(new CapturedCall(call, offset, duration, thread, failed, WorkloadCodec.readArgs(in)));
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+            calls.sort(Comparator.comparingLong(CapturedCall::getOffsetNanos));
+            return new WorkloadLog(startedAt, source, Collections.unmodifiableList(calls));
+        }
+    }
+
+    /**
+     * Время начала записи, мс от эпохи.
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * JDBC URL базы, на которой велась запись.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public List<CapturedCall> getCalls() {
+        return calls;
+    }
+
+    public long getDurationNanos() {
+        long end = 0;
+        for (CapturedCall call : calls) {
+            end = Math.max(end, call.getOffsetNanos() + call.getDurationNanos());
+        }
+        return end;
+    }
+}
@@ -0,0 +1,173 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.database.Database;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * WorkloadRecorder — запись вызовов сервисов в журнал нагрузки для воспроизведения в WorkloadReplayer.
+ * При старте рядом с журналом сохраняется снимок БД (файл журнала + ".db"), с которого начинается воспроизведение.
+ * Пишутся только внешние вызовы: вложенные (checkOut → calculateTotalCost) повторятся сами.
+ * Аргументы кодируются до выполнения метода, так как сервисы изменяют переданные объекты (id после вставки).
+ */
+public final class WorkloadRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadRecorder.class);
+
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ThreadLocal<Integer> threadIndex = ThreadLocal.withInitial(threads::incrementAndGet);
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final long startNanos;
+    private long lastFlushNanos;
+    private long recorded;
+    private boolean closed;
+
+    private WorkloadRecorder(Path file, DataOutputStream out, long startNanos) {
+        this.file = file;
+        this.out = out;
+        this.startNanos = startNanos;
+        this.lastFlushNanos = startNanos;
+    }
+
+    /**
+     * Сохраняет снимок текущей БД и начинает запись в file.
+     */
+    public static WorkloadRecorder start(Path file) throws IOException, SQLException {
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path snapshot = snapshotOf(absolute);
+        Files.deleteIfExists(snapshot);
+        try (Connection connection = Database.getConnection();
+             Statement st = connection.createStatement()) {
+            st.execute("VACUUM INTO '" + snapshot.toString().replace("'", "''") + "'");
+        }
+
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(absolute), 64 * 1024));
+        long startNanos = System.nanoTime();
+        out.writeInt(WorkloadCodec.MAGIC);
+        WorkloadCodec.writeVarLong(out, WorkloadCodec.VERSION);
+        out.writeLong(System.currentTimeMillis());
+        WorkloadCodec.writeString(out, Database.getConfig().getUrl());
+        out.flush();
+        logger.info("Запись нагрузки начата: {} (снимок БД {})", absolute, snapshot);
+        return new WorkloadRecorder(absolute, out, startNanos);
+    }
+
+    /**
+     * Файл снимка БД, сохраняемого вместе с журналом.
+     */
+    public static Path snapshotOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".db");
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    /**
+     * Выполняет body и записывает вызов call с аргументами args.
+     */
+    public <T> T call(ServiceCall call, Supplier<T> body, Object... args) {
+        int[] level = depth.get();
+        if (level[0] > 0) {
+            return body.get();
+        }
+        byte[] encoded = encode(call, args);
+        long started = System.nanoTime();
+        boolean failed = true;
+        level[0]++;
+        try {
+            T result = body.get();
+            failed = false;
+            return result;
+        } finally {
+            level[0]--;
+            if (encoded != null) {
+                write(call, started, System.nanoTime() - started, failed, encoded);
+            }
+        }
+    }
+
+    public void run(ServiceCall call, Runnable body, Object... args) {
+        call(call, () -> {
+            body.run();
+            return null;
+        }, args);
+    }
+
+    private byte[] encode(ServiceCall call, Object[] args) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+            WorkloadCodec.writeArgs(new DataOutputStream(buffer), args);
+            return buffer.toByteArray();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Вызов {} не записан: {}", call, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void write(ServiceCall call, long started, long duration, boolean failed, byte[] args) {
+        if (closed) {
+            return;
+        }
+        try {
+            out.writeByte(call.getCode());
+            WorkloadCodec.writeVarLong(out, Math.max(0, started - startNanos));
+            WorkloadCodec.writeVarLong(out, duration);
+            WorkloadCodec.writeVarLong(out, threadIndex.get());
+            out.writeByte(failed ? 1 : 0);
+            out.write(args);
+            recorded++;
+            long now = System.nanoTime();
+            if (now - lastFlushNanos > FLUSH_INTERVAL_NANOS) {
+                out.flush();
+                lastFlushNanos = now;
+            }
+        } catch (IOException e) {
+            // Ошибка журнала не должна мешать работе приложения — запись прекращается
+            logger.warn("Запись нагрузки остановлена: {}", e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closeQuietly();
+            logger.info("Запись нагрузки завершена: {} вызовов в {}", recorded, file);
+        }
+    }
+
+    private void closeQuietly() {
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.warn("Не удалось закрыть журнал нагрузки {}: {}", file, e.getMessage());
+        }
+    }
+}
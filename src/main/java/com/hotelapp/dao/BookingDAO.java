@@ -1,6 +1,8 @@
 package com.hotelapp.dao;
 
 import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
 import com.hotelapp.model.Booking;
 import com.hotelapp.model.Booking.BookingStatus;
 
@@ -13,7 +15,61 @@ import java.util.Optional;
 
 public class BookingDAO {
 
+    private static final MethodMetrics FIND_ALL = Metrics.method("BookingDAO.findAll", "bookings");
+    private static final MethodMetrics FIND_PAGE = Metrics.method("BookingDAO.findPage", "bookings");
+    private static final MethodMetrics FIND_RANGE = Metrics.method("BookingDAO.findRange", "bookings");
+    private static final MethodMetrics COUNT = Metrics.method("BookingDAO.count", "bookings");
+    private static final MethodMetrics FIND_BY_STATUS = Metrics.method("BookingDAO.findByStatus", "bookings");
+    private static final MethodMetrics FIND_BY_ID = Metrics.method("BookingDAO.findById", "bookings");
+    private static final MethodMetrics FIND_FOR_CHECK_IN = Metrics.method("BookingDAO.findForCheckIn", "bookings");
+    private static final MethodMetrics FIND_OVERLAPPING = Metrics.method("BookingDAO.findOverlapping", "bookings");
+    private static final MethodMetrics INSERT = Metrics.method("BookingDAO.insert", "bookings");
+    private static final MethodMetrics INSERT_IF_FREE = Metrics.method("BookingDAO.insertIfFree", "bookings");
+    private static final MethodMetrics UPDATE_STATUS = Metrics.method("BookingDAO.updateStatus", "bookings");
+    private static final MethodMetrics CHANGE_STATUS = Metrics.method("BookingDAO.changeStatus", "bookings");
+    private static final MethodMetrics HAS_OVERLAPS = Metrics.method("BookingDAO.hasOverlaps", "bookings");
+    private static final MethodMetrics FIND_CHANGED_SINCE = Metrics.method("BookingDAO.findChangedSince", "bookings");
+
+    private static final String BASE_SELECT = """
+            SELECT b.*, r.number AS room_number, g.name AS guest_name
+            FROM bookings b
+            JOIN rooms r ON b.room_id = r.id
+            JOIN guests g ON b.guest_id = g.id""";
+
+    // Запросы по периодам вынесены в константы, чтобы тест мог проверить их план выполнения
+    static final String FOR_CHECK_IN_SQL = """
+            SELECT b.*, r.number AS room_number, g.name AS guest_name
+            FROM bookings b
+            JOIN rooms r ON b.room_id = r.id
+            JOIN guests g ON b.guest_id = g.id
+            WHERE b.status='BOOKED' AND b.check_in_date<=?
+            ORDER BY b.check_in_date
+            """;
+
+    static final String OVERLAPPING_SQL = """
+            SELECT b.*, r.number AS room_number, g.name AS guest_name
+            FROM bookings_rtree t
+            CROSS JOIN bookings b ON b.id = t.id
+            JOIN rooms r ON b.room_id = r.id
+            JOIN guests g ON b.guest_id = g.id
+            WHERE t.check_in < ? AND t.check_out > ?
+            ORDER BY b.check_in_date
+            """;
+
+    // R*Tree отбирает брони номера, пересекающиеся с периодом по обеим границам сразу,
+    // статус проверяется по первичному ключу только у этих кандидатов. CROSS JOIN фиксирует
+    // порядок: иначе планировщик начинает с индекса по статусу и перебирает все активные брони
+    static final String HAS_OVERLAPS_SQL = """
+            SELECT 1 FROM bookings_rtree t
+            CROSS JOIN bookings b ON b.id = t.id
+            WHERE t.room_lo <= ? AND t.room_hi >= ?
+              AND t.check_in < ? AND t.check_out > ?
+              AND b.status IN ('BOOKED', 'CHECKED_IN')
+            LIMIT 1
+            """;
+
     public List<Booking> findAll() {
+        long startNanos = System.nanoTime();
         String sql = """
                 SELECT b.*, r.number AS room_number, g.name AS guest_name
                 FROM bookings b
@@ -22,7 +78,7 @@ public class BookingDAO {
                 ORDER BY b.check_in_date
                 """;
         List<Booking> bookings = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
@@ -30,11 +86,103 @@ public class BookingDAO {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка чтения bookings: " + e.getMessage());
+            return FIND_ALL.failed(startNanos, bookings);
+        }
+        return FIND_ALL.done(startNanos, bookings);
+    }
+
+    /**
+     * Страница броней в порядке (check_in_date, id), начиная после cursor (null — с начала).
+     */
+    public Page<Booking> findPage(String cursor, int pageSize) {
+        return findPage(SortKey.CHECK_IN, true, cursor, pageSize);
+    }
+
+    /**
+     * Страница броней в порядке (key, id), начиная после cursor (null — с начала).
+     * Keyset-пагинация: следующая страница ищется от последнего ключа, без OFFSET.
+     * Ошибка БД не маскируется пустой страницей: findPage, findRange и count бросают RuntimeException.
+     */
+    public Page<Booking> findPage(SortKey key, boolean ascending, String cursor, int pageSize) {
+        long startNanos = System.nanoTime();
+        String sql = pageQuery(key, ascending, cursor != null);
+        List<Booking> result = new ArrayList<>(pageSize + 1);
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (cursor != null) {
+                String[] keys = Page.decodeCursor(cursor, 3);
+                if (!key.name().equals(keys[0])) {
+                    throw new IllegalArgumentException("Курсор получен для другой сортировки: " + keys[0]);
+                }
+                if (key.numeric) {
+                    ps.setLong(index++, Long.parseLong(keys[1]));
+                } else {
+                    ps.setString(index++, keys[1]);
+                }
+                ps.setInt(index++, Integer.parseInt(keys[2]));
+            }
+            ps.setInt(index, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            // Пустая страница выглядела бы как успешно прочитанная: отображение должно узнать об ошибке
+            FIND_PAGE.failed(startNanos);
+            throw new RuntimeException("Ошибка чтения страницы bookings", e);
+        }
+        if (result.size() <= pageSize) {
+            return FIND_PAGE.done(startNanos, new Page<>(result, null));
+        }
+        result.remove(pageSize);
+        return FIND_PAGE.done(startNanos, new Page<>(result, cursorOf(result.get(pageSize - 1), key)));
+    }
+
+    /**
+     * Брони [offset, offset + limit) в порядке (key, id). Для перехода в произвольное место списка,
+     * когда курсора предыдущей страницы нет; последовательное чтение — через findPage.
+     */
+    public List<Booking> findRange(SortKey key, boolean ascending, int offset, int limit) {
+        long startNanos = System.nanoTime();
+        String sql = rangeQuery(key, ascending);
+        List<Booking> result = new ArrayList<>(limit);
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            FIND_RANGE.failed(startNanos);
+            throw new RuntimeException("Ошибка чтения bookings", e);
         }
-        return bookings;
+        return FIND_RANGE.done(startNanos, result);
+    }
+
+    public int count() {
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM bookings")) {
+            return COUNT.done(startNanos, rs.next() ? rs.getInt(1) : 0);
+        } catch (SQLException e) {
+            COUNT.failed(startNanos);
+            throw new RuntimeException("Ошибка подсчёта bookings", e);
+        }
+    }
+
+    /**
+     * Курсор, указывающий на позицию сразу после booking в порядке key.
+     */
+    public static String cursorOf(Booking booking, SortKey key) {
+        return Page.encodeCursor(key.name(), key.value(booking), booking.getId());
     }
 
     public List<Booking> findByStatus(BookingStatus status) {
+        long startNanos = System.nanoTime();
         String sql = """
                 SELECT b.*, r.number AS room_number, g.name AS guest_name
                 FROM bookings b
@@ -44,7 +192,7 @@ public class BookingDAO {
                 ORDER BY b.check_in_date
                 """;
         List<Booking> result = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, status.name());
             ResultSet rs = ps.executeQuery();
@@ -53,11 +201,13 @@ public class BookingDAO {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка выборки бронирований: " + e.getMessage());
+            return FIND_BY_STATUS.failed(startNanos, result);
         }
-        return result;
+        return FIND_BY_STATUS.done(startNanos, result);
     }
 
     public Optional<Booking> findById(int id) {
+        long startNanos = System.nanoTime();
         String sql = """
                 SELECT b.*, r.number AS room_number, g.name AS guest_name
                 FROM bookings b
@@ -65,86 +215,213 @@ public class BookingDAO {
                 JOIN guests g ON b.guest_id = g.id
                 WHERE b.id=?
                 """;
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return Optional.of(mapRow(rs));
+                return FIND_BY_ID.done(startNanos, Optional.of(mapRow(rs)));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка поиска брони: " + e.getMessage());
+            return FIND_BY_ID.failed(startNanos, Optional.empty());
         }
-        return Optional.empty();
+        return FIND_BY_ID.done(startNanos, Optional.empty());
     }
 
     public List<Booking> findForCheckIn(LocalDate date) {
-        String sql = """
-                SELECT b.*, r.number AS room_number, g.name AS guest_name
-                FROM bookings b
-                JOIN rooms r ON b.room_id = r.id
-                JOIN guests g ON b.guest_id = g.id
-                WHERE b.status='BOOKED' AND b.check_in_date<=?
-                ORDER BY b.check_in_date
-                """;
+        long startNanos = System.nanoTime();
         List<Booking> result = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, date.toString());
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(FOR_CHECK_IN_SQL)) {
+            ps.setLong(1, date.toEpochDay());
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
                 result.add(mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка поиска на заселение: " + e.getMessage());
+            return FIND_FOR_CHECK_IN.failed(startNanos, result);
         }
-        return result;
+        return FIND_FOR_CHECK_IN.done(startNanos, result);
     }
 
     public List<Booking> findForCheckOut() {
         return findByStatus(BookingStatus.CHECKED_IN);
     }
 
+    /**
+     * Активные брони (BOOKED и CHECKED_IN) — именно они участвуют в проверке пересечений.
+     */
+    public List<Booking> findActive() {
+        List<Booking> result = new ArrayList<>(findByStatus(BookingStatus.BOOKED));
+        result.addAll(findByStatus(BookingStatus.CHECKED_IN));
+        return result;
+    }
+
+    /**
+     * Все брони (включая выселенные), пересекающиеся с периодом [start, end).
+     * Кандидаты выбираются по R*Tree bookings_rtree, а не сканированием по check_in_date.
+     */
+    public List<Booking> findOverlapping(LocalDate start, LocalDate end) {
+        long startNanos = System.nanoTime();
+        List<Booking> result = new ArrayList<>();
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(OVERLAPPING_SQL)) {
+            ps.setLong(1, end.toEpochDay());
+            ps.setLong(2, start.toEpochDay());
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка выборки броней за период: " + e.getMessage());
+            return FIND_OVERLAPPING.failed(startNanos, result);
+        }
+        return FIND_OVERLAPPING.done(startNanos, result);
+    }
+
     public void insert(Booking booking) throws SQLException {
-        String sql = "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?,?,?,?,?)";
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getConnection()) {
+            insertRow(connection, booking);
+        } catch (SQLException e) {
+            INSERT.failed(startNanos);
+            throw e;
+        }
+        INSERT.done(startNanos);
+    }
+
+    /**
+     * Вставляет бронь, только если номер свободен на её период. Проверка пересечений и вставка
+     * идут одной транзакцией BEGIN IMMEDIATE на соединении-писателе: две параллельные брони
+     * одного номера на те же даты не могут пройти проверку обе.
+     *
+     * @return false — период пересекается с активной бронью, ничего не записано
+     */
+    public boolean insertIfFree(Booking booking) throws SQLException {
+        long startNanos = System.nanoTime();
+        boolean inserted = false;
         try (Connection connection = Database.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             Statement statement = connection.createStatement()) {
+            statement.execute("BEGIN IMMEDIATE");
+            try {
+                try (PreparedStatement ps = connection.prepareStatement(HAS_OVERLAPS_SQL)) {
+                    bindOverlap(ps, booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            insertRow(connection, booking);
+                            inserted = true;
+                        }
+                    }
+                }
+                statement.execute("COMMIT");
+            } catch (SQLException | RuntimeException e) {
+                statement.execute("ROLLBACK");
+                booking.setId(0);
+                throw e;
+            }
+        } catch (SQLException e) {
+            INSERT_IF_FREE.failed(startNanos);
+            throw e;
+        }
+        return INSERT_IF_FREE.done(startNanos, inserted);
+    }
+
+    private static void insertRow(Connection connection, Booking booking) throws SQLException {
+        String sql = "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?,?,?,?,?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, booking.getRoomId());
             ps.setInt(2, booking.getGuestId());
-            ps.setString(3, booking.getCheckInDate().toString());
-            ps.setString(4, booking.getCheckOutDate().toString());
+            ps.setLong(3, booking.getCheckInDate().toEpochDay());
+            ps.setLong(4, booking.getCheckOutDate().toEpochDay());
             ps.setString(5, booking.getStatus().name());
             ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    booking.setId(keys.getInt(1));
+                }
+            }
         }
     }
 
     public void updateStatus(int bookingId, BookingStatus status) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement("UPDATE bookings SET status=? WHERE id=?")) {
             ps.setString(1, status.name());
             ps.setInt(2, bookingId);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            UPDATE_STATUS.failed(startNanos);
+            throw e;
         }
+        UPDATE_STATUS.done(startNanos);
     }
 
-    public boolean hasOverlaps(int roomId, LocalDate start, LocalDate end) {
-        String sql = """
-                SELECT COUNT(*) FROM bookings
-                WHERE room_id=?
-                  AND status <> 'CHECKED_OUT'
-                  AND (date(check_in_date) < date(?) AND date(check_out_date) > date(?))
-                """;
+    /**
+     * Меняет статус брони с expected на status одним UPDATE: если статус уже другой
+     * (повторное выселение, параллельная операция), строка не меняется.
+     *
+     * @return false — бронь не найдена или её статус не expected
+     */
+    public boolean changeStatus(int bookingId, BookingStatus expected, BookingStatus status) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setInt(1, roomId);
-            ps.setString(2, end.toString());
-            ps.setString(3, start.toString());
+             PreparedStatement ps = connection.prepareStatement("UPDATE bookings SET status=? WHERE id=? AND status=?")) {
+            ps.setString(1, status.name());
+            ps.setInt(2, bookingId);
+            ps.setString(3, expected.name());
+            return CHANGE_STATUS.done(startNanos, ps.executeUpdate() == 1);
+        } catch (SQLException e) {
+            CHANGE_STATUS.failed(startNanos);
+            throw e;
+        }
+    }
+
+    public boolean hasOverlaps(int roomId, LocalDate start, LocalDate end) {
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(HAS_OVERLAPS_SQL)) {
+            bindOverlap(ps, roomId, start, end);
             ResultSet rs = ps.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
+            return HAS_OVERLAPS.done(startNanos, rs.next());
         } catch (SQLException e) {
             System.err.println("Ошибка проверки пересечения: " + e.getMessage());
+            // Номер считается занятым: лучше отказать, чем забронировать дважды
+            return HAS_OVERLAPS.failed(startNanos, true);
         }
-        return true;
+    }
+
+    private static void bindOverlap(PreparedStatement ps, int roomId, LocalDate start, LocalDate end) throws SQLException {
+        ps.setInt(1, roomId);
+        ps.setInt(2, roomId);
+        ps.setLong(3, end.toEpochDay());
+        ps.setLong(4, start.toEpochDay());
+    }
+
+    /**
+     * Брони, добавленные или изменённые после версии since, и id удалённых.
+     * since = -1 — все строки (первая загрузка).
+     */
+    public Changes<Booking> findChangedSince(long since) {
+        return DataVersions.changedSince(BASE_SELECT + " WHERE b.row_version > ? AND b.row_version <= ? ORDER BY b.check_in_date", this::mapRow, "bookings", since, FIND_CHANGED_SINCE);
+    }
+
+    // Запросы страниц доступны тесту плана: каждый ключ сортировки должен идти по индексу, без сортировки
+    static String pageQuery(SortKey key, boolean ascending, boolean afterCursor) {
+        return BASE_SELECT
+                + (afterCursor ? " WHERE (" + key.column + ", b.id) " + (ascending ? ">" : "<") + " (?, ?)" : "")
+                + orderBy(key, ascending) + " LIMIT ?";
+    }
+
+    static String rangeQuery(SortKey key, boolean ascending) {
+        return BASE_SELECT + orderBy(key, ascending) + " LIMIT ? OFFSET ?";
+    }
+
+    private static String orderBy(SortKey key, boolean ascending) {
+        String direction = ascending ? " ASC" : " DESC";
+        return " ORDER BY " + key.column + direction + ", b.id" + direction;
     }
 
     private Booking mapRow(ResultSet rs) throws SQLException {
@@ -154,10 +431,40 @@ public class BookingDAO {
         booking.setGuestId(rs.getInt("guest_id"));
         booking.setRoomNumber(rs.getString("room_number"));
         booking.setGuestName(rs.getString("guest_name"));
-        booking.setCheckInDate(LocalDate.parse(rs.getString("check_in_date")));
-        booking.setCheckOutDate(LocalDate.parse(rs.getString("check_out_date")));
+        booking.setCheckInDate(LocalDate.ofEpochDay(rs.getLong("check_in_date")));
+        booking.setCheckOutDate(LocalDate.ofEpochDay(rs.getLong("check_out_date")));
         booking.setStatus(BookingStatus.valueOf(rs.getString("status")));
+        booking.setVersion(rs.getLong("row_version"));
         return booking;
     }
-}
 
+    /**
+     * SortKey — столбцы, по которым возможна постраничная сортировка броней.
+     * У каждого есть индекс, дающий порядок (ключ, id); по имени гостя и номеру комнаты
+     * (столбцы других таблиц) страницы пришлось бы сортировать целиком, поэтому их здесь нет.
+     */
+    public enum SortKey {
+        CHECK_IN("b.check_in_date", true),
+        CHECK_OUT("b.check_out_date", true),
+        STATUS("b.status", false);
+
+        private final String column;
+        private final boolean numeric;
+
+        SortKey(String column, boolean numeric) {
+            this.column = column;
+            this.numeric = numeric;
+        }
+
+        private Object value(Booking booking) {
+            switch (this) {
+                case CHECK_IN:
+                    return booking.getCheckInDate().toEpochDay();
+                case CHECK_OUT:
+                    return booking.getCheckOutDate().toEpochDay();
+                default:
+                    return booking.getStatus().name();
+            }
+        }
+    }
+}
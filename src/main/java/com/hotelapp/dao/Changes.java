@@ -0,0 +1,49 @@
+package com.hotelapp.dao;
+
+import java.util.List;
+
+/**
+ * Changes — строки таблицы, изменённые после известной клиенту версии данных.
+ * changed — добавленные и изменённые строки, deletedIds — id удалённых,
+ * version — версия, которую передать в следующий запрос изменений.
+ * full — changed содержит все строки таблицы (первый запрос или версия клиента старше очищенного
+ * журнала удалений): строки клиента, которых нет в changed, удалены.
+ */
+public final class Changes<T> {
+
+    private final List<T> changed;
+    private final List<Integer> deletedIds;
+    private final long version;
+    private final boolean full;
+
+    public Changes(List<T> changed, List<Integer> deletedIds, long version) {
+        this(changed, deletedIds, version, false);
+    }
+
+    public Changes(List<T> changed, List<Integer> deletedIds, long version, boolean full) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.version = version;
+        this.full = full;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public boolean isEmpty() {
+        return !full && changed.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataVersions — общие запросы к счётчику версий data_version и журналу удалений deleted_rows.
+ */
+final class DataVersions {
+
+    /**
+     * Чтение текущей строки результата в объект DAO.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private DataVersions() {
+    }
+
+    /**
+     * Строки таблицы table, добавленные или изменённые после версии since, и id удалённых.
+     * sql выбирает строки по условию row_version > ? AND row_version <= ?; since = -1 — все строки.
+     * При ошибке возвращает пустые изменения с прежней версией и записывает вызов в metrics как неудачный.
+     */
+    static <T> Changes<T> changedSince(String sql, RowMapper<T> mapper, String table, long since, MethodMetrics metrics) {
+        long startNanos = System.nanoTime();
+        List<T> changed = new ArrayList<>();
+        List<Integer> deleted;
+        long version;
+        boolean full;
+        try (Connection connection = Database.getReadConnection()) {
+            // Верхняя граница отсекает строки, изменённые уже после чтения версии: они придут в следующий раз
+            version = current(connection);
+            // Удаления старше pruned_version из журнала убраны — такому клиенту нужны все строки
+            full = since < 0 || since < pruned(connection);
+            long from = full ? -1 : since;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setLong(1, from);
+                ps.setLong(2, version);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    changed.add(mapper.map(rs));
+                }
+            }
+            deleted = deletedIds(connection, table, from, version);
+        } catch (SQLException e) {
+            System.err.println("Ошибка чтения изменений " + table + ": " + e.getMessage());
+            // Версию не продвигаем: то, что не удалось прочитать, придёт в следующем запросе
+            return metrics.failed(startNanos, new Changes<>(new ArrayList<>(), new ArrayList<>(), since, false));
+        }
+        return metrics.done(startNanos, new Changes<>(changed, deleted, version, full));
+    }
+
+    static long current(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT version FROM data_version WHERE id = 1");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Версия, до которой журнал удалений очищен: клиенту с более старой версией нужны все строки заново.
+     */
+    static long pruned(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pruned_version FROM data_version WHERE id = 1");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * id строк таблицы table, удалённых в версиях (since, upTo].
+     */
+    static List<Integer> deletedIds(Connection connection, String table, long since, long upTo) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        if (since < 0) {
+            // Первый запрос получает все живые строки, удаления ему не нужны
+            return ids;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT row_id FROM deleted_rows WHERE table_name = ? AND row_version > ? AND row_version <= ?")) {
+            ps.setString(1, table);
+            ps.setLong(2, since);
+            ps.setLong(3, upTo);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -1,6 +1,8 @@
 package com.hotelapp.dao;
 
 import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
 import com.hotelapp.model.Guest;
 
 import java.sql.*;
@@ -13,9 +15,49 @@ import java.util.Optional;
  */
 public class GuestDAO {
 
+    private static final MethodMetrics FIND_ALL = Metrics.method("GuestDAO.findAll", "guests");
+    private static final MethodMetrics FIND_PAGE = Metrics.method("GuestDAO.findPage", "guests");
+    private static final MethodMetrics FIND_RANGE = Metrics.method("GuestDAO.findRange", "guests");
+    private static final MethodMetrics COUNT = Metrics.method("GuestDAO.count", "guests");
+    private static final MethodMetrics SEARCH = Metrics.method("GuestDAO.search", "guests");
+    private static final MethodMetrics SEARCH_FULL_TEXT = Metrics.method("GuestDAO.searchFullText", "guests");
+    private static final MethodMetrics FIND_BY_ID = Metrics.method("GuestDAO.findById", "guests");
+    private static final MethodMetrics INSERT = Metrics.method("GuestDAO.insert", "guests");
+    private static final MethodMetrics UPDATE = Metrics.method("GuestDAO.update", "guests");
+    private static final MethodMetrics DELETE = Metrics.method("GuestDAO.delete", "guests");
+    private static final MethodMetrics FIND_CHANGED_SINCE = Metrics.method("GuestDAO.findChangedSince", "guests");
+
+    static final String SEARCH_SQL = """
+            SELECT * FROM (
+                SELECT *, MIN(rank) AS best FROM (
+                    SELECT * FROM (SELECT *, 0 AS rank FROM guests WHERE passport >= ? AND passport < ? ORDER BY passport LIMIT ?)
+                    UNION ALL
+                    SELECT * FROM (SELECT *, 1 AS rank FROM guests WHERE name >= ? AND name < ? ORDER BY name LIMIT ?)
+                    UNION ALL
+                    SELECT * FROM (SELECT *, 2 AS rank FROM guests WHERE phone >= ? AND phone < ? ORDER BY phone LIMIT ?)
+                )
+                GROUP BY id
+            )
+            ORDER BY best, name, id
+            LIMIT ?
+            """;
+
+    // Сначала лучшие limit совпадений по индексу, затем чтение самих строк; вес паспорта выше, телефона — ниже
+    static final String FULL_TEXT_SQL = """
+            SELECT g.* FROM (
+                SELECT rowid, bm25(guests_fts, 5.0, 10.0, 2.0) AS score FROM guests_fts
+                WHERE guests_fts MATCH ?
+                ORDER BY score
+                LIMIT ?
+            ) f
+            CROSS JOIN guests g ON g.id = f.rowid
+            ORDER BY f.score, g.name
+            """;
+
     public List<Guest> findAll() {
+        long startNanos = System.nanoTime();
         List<Guest> guests = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              Statement statement = connection.createStatement();
              ResultSet rs = statement.executeQuery("SELECT * FROM guests ORDER BY name")) {
             while (rs.next()) {
@@ -23,36 +65,225 @@ public class GuestDAO {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка чтения guests: " + e.getMessage());
+            return FIND_ALL.failed(startNanos, guests);
+        }
+        return FIND_ALL.done(startNanos, guests);
+    }
+
+    /**
+     * Страница гостей в порядке (name, id), начиная после cursor (null — с начала).
+     */
+    public Page<Guest> findPage(String cursor, int pageSize) {
+        return findPage(SortKey.NAME, true, cursor, pageSize);
+    }
+
+    /**
+     * Страница гостей в порядке (key, id), начиная после cursor (null — с начала).
+     * Keyset-пагинация: поиск идёт по индексу ключа (idx_guests_name, UNIQUE по паспорту,
+     * idx_guests_phone_sort), без OFFSET.
+     * Ошибка БД не маскируется пустой страницей: findPage, findRange и count бросают RuntimeException.
+     */
+    public Page<Guest> findPage(SortKey key, boolean ascending, String cursor, int pageSize) {
+        long startNanos = System.nanoTime();
+        String sql = pageQuery(key, ascending, cursor != null);
+        List<Guest> result = new ArrayList<>(pageSize + 1);
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (cursor != null) {
+                String[] keys = Page.decodeCursor(cursor, 3);
+                if (!key.name().equals(keys[0])) {
+                    throw new IllegalArgumentException("Курсор получен для другой сортировки: " + keys[0]);
+                }
+                ps.setString(index++, keys[1]);
+                ps.setString(index++, keys[1]);
+                ps.setInt(index++, Integer.parseInt(keys[2]));
+            }
+            ps.setInt(index, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            // Пустая страница выглядела бы как успешно прочитанная: отображение должно узнать об ошибке
+            FIND_PAGE.failed(startNanos);
+            throw new RuntimeException("Ошибка чтения страницы guests", e);
+        }
+        if (result.size() <= pageSize) {
+            return FIND_PAGE.done(startNanos, new Page<>(result, null));
+        }
+        result.remove(pageSize);
+        return FIND_PAGE.done(startNanos, new Page<>(result, cursorOf(result.get(pageSize - 1), key)));
+    }
+
+    /**
+     * Гости [offset, offset + limit) в порядке (key, id) — для перехода в произвольное место списка.
+     */
+    public List<Guest> findRange(SortKey key, boolean ascending, int offset, int limit) {
+        long startNanos = System.nanoTime();
+        List<Guest> result = new ArrayList<>(limit);
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                     rangeQuery(key, ascending))) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            FIND_RANGE.failed(startNanos);
+            throw new RuntimeException("Ошибка чтения guests", e);
+        }
+        return FIND_RANGE.done(startNanos, result);
+    }
+
+    public int count() {
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM guests")) {
+            return COUNT.done(startNanos, rs.next() ? rs.getInt(1) : 0);
+        } catch (SQLException e) {
+            COUNT.failed(startNanos);
+            throw new RuntimeException("Ошибка подсчёта guests", e);
+        }
+    }
+
+    /**
+     * Гости, у которых паспорт, имя или телефон начинаются с query, — не больше limit.
+     * Сначала совпадения по паспорту, затем по имени, затем по телефону; внутри группы — по имени.
+     * Каждое условие — диапазон по индексу (prefix <= x < prefix + U+FFFF), без полного просмотра.
+     */
+    public List<Guest> search(String query, int limit) {
+        long startNanos = System.nanoTime();
+        List<Guest> result = new ArrayList<>(limit);
+        String prefix = query == null ? "" : query.trim();
+        if (prefix.isEmpty()) {
+            return SEARCH.done(startNanos, result);
+        }
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(SEARCH_SQL)) {
+            // Паспорта хранятся в верхнем регистре, имена — с заглавной буквы
+            String[] prefixes = {
+                    prefix.toUpperCase(),
+                    Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1),
+                    prefix
+            };
+            int index = 1;
+            for (String value : prefixes) {
+                ps.setString(index++, value);
+                ps.setString(index++, value + Character.MAX_VALUE);
+                ps.setInt(index++, limit);
+            }
+            ps.setInt(index, limit);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка поиска guests: " + e.getMessage());
+            return SEARCH.failed(startNanos, result);
+        }
+        return SEARCH.done(startNanos, result);
+    }
+
+    /**
+     * Полнотекстовый поиск гостей по имени, паспорту и телефону (индекс guests_fts).
+     * Каждое слово запроса ищется как префикс слова в любом из полей, порядок — по релевантности (bm25).
+     */
+    public List<Guest> searchFullText(String query, int limit) {
+        long startNanos = System.nanoTime();
+        List<Guest> result = new ArrayList<>(limit);
+        String match = matchExpression(query);
+        if (match == null) {
+            return SEARCH_FULL_TEXT.done(startNanos, result);
+        }
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(FULL_TEXT_SQL)) {
+            ps.setString(1, match);
+            ps.setInt(2, limit);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка полнотекстового поиска guests: " + e.getMessage());
+            return SEARCH_FULL_TEXT.failed(startNanos, result);
         }
-        return guests;
+        return SEARCH_FULL_TEXT.done(startNanos, result);
+    }
+
+    /**
+     * Запрос FTS5 из введённого текста: слова в кавычках с * (префикс), все слова обязательны.
+     * Кавычки исключают разбор операторов FTS5 (AND, NEAR, "-" и т.п.) из пользовательского ввода.
+     */
+    static String matchExpression(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(token).append("\"*");
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    /**
+     * Курсор, указывающий на позицию сразу после guest в порядке key.
+     */
+    public static String cursorOf(Guest guest, SortKey key) {
+        return Page.encodeCursor(key.name(), key.value(guest), guest.getId());
     }
 
     public Optional<Guest> findById(int id) {
-        try (Connection connection = Database.getConnection();
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement("SELECT * FROM guests WHERE id=?")) {
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return Optional.of(mapRow(rs));
+                return FIND_BY_ID.done(startNanos, Optional.of(mapRow(rs)));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка поиска гостя: " + e.getMessage());
+            return FIND_BY_ID.failed(startNanos, Optional.empty());
         }
-        return Optional.empty();
+        return FIND_BY_ID.done(startNanos, Optional.empty());
     }
 
-    public void insert(Guest guest) throws SQLException {
+    /**
+     * Добавляет гостя и записывает в него выданный БД id.
+     */
+    public int insert(Guest guest) throws SQLException {
+        long startNanos = System.nanoTime();
         String sql = "INSERT INTO guests(name, passport, phone) VALUES(?,?,?)";
         try (Connection connection = Database.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, guest.getName());
             ps.setString(2, guest.getPassport());
             ps.setString(3, guest.getPhone());
             ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    guest.setId(keys.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            INSERT.failed(startNanos);
+            throw e;
         }
+        return INSERT.done(startNanos, guest.getId());
     }
 
     public void update(Guest guest) throws SQLException {
+        long startNanos = System.nanoTime();
         String sql = "UPDATE guests SET name=?, passport=?, phone=? WHERE id=?";
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -61,15 +292,51 @@ public class GuestDAO {
             ps.setString(3, guest.getPhone());
             ps.setInt(4, guest.getId());
             ps.executeUpdate();
+        } catch (SQLException e) {
+            UPDATE.failed(startNanos);
+            throw e;
         }
+        UPDATE.done(startNanos);
     }
 
     public void delete(int id) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement("DELETE FROM guests WHERE id=?")) {
             ps.setInt(1, id);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            DELETE.failed(startNanos);
+            throw e;
         }
+        DELETE.done(startNanos);
+    }
+
+    /**
+     * Гости, добавленные или изменённые после версии since, и id удалённых.
+     * since = -1 — все строки (первая загрузка).
+     */
+    public Changes<Guest> findChangedSince(long since) {
+        return DataVersions.changedSince("SELECT * FROM guests WHERE row_version > ? AND row_version <= ? ORDER BY name", this::mapRow, "guests", since, FIND_CHANGED_SINCE);
+    }
+
+    // Запросы страниц доступны тесту плана: каждый ключ сортировки должен идти по индексу, без сортировки
+    static String pageQuery(SortKey key, boolean ascending, boolean afterCursor) {
+        // Отдельное условие на ключ даёт SQLite границу поиска по индексу выражения (телефон),
+        // одно сравнение пар (ключ, id) он применяет только как фильтр при полном обходе
+        return "SELECT * FROM guests"
+                + (afterCursor ? " WHERE " + key.column + (ascending ? " >= ?" : " <= ?")
+                + " AND (" + key.column + ", id) " + (ascending ? ">" : "<") + " (?, ?)" : "")
+                + orderBy(key, ascending) + " LIMIT ?";
+    }
+
+    static String rangeQuery(SortKey key, boolean ascending) {
+        return "SELECT * FROM guests" + orderBy(key, ascending) + " LIMIT ? OFFSET ?";
+    }
+
+    private static String orderBy(SortKey key, boolean ascending) {
+        String direction = ascending ? " ASC" : " DESC";
+        return " ORDER BY " + key.column + direction + ", id" + direction;
     }
 
     private Guest mapRow(ResultSet rs) throws SQLException {
@@ -78,7 +345,35 @@ public class GuestDAO {
         guest.setName(rs.getString("name"));
         guest.setPassport(rs.getString("passport"));
         guest.setPhone(rs.getString("phone"));
+        guest.setVersion(rs.getLong("row_version"));
         return guest;
     }
-}
 
+    /**
+     * SortKey — столбцы, по которым возможна постраничная сортировка гостей.
+     * Телефон может быть пустым: NULL сравнивается как '', иначе строки выпадут из keyset-условия.
+     */
+    public enum SortKey {
+        NAME("name"),
+        PASSPORT("passport"),
+        // Выражение совпадает с индексом idx_guests_phone_sort: гости без телефона идут как ''
+        PHONE("COALESCE(phone, '')");
+
+        private final String column;
+
+        SortKey(String column) {
+            this.column = column;
+        }
+
+        private String value(Guest guest) {
+            switch (this) {
+                case NAME:
+                    return guest.getName();
+                case PASSPORT:
+                    return guest.getPassport();
+                default:
+                    return guest.getPhone() == null ? "" : guest.getPhone();
+            }
+        }
+    }
+}
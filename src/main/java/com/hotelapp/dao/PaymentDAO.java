@@ -1,6 +1,8 @@
 package com.hotelapp.dao;
 
 import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
 import com.hotelapp.model.Payment;
 
 import java.sql.*;
@@ -12,9 +14,14 @@ import java.util.List;
  */
 public class PaymentDAO {
 
+    private static final MethodMetrics FIND_BY_BOOKING = Metrics.method("PaymentDAO.findByBooking", "payments");
+    private static final MethodMetrics INSERT = Metrics.method("PaymentDAO.insert", "payments");
+    private static final MethodMetrics MARK_PAID = Metrics.method("PaymentDAO.markPaid", "payments");
+
     public List<Payment> findByBooking(int bookingId) {
+        long startNanos = System.nanoTime();
         List<Payment> payments = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement("SELECT * FROM payments WHERE booking_id=?")) {
             ps.setInt(1, bookingId);
             ResultSet rs = ps.executeQuery();
@@ -23,11 +30,13 @@ public class PaymentDAO {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка чтения payments: " + e.getMessage());
+            return FIND_BY_BOOKING.failed(startNanos, payments);
         }
-        return payments;
+        return FIND_BY_BOOKING.done(startNanos, payments);
     }
 
     public void insert(Payment payment) throws SQLException {
+        long startNanos = System.nanoTime();
         String sql = "INSERT INTO payments(booking_id, amount, paid) VALUES(?,?,?)";
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -35,15 +44,24 @@ public class PaymentDAO {
             ps.setDouble(2, payment.getAmount());
             ps.setInt(3, payment.isPaid() ? 1 : 0);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            INSERT.failed(startNanos);
+            throw e;
         }
+        INSERT.done(startNanos);
     }
 
     public void markPaid(int bookingId) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement("UPDATE payments SET paid=1 WHERE booking_id=?")) {
             ps.setInt(1, bookingId);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            MARK_PAID.failed(startNanos);
+            throw e;
         }
+        MARK_PAID.done(startNanos);
     }
 
     private Payment mapRow(ResultSet rs) throws SQLException {
@@ -1,10 +1,13 @@
 package com.hotelapp.dao;
 
 import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
 import com.hotelapp.model.Room;
 import com.hotelapp.model.Room.RoomStatus;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,9 +17,19 @@ import java.util.Optional;
  */
 public class RoomDAO {
 
+    private static final MethodMetrics FIND_ALL = Metrics.method("RoomDAO.findAll", "rooms");
+    private static final MethodMetrics FIND_BY_ID = Metrics.method("RoomDAO.findById", "rooms");
+    private static final MethodMetrics FIND_AVAILABLE = Metrics.method("RoomDAO.findAvailable", "rooms");
+    private static final MethodMetrics INSERT = Metrics.method("RoomDAO.insert", "rooms");
+    private static final MethodMetrics UPDATE = Metrics.method("RoomDAO.update", "rooms");
+    private static final MethodMetrics DELETE = Metrics.method("RoomDAO.delete", "rooms");
+    private static final MethodMetrics UPDATE_STATUS = Metrics.method("RoomDAO.updateStatus", "rooms");
+    private static final MethodMetrics FIND_CHANGED_SINCE = Metrics.method("RoomDAO.findChangedSince", "rooms");
+
     public List<Room> findAll() {
+        long startNanos = System.nanoTime();
         List<Room> rooms = new ArrayList<>();
-        try (Connection connection = Database.getConnection();
+        try (Connection connection = Database.getReadConnection();
              Statement statement = connection.createStatement();
              ResultSet rs = statement.executeQuery("SELECT * FROM rooms ORDER BY number")) {
             while (rs.next()) {
@@ -24,25 +37,93 @@ public class RoomDAO {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка чтения rooms: " + e.getMessage());
+            return FIND_ALL.failed(startNanos, rooms);
         }
-        return rooms;
+        return FIND_ALL.done(startNanos, rooms);
     }
 
     public Optional<Room> findById(int id) {
-        try (Connection connection = Database.getConnection();
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement("SELECT * FROM rooms WHERE id=?")) {
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return Optional.of(mapRow(rs));
+                return FIND_BY_ID.done(startNanos, Optional.of(mapRow(rs)));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка поиска комнаты: " + e.getMessage());
+            return FIND_BY_ID.failed(startNanos, Optional.empty());
         }
-        return Optional.empty();
+        return FIND_BY_ID.done(startNanos, Optional.empty());
+    }
+
+    public List<Room> findAvailable(LocalDate start, LocalDate end) {
+        return findAvailable(start, end, null, null, null);
+    }
+
+    /**
+     * Свободные номера на период [start, end) одним запросом: anti-join с активными бронями.
+     * Фильтры type, minCapacity и maxPrice необязательны (null — без ограничения).
+     */
+    public List<Room> findAvailable(LocalDate start, LocalDate end, String type, Integer minCapacity, Double maxPrice) {
+        long startNanos = System.nanoTime();
+        String sql = availableQuery(type != null, minCapacity != null, maxPrice != null);
+        List<Room> rooms = new ArrayList<>();
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (type != null) {
+                ps.setString(index++, type);
+            }
+            if (minCapacity != null) {
+                ps.setInt(index++, minCapacity);
+            }
+            if (maxPrice != null) {
+                ps.setDouble(index++, maxPrice);
+            }
+            ps.setLong(index++, end.toEpochDay());
+            ps.setLong(index, start.toEpochDay());
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                rooms.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка поиска свободных номеров: " + e.getMessage());
+            return FIND_AVAILABLE.failed(startNanos, rooms);
+        }
+        return FIND_AVAILABLE.done(startNanos, rooms);
+    }
+
+    /**
+     * Запрос свободных номеров: брони, мешающие номеру, ищутся по R*Tree bookings_rtree
+     * (номер × период), статус проверяется по первичному ключу только у найденных.
+     */
+    static String availableQuery(boolean byType, boolean byCapacity, boolean byPrice) {
+        StringBuilder sql = new StringBuilder("SELECT r.* FROM rooms r WHERE r.status='FREE'");
+        if (byType) {
+            sql.append(" AND r.type=?");
+        }
+        if (byCapacity) {
+            sql.append(" AND r.capacity>=?");
+        }
+        if (byPrice) {
+            sql.append(" AND r.price<=?");
+        }
+        sql.append("""
+                 AND NOT EXISTS (
+                    SELECT 1 FROM bookings_rtree t
+                    CROSS JOIN bookings b ON b.id = t.id
+                    WHERE t.room_lo <= r.id AND t.room_hi >= r.id
+                      AND t.check_in < ? AND t.check_out > ?
+                      AND b.status IN ('BOOKED', 'CHECKED_IN'))
+                ORDER BY r.number
+                """);
+        return sql.toString();
     }
 
     public void insert(Room room) throws SQLException {
+        long startNanos = System.nanoTime();
         String sql = "INSERT INTO rooms(number, type, price, capacity, status) VALUES(?,?,?,?,?)";
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -52,10 +133,15 @@ public class RoomDAO {
             ps.setInt(4, room.getCapacity());
             ps.setString(5, room.getStatus().name());
             ps.executeUpdate();
+        } catch (SQLException e) {
+            INSERT.failed(startNanos);
+            throw e;
         }
+        INSERT.done(startNanos);
     }
 
     public void update(Room room) throws SQLException {
+        long startNanos = System.nanoTime();
         String sql = "UPDATE rooms SET number=?, type=?, price=?, capacity=?, status=? WHERE id=?";
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -66,24 +152,46 @@ public class RoomDAO {
             ps.setString(5, room.getStatus().name());
             ps.setInt(6, room.getId());
             ps.executeUpdate();
+        } catch (SQLException e) {
+            UPDATE.failed(startNanos);
+            throw e;
         }
+        UPDATE.done(startNanos);
     }
 
     public void delete(int id) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement("DELETE FROM rooms WHERE id=?")) {
             ps.setInt(1, id);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            DELETE.failed(startNanos);
+            throw e;
         }
+        DELETE.done(startNanos);
     }
 
     public void updateStatus(int id, RoomStatus status) throws SQLException {
+        long startNanos = System.nanoTime();
         try (Connection connection = Database.getConnection();
              PreparedStatement ps = connection.prepareStatement("UPDATE rooms SET status=? WHERE id=?")) {
             ps.setString(1, status.name());
             ps.setInt(2, id);
             ps.executeUpdate();
+        } catch (SQLException e) {
+            UPDATE_STATUS.failed(startNanos);
+            throw e;
         }
+        UPDATE_STATUS.done(startNanos);
+    }
+
+    /**
+     * Номера, добавленные или изменённые после версии since, и id удалённых.
+     * since = -1 — все строки (первая загрузка).
+     */
+    public Changes<Room> findChangedSince(long since) {
+        return DataVersions.changedSince("SELECT * FROM rooms WHERE row_version > ? AND row_version <= ? ORDER BY number", this::mapRow, "rooms", since, FIND_CHANGED_SINCE);
     }
 
     private Room mapRow(ResultSet rs) throws SQLException {
@@ -94,6 +202,7 @@ public class RoomDAO {
         room.setPrice(rs.getDouble("price"));
         room.setCapacity(rs.getInt("capacity"));
         room.setStatus(RoomStatus.valueOf(rs.getString("status")));
+        room.setVersion(rs.getLong("row_version"));
         return room;
     }
 }
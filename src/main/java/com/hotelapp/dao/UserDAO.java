@@ -1,6 +1,8 @@
 package com.hotelapp.dao;
 
 import com.hotelapp.database.Database;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
 import com.hotelapp.model.User;
 
 import java.sql.Connection;
@@ -12,18 +14,22 @@ import java.util.Optional;
 
 public class UserDAO {
 
+    private static final MethodMetrics FIND_BY_USERNAME = Metrics.method("UserDAO.findByUsername", "users");
+
     public Optional<User> findByUsername(String username) {
-        try (Connection connection = Database.getConnection();
+        long startNanos = System.nanoTime();
+        try (Connection connection = Database.getReadConnection();
              PreparedStatement ps = connection.prepareStatement("SELECT * FROM users WHERE username=?")) {
             ps.setString(1, username);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return Optional.of(mapRow(rs));
+                return FIND_BY_USERNAME.done(startNanos, Optional.of(mapRow(rs)));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка чтения пользователя: " + e.getMessage());
+            return FIND_BY_USERNAME.failed(startNanos, Optional.empty());
         }
-        return Optional.empty();
+        return FIND_BY_USERNAME.done(startNanos, Optional.empty());
     }
 
     private User mapRow(ResultSet rs) throws SQLException {
@@ -0,0 +1,314 @@
+package com.hotelapp.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool — ограниченный пул долгоживущих JDBC-соединений.
+ * Выдаёт обёртки, у которых close() возвращает физическое соединение в пул,
+ * поэтому DAO продолжают работать в стиле try-with-resources.
+ * Поток, который уже держит все соединения пула (например, единственного писателя WAL), не может
+ * дождаться ещё одного — такой вложенный borrow() сразу завершается SQLException, а не по таймауту.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    /**
+     * Фабрика физических соединений.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutNanos;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ConcurrentHashMap<Thread, Integer> holders = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reaper;
+    private volatile boolean closed;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    public ConnectionPool(String name, ConnectionFactory factory, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis) {
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.permits = new Semaphore(maxSize, true);
+
+        if (idleTimeoutMillis > 0) {
+            long period = Math.max(1_000, idleTimeoutMillis / 2);
+            reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "hotel-db-pool-reaper-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            reaper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            reaper = null;
+        }
+    }
+
+    /**
+     * Выдаёт соединение из пула, при необходимости создавая новое.
+     * Соединение нужно закрыть, чтобы вернуть его в пул.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Пул соединений '" + name + "' закрыт");
+        }
+        Thread current = Thread.currentThread();
+        if (holders.getOrDefault(current, 0) >= maxSize) {
+            throw new SQLException("Поток " + current.getName() + " уже держит все соединения пула '" + name
+                    + "' (" + maxSize + "): вложенный запрос соединения никогда не дождётся освобождения");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Нет свободных соединений в пуле '" + name + "' за "
+                        + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + " мс");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            Connection physical = takeIdle();
+            if (physical == null) {
+                physical = factory.create();
+                createdCount.incrementAndGet();
+            }
+            activeCount.incrementAndGet();
+            holders.merge(current, 1, Integer::sum);
+            return wrap(physical, current);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(name, maxSize, activeCount.get(), idleCount, borrowCount.get(),
+                totalWaitNanos.get(), maxWaitNanos.get(), createdCount.get(), destroyedCount.get(),
+                validationFailureCount.get(), timeoutCount.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Закрывает простаивающие соединения; выданные закроются при возврате.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        synchronized (idle) {
+            for (IdleConnection connection : idle) {
+                destroy(connection.physical);
+            }
+            idle.clear();
+        }
+        logger.info("Пул соединений закрыт. {}", getStats());
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private Connection takeIdle() {
+        long now = System.nanoTime();
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                // LIFO: последним возвращённое соединение самое «тёплое»
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isExpired(candidate, now)) {
+                destroy(candidate.physical);
+                continue;
+            }
+            if (isValid(candidate.physical)) {
+                return candidate.physical;
+            }
+            validationFailureCount.incrementAndGet();
+            destroy(candidate.physical);
+        }
+    }
+
+    private boolean isExpired(IdleConnection connection, long now) {
+        return idleTimeoutNanos > 0 && now - connection.releasedAt > idleTimeoutNanos;
+    }
+
+    private boolean isValid(Connection physical) {
+        try {
+            return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Connection physical, Thread owner) {
+        activeCount.decrementAndGet();
+        holders.computeIfPresent(owner, (thread, count) -> count == 1 ? null : count - 1);
+        try {
+            if (closed || physical.isClosed() || !reset(physical)) {
+                destroy(physical);
+                return;
+            }
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+            }
+        } catch (SQLException e) {
+            destroy(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean reset(Connection physical) {
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Не удалось сбросить состояние соединения, оно будет закрыто: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        synchronized (idle) {
+            Iterator<IdleConnection> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                IdleConnection connection = iterator.next();
+                if (isExpired(connection, now)) {
+                    iterator.remove();
+                    destroy(connection.physical);
+                }
+            }
+        }
+    }
+
+    private void destroy(Connection physical) {
+        destroyedCount.incrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            logger.debug("Ошибка закрытия соединения: {}", e.getMessage());
+        }
+    }
+
+    private Connection wrap(Connection physical, Thread owner) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical, owner));
+    }
+
+    private static final class IdleConnection {
+        private final Connection physical;
+        private final long releasedAt;
+
+        private IdleConnection(Connection physical, long releasedAt) {
+            this.physical = physical;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    /**
+     * Логическое соединение: перехватывает close()/isClosed(), остальное делегирует.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final Thread owner;
+        private boolean logicallyClosed;
+
+        private PooledConnectionHandler(Connection physical, Thread owner) {
+            this.physical = physical;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(physical, owner);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "]" + physical;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Соединение уже возвращено в пул");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
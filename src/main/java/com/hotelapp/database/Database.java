@@ -1,30 +1,187 @@
 package com.hotelapp.database;
 
+import com.hotelapp.jfr.DatabaseInitEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.stream.Collectors;
 
 
 public final class Database {
 
     private static final Logger logger = LoggerFactory.getLogger(Database.class);
-    private static final String DB_URL = "jdbc:sqlite:hotel.db";
+    private static DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+    private static volatile ConnectionPool pool;
+    private static volatile ConnectionPool readPool;
+    private static WalCheckpointer checkpointer;
+    private static SlowQueryLog slowQueryLog;
     private static boolean initialized = false;
 
     private Database() {
     }
 
 
+    /**
+     * Выдаёт соединение для записи (и чтения) из пула. Закрытие соединения возвращает его в пул.
+     * В режиме WAL это единственное соединение-писатель: записи выполняются строго по очереди,
+     * и повторный getConnection() в потоке, который его уже держит, сразу завершается SQLException.
+     * Внутри записи читать нужно через то же соединение или через getReadConnection().
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        ConnectionPool current = pool;
+        if (current == null) {
+            createPools();
+            current = pool;
+        }
+        return current.borrow();
+    }
+
+    /**
+     * Выдаёт соединение только для чтения. В режиме WAL чтения идут через отдельный пул
+     * и не ждут писателя; в режиме журнала отката используется общий пул.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        ConnectionPool current = readPool;
+        if (current == null) {
+            createPools();
+            current = readPool;
+        }
+        return current.borrow();
+    }
+
+    private static synchronized void createPools() {
+        if (pool != null) {
+            return;
+        }
+        String url = config.getUrl();
+        if (config.getSlowQueryThresholdMillis() >= 0) {
+            slowQueryLog = new SlowQueryLog(config.getSlowQueryThresholdMillis(), Path.of(config.getSlowQueryLogFile()),
+                    config.getSlowQueryLogMaxBytes(), config.getSlowQueryLogMaxFiles());
+            logger.info("Журнал медленных запросов: {} (порог {} мс)", config.getSlowQueryLogFile(),
+                    config.getSlowQueryThresholdMillis());
+        }
+        if (config.getStorageMode() == DatabaseConfig.StorageMode.WAL) {
+            ConnectionPool writer = new ConnectionPool("writer", () -> traced(openWriter(url), "writer"),
+                    1, 0, config.getBorrowTimeoutMillis());
+            // Первое соединение-писатель переводит файл БД в WAL до открытия читателей
+            try {
+                writer.borrow().close();
+                logger.debug("Соединение-писатель открыто");
+            } catch (SQLException e) {
+                writer.close();
+                throw new IllegalStateException("Не удалось открыть БД в режиме WAL: " + e.getMessage(), e);
+            }
+            readPool = new ConnectionPool("reader", () -> traced(openReader(url), "reader"), config.getReadPoolSize(),
+                    config.getIdleTimeoutMillis(), config.getBorrowTimeoutMillis());
+            if (config.getCheckpointIntervalMillis() > 0) {
+                checkpointer = new WalCheckpointer(() -> openCheckpointer(url), config.getCheckpointIntervalMillis(),
+                        config.getCheckpointPassivePages(), config.getCheckpointTruncatePages());
+            }
+            pool = writer;
+            logger.info("БД открыта в режиме WAL: {} (читателей до {})", url, config.getReadPoolSize());
+        } else {
+            pool = new ConnectionPool("main", () -> traced(DriverManager.getConnection(url), "main"),
+                    config.getPoolMaxSize(), config.getIdleTimeoutMillis(), config.getBorrowTimeoutMillis());
+            readPool = pool;
+            logger.info("Создан пул соединений: {} (max={})", url, config.getPoolMaxSize());
+        }
+    }
+
+    private static Connection traced(Connection physical, String source) {
+        SlowQueryLog log = slowQueryLog;
+        return log != null ? log.wrap(physical, source) : physical;
+    }
+
+    private static Connection openWriter(String url) throws SQLException {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        sqliteConfig.setBusyTimeout(config.getBusyTimeoutMillis());
+        Connection connection = sqliteConfig.createConnection(url);
+        if (config.getCheckpointIntervalMillis() > 0) {
+            // Автоматический checkpoint остаётся страховкой на случай остановки фоновой задачи
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA wal_autocheckpoint=" + Math.max(config.getCheckpointTruncatePages() * 2, 1));
+            }
+        }
+        return connection;
+    }
+
+    private static Connection openReader(String url) throws SQLException {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setReadOnly(true);
+        sqliteConfig.setBusyTimeout(config.getBusyTimeoutMillis());
+        return sqliteConfig.createConnection(url);
+    }
+
+    private static Connection openCheckpointer(String url) throws SQLException {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setBusyTimeout(config.getBusyTimeoutMillis());
+        return sqliteConfig.createConnection(url);
+    }
+
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Сколько запросов записано в журнал медленных запросов (0, если журнал отключён).
+     */
+    public static long getSlowQueryCount() {
+        SlowQueryLog log = slowQueryLog;
+        return log != null ? log.getLoggedCount() : 0;
+    }
+
+    /**
+     * Фоновый checkpointer WAL (для тестов); null, если режим не WAL или задача отключена.
+     */
+    static synchronized WalCheckpointer getCheckpointer() {
+        return checkpointer;
+    }
+
+    public static PoolStats getReadPoolStats() {
+        ConnectionPool current = readPool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Переключает приложение на другую БД. Текущие пулы закрываются.
+     */
+    public static synchronized void configure(DatabaseConfig newConfig) {
+        shutdown();
+        config = newConfig;
+    }
+
+    public static DatabaseConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Закрывает пулы соединений. Повторный вызов getConnection() создаст новые пулы.
+     */
+    public static synchronized void shutdown() {
+        if (checkpointer != null) {
+            checkpointer.close();
+            checkpointer = null;
+        }
+        if (readPool != null && readPool != pool) {
+            readPool.close();
+        }
+        readPool = null;
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+            slowQueryLog = null;
+        }
+        initialized = false;
     }
 
 
@@ -33,38 +190,62 @@ public final class Database {
             logger.debug("База данных уже инициализирована");
             return;
         }
+        DatabaseInitEvent event = DatabaseInitEvent.start(config.getUrl());
         try (Connection connection = getConnection()) {
-            logger.info("Инициализация базы данных: {}", DB_URL);
-            runSchema(connection);
-            seedIfEmpty(connection);
+            logger.info("Инициализация базы данных: {}", config.getUrl());
+            int latest = SchemaMigrator.latestVersion();
+            int current = SchemaMigrator.currentVersion(connection);
+            if (current == latest) {
+                // Быстрый путь: схема актуальна, миграции и демо-данные не проверяем
+                logger.info("Схема БД актуальна (версия {})", current);
+                event.setVersions(current, current, 0);
+            } else {
+                int applied = SchemaMigrator.migrate(connection);
+                logger.info("Схема БД обновлена с версии {} до {} (миграций: {})", current, latest, applied);
+                event.setVersions(current, latest, applied);
+                seedIfEmpty(connection);
+            }
+            pruneDeletedRows(connection);
             initialized = true;
+            event.succeeded();
             logger.info("База данных успешно инициализирована");
         } catch (SQLException | IOException e) {
             logger.error("Ошибка инициализации БД", e);
             System.err.println("Ошибка инициализации БД: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            event.finish();
         }
     }
 
-    private static void runSchema(Connection connection) throws IOException, SQLException {
-        logger.debug("Загрузка schema.sql");
-        try (InputStream inputStream = Database.class.getResourceAsStream("/sql/schema.sql")) {
-            if (inputStream == null) {
-                logger.error("Файл schema.sql не найден в /sql/schema.sql");
-                throw new IOException("Не найден файл schema.sql в /sql/schema.sql");
-            }
-            String sql = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-                    .lines()
-                    .collect(Collectors.joining("\n"));
-
-            try (Statement statement = connection.createStatement()) {
-                for (String chunk : sql.split(";")) {
-                    String trimmed = chunk.trim();
-                    if (!trimmed.isEmpty()) {
-                        statement.execute(trimmed);
-                    }
-                }
+    /**
+     * Журнал удалений deleted_rows нужен только клиентам, которые держат старую версию данных.
+     * Записи старше заданного числа версий удаляются; клиент, чья версия ниже pruned_version,
+     * получает от findChangedSince все строки заново.
+     */
+    private static void pruneDeletedRows(Connection connection) throws SQLException {
+        long horizon;
+        long pruned;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, pruned_version FROM data_version WHERE id = 1")) {
+            if (!rs.next()) {
+                return;
             }
+            horizon = rs.getLong(1) - config.getDeletedRowsKeepVersions();
+            pruned = rs.getLong(2);
+        }
+        if (horizon <= pruned) {
+            return;
+        }
+        // Сначала граница: если удаление прервётся, клиенты лишь перечитают таблицу целиком
+        try (PreparedStatement ps = connection.prepareStatement("UPDATE data_version SET pruned_version = ? WHERE id = 1")) {
+            ps.setLong(1, horizon);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = connection.prepareStatement("DELETE FROM deleted_rows WHERE row_version <= ?")) {
+            ps.setLong(1, horizon);
+            int removed = ps.executeUpdate();
+            logger.info("Журнал удалений очищен до версии {} (записей: {})", horizon, removed);
         }
     }
 
@@ -128,8 +309,8 @@ public final class Database {
                 LocalDate end = start.plusDays(3);
                 ps.setInt(1, 1);
                 ps.setInt(2, 1);
-                ps.setString(3, start.toString());
-                ps.setString(4, end.toString());
+                ps.setLong(3, start.toEpochDay());
+                ps.setLong(4, end.toEpochDay());
                 ps.setString(5, "BOOKED");
                 ps.executeUpdate();
             }
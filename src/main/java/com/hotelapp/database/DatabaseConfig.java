@@ -0,0 +1,216 @@
+package com.hotelapp.database;
+
+/**
+ * DatabaseConfig — настройки подключения к БД и пула соединений.
+ * Значения по умолчанию можно переопределить системными свойствами (-Dhotel.db.url=...).
+ */
+public final class DatabaseConfig {
+
+    public static final String DEFAULT_URL = "jdbc:sqlite:hotel.db";
+
+    private String url;
+    private int poolMaxSize = 4;
+    private long idleTimeoutMillis = 300_000;
+    private long borrowTimeoutMillis = 10_000;
+    private StorageMode storageMode = StorageMode.ROLLBACK;
+    private int readPoolSize = 4;
+    private int busyTimeoutMillis = 5_000;
+    private long checkpointIntervalMillis = 5_000;
+    private int checkpointPassivePages = 1_000;
+    private int checkpointTruncatePages = 4_000;
+    private long slowQueryThresholdMillis = 200;
+    // Файл журнала по умолчанию берётся из свойства и для конфигураций, созданных не через fromSystemProperties
+    private String slowQueryLogFile = System.getProperty("hotel.db.slowQuery.file", "logs/slow-queries.log");
+    private long slowQueryLogMaxBytes = 5 * 1024 * 1024;
+    private int slowQueryLogMaxFiles = 5;
+    private long deletedRowsKeepVersions = 100_000;
+
+    public DatabaseConfig(String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("URL базы данных не задан");
+        }
+        this.url = url;
+    }
+
+    public static DatabaseConfig fromSystemProperties() {
+        DatabaseConfig config = new DatabaseConfig(System.getProperty("hotel.db.url", DEFAULT_URL));
+        config.setPoolMaxSize(Integer.getInteger("hotel.db.pool.maxSize", config.poolMaxSize));
+        config.setIdleTimeoutMillis(Long.getLong("hotel.db.pool.idleTimeoutMs", config.idleTimeoutMillis));
+        config.setBorrowTimeoutMillis(Long.getLong("hotel.db.pool.borrowTimeoutMs", config.borrowTimeoutMillis));
+        config.setStorageMode(StorageMode.valueOf(
+                System.getProperty("hotel.db.mode", config.storageMode.name()).toUpperCase()));
+        config.setReadPoolSize(Integer.getInteger("hotel.db.readPool.maxSize", config.readPoolSize));
+        config.setBusyTimeoutMillis(Integer.getInteger("hotel.db.busyTimeoutMs", config.busyTimeoutMillis));
+        config.setCheckpointIntervalMillis(Long.getLong("hotel.db.checkpoint.intervalMs", config.checkpointIntervalMillis));
+        config.setCheckpointPassivePages(Integer.getInteger("hotel.db.checkpoint.passivePages", config.checkpointPassivePages));
+        config.setCheckpointTruncatePages(Integer.getInteger("hotel.db.checkpoint.truncatePages", config.checkpointTruncatePages));
+        config.setSlowQueryThresholdMillis(Long.getLong("hotel.db.slowQuery.thresholdMs", config.slowQueryThresholdMillis));
+        config.setSlowQueryLogMaxBytes(Long.getLong("hotel.db.slowQuery.maxBytes", config.slowQueryLogMaxBytes));
+        config.setSlowQueryLogMaxFiles(Integer.getInteger("hotel.db.slowQuery.maxFiles", config.slowQueryLogMaxFiles));
+        config.setDeletedRowsKeepVersions(Long.getLong("hotel.db.deletedRows.keepVersions", config.deletedRowsKeepVersions));
+        return config;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public void setPoolMaxSize(int poolMaxSize) {
+        if (poolMaxSize < 1) {
+            throw new IllegalArgumentException("Размер пула должен быть > 0");
+        }
+        this.poolMaxSize = poolMaxSize;
+    }
+
+    /**
+     * Время простоя, после которого соединение закрывается. 0 — не закрывать.
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    /**
+     * Размер пула соединений только для чтения (используется в режиме WAL).
+     */
+    public int getReadPoolSize() {
+        return readPoolSize;
+    }
+
+    public void setReadPoolSize(int readPoolSize) {
+        if (readPoolSize < 1) {
+            throw new IllegalArgumentException("Размер пула чтения должен быть > 0");
+        }
+        this.readPoolSize = readPoolSize;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public void setBusyTimeoutMillis(int busyTimeoutMillis) {
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    /**
+     * Период фоновой контрольной точки WAL. 0 — фоновая задача отключена.
+     */
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+
+    public void setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    /**
+     * Размер WAL (в страницах), начиная с которого выполняется PASSIVE checkpoint.
+     */
+    public int getCheckpointPassivePages() {
+        return checkpointPassivePages;
+    }
+
+    public void setCheckpointPassivePages(int checkpointPassivePages) {
+        this.checkpointPassivePages = checkpointPassivePages;
+    }
+
+    /**
+     * Размер WAL (в страницах), начиная с которого файл WAL усекается (TRUNCATE).
+     */
+    public int getCheckpointTruncatePages() {
+        return checkpointTruncatePages;
+    }
+
+    public void setCheckpointTruncatePages(int checkpointTruncatePages) {
+        this.checkpointTruncatePages = checkpointTruncatePages;
+    }
+
+    /**
+     * Порог журнала медленных запросов. Отрицательное значение — журнал отключён, 0 — писать все запросы.
+     */
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    public String getSlowQueryLogFile() {
+        return slowQueryLogFile;
+    }
+
+    public void setSlowQueryLogFile(String slowQueryLogFile) {
+        this.slowQueryLogFile = slowQueryLogFile;
+    }
+
+    /**
+     * Размер файла журнала, после которого он ротируется.
+     */
+    public long getSlowQueryLogMaxBytes() {
+        return slowQueryLogMaxBytes;
+    }
+
+    public void setSlowQueryLogMaxBytes(long slowQueryLogMaxBytes) {
+        this.slowQueryLogMaxBytes = slowQueryLogMaxBytes;
+    }
+
+    /**
+     * Сколько файлов журнала хранить, включая текущий.
+     */
+    public int getSlowQueryLogMaxFiles() {
+        return slowQueryLogMaxFiles;
+    }
+
+    public void setSlowQueryLogMaxFiles(int slowQueryLogMaxFiles) {
+        this.slowQueryLogMaxFiles = slowQueryLogMaxFiles;
+    }
+
+    /**
+     * Сколько последних версий данных хранить в журнале удалений (очищается при запуске).
+     */
+    public long getDeletedRowsKeepVersions() {
+        return deletedRowsKeepVersions;
+    }
+
+    public void setDeletedRowsKeepVersions(long deletedRowsKeepVersions) {
+        this.deletedRowsKeepVersions = deletedRowsKeepVersions;
+    }
+
+    /**
+     * StorageMode — режим журнала SQLite.
+     */
+    public enum StorageMode {
+        /** Классический журнал отката: один пул на чтение и запись. */
+        ROLLBACK,
+        /** WAL: один писатель и пул читателей, чтения не ждут записи. */
+        WAL
+    }
+}
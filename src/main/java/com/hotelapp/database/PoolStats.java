@@ -0,0 +1,87 @@
+package com.hotelapp.database;
+
+/**
+ * PoolStats — снимок статистики пула соединений.
+ */
+public final class PoolStats {
+
+    private final String poolName;
+    private final int maxSize;
+    private final int activeCount;
+    private final int idleCount;
+    private final long borrowCount;
+    private final long totalBorrowWaitNanos;
+    private final long maxBorrowWaitNanos;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailureCount;
+    private final long timeoutCount;
+
+    PoolStats(String poolName, int maxSize, int activeCount, int idleCount, long borrowCount,
+              long totalBorrowWaitNanos, long maxBorrowWaitNanos, long createdCount,
+              long destroyedCount, long validationFailureCount, long timeoutCount) {
+        this.poolName = poolName;
+        this.maxSize = maxSize;
+        this.activeCount = activeCount;
+        this.idleCount = idleCount;
+        this.borrowCount = borrowCount;
+        this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+        this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailureCount = validationFailureCount;
+        this.timeoutCount = timeoutCount;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public double getAverageBorrowWaitMicros() {
+        return borrowCount == 0 ? 0 : totalBorrowWaitNanos / 1_000.0 / borrowCount;
+    }
+
+    public double getMaxBorrowWaitMicros() {
+        return maxBorrowWaitNanos / 1_000.0;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: active=%d, idle=%d, max=%d, borrows=%d, avgWait=%.1f мкс, maxWait=%.1f мкс, "
+                        + "created=%d, destroyed=%d, invalid=%d, timeouts=%d",
+                poolName, activeCount, idleCount, maxSize, borrowCount, getAverageBorrowWaitMicros(),
+                getMaxBorrowWaitMicros(), createdCount, destroyedCount, validationFailureCount, timeoutCount);
+    }
+}
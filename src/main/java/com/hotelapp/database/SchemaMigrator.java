@@ -0,0 +1,221 @@
+package com.hotelapp.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * SchemaMigrator — версионные миграции схемы.
+ * Миграции лежат в /sql/migrations/V1.sql, V2.sql, ... (первая строка-комментарий — описание).
+ * Применённые версии и контрольные суммы хранятся в таблице schema_version,
+ * номер текущей версии дублируется в PRAGMA user_version для быстрого старта.
+ */
+public final class SchemaMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String MIGRATIONS_PATH = "/sql/migrations/V";
+    private static final Pattern TRIGGER_START = Pattern.compile("^CREATE\\s+(TEMP\\s+|TEMPORARY\\s+)?TRIGGER\\b.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TRIGGER_END = Pattern.compile("^END\\s*;$", Pattern.CASE_INSENSITIVE);
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Последняя версия схемы, известная приложению. Файлы миграций не читаются.
+     */
+    public static int latestVersion() {
+        int version = 0;
+        while (SchemaMigrator.class.getResource(resourceName(version + 1)) != null) {
+            version++;
+        }
+        return version;
+    }
+
+    /**
+     * Текущая версия схемы в БД (0 — схема ещё не создана или создана до появления миграций).
+     */
+    public static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Применяет недостающие миграции. Каждая миграция выполняется в отдельной транзакции.
+     *
+     * @return количество применённых миграций
+     */
+    public static int migrate(Connection connection) throws SQLException, IOException {
+        return migrate(connection, MIGRATIONS_PATH);
+    }
+
+    /**
+     * То же для миграций из другого каталога ресурсов; path — начало имени файла, например "/sql/migrations/V".
+     */
+    static int migrate(Connection connection, String path) throws SQLException, IOException {
+        List<Migration> migrations = loadAll(path);
+        ensureVersionTable(connection);
+        Map<Integer, String> applied = appliedChecksums(connection);
+
+        int count = 0;
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version);
+            if (checksum != null) {
+                if (!checksum.equals(migration.checksum)) {
+                    throw new IllegalStateException("Миграция V" + migration.version
+                            + " изменена после применения (контрольная сумма не совпадает)");
+                }
+                continue;
+            }
+            apply(connection, migration);
+            count++;
+        }
+        return count;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        logger.info("Применение миграции V{}: {}", migration.version, migration.description);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : splitStatements(migration.sql)) {
+                statement.execute(sql);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO schema_version(version, description, checksum, applied_at) VALUES(?,?,?,datetime('now'))")) {
+                ps.setInt(1, migration.version);
+                ps.setString(2, migration.description);
+                ps.setString(3, migration.checksum);
+                ps.executeUpdate();
+            }
+            statement.execute("PRAGMA user_version=" + migration.version);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new SQLException("Ошибка миграции V" + migration.version + ": " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void ensureVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        checksum TEXT NOT NULL,
+                        applied_at TEXT NOT NULL
+                    )""");
+        }
+    }
+
+    private static Map<Integer, String> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    private static List<Migration> loadAll(String path) throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (int version = 1; ; version++) {
+            try (InputStream inputStream = SchemaMigrator.class.getResourceAsStream(path + version + ".sql")) {
+                if (inputStream == null) {
+                    break;
+                }
+                String sql = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+                        .lines()
+                        .collect(Collectors.joining("\n"));
+                migrations.add(new Migration(version, describe(sql), sql, checksum(sql)));
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * Делит скрипт на операторы по ';' в конце строки. Тело триггера (BEGIN ... END;)
+     * считается одним оператором.
+     */
+    static List<String> splitStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || (trimmed.startsWith("--") && current.length() == 0)) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (!trimmed.endsWith(";")) {
+                continue;
+            }
+            String statement = current.toString().trim();
+            boolean trigger = TRIGGER_START.matcher(statement).matches();
+            if (!trigger || TRIGGER_END.matcher(trimmed).matches()) {
+                statements.add(trigger ? statement : statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String describe(String sql) {
+        String firstLine = sql.lines().findFirst().orElse("").trim();
+        return firstLine.startsWith("--") ? firstLine.substring(2).trim() : "";
+    }
+
+    private static String checksum(String sql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(sql.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private static String resourceName(int version) {
+        return MIGRATIONS_PATH + version + ".sql";
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String sql;
+        private final String checksum;
+
+        private Migration(int version, String description, String sql, String checksum) {
+            this.version = version;
+            this.description = description;
+            this.sql = sql;
+            this.checksum = checksum;
+        }
+    }
+}
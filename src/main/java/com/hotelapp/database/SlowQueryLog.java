@@ -0,0 +1,378 @@
+package com.hotelapp.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SlowQueryLog — журнал медленных запросов. Соединения оборачиваются так, что каждый запрос,
+ * выполнявшийся дольше порога, записывается в файл вместе с параметрами, временем и планом
+ * (EXPLAIN QUERY PLAN). Значения персональных данных гостей и пользователей в параметрах не пишутся.
+ *
+ * <p>Время запроса на чтение считается от execute до закрытия statement (или следующего execute),
+ * т.е. вместе с чтением всех строк — именно столько ждёт вызывающий код.
+ * Запись в файл идёт в отдельном потоке; файл ротируется по размеру (slow-queries.log.1, .2, ...).
+ */
+public final class SlowQueryLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    // Персональные данные: значения этих столбцов не пишутся. Если столбец параметра определить
+    // не удалось, скрываются все строковые параметры запросов к таблицам гостей и пользователей
+    private static final Set<String> SENSITIVE_COLUMNS = Set.of("name", "passport", "phone", "username",
+            "password_hash", "guests_fts");
+    private static final Pattern SENSITIVE_TABLES = Pattern.compile("\\b(guests|guests_fts|users)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARISON = Pattern.compile(
+            "([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>|(?i:LIKE|MATCH|GLOB))\\s*$");
+    private static final Pattern INSERT = Pattern.compile(
+            "INSERT\\s+INTO\\s+\\w+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_CACHED_PLANS = 200;
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ExecutorService writer;
+    private final Map<String, String> plans = new HashMap<>();
+    private final AtomicLong loggedCount = new AtomicLong();
+
+    public SlowQueryLog(long thresholdMillis, Path file, long maxFileBytes, int maxFiles) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "hotel-slow-query-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Соединение, statement которого замеряют время выполнения.
+     */
+    public Connection wrap(Connection physical, String source) {
+        return (Connection) Proxy.newProxyInstance(
+                SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(physical, source));
+    }
+
+    /**
+     * Сколько запросов записано в журнал.
+     */
+    public long getLoggedCount() {
+        return loggedCount.get();
+    }
+
+    /**
+     * Дожидается записи накопленных записей и останавливает поток журнала.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Журнал медленных запросов не успел записать все записи");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void check(Connection physical, String source, String sql, List<Object> params, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos || sql == null) {
+            return;
+        }
+        loggedCount.incrementAndGet();
+        String plan = plan(physical, sql, params);
+        String redacted = redact(sql, params);
+        logger.warn("Медленный запрос ({} мс, {}): {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), source,
+                firstLine(sql));
+        String entry = LocalDateTime.now() + " | " + String.format("%.1f", elapsedNanos / 1e6) + " мс | " + source
+                + System.lineSeparator() + "SQL: " + sql.strip()
+                + System.lineSeparator() + "Параметры: " + redacted
+                + System.lineSeparator() + "План:" + System.lineSeparator() + plan
+                + System.lineSeparator();
+        try {
+            writer.execute(() -> append(entry));
+        } catch (RuntimeException e) {
+            logger.debug("Журнал медленных запросов закрыт, запись пропущена");
+        }
+    }
+
+    /**
+     * План запроса; для одного и того же SQL строится один раз.
+     */
+    private String plan(Connection physical, String sql, List<Object> params) {
+        synchronized (plans) {
+            String cached = plans.get(sql);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement ps = physical.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            Map<Integer, Integer> depth = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int level = depth.getOrDefault(rs.getInt("parent"), 0) + 1;
+                    depth.put(rs.getInt("id"), level);
+                    plan.append("  ".repeat(level)).append(rs.getString("detail")).append(System.lineSeparator());
+                }
+            }
+        } catch (SQLException e) {
+            plan.append("  (план недоступен: ").append(e.getMessage()).append(')').append(System.lineSeparator());
+        }
+        String result = plan.toString();
+        synchronized (plans) {
+            if (plans.size() >= MAX_CACHED_PLANS) {
+                plans.clear();
+            }
+            plans.put(sql, result);
+        }
+        return result;
+    }
+
+    static String redact(String sql, List<Object> params) {
+        boolean sensitiveTables = SENSITIVE_TABLES.matcher(sql).find();
+        String[] columns = parameterColumns(sql, params.size());
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            Object value = params.get(i);
+            result.append(i + 1).append(": ");
+            if (value instanceof String) {
+                String text = (String) value;
+                boolean sensitive = columns[i] == null ? sensitiveTables : SENSITIVE_COLUMNS.contains(columns[i]);
+                result.append(sensitive ? "<скрыто, " + text.length() + " симв.>" : "'" + text + "'");
+            } else {
+                result.append(value);
+            }
+        }
+        return result.append(']').toString();
+    }
+
+    /**
+     * Столбец, с которым связан каждый параметр: из списка столбцов INSERT или из сравнения «столбец = ?».
+     * null — определить не удалось (например, сравнение кортежей в keyset-пагинации).
+     */
+    static String[] parameterColumns(String sql, int count) {
+        String[] columns = new String[count];
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find()) {
+            String[] names = insert.group(1).split(",");
+            String[] values = insert.group(2).split(",");
+            int index = 0;
+            for (int i = 0; i < values.length && i < names.length; i++) {
+                if (values[i].trim().equals("?") && index < count) {
+                    columns[index++] = names[i].trim().toLowerCase();
+                }
+            }
+            return columns;
+        }
+        int index = 0;
+        for (int pos = sql.indexOf('?'); pos >= 0 && index < count; pos = sql.indexOf('?', pos + 1)) {
+            Matcher comparison = COMPARISON.matcher(sql.substring(0, pos));
+            if (comparison.find()) {
+                String column = comparison.group(1);
+                columns[index] = column.substring(column.lastIndexOf('.') + 1).toLowerCase();
+            }
+            index++;
+        }
+        return columns;
+    }
+
+    private void append(String entry) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+                rotate();
+            }
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(entry);
+                out.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось записать журнал медленных запросов {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * slow.log → slow.log.1 → slow.log.2 ...; самый старый файл сверх maxFiles удаляется.
+     */
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private static String firstLine(String sql) {
+        String text = sql.strip().replaceAll("\\s+", " ");
+        return text.length() > 120 ? text.substring(0, 120) + "…" : text;
+    }
+
+    /**
+     * Соединение: выдаёт замеряющие обёртки для prepareStatement/createStatement.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final String source;
+
+        private ConnectionHandler(Connection physical, String source) {
+            this.physical = physical;
+            this.source = source;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement":
+                    return statement(Statement.class, (Statement) result, null);
+                default:
+                    return result;
+            }
+        }
+
+        private Object statement(Class<?> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(
+                    SlowQueryLog.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(physical, source, statement, sql));
+        }
+    }
+
+    /**
+     * Statement: запоминает параметры и замеряет выполнение.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Connection physical;
+        private final String source;
+        private final Statement statement;
+        private final String preparedSql;
+        private final List<Object> params = new ArrayList<>();
+        // Незавершённый запрос на чтение: время считается до закрытия или следующего execute
+        private String pendingSql;
+        private List<Object> pendingParams;
+        private long pendingStart;
+
+        private StatementHandler(Connection physical, String source, Statement statement, String preparedSql) {
+            this.physical = physical;
+            this.source = source;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getDeclaringClass() == PreparedStatement.class) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (name.equals("close")) {
+                finishPending();
+            } else if (name.startsWith("execute")) {
+                finishPending();
+                return execute(method, args, name);
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object execute(Method method, Object[] args, String name) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            Object result = invokeTarget(method, args);
+            if (name.equals("executeQuery") || (name.equals("execute") && Boolean.TRUE.equals(result))) {
+                pendingSql = sql;
+                pendingParams = new ArrayList<>(params);
+                pendingStart = start;
+            } else {
+                check(physical, source, sql, new ArrayList<>(params), System.nanoTime() - start);
+            }
+            return result;
+        }
+
+        private void finishPending() {
+            if (pendingSql != null) {
+                String sql = pendingSql;
+                pendingSql = null;
+                check(physical, source, sql, pendingParams, System.nanoTime() - pendingStart);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            while (params.size() < index) {
+                params.add(null);
+            }
+            params.set(index - 1, value);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.hotelapp.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WalCheckpointer — фоновая контрольная точка WAL.
+ * Размер WAL оценивается по файлу -wal без обращения к БД; PASSIVE checkpoint выполняется,
+ * только когда WAL вырос до порога, и не блокирует ни читателей, ни писателя.
+ * Когда WAL вырастает выше второго порога и полностью перенесён в БД, файл усекается (TRUNCATE).
+ */
+final class WalCheckpointer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalCheckpointer.class);
+
+    private static final int WAL_HEADER = 32;
+    private static final int FRAME_HEADER = 24;
+
+    private final ConnectionPool.ConnectionFactory factory;
+    private final int passivePages;
+    private final int truncatePages;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong checkpointCount = new AtomicLong();
+    private final AtomicLong truncateCount = new AtomicLong();
+    private Connection connection;
+    private Path walFile;
+    // Поколение WAL (соль заголовка) и число его кадров, уже перенесённых в БД прошлым checkpoint
+    private long checkpointedSalt;
+    private int checkpointedFrames;
+
+    WalCheckpointer(ConnectionPool.ConnectionFactory factory, long intervalMillis, int passivePages, int truncatePages) {
+        this.factory = factory;
+        this.passivePages = passivePages;
+        this.truncatePages = truncatePages;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hotel-db-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    long getCheckpointCount() {
+        return checkpointCount.get();
+    }
+
+    long getTruncateCount() {
+        return truncateCount.get();
+    }
+
+    private void runSafely() {
+        try {
+            checkpoint();
+        } catch (SQLException e) {
+            logger.warn("Ошибка фоновой контрольной точки WAL: {}", e.getMessage());
+            closeConnection();
+        }
+    }
+
+    private void checkpoint() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = factory.create();
+            walFile = walFileOf(connection);
+        }
+        WalState wal = walFile != null ? WalState.read(walFile) : null;
+        if (wal != null) {
+            int pending = wal.frames - (wal.salt == checkpointedSalt ? checkpointedFrames : 0);
+            if (pending < passivePages) {
+                return;
+            }
+        }
+        int[] passive = run("PASSIVE");
+        int logFrames = passive[1];
+        checkpointCount.incrementAndGet();
+        if (wal != null) {
+            checkpointedSalt = wal.salt;
+            checkpointedFrames = passive[2];
+        }
+        logger.debug("WAL checkpoint PASSIVE: busy={}, log={}, checkpointed={}", passive[0], passive[1], passive[2]);
+        // Усекаем WAL только когда все кадры перенесены — иначе TRUNCATE ждал бы читателей
+        if (logFrames >= truncatePages && passive[2] == logFrames) {
+            int[] truncate = run("TRUNCATE");
+            if (truncate[0] == 0) {
+                truncateCount.incrementAndGet();
+                logger.debug("WAL усечён после {} кадров", logFrames);
+            }
+        }
+    }
+
+    private int[] run(String mode) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            if (!rs.next()) {
+                return new int[]{0, 0, 0};
+            }
+            return new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)};
+        }
+    }
+
+    private static Path walFileOf(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA database_list")) {
+            while (rs.next()) {
+                String file = rs.getString("file");
+                if ("main".equals(rs.getString("name")) && file != null && !file.isEmpty()) {
+                    return Path.of(file + "-wal");
+                }
+            }
+        }
+        // БД в памяти или временная: размер не оценить, checkpoint выполняется на каждом шаге
+        return null;
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Ошибка закрытия соединения checkpointer: {}", e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    /**
+     * Текущее поколение WAL: соль заголовка и число кадров. После checkpoint писатель начинает файл сначала
+     * с новой солью, поэтому действующие кадры — это префикс файла с солью из заголовка (ищется двоичным поиском).
+     */
+    static final class WalState {
+        private final long salt;
+        private final int frames;
+
+        private WalState(long salt, int frames) {
+            this.salt = salt;
+            this.frames = frames;
+        }
+
+        int getFrames() {
+            return frames;
+        }
+
+        static WalState read(Path walFile) throws SQLException {
+            if (!Files.exists(walFile)) {
+                return new WalState(0, 0);
+            }
+            try (RandomAccessFile file = new RandomAccessFile(walFile.toFile(), "r")) {
+                if (file.length() < WAL_HEADER) {
+                    return new WalState(0, 0);
+                }
+                file.seek(8);
+                int pageSize = file.readInt();
+                // В заголовке файла БД страница 65536 кодируется как 1; такое значение читаем так же,
+                // иначе кадр считался бы размером 25 байт и число кадров было бы неверным
+                if (pageSize == 1) {
+                    pageSize = 65536;
+                }
+                file.seek(16);
+                long salt = file.readLong();
+                long frameSize = FRAME_HEADER + (long) pageSize;
+                long low = 0;
+                long high = (file.length() - WAL_HEADER) / frameSize;
+                while (low < high) {
+                    long mid = (low + high + 1) >>> 1;
+                    file.seek(WAL_HEADER + (mid - 1) * frameSize + 8);
+                    if (file.readLong() == salt) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                return new WalState(salt, (int) Math.min(Integer.MAX_VALUE, low));
+            } catch (IOException e) {
+                throw new SQLException("Не удалось прочитать " + walFile + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeConnection();
+    }
+}
@@ -0,0 +1,262 @@
+package com.hotelapp.index;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BookingIntervalIndex — индекс активных броней в памяти: для каждого номера
+ * отсортированные по дате заезда интервалы [заезд, выезд) в днях от эпохи.
+ * Выселенные брони (CHECKED_OUT) в пересечениях не участвуют и в индекс не попадают,
+ * поэтому размер индекса не зависит от глубины истории.
+ */
+public class BookingIntervalIndex {
+
+    // Оценка накладных расходов для метрик памяти (64-битная JVM со сжатыми указателями)
+    private static final int ROOM_ENTRY_BYTES = 48 + 40;
+    private static final int BOOKING_ENTRY_BYTES = 48;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Map<Integer, RoomIntervals> rooms = new HashMap<>();
+    private final Map<Integer, Integer> roomByBooking = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Строит индекс по активным броням из БД.
+     */
+    public static BookingIntervalIndex build(BookingDAO bookingDAO) {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.reload(bookingDAO.findActive());
+        return index;
+    }
+
+    public void reload(List<Booking> activeBookings) {
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            roomByBooking.clear();
+            for (Booking booking : activeBookings) {
+                addLocked(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет или обновляет бронь. Неактивные брони удаляются из индекса.
+     */
+    public void put(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(booking.getId());
+            if (isActive(booking.getStatus())) {
+                addLocked(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int bookingId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(int bookingId) {
+        lock.readLock().lock();
+        try {
+            return roomByBooking.containsKey(bookingId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Есть ли у номера активная бронь, пересекающаяся с периодом [start, end).
+     */
+    public boolean hasOverlaps(int roomId, LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            RoomIntervals intervals = rooms.get(roomId);
+            return intervals != null && intervals.overlaps((int) start.toEpochDay(), (int) end.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сверяет индекс с активными бронями в БД.
+     *
+     * @return описания расхождений; пустой список — индекс согласован
+     */
+    public List<String> verify(BookingDAO bookingDAO) {
+        List<Booking> actual = bookingDAO.findActive();
+        List<String> problems = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> expected = new HashMap<>();
+            for (Booking booking : actual) {
+                expected.put(booking.getId(), booking.getRoomId());
+                RoomIntervals intervals = rooms.get(booking.getRoomId());
+                int start = (int) booking.getCheckInDate().toEpochDay();
+                int end = (int) booking.getCheckOutDate().toEpochDay();
+                if (intervals == null || !intervals.containsExactly(booking.getId(), start, end)) {
+                    problems.add("Бронь #" + booking.getId() + " (номер " + booking.getRoomId() + ") отсутствует в индексе или устарела");
+                }
+            }
+            for (Map.Entry<Integer, Integer> entry : roomByBooking.entrySet()) {
+                if (!expected.containsKey(entry.getKey())) {
+                    problems.add("Бронь #" + entry.getKey() + " есть в индексе, но неактивна в БД");
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return problems;
+    }
+
+    public IndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            int maxPerRoom = 0;
+            for (RoomIntervals intervals : rooms.values()) {
+                bytes += ROOM_ENTRY_BYTES + 3L * (ARRAY_HEADER_BYTES + 4L * intervals.capacity());
+                maxPerRoom = Math.max(maxPerRoom, intervals.size);
+            }
+            bytes += (long) roomByBooking.size() * BOOKING_ENTRY_BYTES;
+            return new IndexStats(rooms.size(), roomByBooking.size(), maxPerRoom, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Booking booking) {
+        rooms.computeIfAbsent(booking.getRoomId(), id -> new RoomIntervals())
+                .add(booking.getId(), (int) booking.getCheckInDate().toEpochDay(),
+                        (int) booking.getCheckOutDate().toEpochDay());
+        roomByBooking.put(booking.getId(), booking.getRoomId());
+    }
+
+    private void removeLocked(int bookingId) {
+        Integer roomId = roomByBooking.remove(bookingId);
+        if (roomId == null) {
+            return;
+        }
+        RoomIntervals intervals = rooms.get(roomId);
+        if (intervals != null) {
+            intervals.remove(bookingId);
+            if (intervals.size == 0) {
+                rooms.remove(roomId);
+            }
+        }
+    }
+
+    private static boolean isActive(BookingStatus status) {
+        return status == BookingStatus.BOOKED || status == BookingStatus.CHECKED_IN;
+    }
+
+    /**
+     * Интервалы одного номера в параллельных массивах, отсортированных по дате заезда.
+     * maxLength — длина самого длинного интервала: пересекающийся с [s, e) интервал
+     * обязан начинаться после s - maxLength, что ограничивает просмотр окном.
+     */
+    private static final class RoomIntervals {
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int[] ids = new int[4];
+        private int size;
+        private int maxLength;
+
+        void add(int id, int start, int end) {
+            if (size == starts.length) {
+                int capacity = size * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            int pos = firstStartAbove(start);
+            System.arraycopy(starts, pos, starts, pos + 1, size - pos);
+            System.arraycopy(ends, pos, ends, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            starts[pos] = start;
+            ends[pos] = end;
+            ids[pos] = id;
+            size++;
+            maxLength = Math.max(maxLength, end - start);
+        }
+
+        void remove(int id) {
+            int pos = indexOf(id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(starts, pos + 1, starts, pos, size - pos - 1);
+            System.arraycopy(ends, pos + 1, ends, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            maxLength = 0;
+            for (int i = 0; i < size; i++) {
+                maxLength = Math.max(maxLength, ends[i] - starts[i]);
+            }
+        }
+
+        boolean overlaps(int start, int end) {
+            for (int i = firstStartAbove(start - maxLength); i < size && starts[i] < end; i++) {
+                if (ends[i] > start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean containsExactly(int id, int start, int end) {
+            int pos = indexOf(id);
+            return pos >= 0 && starts[pos] == start && ends[pos] == end;
+        }
+
+        int capacity() {
+            return starts.length;
+        }
+
+        private int indexOf(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Позиция первого интервала с началом строго больше value.
+         */
+        private int firstStartAbove(int value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
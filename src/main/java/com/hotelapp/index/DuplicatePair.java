@@ -0,0 +1,46 @@
+package com.hotelapp.index;
+
+import com.hotelapp.model.Guest;
+
+/**
+ * DuplicatePair — два гостя, которые, вероятно, являются одним человеком, и причина подозрения.
+ */
+public final class DuplicatePair {
+
+    private final Guest first;
+    private final Guest second;
+    private final double score;
+    private final String reason;
+
+    DuplicatePair(Guest first, Guest second, double score, String reason) {
+        this.first = first;
+        this.second = second;
+        this.score = score;
+        this.reason = reason;
+    }
+
+    public Guest getFirst() {
+        return first;
+    }
+
+    public Guest getSecond() {
+        return second;
+    }
+
+    /**
+     * Сходство имён (0..1).
+     */
+    public double getScore() {
+        return score;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s) ↔ %s (%s): %s, сходство имён %.0f%%",
+                first.getName(), first.getPassport(), second.getName(), second.getPassport(), reason, score * 100);
+    }
+}
@@ -0,0 +1,166 @@
+package com.hotelapp.index;
+
+import com.hotelapp.model.Guest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GuestDuplicates — поиск вероятных дублей среди всех гостей.
+ * Сравнивать каждого с каждым — O(n²), поэтому гости раскладываются по блокам с общим ключом
+ * (паспорт, последние цифры телефона, каждое слово имени) и сравниваются только внутри блока:
+ * опечатка обычно затрагивает одно слово, и дубль попадает в блок другого. Крупные блоки
+ * (распространённые фамилии) просматриваются скользящим окном, так что общее время почти линейно.
+ */
+public final class GuestDuplicates {
+
+    static final double SAME_CONTACT_NAME = 0.5;
+    private static final int MAX_BLOCK = 200;
+    private static final int WINDOW = 20;
+    private static final int PHONE_KEY_DIGITS = 7;
+
+    private GuestDuplicates() {
+    }
+
+    /**
+     * Пары вероятных дублей по убыванию сходства имён.
+     */
+    public static List<DuplicatePair> find(List<Guest> guests) {
+        int count = guests.size();
+        String[] names = new String[count];
+        String[] passports = new String[count];
+        String[] phones = new String[count];
+        long[][] grams = new long[count][];
+        Map<String, List<BlockEntry>> blocks = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Guest guest = guests.get(i);
+            names[i] = Trigrams.normalizeName(guest.getName());
+            passports[i] = normalizePassport(guest.getPassport());
+            phones[i] = Trigrams.normalizePhone(guest.getPhone());
+            grams[i] = Trigrams.of(names[i]);
+            addToBlocks(blocks, i, names[i], passports[i], phones[i]);
+        }
+
+        Set<Long> reported = new HashSet<>();
+        List<DuplicatePair> result = new ArrayList<>();
+        for (List<BlockEntry> block : blocks.values()) {
+            if (block.size() < 2) {
+                continue;
+            }
+            int window = block.size();
+            if (block.size() > MAX_BLOCK) {
+                block.sort(Comparator.comparing(entry -> entry.sortKey));
+                window = WINDOW;
+            }
+            for (int a = 0; a < block.size(); a++) {
+                for (int b = a + 1; b < block.size() && b <= a + window; b++) {
+                    int first = Math.min(block.get(a).guest, block.get(b).guest);
+                    int second = Math.max(block.get(a).guest, block.get(b).guest);
+                    double score = Trigrams.similarity(grams[first], grams[second]);
+                    String reason = reason(score, names[first], names[second],
+                            !passports[first].isEmpty() && passports[first].equals(passports[second]),
+                            phones[first].length() >= PHONE_KEY_DIGITS && phones[first].equals(phones[second]));
+                    // Пара может встретиться в нескольких блоках; запоминаются только найденные дубли
+                    if (reason != null && reported.add((long) first << 32 | second)) {
+                        result.add(new DuplicatePair(guests.get(first), guests.get(second), score, reason));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(DuplicatePair::getScore).reversed());
+        return result;
+    }
+
+    /**
+     * Ключи блоков гостя: паспорт, последние цифры телефона и каждое слово имени.
+     * В блоке слова гости упорядочены по остальным словам имени: опечатка в другом слове
+     * оставляет дубль рядом с оригиналом, и скользящее окно по крупному блоку его не пропустит.
+     */
+    private static void addToBlocks(Map<String, List<BlockEntry>> blocks, int guest, String name, String passport, String phone) {
+        if (!passport.isEmpty()) {
+            addToBlock(blocks, "p:" + passport, guest, name);
+        }
+        if (phone.length() >= PHONE_KEY_DIGITS) {
+            addToBlock(blocks, "t:" + phone.substring(phone.length() - PHONE_KEY_DIGITS), guest, name);
+        }
+        if (name.isEmpty()) {
+            return;
+        }
+        String[] words = name.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder rest = new StringBuilder(name.length());
+            for (int j = 0; j < words.length; j++) {
+                if (j != i) {
+                    rest.append(words[j]).append(' ');
+                }
+            }
+            addToBlock(blocks, "w:" + words[i], guest, rest.toString());
+        }
+    }
+
+    private static void addToBlock(Map<String, List<BlockEntry>> blocks, String key, int guest, String sortKey) {
+        blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(new BlockEntry(guest, sortKey));
+    }
+
+    private static String reason(double nameScore, String firstName, String secondName, boolean samePassport, boolean samePhone) {
+        if (samePassport) {
+            return "совпадает паспорт";
+        }
+        if (samePhone && nameScore >= SAME_CONTACT_NAME) {
+            return "совпадает телефон";
+        }
+        // Одного сходства триграмм мало: у однофамильцев оно тоже высокое, поэтому — не больше одной опечатки
+        if (!firstName.isEmpty() && withinOneEdit(firstName, secondName)) {
+            return "похожее имя";
+        }
+        return null;
+    }
+
+    /**
+     * Строки совпадают или отличаются одной заменой, вставкой или удалением символа.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            return withinOneEdit(b, a);
+        }
+        if (b.length() - a.length() > 1) {
+            return false;
+        }
+        int start = 0;
+        while (start < a.length() && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (start == a.length()) {
+            return true;
+        }
+        // После первого расхождения остаток совпадает: при замене — со сдвигом 1 в обеих строках, иначе только в длинной
+        int skipA = a.length() == b.length() ? 1 : 0;
+        return a.regionMatches(start + skipA, b, start + 1, a.length() - start - skipA);
+    }
+
+    private static final class BlockEntry {
+        private final int guest;
+        private final String sortKey;
+
+        private BlockEntry(int guest, String sortKey) {
+            this.guest = guest;
+            this.sortKey = sortKey;
+        }
+    }
+
+    /**
+     * Паспорт без пробелов и дефисов в верхнем регистре: «ab 123-456» и «AB123456» совпадают.
+     */
+    private static String normalizePassport(String passport) {
+        if (passport == null) {
+            return "";
+        }
+        return passport.replaceAll("[^\\p{L}\\p{N}]", "").toUpperCase(Locale.ROOT);
+    }
+}
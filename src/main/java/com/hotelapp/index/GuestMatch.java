@@ -0,0 +1,30 @@
+package com.hotelapp.index;
+
+import com.hotelapp.model.Guest;
+
+/**
+ * GuestMatch — найденный похожий гость и степень сходства (0..1) по имени или телефону.
+ */
+public final class GuestMatch {
+
+    private final Guest guest;
+    private final double score;
+
+    GuestMatch(Guest guest, double score) {
+        this.guest = guest;
+        this.score = score;
+    }
+
+    public Guest getGuest() {
+        return guest;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %.0f%%)", guest.getName(), guest.getPassport(), score * 100);
+    }
+}
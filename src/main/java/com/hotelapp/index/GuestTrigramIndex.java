@@ -0,0 +1,275 @@
+package com.hotelapp.index;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.model.Guest;
+import com.hotelapp.service.GuestListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * GuestTrigramIndex — триграммный индекс гостей в памяти для нечёткого поиска по имени и телефону:
+ * находит уже заведённого гостя, даже если имя введено с опечаткой, в другом порядке слов
+ * или телефон записан в другом формате. Обновляется через GuestListener при сохранении и удалении.
+ */
+public class GuestTrigramIndex implements GuestListener {
+
+    /**
+     * Минимальное сходство, с которого гость считается похожим.
+     */
+    public static final double MIN_SCORE = 0.45;
+
+    // Кандидаты берутся из самых редких триграмм запроса: частые («ов », «ин ») совпадают у половины базы
+    private static final int MAX_CANDIDATES = 20_000;
+    private static final int MIN_PHONE_DIGITS = 5;
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<Long, Postings> nameGrams = new HashMap<>();
+    private final Map<Long, Postings> phoneGrams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Гости, сохранённые или удалённые во время load(): их состояние берётся из уведомлений, а не из снимка БД
+    private Set<Integer> changedWhileLoading;
+
+    /**
+     * Строит индекс по всем гостям из БД.
+     */
+    public static GuestTrigramIndex build(GuestDAO guestDAO) {
+        GuestTrigramIndex index = new GuestTrigramIndex();
+        index.reload(guestDAO.findAll());
+        return index;
+    }
+
+    /**
+     * Заполняет индекс из БД, когда он уже подписан на изменения гостей (можно вызывать в фоне):
+     * гости, сохранённые или удалённые во время чтения, не перезаписываются прочитанным снимком.
+     */
+    public void load(GuestDAO guestDAO) {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Guest> guests = null;
+        try {
+            guests = guestDAO.findAll();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (guests != null) {
+                    for (Guest guest : guests) {
+                        if (!changedWhileLoading.contains(guest.getId())) {
+                            removeLocked(guest.getId());
+                            addLocked(guest);
+                        }
+                    }
+                }
+                changedWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void reload(List<Guest> guests) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            nameGrams.clear();
+            phoneGrams.clear();
+            for (Guest guest : guests) {
+                addLocked(guest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет или обновляет гостя (в индекс попадает копия: объект из формы может меняться дальше).
+     */
+    public void put(Guest guest) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(guest.getId());
+            }
+            removeLocked(guest.getId());
+            addLocked(guest);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int guestId) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(guestId);
+            }
+            removeLocked(guestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onGuestSaved(Guest guest) {
+        put(guest);
+    }
+
+    @Override
+    public void onGuestDeleted(int guestId) {
+        remove(guestId);
+    }
+
+    /**
+     * Гости, похожие на введённые имя или телефон, по убыванию сходства (не меньше MIN_SCORE).
+     *
+     * @param excludeId id редактируемого гостя, чтобы он не попал в подсказки к самому себе; 0 — нет
+     */
+    public List<GuestMatch> findSimilar(String name, String phone, int excludeId, int limit) {
+        long[] queryName = Trigrams.of(Trigrams.normalizeName(name));
+        String phoneDigits = Trigrams.normalizePhone(phone);
+        long[] queryPhone = phoneDigits.length() >= MIN_PHONE_DIGITS ? Trigrams.of(phoneDigits) : Trigrams.NONE;
+        List<GuestMatch> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = new HashSet<>();
+            collectCandidates(queryName, nameGrams, candidates);
+            collectCandidates(queryPhone, phoneGrams, candidates);
+            for (int id : candidates) {
+                if (id == excludeId) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                double score = Math.max(Trigrams.similarity(queryName, entry.nameGrams),
+                        Trigrams.similarity(queryPhone, entry.phoneGrams));
+                if (score >= MIN_SCORE) {
+                    matches.add(new GuestMatch(entry.guest, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(GuestMatch::getScore).reversed()
+                .thenComparing(match -> match.getGuest().getName()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            return String.format("гостей=%d, триграмм имён=%d, триграмм телефонов=%d",
+                    entries.size(), nameGrams.size(), phoneGrams.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collectCandidates(long[] grams, Map<Long, Postings> postings, Set<Integer> candidates) {
+        List<Postings> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        for (Postings list : lists) {
+            if (!candidates.isEmpty() && candidates.size() + list.size > MAX_CANDIDATES) {
+                break;
+            }
+            for (int i = 0; i < list.size; i++) {
+                candidates.add(list.ids[i]);
+            }
+        }
+    }
+
+    private void addLocked(Guest guest) {
+        Guest copy = new Guest(guest.getId(), guest.getName(), guest.getPassport(), guest.getPhone());
+        copy.setVersion(guest.getVersion());
+        Entry entry = new Entry(copy, Trigrams.of(Trigrams.normalizeName(guest.getName())),
+                Trigrams.of(Trigrams.normalizePhone(guest.getPhone())));
+        entries.put(guest.getId(), entry);
+        for (long gram : entry.nameGrams) {
+            nameGrams.computeIfAbsent(gram, key -> new Postings()).add(guest.getId());
+        }
+        for (long gram : entry.phoneGrams) {
+            phoneGrams.computeIfAbsent(gram, key -> new Postings()).add(guest.getId());
+        }
+    }
+
+    private void removeLocked(int guestId) {
+        Entry entry = entries.remove(guestId);
+        if (entry == null) {
+            return;
+        }
+        removePostings(nameGrams, entry.nameGrams, guestId);
+        removePostings(phoneGrams, entry.phoneGrams, guestId);
+    }
+
+    private static void removePostings(Map<Long, Postings> postings, long[] grams, int guestId) {
+        for (long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(guestId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Guest guest;
+        private final long[] nameGrams;
+        private final long[] phoneGrams;
+
+        private Entry(Guest guest, long[] nameGrams, long[] phoneGrams) {
+            this.guest = guest;
+            this.nameGrams = nameGrams;
+            this.phoneGrams = phoneGrams;
+        }
+    }
+
+    /**
+     * Список id гостей с данной триграммой: массив int без упаковки в Integer.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
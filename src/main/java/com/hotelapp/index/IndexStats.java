@@ -0,0 +1,41 @@
+package com.hotelapp.index;
+
+/**
+ * IndexStats — размер индекса броней и оценка занимаемой памяти.
+ */
+public final class IndexStats {
+
+    private final int roomCount;
+    private final int bookingCount;
+    private final int maxBookingsPerRoom;
+    private final long estimatedBytes;
+
+    IndexStats(int roomCount, int bookingCount, int maxBookingsPerRoom, long estimatedBytes) {
+        this.roomCount = roomCount;
+        this.bookingCount = bookingCount;
+        this.maxBookingsPerRoom = maxBookingsPerRoom;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public int getMaxBookingsPerRoom() {
+        return maxBookingsPerRoom;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("номеров=%d, броней=%d, макс. на номер=%d, память≈%d КБ",
+                roomCount, bookingCount, maxBookingsPerRoom, estimatedBytes / 1024);
+    }
+}
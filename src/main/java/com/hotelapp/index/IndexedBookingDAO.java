@@ -0,0 +1,68 @@
+package com.hotelapp.index;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * IndexedBookingDAO — BookingDAO, поддерживающий BookingIntervalIndex в актуальном состоянии
+ * при каждой записи и отвечающий на проверку пересечений из памяти, без обращения к SQLite.
+ */
+public class IndexedBookingDAO extends BookingDAO {
+
+    private final BookingIntervalIndex index;
+
+    public IndexedBookingDAO(BookingIntervalIndex index) {
+        this.index = index;
+    }
+
+    public BookingIntervalIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void insert(Booking booking) throws SQLException {
+        super.insert(booking);
+        index.put(booking);
+    }
+
+    @Override
+    public boolean insertIfFree(Booking booking) throws SQLException {
+        boolean inserted = super.insertIfFree(booking);
+        if (inserted) {
+            index.put(booking);
+        }
+        return inserted;
+    }
+
+    @Override
+    public void updateStatus(int bookingId, BookingStatus status) throws SQLException {
+        super.updateStatus(bookingId, status);
+        syncIndex(bookingId, status);
+    }
+
+    @Override
+    public boolean changeStatus(int bookingId, BookingStatus expected, BookingStatus status) throws SQLException {
+        boolean changed = super.changeStatus(bookingId, expected, status);
+        if (changed) {
+            syncIndex(bookingId, status);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean hasOverlaps(int roomId, LocalDate start, LocalDate end) {
+        return index.hasOverlaps(roomId, start, end);
+    }
+
+    private void syncIndex(int bookingId, BookingStatus status) {
+        if (status == BookingStatus.CHECKED_OUT) {
+            index.remove(bookingId);
+        } else if (!index.contains(bookingId)) {
+            findById(bookingId).ifPresent(index::put);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotelapp.index;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Trigrams — нормализация имён и телефонов и разбиение на триграммы для нечёткого сравнения.
+ * Триграмма из трёх символов UTF-16 упакована в long; массив триграмм отсортирован и без повторов,
+ * поэтому сходство двух строк считается слиянием за линейное время.
+ */
+final class Trigrams {
+
+    static final long[] NONE = new long[0];
+
+    private Trigrams() {
+    }
+
+    /**
+     * Имя в нижнем регистре, ё → е, слова через один пробел в алфавитном порядке
+     * («Иван Иванов» и «Иванов Иван» совпадают).
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String[] words = name.toLowerCase(Locale.ROOT).replace('ё', 'е').split("[^\\p{L}\\p{N}]+");
+        Arrays.sort(words);
+        StringBuilder result = new StringBuilder(name.length());
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(word);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Только цифры телефона: «+7 (900) 123-45-67» и «79001234567» совпадают.
+     */
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Триграммы строки с пробелом в начале и в конце, чтобы начало и конец слова весили больше.
+     */
+    static long[] of(String normalized) {
+        if (normalized.isEmpty()) {
+            return NONE;
+        }
+        String padded = ' ' + normalized + ' ';
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return unique == grams.length ? grams : Arrays.copyOf(grams, unique);
+    }
+
+    /**
+     * Коэффициент Дайса: 2·|A ∩ B| / (|A| + |B|), от 0 до 1.
+     */
+    static double similarity(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 2.0 * common / (a.length + b.length);
+    }
+}
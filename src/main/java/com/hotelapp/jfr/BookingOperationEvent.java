@@ -0,0 +1,87 @@
+package com.hotelapp.jfr;
+
+import com.hotelapp.model.Booking;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * BookingOperationEvent — событие JFR на бизнес-операцию с бронью (создание, заселение, выселение).
+ * Если операция завершилась исключением, succeeded = false.
+ *
+ * <pre>
+ * BookingOperationEvent event = BookingOperationEvent.start("checkIn");
+ * try {
+ *     ...
+ *     event.setBooking(booking);
+ *     event.succeeded();
+ * } finally {
+ *     event.finish();
+ * }
+ * </pre>
+ */
+@Name("com.hotelapp.BookingOperation")
+@Label("Операция с бронью")
+@Category({"Hotel Admin", "Бизнес-операции"})
+public final class BookingOperationEvent extends Event {
+
+    @Label("Операция")
+    String operation;
+
+    @Label("Бронь")
+    int bookingId;
+
+    @Label("Номер (id)")
+    int roomId;
+
+    @Label("Гость (id)")
+    int guestId;
+
+    @Label("Ночей")
+    long nights;
+
+    @Label("Сумма")
+    @Description("Начисленная сумма при выселении")
+    double amount;
+
+    @Label("Успешно")
+    boolean succeeded;
+
+    public static BookingOperationEvent start(String operation) {
+        BookingOperationEvent event = new BookingOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void setBooking(Booking booking) {
+        bookingId = booking.getId();
+        roomId = booking.getRoomId();
+        guestId = booking.getGuestId();
+        if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
+            nights = booking.getCheckOutDate().toEpochDay() - booking.getCheckInDate().toEpochDay();
+        }
+    }
+
+    public void setRoomId(int roomId) {
+        this.roomId = roomId;
+    }
+
+    public void setGuestId(int guestId) {
+        this.guestId = guestId;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public void succeeded() {
+        succeeded = true;
+    }
+
+    public void finish() {
+        commit();
+    }
+}
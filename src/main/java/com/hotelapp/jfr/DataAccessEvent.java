@@ -0,0 +1,64 @@
+package com.hotelapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+/**
+ * DataAccessEvent — событие JFR на вызов метода DAO: операция, таблица, число строк, время и исключение.
+ * Пишется из MethodMetrics по завершении вызова и только пока событие включено в записи:
+ * без записи вызов DAO не создаёт объектов. Время вызова — в поле elapsed (событие мгновенное,
+ * с отметкой времени окончания вызова), порог — настройка elapsedThreshold (jfr/hotel-admin.jfc).
+ */
+@Name("com.hotelapp.DataAccess")
+@Label("Обращение к БД")
+@Category({"Hotel Admin", "Данные"})
+@Description("Вызов метода DAO")
+public final class DataAccessEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(DataAccessEvent.class);
+
+    @Label("Операция")
+    @Description("Класс и метод DAO")
+    String operation;
+
+    @Label("Таблица")
+    String table;
+
+    @Label("Строк")
+    long rows;
+
+    @Label("Время вызова")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Ошибка")
+    @Description("Вызов завершился исключением")
+    boolean failed;
+
+    public static void emit(String operation, String table, long rows, boolean failed, long elapsedNanos) {
+        if (!TYPE.isEnabled()) {
+            return;
+        }
+        DataAccessEvent event = new DataAccessEvent();
+        event.operation = operation;
+        event.table = table;
+        event.rows = rows;
+        event.failed = failed;
+        event.elapsed = elapsedNanos;
+        event.commit();
+    }
+
+    @Name("elapsedThreshold")
+    @Label("Порог времени вызова")
+    @Description("Записываются вызовы не короче порога")
+    @SettingDefinition
+    protected boolean elapsedThreshold(ElapsedThreshold threshold) {
+        return threshold.accepts(elapsed);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hotelapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * DatabaseInitEvent — событие JFR на инициализацию БД (Database.initialize): миграции схемы и начальные данные.
+ */
+@Name("com.hotelapp.DatabaseInit")
+@Label("Инициализация БД")
+@Category({"Hotel Admin", "Данные"})
+public final class DatabaseInitEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Версия схемы до")
+    int fromVersion;
+
+    @Label("Версия схемы после")
+    int toVersion;
+
+    @Label("Применено миграций")
+    int migrations;
+
+    @Label("Успешно")
+    boolean succeeded;
+
+    public static DatabaseInitEvent start(String url) {
+        DatabaseInitEvent event = new DatabaseInitEvent();
+        event.url = url;
+        event.begin();
+        return event;
+    }
+
+    public void setVersions(int fromVersion, int toVersion, int migrations) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.migrations = migrations;
+    }
+
+    public void succeeded() {
+        succeeded = true;
+    }
+
+    public void finish() {
+        commit();
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotelapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+
+import java.util.Set;
+
+/**
+ * ElapsedThreshold — порог по полю elapsed для событий, которые пишутся по завершении вызова
+ * (у таких событий нет длительности, и обычный threshold к ним неприменим).
+ * Значение в формате JFR: «0 ms», «500 us», «1 s»; из нескольких записей действует меньший порог.
+ */
+@Name("com.hotelapp.ElapsedThreshold")
+@Label("Порог времени вызова")
+@Description("Минимальное время вызова, начиная с которого событие записывается")
+public final class ElapsedThreshold extends SettingControl {
+
+    private volatile String value = "0 ns";
+    private volatile long nanos;
+
+    boolean accepts(long elapsedNanos) {
+        return elapsedNanos >= nanos;
+    }
+
+    @Override
+    public String combine(Set<String> values) {
+        String result = null;
+        long min = Long.MAX_VALUE;
+        for (String candidate : values) {
+            long parsed = parseNanos(candidate);
+            if (parsed < min) {
+                min = parsed;
+                result = candidate;
+            }
+        }
+        return result != null ? result : "0 ns";
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.nanos = parseNanos(value);
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    static long parseNanos(String value) {
+        String text = value.trim();
+        int split = 0;
+        while (split < text.length() && Character.isDigit(text.charAt(split))) {
+            split++;
+        }
+        if (split == 0) {
+            return 0;
+        }
+        long amount = Long.parseLong(text.substring(0, split));
+        return switch (text.substring(split).trim()) {
+            case "", "ns" -> amount;
+            case "us" -> amount * 1_000L;
+            case "ms" -> amount * 1_000_000L;
+            case "s" -> amount * 1_000_000_000L;
+            case "m" -> amount * 60_000_000_000L;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotelapp.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FlightRecording — запись JFR со стандартным профилем JDK "default" и событиями приложения
+ * из /jfr/hotel-admin.jfc, чтобы снять запись у клиента одним свойством (-Dhotel.jfr.file=...),
+ * без правки командной строки JVM.
+ */
+public final class FlightRecording {
+
+    public static final String PROFILE = "/jfr/hotel-admin.jfc";
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecording.class);
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Настройки событий приложения из ресурсов.
+     */
+    public static Configuration profile() throws IOException, ParseException {
+        InputStream in = FlightRecording.class.getResourceAsStream(PROFILE);
+        if (in == null) {
+            throw new IOException("Не найден профиль JFR " + PROFILE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    /**
+     * Настройки записи: профиль JDK "default", поверх него — события приложения.
+     */
+    public static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        settings.putAll(profile().getSettings());
+        return settings;
+    }
+
+    /**
+     * Начинает запись в file; файл дописывается при stop() (или при завершении JVM).
+     */
+    public static synchronized void start(Path file) {
+        if (recording != null) {
+            return;
+        }
+        try {
+            Recording started = new Recording(settings());
+            started.setName("hotel-admin");
+            started.setToDisk(true);
+            started.setDumpOnExit(true);
+            started.setDestination(file);
+            started.start();
+            recording = started;
+            logger.info("Запись JFR начата: {}", file.toAbsolutePath());
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.warn("Не удалось начать запись JFR: {}", e.getMessage());
+        }
+    }
+
+    public static synchronized void stop() {
+        if (recording != null) {
+            Path destination = recording.getDestination();
+            recording.stop();
+            recording.close();
+            recording = null;
+            logger.info("Запись JFR сохранена: {}", destination);
+        }
+    }
+}
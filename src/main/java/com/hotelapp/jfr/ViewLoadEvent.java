@@ -0,0 +1,43 @@
+package com.hotelapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ViewLoadEvent — событие JFR на показ экрана в главном окне (MainController.loadView).
+ */
+@Name("com.hotelapp.ViewLoad")
+@Label("Показ экрана")
+@Category({"Hotel Admin", "Интерфейс"})
+public final class ViewLoadEvent extends Event {
+
+    @Label("Экран")
+    @Description("Ресурс FXML")
+    String view;
+
+    @Label("Из кэша")
+    @Description("Экран уже был загружен (или предзагружен) и показан повторно")
+    boolean cached;
+
+    @Label("Успешно")
+    boolean succeeded;
+
+    public static ViewLoadEvent start(String view, boolean cached) {
+        ViewLoadEvent event = new ViewLoadEvent();
+        event.view = view;
+        event.cached = cached;
+        event.begin();
+        return event;
+    }
+
+    public void succeeded() {
+        succeeded = true;
+    }
+
+    public void finish() {
+        commit();
+    }
+}
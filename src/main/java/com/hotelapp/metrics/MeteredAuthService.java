@@ -0,0 +1,21 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.UserDAO;
+import com.hotelapp.service.AuthService;
+
+/**
+ * MeteredAuthService — AuthService, который записывает метрики каждого вызова.
+ */
+public class MeteredAuthService extends AuthService {
+
+    private static final MethodMetrics LOGIN = Metrics.method("AuthService.login");
+
+    public MeteredAuthService(UserDAO userDAO) {
+        super(userDAO);
+    }
+
+    @Override
+    public boolean login(String username, String password) {
+        return LOGIN.time(() -> super.login(username, password));
+    }
+}
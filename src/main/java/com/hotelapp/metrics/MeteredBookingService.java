@@ -0,0 +1,116 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.BookingService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * MeteredBookingService — BookingService, который записывает метрики каждого вызова.
+ * Вызовы одного метода сервиса из другого (checkOut → calculateTotalCost) учитываются у обоих.
+ */
+public class MeteredBookingService extends BookingService {
+
+    private static final MethodMetrics GET_ALL_BOOKINGS = Metrics.method("BookingService.getAllBookings");
+    private static final MethodMetrics GET_BOOKINGS_PAGE = Metrics.method("BookingService.getBookingsPage");
+    private static final MethodMetrics GET_BOOKINGS_RANGE = Metrics.method("BookingService.getBookingsRange");
+    private static final MethodMetrics COUNT_BOOKINGS = Metrics.method("BookingService.countBookings");
+    private static final MethodMetrics GET_AVAILABLE_ROOMS = Metrics.method("BookingService.getAvailableRooms");
+    private static final MethodMetrics CREATE_BOOKING = Metrics.method("BookingService.createBooking");
+    private static final MethodMetrics CHECK_IN = Metrics.method("BookingService.checkIn");
+    private static final MethodMetrics CHECK_OUT = Metrics.method("BookingService.checkOut");
+    private static final MethodMetrics CALCULATE_TOTAL_COST = Metrics.method("BookingService.calculateTotalCost");
+    private static final MethodMetrics FIND_FIRST_FREE_ROOMS = Metrics.method("BookingService.findFirstFreeRooms");
+    private static final MethodMetrics GET_NIGHTLY_OCCUPANCY = Metrics.method("BookingService.getNightlyOccupancy");
+    private static final MethodMetrics GET_BOOKINGS_FOR_CHECK_IN = Metrics.method("BookingService.getBookingsForCheckIn");
+    private static final MethodMetrics GET_BOOKINGS_FOR_CHECK_OUT = Metrics.method("BookingService.getBookingsForCheckOut");
+
+    public MeteredBookingService(BookingDAO bookingDAO, RoomDAO roomDAO, GuestDAO guestDAO, PaymentDAO paymentDAO) {
+        super(bookingDAO, roomDAO, guestDAO, paymentDAO);
+    }
+
+    public MeteredBookingService(BookingDAO bookingDAO, RoomDAO roomDAO, GuestDAO guestDAO, PaymentDAO paymentDAO,
+                                 BookingIntervalIndex intervalIndex) {
+        super(bookingDAO, roomDAO, guestDAO, paymentDAO, intervalIndex);
+    }
+
+    @Override
+    public List<Booking> getAllBookings() {
+        return GET_ALL_BOOKINGS.time(super::getAllBookings);
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(String cursor, int pageSize) {
+        return GET_BOOKINGS_PAGE.time(() -> super.getBookingsPage(cursor, pageSize));
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(BookingDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        return GET_BOOKINGS_PAGE.time(() -> super.getBookingsPage(key, ascending, cursor, pageSize));
+    }
+
+    @Override
+    public List<Booking> getBookingsRange(BookingDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return GET_BOOKINGS_RANGE.time(() -> super.getBookingsRange(key, ascending, offset, limit));
+    }
+
+    @Override
+    public int countBookings() {
+        return COUNT_BOOKINGS.time(super::countBookings);
+    }
+
+    // getAvailableRooms(start, end) вызывает эту перегрузку и учитывается через неё
+    @Override
+    public List<Room> getAvailableRooms(LocalDate start, LocalDate end, String type, Integer minCapacity,
+                                        Double maxPrice) {
+        return GET_AVAILABLE_ROOMS.time(() -> super.getAvailableRooms(start, end, type, minCapacity, maxPrice));
+    }
+
+    @Override
+    public void createBooking(int guestId, int roomId, LocalDate start, LocalDate end) {
+        CREATE_BOOKING.run(() -> super.createBooking(guestId, roomId, start, end));
+    }
+
+    @Override
+    public void checkIn(int bookingId) {
+        CHECK_IN.run(() -> super.checkIn(bookingId));
+    }
+
+    @Override
+    public double checkOut(int bookingId, boolean paid) {
+        return CHECK_OUT.time(() -> super.checkOut(bookingId, paid));
+    }
+
+    @Override
+    public double calculateTotalCost(Booking booking) {
+        return CALCULATE_TOTAL_COST.time(() -> super.calculateTotalCost(booking));
+    }
+
+    @Override
+    public List<Room> findFirstFreeRooms(String type, LocalDate start, LocalDate end, int limit) {
+        return FIND_FIRST_FREE_ROOMS.time(() -> super.findFirstFreeRooms(type, start, end, limit));
+    }
+
+    @Override
+    public int[] getNightlyOccupancy(LocalDate start, LocalDate end) {
+        return GET_NIGHTLY_OCCUPANCY.time(() -> super.getNightlyOccupancy(start, end));
+    }
+
+    @Override
+    public List<Booking> getBookingsForCheckIn(LocalDate date) {
+        return GET_BOOKINGS_FOR_CHECK_IN.time(() -> super.getBookingsForCheckIn(date));
+    }
+
+    @Override
+    public List<Booking> getBookingsForCheckOut() {
+        return GET_BOOKINGS_FOR_CHECK_OUT.time(super::getBookingsForCheckOut);
+    }
+}
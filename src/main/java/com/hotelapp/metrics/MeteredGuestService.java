@@ -0,0 +1,86 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
+import com.hotelapp.index.DuplicatePair;
+import com.hotelapp.index.GuestMatch;
+import com.hotelapp.model.Guest;
+import com.hotelapp.service.GuestService;
+
+import java.util.List;
+
+/**
+ * MeteredGuestService — GuestService, который записывает метрики каждого вызова.
+ */
+public class MeteredGuestService extends GuestService {
+
+    private static final MethodMetrics GET_ALL_GUESTS = Metrics.method("GuestService.getAllGuests");
+    private static final MethodMetrics GET_GUESTS_PAGE = Metrics.method("GuestService.getGuestsPage");
+    private static final MethodMetrics GET_GUESTS_RANGE = Metrics.method("GuestService.getGuestsRange");
+    private static final MethodMetrics SEARCH_GUESTS = Metrics.method("GuestService.searchGuests");
+    private static final MethodMetrics SEARCH_GUESTS_FULL_TEXT = Metrics.method("GuestService.searchGuestsFullText");
+    private static final MethodMetrics FIND_SIMILAR_GUESTS = Metrics.method("GuestService.findSimilarGuests");
+    private static final MethodMetrics FIND_DUPLICATES = Metrics.method("GuestService.findDuplicates");
+    private static final MethodMetrics COUNT_GUESTS = Metrics.method("GuestService.countGuests");
+    private static final MethodMetrics SAVE_GUEST = Metrics.method("GuestService.saveGuest");
+    private static final MethodMetrics DELETE_GUEST = Metrics.method("GuestService.deleteGuest");
+
+    public MeteredGuestService(GuestDAO guestDAO) {
+        super(guestDAO);
+    }
+
+    @Override
+    public List<Guest> getAllGuests() {
+        return GET_ALL_GUESTS.time(super::getAllGuests);
+    }
+
+    @Override
+    public Page<Guest> getGuestsPage(String cursor, int pageSize) {
+        return GET_GUESTS_PAGE.time(() -> super.getGuestsPage(cursor, pageSize));
+    }
+
+    @Override
+    public Page<Guest> getGuestsPage(GuestDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        return GET_GUESTS_PAGE.time(() -> super.getGuestsPage(key, ascending, cursor, pageSize));
+    }
+
+    @Override
+    public List<Guest> getGuestsRange(GuestDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return GET_GUESTS_RANGE.time(() -> super.getGuestsRange(key, ascending, offset, limit));
+    }
+
+    @Override
+    public List<Guest> searchGuests(String query, int limit) {
+        return SEARCH_GUESTS.time(() -> super.searchGuests(query, limit));
+    }
+
+    @Override
+    public List<Guest> searchGuestsFullText(String query, int limit) {
+        return SEARCH_GUESTS_FULL_TEXT.time(() -> super.searchGuestsFullText(query, limit));
+    }
+
+    @Override
+    public List<GuestMatch> findSimilarGuests(String name, String phone, int excludeId, int limit) {
+        return FIND_SIMILAR_GUESTS.time(() -> super.findSimilarGuests(name, phone, excludeId, limit));
+    }
+
+    @Override
+    public List<DuplicatePair> findDuplicates() {
+        return FIND_DUPLICATES.time(super::findDuplicates);
+    }
+
+    @Override
+    public int countGuests() {
+        return COUNT_GUESTS.time(super::countGuests);
+    }
+
+    @Override
+    public void saveGuest(Guest guest) {
+        SAVE_GUEST.run(() -> super.saveGuest(guest));
+    }
+
+    @Override
+    public void deleteGuest(Guest guest) {
+        DELETE_GUEST.run(() -> super.deleteGuest(guest));
+    }
+}
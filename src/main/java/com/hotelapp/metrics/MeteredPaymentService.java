@@ -0,0 +1,27 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.service.PaymentService;
+
+/**
+ * MeteredPaymentService — PaymentService, который записывает метрики каждого вызова.
+ */
+public class MeteredPaymentService extends PaymentService {
+
+    private static final MethodMetrics CREATE_PAYMENT = Metrics.method("PaymentService.createPayment");
+    private static final MethodMetrics MARK_AS_PAID = Metrics.method("PaymentService.markAsPaid");
+
+    public MeteredPaymentService(PaymentDAO paymentDAO) {
+        super(paymentDAO);
+    }
+
+    @Override
+    public void createPayment(int bookingId, double amount, boolean paid) {
+        CREATE_PAYMENT.run(() -> super.createPayment(bookingId, amount, paid));
+    }
+
+    @Override
+    public void markAsPaid(int bookingId) {
+        MARK_AS_PAID.run(() -> super.markAsPaid(bookingId));
+    }
+}
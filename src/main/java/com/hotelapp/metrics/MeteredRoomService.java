@@ -0,0 +1,50 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.Changes;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.model.Room;
+import com.hotelapp.model.Room.RoomStatus;
+import com.hotelapp.service.RoomService;
+
+import java.util.List;
+
+/**
+ * MeteredRoomService — RoomService, который записывает метрики каждого вызова.
+ */
+public class MeteredRoomService extends RoomService {
+
+    private static final MethodMetrics GET_ALL_ROOMS = Metrics.method("RoomService.getAllRooms");
+    private static final MethodMetrics GET_ROOM_CHANGES = Metrics.method("RoomService.getRoomChanges");
+    private static final MethodMetrics SAVE_ROOM = Metrics.method("RoomService.saveRoom");
+    private static final MethodMetrics DELETE_ROOM = Metrics.method("RoomService.deleteRoom");
+    private static final MethodMetrics UPDATE_STATUS = Metrics.method("RoomService.updateStatus");
+
+    public MeteredRoomService(RoomDAO roomDAO) {
+        super(roomDAO);
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return GET_ALL_ROOMS.time(super::getAllRooms);
+    }
+
+    @Override
+    public Changes<Room> getRoomChanges(long since) {
+        return GET_ROOM_CHANGES.time(() -> super.getRoomChanges(since));
+    }
+
+    @Override
+    public void saveRoom(Room room) {
+        SAVE_ROOM.run(() -> super.saveRoom(room));
+    }
+
+    @Override
+    public void deleteRoom(Room room) {
+        DELETE_ROOM.run(() -> super.deleteRoom(room));
+    }
+
+    @Override
+    public void updateStatus(int id, RoomStatus status) {
+        UPDATE_STATUS.run(() -> super.updateStatus(id, status));
+    }
+}
@@ -0,0 +1,213 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.Changes;
+import com.hotelapp.dao.Page;
+import com.hotelapp.jfr.DataAccessEvent;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * MethodMetrics — счётчики одного метода: вызовы (включая ошибочные), ошибки, возвращённые строки
+ * и гистограмма времени.
+ * Счётчики на LongAdder, поэтому параллельные вызовы из фоновых потоков не конкурируют за одну ячейку.
+ *
+ * <pre>
+ * long startNanos = System.nanoTime();
+ * ...
+ * return FIND_ALL.done(startNanos, result);
+ * </pre>
+ * Для методов DAO (с таблицей) каждый вызов дополнительно пишется событием JFR DataAccessEvent,
+ * но только пока это событие включено в записи.
+ */
+public final class MethodMetrics implements MethodMetricsMXBean {
+
+    private final String name;
+    private final String table;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    MethodMetrics(String name, String table) {
+        this.name = name;
+        this.table = table;
+    }
+
+    /**
+     * Записывает завершённый вызов и возвращает его результат; число строк берётся из результата
+     * (размер списка или страницы, 0/1 для Optional и Boolean, изменённые и удалённые для Changes).
+     */
+    public <T> T done(long startNanos, T result) {
+        record(startNanos, rowsOf(result), false);
+        return result;
+    }
+
+    public int done(long startNanos, int result) {
+        record(startNanos, 1, false);
+        return result;
+    }
+
+    public boolean done(long startNanos, boolean result) {
+        record(startNanos, result ? 1 : 0, false);
+        return result;
+    }
+
+    public double done(long startNanos, double result) {
+        record(startNanos, 0, false);
+        return result;
+    }
+
+    public void done(long startNanos) {
+        record(startNanos, 0, false);
+    }
+
+    /**
+     * Ошибка БД, после которой метод возвращает значение по умолчанию (пустой список, Optional.empty()):
+     * вызов учитывается как ошибочный, и событие JFR пишется с failed=true.
+     */
+    public <T> T failed(long startNanos, T defaultResult) {
+        errors.increment();
+        record(startNanos, 0, true);
+        return defaultResult;
+    }
+
+    /**
+     * Вызов завершился исключением: учитывается и как вызов (со временем), и как ошибка.
+     */
+    public void failed(long startNanos) {
+        errors.increment();
+        record(startNanos, 0, true);
+    }
+
+    /**
+     * Выполняет work, записывая время, строки результата и исключения.
+     */
+    public <T> T time(Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return done(start, work.get());
+        } catch (RuntimeException | Error e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    public void run(Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+            done(start);
+        } catch (RuntimeException | Error e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = calls.sum();
+        return count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return percentileNanos(0.50) / 1e6;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return percentileNanos(0.95) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return percentileNanos(0.99) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        histogram.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: вызовов=%d, ошибок=%d, строк=%d, среднее=%.2f мс, p50=%.2f мс, p95=%.2f мс, p99=%.2f мс, max=%.2f мс",
+                name, getCalls(), getErrors(), getRows(), getMeanMillis(), getP50Millis(), getP95Millis(),
+                getP99Millis(), getMaxMillis());
+    }
+
+    private void record(long startNanos, long rowCount, boolean failed) {
+        long nanos = System.nanoTime() - startNanos;
+        calls.increment();
+        rows.add(rowCount);
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.record(nanos);
+        if (table != null) {
+            DataAccessEvent.emit(name, table, rowCount, failed, nanos);
+        }
+    }
+
+    /**
+     * Оценка по гистограмме не больше фактического максимума (верхняя граница корзины может его превышать).
+     */
+    private long percentileNanos(double quantile) {
+        return Math.min(histogram.percentile(quantile), maxNanos.get());
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Page) {
+            return ((Page<?>) result).getItems().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Boolean) {
+            return (Boolean) result ? 1 : 0;
+        }
+        if (result instanceof Changes) {
+            Changes<?> changes = (Changes<?>) result;
+            return changes.getChanged().size() + changes.getDeletedIds().size();
+        }
+        return result == null ? 0 : 1;
+    }
+}
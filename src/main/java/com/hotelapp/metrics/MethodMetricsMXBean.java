@@ -0,0 +1,28 @@
+package com.hotelapp.metrics;
+
+/**
+ * MethodMetricsMXBean — метрики одного метода DAO или сервиса в JMX
+ * (com.hotelapp:type=MethodMetrics,layer=...,name=...). Время — в миллисекундах.
+ */
+public interface MethodMetricsMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
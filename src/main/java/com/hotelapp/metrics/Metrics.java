@@ -0,0 +1,137 @@
+package com.hotelapp.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics — реестр метрик методов DAO и сервисов.
+ * Каждый метод получает свой MethodMetrics по имени «Класс.метод» один раз (в статическом поле),
+ * регистрируется в JMX как com.hotelapp:type=Metrics,class=...,method=...
+ * и попадает в периодическую сводку в журнале.
+ */
+public final class Metrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+
+    private static final boolean JMX_ENABLED = Boolean.parseBoolean(System.getProperty("hotel.metrics.jmx", "true"));
+
+    private static final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private static final Map<String, Long> reportedCalls = new HashMap<>();
+    private static ScheduledExecutorService reporter;
+
+    private Metrics() {
+    }
+
+    /**
+     * Метрики метода; повторный вызов с тем же именем возвращает тот же объект.
+     */
+    public static MethodMetrics method(String name) {
+        return method(name, null);
+    }
+
+    /**
+     * Метрики метода DAO; table попадает в события JFR DataAccessEvent.
+     */
+    public static MethodMetrics method(String name, String table) {
+        return methods.computeIfAbsent(name, key -> {
+            MethodMetrics metrics = new MethodMetrics(key, table);
+            if (JMX_ENABLED) {
+                register(metrics);
+            }
+            return metrics;
+        });
+    }
+
+    public static List<MethodMetrics> all() {
+        List<MethodMetrics> result = new ArrayList<>(methods.values());
+        result.sort(Comparator.comparing(MethodMetrics::getName));
+        return result;
+    }
+
+    public static void resetAll() {
+        methods.values().forEach(MethodMetrics::reset);
+    }
+
+    /**
+     * Запускает периодическую сводку в журнал; 0 или меньше — не запускать.
+     */
+    public static synchronized void startReporter(long intervalMillis) {
+        if (reporter != null || intervalMillis <= 0) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hotel-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleWithFixedDelay(() -> {
+            try {
+                logSummary();
+            } catch (RuntimeException e) {
+                logger.warn("Ошибка сводки метрик: {}", e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopReporter() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Пишет в журнал метрики методов, которые вызывались после предыдущей сводки
+     * (значения накопительные с запуска).
+     */
+    public static synchronized void logSummary() {
+        List<MethodMetrics> active = new ArrayList<>();
+        for (MethodMetrics metrics : all()) {
+            long calls = metrics.getCalls();
+            Long previous = reportedCalls.put(metrics.getName(), calls);
+            if (calls > 0 && (previous == null || previous != calls)) {
+                active.add(metrics);
+            }
+        }
+        if (active.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Метрики DAO и сервисов (с запуска):");
+        for (MethodMetrics metrics : active) {
+            summary.append(System.lineSeparator()).append("  ").append(metrics);
+        }
+        logger.info("{}", summary);
+    }
+
+    static ObjectName objectName(String name) throws Exception {
+        int dot = name.lastIndexOf('.');
+        String owner = dot < 0 ? "other" : name.substring(0, dot);
+        String method = dot < 0 ? name : name.substring(dot + 1);
+        return new ObjectName("com.hotelapp:type=Metrics,class=" + owner + ",method=" + method);
+    }
+
+    private static void register(MethodMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(metrics.getName());
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (Exception e) {
+            logger.warn("Не удалось зарегистрировать метрики {} в JMX: {}", metrics.getName(), e.getMessage());
+        }
+    }
+}
@@ -12,6 +12,9 @@ public class Booking {
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private BookingStatus status;
+    private long version;
+    private String checkInText;
+    private String checkOutText;
 
     public Booking() {
     }
@@ -56,6 +59,7 @@ public class Booking {
 
     public void setCheckInDate(LocalDate checkInDate) {
         this.checkInDate = checkInDate;
+        checkInText = null;
     }
 
     public LocalDate getCheckOutDate() {
@@ -64,6 +68,7 @@ public class Booking {
 
     public void setCheckOutDate(LocalDate checkOutDate) {
         this.checkOutDate = checkOutDate;
+        checkOutText = null;
     }
 
     public BookingStatus getStatus() {
@@ -90,6 +95,31 @@ public class Booking {
         this.guestName = guestName;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Дата заезда для таблиц; строка строится один раз, а не при каждой перерисовке ячейки.
+     */
+    public String getCheckInText() {
+        if (checkInText == null && checkInDate != null) {
+            checkInText = checkInDate.toString();
+        }
+        return checkInText;
+    }
+
+    public String getCheckOutText() {
+        if (checkOutText == null && checkOutDate != null) {
+            checkOutText = checkOutDate.toString();
+        }
+        return checkOutText;
+    }
+
     @Override
     public String toString() {
         return "Бронь #" + id + " (" + status + ")";
@@ -6,6 +6,8 @@ public class Guest {
     private String name;
     private String passport;
     private String phone;
+    private long version;
+    private String displayText;
 
     public Guest() {
     }
@@ -35,6 +37,7 @@ public class Guest {
 
     public void setName(String name) {
         this.name = name;
+        displayText = null;
     }
 
     public String getPassport() {
@@ -43,6 +46,7 @@ public class Guest {
 
     public void setPassport(String passport) {
         this.passport = passport;
+        displayText = null;
     }
 
     public String getPhone() {
@@ -53,6 +57,24 @@ public class Guest {
         this.phone = phone;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Подпись гостя в списке выбора: имя и паспорт, строится один раз.
+     */
+    public String getDisplayText() {
+        if (displayText == null) {
+            displayText = name + " (" + passport + ")";
+        }
+        return displayText;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -11,6 +11,9 @@ public class Room {
     private double price;
     private int capacity;
     private RoomStatus status;
+    private long version;
+    private String displayText;
+    private String shortText;
 
     public Room() {
     }
@@ -42,6 +45,7 @@ public class Room {
 
     public void setNumber(String number) {
         this.number = number;
+        resetText();
     }
 
     public String getType() {
@@ -50,6 +54,7 @@ public class Room {
 
     public void setType(String type) {
         this.type = type;
+        resetText();
     }
 
     public double getPrice() {
@@ -58,6 +63,7 @@ public class Room {
 
     public void setPrice(double price) {
         this.price = price;
+        resetText();
     }
 
     public int getCapacity() {
@@ -66,6 +72,7 @@ public class Room {
 
     public void setCapacity(int capacity) {
         this.capacity = capacity;
+        resetText();
     }
 
     public RoomStatus getStatus() {
@@ -76,6 +83,39 @@ public class Room {
         this.status = status;
     }
 
+    /**
+     * Версия строки (row_version) — растёт при каждом изменении строки в БД.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Подпись номера в списке выбора; строится один раз, а не при каждой перерисовке ячейки.
+     */
+    public String getDisplayText() {
+        if (displayText == null) {
+            displayText = String.format("№%s • %s • %.0f руб. • %d мест", number, type, price, capacity);
+        }
+        return displayText;
+    }
+
+    public String getShortText() {
+        if (shortText == null) {
+            shortText = "№" + number + " - " + type;
+        }
+        return shortText;
+    }
+
+    private void resetText() {
+        displayText = null;
+        shortText = null;
+    }
+
     @Override
     public String toString() {
         return number + " (" + type + ")";
@@ -0,0 +1,269 @@
+package com.hotelapp.occupancy;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.BookingListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * OccupancyCalendar — календарь занятости «номера × ночи».
+ * Для каждого номера хранится битовая маска по ночам скользящего окна
+ * [сегодня - pastDays, сегодня + futureDays): бит i — занята ли ночь windowStart + i.
+ * Проверки диапазонов и подсчёты выполняются по 64 ночи за операцию.
+ */
+public class OccupancyCalendar implements BookingListener {
+
+    private final int pastDays;
+    private final int days;
+    private final int words;
+    private final Map<Integer, long[]> rooms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int windowStart;
+
+    public OccupancyCalendar(LocalDate today, int pastDays, int futureDays) {
+        this.pastDays = pastDays;
+        this.days = pastDays + futureDays;
+        this.words = (days + 63) >>> 6;
+        this.windowStart = (int) today.toEpochDay() - pastDays;
+    }
+
+    /**
+     * Строит календарь по броням из БД, пересекающимся с окном.
+     */
+    public static OccupancyCalendar build(BookingDAO bookingDAO, LocalDate today, int pastDays, int futureDays) {
+        OccupancyCalendar calendar = new OccupancyCalendar(today, pastDays, futureDays);
+        calendar.load(bookingDAO.findOverlapping(calendar.getWindowStart(), calendar.getWindowEnd()), 0);
+        return calendar;
+    }
+
+    public LocalDate getWindowStart() {
+        lock.readLock().lock();
+        try {
+            return LocalDate.ofEpochDay(windowStart);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LocalDate getWindowEnd() {
+        lock.readLock().lock();
+        try {
+            return LocalDate.ofEpochDay((long) windowStart + days);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Покрывает ли окно календаря период [start, end).
+     */
+    public boolean covers(LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            return start.toEpochDay() >= windowStart && end.toEpochDay() <= (long) windowStart + days;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сдвигает окно так, чтобы оно начиналось за pastDays до today. Выпавшие ночи отбрасываются,
+     * а добавившиеся в конце окна дочитываются из БД.
+     */
+    public void advanceTo(LocalDate today, BookingDAO bookingDAO) {
+        int newStart = (int) today.toEpochDay() - pastDays;
+        int oldEnd;
+        lock.writeLock().lock();
+        try {
+            int shift = newStart - windowStart;
+            if (shift <= 0) {
+                return;
+            }
+            oldEnd = Math.max(windowStart + days, newStart);
+            if (shift >= days) {
+                rooms.clear();
+            } else {
+                for (long[] bits : rooms.values()) {
+                    shiftDown(bits, shift);
+                }
+            }
+            windowStart = newStart;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LocalDate tailStart = LocalDate.ofEpochDay(oldEnd);
+        LocalDate tailEnd = LocalDate.ofEpochDay((long) newStart + days);
+        // Брони, начавшиеся до хвоста, отметятся только в его пределах (mark обрезает по окну)
+        load(bookingDAO.findOverlapping(tailStart, tailEnd), oldEnd);
+    }
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        mark(booking.getRoomId(), booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay(), true);
+    }
+
+    @Override
+    public void onCheckedOut(Booking booking) {
+        // Ночи после фактического выезда освобождаются, прошедшие остаются в истории
+        long from = Math.max(booking.getCheckInDate().toEpochDay(), LocalDate.now().toEpochDay());
+        mark(booking.getRoomId(), from, booking.getCheckOutDate().toEpochDay(), false);
+    }
+
+    /**
+     * Свободен ли номер все ночи периода [start, end). Период должен входить в окно (см. covers).
+     */
+    public boolean isFree(int roomId, LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            long[] bits = rooms.get(roomId);
+            return bits == null || !anySet(bits, clamp(start), clamp(end));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Первые limit номеров из candidates (в их порядке), свободных весь период [start, end).
+     */
+    public List<Room> firstFreeRooms(Collection<Room> candidates, LocalDate start, LocalDate end, int limit) {
+        List<Room> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int from = clamp(start);
+            int to = clamp(end);
+            for (Room room : candidates) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                long[] bits = rooms.get(room.getId());
+                if (bits == null || !anySet(bits, from, to)) {
+                    result.add(room);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Число занятых номеров по каждой ночи периода [start, end): элемент i — ночь start + i.
+     */
+    public int[] occupancyByNight(LocalDate start, LocalDate end) {
+        int[] counts = new int[(int) Math.max(0, end.toEpochDay() - start.toEpochDay())];
+        lock.readLock().lock();
+        try {
+            int from = clamp(start);
+            int to = clamp(end);
+            if (from >= to) {
+                return counts;
+            }
+            int offset = (int) (windowStart - start.toEpochDay());
+            for (long[] bits : rooms.values()) {
+                for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                    long word = bits[w] & rangeMask(w, from, to);
+                    while (word != 0) {
+                        int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                        counts[bit + offset]++;
+                        word &= word - 1;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Число номеров, занятых в ночь night.
+     */
+    public int occupiedRooms(LocalDate night) {
+        return occupancyByNight(night, night.plusDays(1))[0];
+    }
+
+    private void load(List<Booking> bookings, long fromDay) {
+        // У выселенных броней занятыми считаются только прошедшие ночи
+        long todayDay = LocalDate.now().toEpochDay();
+        for (Booking booking : bookings) {
+            long start = Math.max(booking.getCheckInDate().toEpochDay(), fromDay);
+            long end = booking.getCheckOutDate().toEpochDay();
+            if (booking.getStatus() == BookingStatus.CHECKED_OUT) {
+                end = Math.min(end, todayDay);
+            }
+            mark(booking.getRoomId(), start, end, true);
+        }
+    }
+
+    private void mark(int roomId, long startDay, long endDay, boolean occupied) {
+        lock.writeLock().lock();
+        try {
+            int from = clamp(startDay);
+            int to = clamp(endDay);
+            if (from >= to) {
+                return;
+            }
+            long[] bits = rooms.computeIfAbsent(roomId, id -> new long[words]);
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                long mask = rangeMask(w, from, to);
+                bits[w] = occupied ? bits[w] | mask : bits[w] & ~mask;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int clamp(LocalDate date) {
+        return clamp(date.toEpochDay());
+    }
+
+    private int clamp(long epochDay) {
+        return (int) Math.max(0, Math.min(days, epochDay - windowStart));
+    }
+
+    private static boolean anySet(long[] bits, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            if ((bits[w] & rangeMask(w, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Маска битов слова w, попадающих в диапазон [from, to).
+     */
+    private static long rangeMask(int w, int from, int to) {
+        int lo = Math.max(from - (w << 6), 0);
+        int hi = Math.min(to - (w << 6), 64);
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    /**
+     * Сдвиг маски на shift ночей к началу окна.
+     */
+    private static void shiftDown(long[] bits, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i < bits.length; i++) {
+            int src = i + wordShift;
+            long low = src < bits.length ? bits[src] >>> bitShift : 0;
+            long high = bitShift != 0 && src + 1 < bits.length ? bits[src + 1] << (64 - bitShift) : 0;
+            bits[i] = low | high;
+        }
+    }
+}
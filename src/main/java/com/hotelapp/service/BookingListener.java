@@ -0,0 +1,19 @@
+package com.hotelapp.service;
+
+import com.hotelapp.model.Booking;
+
+/**
+ * BookingListener — уведомления об изменениях броней из BookingService.
+ * Вызывается после успешной записи в БД, в потоке, выполнившем операцию.
+ */
+public interface BookingListener {
+
+    default void onBookingCreated(Booking booking) {
+    }
+
+    default void onCheckedIn(Booking booking) {
+    }
+
+    default void onCheckedOut(Booking booking) {
+    }
+}
@@ -2,19 +2,24 @@ package com.hotelapp.service;
 
 import com.hotelapp.dao.BookingDAO;
 import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
 import com.hotelapp.dao.PaymentDAO;
 import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.jfr.BookingOperationEvent;
 import com.hotelapp.model.Booking;
 import com.hotelapp.model.Booking.BookingStatus;
 import com.hotelapp.model.Room;
 import com.hotelapp.model.Room.RoomStatus;
+import com.hotelapp.occupancy.OccupancyCalendar;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 public class BookingService {
@@ -23,75 +28,195 @@ public class BookingService {
     private final RoomDAO roomDAO;
     private final GuestDAO guestDAO;
     private final PaymentDAO paymentDAO;
+    private final BookingIntervalIndex intervalIndex;
+    private final List<BookingListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile OccupancyCalendar occupancyCalendar;
 
     public BookingService(BookingDAO bookingDAO, RoomDAO roomDAO, GuestDAO guestDAO, PaymentDAO paymentDAO) {
+        this(bookingDAO, roomDAO, guestDAO, paymentDAO, null);
+    }
+
+    /**
+     * @param intervalIndex индекс активных броней в памяти; null — проверки идут через SQLite
+     */
+    public BookingService(BookingDAO bookingDAO, RoomDAO roomDAO, GuestDAO guestDAO, PaymentDAO paymentDAO,
+                          BookingIntervalIndex intervalIndex) {
         this.bookingDAO = bookingDAO;
         this.roomDAO = roomDAO;
         this.guestDAO = guestDAO;
         this.paymentDAO = paymentDAO;
+        this.intervalIndex = intervalIndex;
+    }
+
+    public void addListener(BookingListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BookingListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Подключает календарь занятости: он получает уведомления о бронях
+     * и отвечает на запросы findFirstFreeRooms/getNightlyOccupancy в пределах своего окна.
+     */
+    public void setOccupancyCalendar(OccupancyCalendar calendar) {
+        if (occupancyCalendar != null) {
+            listeners.remove(occupancyCalendar);
+        }
+        occupancyCalendar = calendar;
+        if (calendar != null) {
+            listeners.add(calendar);
+        }
     }
 
     public List<Booking> getAllBookings() {
         return bookingDAO.findAll();
     }
 
-    public List<Room> getAvailableRooms(LocalDate start, LocalDate end) {
-        if (start == null || end == null || !start.isBefore(end)) {
-            return List.of();
+    /**
+     * Страница броней по дате заезда; cursor — токен из предыдущей страницы или null для первой.
+     */
+    public Page<Booking> getBookingsPage(String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
         }
-        return roomDAO.findAll().stream()
-                .filter(room -> room.getStatus() == Room.RoomStatus.FREE) // Только свободные номера
-                .filter(room -> !bookingDAO.hasOverlaps(room.getId(), start, end)) // Без пересечений с бронями
-                .collect(Collectors.toList());
+        return bookingDAO.findPage(cursor, pageSize);
     }
 
-    public void createBooking(int guestId, int roomId, LocalDate start, LocalDate end) {
-        if (start == null || end == null || !start.isBefore(end)) {
-            throw new IllegalArgumentException("Дата выезда должна быть позже даты заезда");
+    /**
+     * Страница броней в порядке key; cursor — токен из предыдущей страницы той же сортировки или null.
+     */
+    public Page<Booking> getBookingsPage(BookingDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
         }
-        if (start.isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Нельзя бронировать задним числом");
-        }
-        if (roomDAO.findById(roomId).isEmpty()) {
-            throw new IllegalArgumentException("Номер не найден");
+        return bookingDAO.findPage(key, ascending, cursor, pageSize);
+    }
+
+    /**
+     * Брони с позиции offset в порядке key — для перехода в произвольное место длинного списка.
+     */
+    public List<Booking> getBookingsRange(BookingDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return bookingDAO.findRange(key, ascending, offset, limit);
+    }
+
+    public int countBookings() {
+        return bookingDAO.count();
+    }
+
+    public List<Room> getAvailableRooms(LocalDate start, LocalDate end) {
+        return getAvailableRooms(start, end, null, null, null);
+    }
+
+    /**
+     * Свободные номера без пересечений с бронями; type, minCapacity и maxPrice — необязательные фильтры.
+     */
+    public List<Room> getAvailableRooms(LocalDate start, LocalDate end, String type, Integer minCapacity, Double maxPrice) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            return List.of();
         }
-        if (guestDAO.findById(guestId).isEmpty()) {
-            throw new IllegalArgumentException("Гость не найден");
+        if (intervalIndex == null) {
+            return roomDAO.findAvailable(start, end, type, minCapacity, maxPrice);
         }
-        if (bookingDAO.hasOverlaps(roomId, start, end)) {
-            throw new IllegalStateException("Комната занята в выбранные даты");
+        List<Room> result = new ArrayList<>();
+        for (Room room : roomDAO.findAll()) {
+            if (room.getStatus() == RoomStatus.FREE
+                    && (type == null || type.equals(room.getType()))
+                    && (minCapacity == null || room.getCapacity() >= minCapacity)
+                    && (maxPrice == null || room.getPrice() <= maxPrice)
+                    && !intervalIndex.hasOverlaps(room.getId(), start, end)) {
+                result.add(room);
+            }
         }
-        Booking booking = new Booking();
-        booking.setRoomId(roomId);
-        booking.setGuestId(guestId);
-        booking.setCheckInDate(start);
-        booking.setCheckOutDate(end);
-        booking.setStatus(BookingStatus.BOOKED);
+        return result;
+    }
+
+    public void createBooking(int guestId, int roomId, LocalDate start, LocalDate end) {
+        BookingOperationEvent event = BookingOperationEvent.start("createBooking");
+        event.setRoomId(roomId);
+        event.setGuestId(guestId);
         try {
-            bookingDAO.insert(booking);
-        } catch (SQLException e) {
-            throw new RuntimeException("Не удалось создать бронь", e);
+            if (start == null || end == null || !start.isBefore(end)) {
+                throw new IllegalArgumentException("Дата выезда должна быть позже даты заезда");
+            }
+            if (start.isBefore(LocalDate.now())) {
+                throw new IllegalArgumentException("Нельзя бронировать задним числом");
+            }
+            if (roomDAO.findById(roomId).isEmpty()) {
+                throw new IllegalArgumentException("Номер не найден");
+            }
+            if (guestDAO.findById(guestId).isEmpty()) {
+                throw new IllegalArgumentException("Гость не найден");
+            }
+            // Быстрый отказ без транзакции записи; окончательно решает insertIfFree
+            if (bookingDAO.hasOverlaps(roomId, start, end)) {
+                throw new IllegalStateException("Комната занята в выбранные даты");
+            }
+            Booking booking = new Booking();
+            booking.setRoomId(roomId);
+            booking.setGuestId(guestId);
+            booking.setCheckInDate(start);
+            booking.setCheckOutDate(end);
+            booking.setStatus(BookingStatus.BOOKED);
+            boolean inserted;
+            try {
+                inserted = bookingDAO.insertIfFree(booking);
+            } catch (SQLException e) {
+                throw new RuntimeException("Не удалось создать бронь", e);
+            }
+            if (!inserted) {
+                throw new IllegalStateException("Комната занята в выбранные даты");
+            }
+            event.setBooking(booking);
+            for (BookingListener listener : listeners) {
+                listener.onBookingCreated(booking);
+            }
+            event.succeeded();
+        } finally {
+            event.finish();
         }
     }
 
     public void checkIn(int bookingId) {
-        Booking booking = getBookingOrThrow(bookingId);
-        changeBookingStatus(booking, BookingStatus.CHECKED_IN, RoomStatus.OCCUPIED);
+        BookingOperationEvent event = BookingOperationEvent.start("checkIn");
+        try {
+            Booking booking = getBookingOrThrow(bookingId);
+            event.setBooking(booking);
+            changeBookingStatus(booking, BookingStatus.BOOKED, BookingStatus.CHECKED_IN, RoomStatus.OCCUPIED);
+            for (BookingListener listener : listeners) {
+                listener.onCheckedIn(booking);
+            }
+            event.succeeded();
+        } finally {
+            event.finish();
+        }
     }
 
     public double checkOut(int bookingId, boolean paid) {
-        Booking booking = getBookingOrThrow(bookingId);
-        changeBookingStatus(booking, BookingStatus.CHECKED_OUT, RoomStatus.FREE);
-        double total = calculateTotalCost(booking);
+        BookingOperationEvent event = BookingOperationEvent.start("checkOut");
         try {
-            paymentDAO.insert(new com.hotelapp.model.Payment(bookingId, total, paid));
-            if (paid) {
-                paymentDAO.markPaid(bookingId);
+            Booking booking = getBookingOrThrow(bookingId);
+            event.setBooking(booking);
+            changeBookingStatus(booking, BookingStatus.CHECKED_IN, BookingStatus.CHECKED_OUT, RoomStatus.FREE);
+            for (BookingListener listener : listeners) {
+                listener.onCheckedOut(booking);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Не удалось сохранить оплату", e);
+            double total = calculateTotalCost(booking);
+            event.setAmount(total);
+            try {
+                paymentDAO.insert(new com.hotelapp.model.Payment(bookingId, total, paid));
+                if (paid) {
+                    paymentDAO.markPaid(bookingId);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Не удалось сохранить оплату", e);
+            }
+            event.succeeded();
+            return total;
+        } finally {
+            event.finish();
         }
-        return total;
     }
 
     private Booking getBookingOrThrow(int bookingId) {
@@ -99,15 +224,37 @@ public class BookingService {
                 .orElseThrow(() -> new IllegalArgumentException("Бронь не найдена"));
     }
 
-    private void changeBookingStatus(Booking booking, BookingStatus status, RoomStatus roomStatus) {
+    /**
+     * Переводит бронь из статуса expected в status. Повторный или параллельный вызов для той же брони
+     * (двойной клик) получает IllegalStateException: статус в БД уже не expected.
+     */
+    private void changeBookingStatus(Booking booking, BookingStatus expected, BookingStatus status, RoomStatus roomStatus) {
+        if (booking.getStatus() != expected) {
+            throw new IllegalStateException(statusError(expected));
+        }
+        boolean changed;
+        try {
+            changed = bookingDAO.changeStatus(booking.getId(), expected, status);
+        } catch (SQLException e) {
+            throw new RuntimeException("Не удалось обновить статус", e);
+        }
+        if (!changed) {
+            throw new IllegalStateException(statusError(expected));
+        }
         try {
-            bookingDAO.updateStatus(booking.getId(), status);
             roomDAO.updateStatus(booking.getRoomId(), roomStatus);
+            booking.setStatus(status);
         } catch (SQLException e) {
             throw new RuntimeException("Не удалось обновить статус", e);
         }
     }
 
+    private static String statusError(BookingStatus expected) {
+        return expected == BookingStatus.BOOKED
+                ? "Бронь уже не ожидает заселения"
+                : "Гость по этой брони не проживает или уже выселен";
+    }
+
     public double calculateTotalCost(Booking booking) {
         Optional<Room> roomOpt = roomDAO.findById(booking.getRoomId());
         if (roomOpt.isEmpty()) {
@@ -117,6 +264,52 @@ public class BookingService {
         return nights * roomOpt.get().getPrice();
     }
 
+    /**
+     * Первые limit свободных номеров типа type (null — любого) на период [start, end).
+     * При подключённом календаре занятости отвечает по битовым маскам без обращения к броням в БД.
+     */
+    public List<Room> findFirstFreeRooms(String type, LocalDate start, LocalDate end, int limit) {
+        if (start == null || end == null || !start.isBefore(end) || limit <= 0) {
+            return List.of();
+        }
+        OccupancyCalendar calendar = currentCalendar();
+        if (calendar == null || !calendar.covers(start, end)) {
+            List<Room> rooms = getAvailableRooms(start, end, type, null, null);
+            return rooms.size() > limit ? rooms.subList(0, limit) : rooms;
+        }
+        List<Room> candidates = new ArrayList<>();
+        for (Room room : roomDAO.findAll()) {
+            if (room.getStatus() == RoomStatus.FREE && (type == null || type.equals(room.getType()))) {
+                candidates.add(room);
+            }
+        }
+        return calendar.firstFreeRooms(candidates, start, end, limit);
+    }
+
+    /**
+     * Число занятых номеров по ночам периода [start, end): элемент i — ночь start + i.
+     */
+    public int[] getNightlyOccupancy(LocalDate start, LocalDate end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            return new int[0];
+        }
+        OccupancyCalendar calendar = currentCalendar();
+        if (calendar == null || !calendar.covers(start, end)) {
+            // Разовый календарь ровно на запрошенный период
+            int days = (int) ChronoUnit.DAYS.between(start, end);
+            calendar = OccupancyCalendar.build(bookingDAO, start, 0, days);
+        }
+        return calendar.occupancyByNight(start, end);
+    }
+
+    private OccupancyCalendar currentCalendar() {
+        OccupancyCalendar calendar = occupancyCalendar;
+        if (calendar != null) {
+            calendar.advanceTo(LocalDate.now(), bookingDAO);
+        }
+        return calendar;
+    }
+
     public List<Booking> getBookingsForCheckIn(LocalDate date) {
         return bookingDAO.findForCheckIn(date);
     }
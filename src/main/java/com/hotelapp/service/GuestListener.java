@@ -0,0 +1,19 @@
+package com.hotelapp.service;
+
+import com.hotelapp.model.Guest;
+
+/**
+ * GuestListener — уведомления об изменениях гостей из GuestService.
+ * Вызывается после успешной записи в БД, в потоке, выполнившем операцию.
+ */
+public interface GuestListener {
+
+    /**
+     * Гость добавлен или изменён; у нового гостя уже заполнен id.
+     */
+    default void onGuestSaved(Guest guest) {
+    }
+
+    default void onGuestDeleted(int guestId) {
+    }
+}
@@ -1,24 +1,148 @@
 package com.hotelapp.service;
 
 import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.Page;
+import com.hotelapp.index.DuplicatePair;
+import com.hotelapp.index.GuestDuplicates;
+import com.hotelapp.index.GuestMatch;
+import com.hotelapp.index.GuestTrigramIndex;
 import com.hotelapp.model.Guest;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 public class GuestService {
 
     private final GuestDAO guestDAO;
+    private final List<GuestListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile GuestTrigramIndex trigramIndex;
 
     public GuestService(GuestDAO guestDAO) {
         this.guestDAO = guestDAO;
     }
 
+    public void addListener(GuestListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GuestListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Подключает триграммный индекс: он получает уведомления о сохранении и удалении гостей
+     * и отвечает на запросы findSimilarGuests.
+     */
+    public void setTrigramIndex(GuestTrigramIndex index) {
+        if (trigramIndex != null) {
+            listeners.remove(trigramIndex);
+        }
+        trigramIndex = index;
+        if (index != null) {
+            listeners.add(index);
+        }
+    }
+
+    /**
+     * Строит триграммный индекс по всей базе гостей и подключает его. Вызывается в фоне: до завершения
+     * findSimilarGuests возвращает пустой список, а изменения гостей индекс получает уже во время построения.
+     */
+    public GuestTrigramIndex loadTrigramIndex() {
+        GuestTrigramIndex index = new GuestTrigramIndex();
+        listeners.add(index);
+        try {
+            index.load(guestDAO);
+        } catch (RuntimeException e) {
+            listeners.remove(index);
+            throw e;
+        }
+        GuestTrigramIndex previous = trigramIndex;
+        if (previous != null) {
+            listeners.remove(previous);
+        }
+        trigramIndex = index;
+        return index;
+    }
+
     public List<Guest> getAllGuests() {
         return guestDAO.findAll();
     }
 
+    /**
+     * Страница гостей по имени; cursor — токен из предыдущей страницы или null для первой.
+     */
+    public Page<Guest> getGuestsPage(String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return guestDAO.findPage(cursor, pageSize);
+    }
+
+    /**
+     * Страница гостей в порядке key; cursor — токен из предыдущей страницы той же сортировки или null.
+     */
+    public Page<Guest> getGuestsPage(GuestDAO.SortKey key, boolean ascending, String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        return guestDAO.findPage(key, ascending, cursor, pageSize);
+    }
+
+    /**
+     * Гости с позиции offset в порядке key — для перехода в произвольное место длинного списка.
+     */
+    public List<Guest> getGuestsRange(GuestDAO.SortKey key, boolean ascending, int offset, int limit) {
+        return guestDAO.findRange(key, ascending, offset, limit);
+    }
+
+    /**
+     * Подсказки для выбора гостя: не больше limit гостей, у которых паспорт, имя или телефон начинаются с query.
+     */
+    public List<Guest> searchGuests(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Число подсказок должно быть положительным");
+        }
+        return guestDAO.search(query, limit);
+    }
+
+    /**
+     * Полнотекстовый поиск гостей: слова запроса — префиксы слов имени, паспорта или телефона,
+     * результат упорядочен по релевантности.
+     */
+    public List<Guest> searchGuestsFullText(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Число результатов должно быть положительным");
+        }
+        return guestDAO.searchFullText(query, limit);
+    }
+
+    /**
+     * Уже заведённые гости, похожие по имени или телефону (возможные дубли при вводе нового гостя).
+     * Без триграммного индекса или пока он строится — пустой список.
+     *
+     * @param excludeId id редактируемого гостя; 0 — новый гость
+     */
+    public List<GuestMatch> findSimilarGuests(String name, String phone, int excludeId, int limit) {
+        GuestTrigramIndex index = trigramIndex;
+        if (index == null) {
+            return List.of();
+        }
+        return index.findSimilar(name, phone, excludeId, limit);
+    }
+
+    /**
+     * Проверка всей базы гостей на вероятные дубли.
+     */
+    public List<DuplicatePair> findDuplicates() {
+        return GuestDuplicates.find(guestDAO.findAll());
+    }
+
+    public int countGuests() {
+        return guestDAO.count();
+    }
+
     public void saveGuest(Guest guest) {
         validate(guest);
         try {
@@ -30,6 +154,9 @@ public class GuestService {
         } catch (SQLException e) {
             throw new RuntimeException("Не удалось сохранить гостя: " + e.getMessage(), e);
         }
+        for (GuestListener listener : listeners) {
+            listener.onGuestSaved(guest);
+        }
     }
 
     public void deleteGuest(Guest guest) {
@@ -41,6 +168,9 @@ public class GuestService {
         } catch (SQLException e) {
             throw new RuntimeException("Не удалось удалить гостя", e);
         }
+        for (GuestListener listener : listeners) {
+            listener.onGuestDeleted(guest.getId());
+        }
     }
 
     private void validate(Guest guest) {
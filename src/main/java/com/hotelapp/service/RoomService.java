@@ -1,5 +1,6 @@
 package com.hotelapp.service;
 
+import com.hotelapp.dao.Changes;
 import com.hotelapp.dao.RoomDAO;
 import com.hotelapp.model.Room;
 import com.hotelapp.model.Room.RoomStatus;
@@ -20,6 +21,13 @@ public class RoomService {
         return roomDAO.findAll();
     }
 
+    /**
+     * Номера, изменённые после версии since (-1 — все), и id удалённых.
+     */
+    public Changes<Room> getRoomChanges(long since) {
+        return roomDAO.findChangedSince(since);
+    }
+
     public void saveRoom(Room room) {
         validate(room);
         try {
@@ -0,0 +1,488 @@
+package com.hotelapp.tools;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * DatasetGenerator — заполняет БД синтетическими данными: номера, гости, брони за несколько лет и оплаты.
+ * Брони одного номера не пересекаются: прошедшие выселены и оплачены, текущие заселены, будущие забронированы.
+ * Вставка идёт пакетами в одной транзакции; при одинаковом seed и исходной БД результат одинаков.
+ *
+ * <pre>
+ * java -cp hotel-admin.jar com.hotelapp.tools.DatasetGenerator --db hotel-big.db --rooms 2000 --guests 100000 --bookings 1000000
+ * </pre>
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ROOMS_PER_FLOOR = 20;
+    // Средняя длительность проживания: 1 + floor(Exp(2.5)) ≈ 3 ночи
+    private static final double STAY_SCALE = 2.5;
+    private static final double MEAN_NIGHTS = 1 + 1 / (Math.exp(1 / STAY_SCALE) - 1);
+    private static final int MAX_NIGHTS = 21;
+    // Каждая 50-я выселенная бронь остаётся неоплаченной
+    private static final int UNPAID_EVERY = 50;
+
+    // Построчные триггеры вставки, которые на время загрузки заменяются запросами по всем новым строкам
+    private static final String[] DEFERRED_TRIGGERS = {"rooms_version_ai", "guests_version_ai", "bookings_version_ai",
+            "guests_fts_ai", "bookings_rtree_ai"};
+
+    private static final String[] TYPES = {"Эконом", "Стандарт", "Стандарт", "Премиум", "Люкс"};
+    private static final double[] PRICES = {80.0, 120.0, 120.0, 200.0, 350.0};
+    private static final String[] MALE_FIRST_NAMES = {"Иван", "Сергей", "Павел", "Алесь", "Дмитрий", "Андрей",
+            "Николай", "Максим", "John", "Piotr"};
+    private static final String[] FEMALE_FIRST_NAMES = {"Анна", "Ольга", "Мария", "Янина", "Екатерина", "Наталья",
+            "Ирина", "Алина", "Emma", "Agnieszka"};
+    private static final String[] SURNAMES = {"Петров", "Иванов", "Ковалёв", "Новик", "Мельник", "Шевчук",
+            "Лукашевич", "Кравченко", "Богданович", "Сидоров", "Smith", "Kowalski"};
+    private static final String[] PASSPORT_SERIES = {"MP", "AB", "BM", "HB", "KH", "MC", "KB", "PP"};
+    private static final String[] OPERATORS = {"17", "25", "29", "33", "44"};
+
+    private int rooms = 200;
+    private int guests = 20_000;
+    private int years = 3;
+    private int futureDays = 365;
+    private double occupancy = 0.7;
+    private int bookings;
+    private long seed = 42;
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(int rooms) {
+        if (rooms < 1) {
+            throw new IllegalArgumentException("Число номеров должно быть > 0");
+        }
+        this.rooms = rooms;
+    }
+
+    public int getGuests() {
+        return guests;
+    }
+
+    public void setGuests(int guests) {
+        if (guests < 1) {
+            throw new IllegalArgumentException("Число гостей должно быть > 0");
+        }
+        this.guests = guests;
+    }
+
+    /**
+     * Глубина истории броней в годах (если не задано точное число броней).
+     */
+    public int getYears() {
+        return years;
+    }
+
+    public void setYears(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Число лет не может быть отрицательным");
+        }
+        this.years = years;
+    }
+
+    /**
+     * На сколько дней вперёд от сегодняшнего дня есть брони.
+     */
+    public int getFutureDays() {
+        return futureDays;
+    }
+
+    public void setFutureDays(int futureDays) {
+        this.futureDays = Math.max(futureDays, 0);
+    }
+
+    /**
+     * Средняя загрузка номеров (доля занятых ночей), от 0.05 до 1.
+     */
+    public double getOccupancy() {
+        return occupancy;
+    }
+
+    public void setOccupancy(double occupancy) {
+        if (occupancy < 0.05 || occupancy > 1) {
+            throw new IllegalArgumentException("Загрузка должна быть от 0.05 до 1: " + occupancy);
+        }
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Точное число броней, поровну на номер; история удлиняется под нужное количество. 0 — по числу лет.
+     */
+    public int getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(int bookings) {
+        this.bookings = Math.max(bookings, 0);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Добавляет данные в текущую БД (Database). Существующие записи не изменяются.
+     */
+    public Result generate() throws SQLException {
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+        try (Connection connection = Database.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int firstRoom = maxId(connection, "rooms") + 1;
+                int firstGuest = maxId(connection, "guests") + 1;
+                int firstBooking = maxId(connection, "bookings") + 1;
+                Map<String, String> deferred = dropDeferred(connection);
+                insertRooms(connection);
+                insertGuests(connection, random, firstGuest);
+                int bookingCount = insertBookings(connection, random, firstRoom, firstGuest);
+                catchUp(connection, deferred.keySet(), firstRoom, firstGuest, firstBooking);
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : deferred.values()) {
+                        statement.execute(sql);
+                    }
+                }
+                int paymentCount = insertPayments(connection, firstBooking);
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("""
+                            UPDATE rooms SET status = 'OCCUPIED'
+                            WHERE id IN (SELECT room_id FROM bookings WHERE status = 'CHECKED_IN')
+                            """);
+                }
+                connection.commit();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                    // Массовая вставка оставляет в guests_fts много сегментов; поиск быстрее по одному
+                    statement.execute("INSERT INTO guests_fts(guests_fts) VALUES ('optimize')");
+                }
+                Result result = new Result(rooms, guests, bookingCount, paymentCount,
+                        (System.nanoTime() - started) / 1_000_000);
+                logger.info("Сгенерированы данные: {}", result);
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Удаляет на время загрузки построчные триггеры R*Tree, FTS и версий строк, а также индексы bookings:
+     * работу триггеров потом выполняет catchUp одним запросом по всем новым строкам, индексы строятся заново.
+     * Возвращает удалённые объекты и их исходный SQL. Остальные триггеры продолжают работать.
+     */
+    private static Map<String, String> dropDeferred(Connection connection) throws SQLException {
+        Map<String, String> deferred = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("""
+                    SELECT type, name, sql FROM sqlite_master
+                    WHERE (type = 'trigger' AND name IN ('%s'))
+                       OR (type = 'index' AND tbl_name = 'bookings' AND sql IS NOT NULL)
+                    """.formatted(String.join("', '", DEFERRED_TRIGGERS)))) {
+                while (rs.next()) {
+                    deferred.put(rs.getString("type") + " " + rs.getString("name"), rs.getString("sql"));
+                }
+            }
+            for (String object : deferred.keySet()) {
+                statement.execute("DROP " + object);
+            }
+        }
+        return deferred;
+    }
+
+    /**
+     * Повторяет действия удалённых триггеров для новых строк (id от firstRoom/firstGuest/firstBooking).
+     * Версии строк раздаются в том же порядке, что и при вставке с триггерами: номера, гости, брони.
+     */
+    private static void catchUp(Connection connection, Set<String> deferred,
+                                int firstRoom, int firstGuest, int firstBooking) throws SQLException {
+        if (deferred.contains("trigger rooms_version_ai")) {
+            assignVersions(connection, "rooms", firstRoom);
+        }
+        if (deferred.contains("trigger guests_version_ai")) {
+            assignVersions(connection, "guests", firstGuest);
+        }
+        if (deferred.contains("trigger bookings_version_ai")) {
+            assignVersions(connection, "bookings", firstBooking);
+        }
+        if (deferred.contains("trigger guests_fts_ai")) {
+            execute(connection, """
+                    INSERT INTO guests_fts(rowid, name, passport, phone)
+                    SELECT id, name, passport, phone FROM guests WHERE id >= ?
+                    """, firstGuest);
+        }
+        if (deferred.contains("trigger bookings_rtree_ai")) {
+            execute(connection, """
+                    INSERT INTO bookings_rtree(id, room_lo, room_hi, check_in, check_out)
+                    SELECT id, room_id, room_id, check_in_date, check_out_date FROM bookings WHERE id >= ?
+                    """, firstBooking);
+        }
+    }
+
+    private static void assignVersions(Connection connection, String table, int firstId) throws SQLException {
+        execute(connection, "UPDATE " + table + " SET row_version = (SELECT version FROM data_version) + id - ? + 1"
+                + " WHERE id >= ?", firstId, firstId);
+        execute(connection, "UPDATE data_version SET version = version"
+                + " + (SELECT COALESCE(MAX(id) - ? + 1, 0) FROM " + table + " WHERE id >= ?)", firstId, firstId);
+    }
+
+    private static void execute(Connection connection, String sql, int... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setInt(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Номера по этажам (101…120, 201…), номера из существующих данных пропускаются.
+     */
+    private void insertRooms(Connection connection) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT number FROM rooms")) {
+            while (rs.next()) {
+                existing.add(rs.getString(1));
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO rooms(number, type, price, capacity, status) VALUES(?,?,?,?,?)")) {
+            int slot = 0;
+            for (int i = 0; i < rooms; i++) {
+                String number;
+                do {
+                    number = String.valueOf((1 + slot / ROOMS_PER_FLOOR) * 100 + 1 + slot % ROOMS_PER_FLOOR);
+                    slot++;
+                } while (existing.contains(number));
+                // Дорогие номера — на верхних местах этажа
+                int category = (slot - 1) % ROOMS_PER_FLOOR * TYPES.length / ROOMS_PER_FLOOR;
+                ps.setString(1, number);
+                ps.setString(2, TYPES[category]);
+                ps.setDouble(3, PRICES[category]);
+                ps.setInt(4, 1 + (category + i) % 4);
+                ps.setString(5, "FREE");
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertGuests(Connection connection, Random random, int firstGuest) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO guests(name, passport, phone) VALUES(?,?,?)")) {
+            for (int i = 0; i < guests; i++) {
+                boolean female = random.nextBoolean();
+                String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                if (female && surname.matches(".*[вн]$")) {
+                    surname += "а";
+                }
+                String firstName = female
+                        ? FEMALE_FIRST_NAMES[random.nextInt(FEMALE_FIRST_NAMES.length)]
+                        : MALE_FIRST_NAMES[random.nextInt(MALE_FIRST_NAMES.length)];
+                // Серия и номер выводятся из id гостя, поэтому паспорта не повторяются
+                long n = firstGuest + (long) i;
+                ps.setString(1, firstName + " " + surname);
+                ps.setString(2, String.format("%s%07d",
+                        PASSPORT_SERIES[(int) (n / 10_000_000 % PASSPORT_SERIES.length)], n % 10_000_000));
+                ps.setString(3, random.nextInt(20) == 0 ? null : String.format("+375 %s %03d %02d %02d",
+                        OPERATORS[random.nextInt(OPERATORS.length)],
+                        random.nextInt(1000), random.nextInt(100), random.nextInt(100)));
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private int insertBookings(Connection connection, Random random, int firstRoom, int firstGuest) throws SQLException {
+        long today = LocalDate.now().toEpochDay();
+        long horizon = today + futureDays;
+        double meanGap = MEAN_NIGHTS * (1 - occupancy) / occupancy;
+        int total = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?,?,?,?,?)")) {
+            int pending = 0;
+            for (int room = 0; room < rooms; room++) {
+                int count = bookings > 0 ? bookings / rooms + (room < bookings % rooms ? 1 : 0) : Integer.MAX_VALUE;
+                long day = bookings > 0
+                        ? horizon - Math.round(count * (MEAN_NIGHTS + meanGap))
+                        : today - years * 365L;
+                for (int i = 0; i < count; i++) {
+                    day += exponential(random, meanGap);
+                    if (bookings == 0 && day >= horizon) {
+                        break;
+                    }
+                    long nights = Math.min(1 + exponential(random, STAY_SCALE), MAX_NIGHTS);
+                    ps.setInt(1, firstRoom + room);
+                    ps.setInt(2, firstGuest + regularGuest(random));
+                    ps.setLong(3, day);
+                    ps.setLong(4, day + nights);
+                    ps.setString(5, day + nights <= today ? "CHECKED_OUT" : day <= today ? "CHECKED_IN" : "BOOKED");
+                    ps.addBatch();
+                    total++;
+                    if (++pending == BATCH_SIZE) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                    day += nights;
+                }
+            }
+            ps.executeBatch();
+        }
+        return total;
+    }
+
+    /**
+     * Оплаты выселенных броней по цене номера; одним запросом, без передачи строк через JDBC.
+     */
+    private static int insertPayments(Connection connection, int firstBooking) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                INSERT INTO payments(booking_id, amount, paid)
+                SELECT b.id, (b.check_out_date - b.check_in_date) * r.price, b.id % ? <> 0
+                FROM bookings b JOIN rooms r ON r.id = b.room_id
+                WHERE b.id >= ? AND b.status = 'CHECKED_OUT'
+                """)) {
+            ps.setInt(1, UNPAID_EVERY);
+            ps.setInt(2, firstBooking);
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Индекс гостя со смещением к началу списка: постоянные гости бронируют чаще.
+     */
+    private int regularGuest(Random random) {
+        double u = random.nextDouble();
+        return (int) (guests * u * u);
+    }
+
+    private static long exponential(Random random, double mean) {
+        return mean <= 0 ? 0 : (long) (-Math.log(1 - random.nextDouble()) * mean);
+    }
+
+    private static int maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return rs.getInt(1);
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DatasetGenerator generator = new DatasetGenerator();
+        DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+        if (System.getProperty("hotel.db.slowQuery.thresholdMs") == null) {
+            // Пакеты вставки заведомо дольше порога и только засорили бы журнал медленных запросов
+            config.setSlowQueryThresholdMillis(-1);
+        }
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("не задано значение для " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--db" -> config.setUrl(value.startsWith("jdbc:") ? value : "jdbc:sqlite:" + value);
+                case "--rooms" -> generator.setRooms(Integer.parseInt(value));
+                case "--guests" -> generator.setGuests(Integer.parseInt(value));
+                case "--years" -> generator.setYears(Integer.parseInt(value));
+                case "--future-days" -> generator.setFutureDays(Integer.parseInt(value));
+                case "--occupancy" -> generator.setOccupancy(Double.parseDouble(value));
+                case "--bookings" -> generator.setBookings(Integer.parseInt(value));
+                case "--seed" -> generator.setSeed(Long.parseLong(value));
+                default -> usage("неизвестный параметр " + option);
+            }
+        }
+        Database.configure(config);
+        Database.initialize();
+        try {
+            Result result = generator.generate();
+            System.out.println(config.getUrl() + ": " + result);
+        } finally {
+            Database.shutdown();
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println("Ошибка: " + error);
+        System.err.println("Параметры: [--db файл] [--rooms N] [--guests M] [--years Y] [--future-days D]"
+                + " [--occupancy 0.7] [--bookings B] [--seed S]");
+        System.exit(2);
+    }
+
+    /**
+     * Result — сколько записей добавлено и за какое время.
+     */
+    public static final class Result {
+
+        private final int rooms;
+        private final int guests;
+        private final int bookings;
+        private final int payments;
+        private final long elapsedMillis;
+
+        Result(int rooms, int guests, int bookings, int payments, long elapsedMillis) {
+            this.rooms = rooms;
+            this.guests = guests;
+            this.bookings = bookings;
+            this.payments = payments;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRooms() {
+            return rooms;
+        }
+
+        public int getGuests() {
+            return guests;
+        }
+
+        public int getBookings() {
+            return bookings;
+        }
+
+        public int getPayments() {
+            return payments;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("номеров=%d, гостей=%d, броней=%d, оплат=%d за %d мс",
+                    rooms, guests, bookings, payments, elapsedMillis);
+        }
+    }
+}
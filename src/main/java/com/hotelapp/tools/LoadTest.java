@@ -0,0 +1,536 @@
+package com.hotelapp.tools;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.metrics.LatencyHistogram;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.service.GuestService;
+import com.hotelapp.service.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTest — нагрузка «несколько стоек регистрации одновременно» на сервисный слой без UI.
+ * Каждый оператор — отдельный поток, который выполняет операции в заданной пропорции
+ * (поиск, бронь, заселение, выселение, правка гостя, обзор номеров). В отчёте — пропускная способность,
+ * перцентили времени, отказы по блокировкам SQLite и нарушения: пересекающиеся брони и повторные выселения.
+ *
+ * <pre>
+ * java -cp ... com.hotelapp.tools.LoadTest --db hotel-big.db --operators 16 --duration 60 --mix search=40,book=20
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int GUEST_SAMPLE = 1000;
+
+    // Пары активных броней одного номера с пересекающимися датами
+    private static final String DOUBLE_BOOKINGS_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT check_in_date,
+                       MAX(check_out_date) OVER (PARTITION BY room_id ORDER BY check_in_date, id
+                                                 ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_out
+                FROM bookings WHERE status IN ('BOOKED', 'CHECKED_IN')
+            ) WHERE check_in_date < previous_out
+            """;
+    // Брони, за которые записано больше одной оплаты (выселены дважды)
+    private static final String DOUBLE_CHECKOUTS_SQL = """
+            SELECT COUNT(*) FROM (SELECT booking_id FROM payments GROUP BY booking_id HAVING COUNT(*) > 1)
+            """;
+
+    public enum Operation {
+        /** Поиск свободных номеров на период */
+        SEARCH,
+        /** Поиск свободного номера и бронирование одного из первых найденных */
+        BOOK,
+        /** Заселение одной из сегодняшних броней */
+        CHECK_IN,
+        /** Выселение одного из проживающих */
+        CHECK_OUT,
+        /** Поиск гостя по паспорту и смена телефона */
+        GUEST_EDIT,
+        /** Список всех номеров (обзор состояния) */
+        ROOM_BOARD
+    }
+
+    private final BookingService bookingService;
+    private final GuestService guestService;
+    private final RoomService roomService;
+
+    private int operators = 8;
+    private long durationMillis = 30_000;
+    private long seed = 1;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    public LoadTest(BookingService bookingService, GuestService guestService, RoomService roomService) {
+        this.bookingService = bookingService;
+        this.guestService = guestService;
+        this.roomService = roomService;
+        mix.put(Operation.SEARCH, 40);
+        mix.put(Operation.BOOK, 20);
+        mix.put(Operation.CHECK_IN, 10);
+        mix.put(Operation.CHECK_OUT, 10);
+        mix.put(Operation.GUEST_EDIT, 10);
+        mix.put(Operation.ROOM_BOARD, 10);
+    }
+
+    public int getOperators() {
+        return operators;
+    }
+
+    public void setOperators(int operators) {
+        if (operators < 1) {
+            throw new IllegalArgumentException("Число операторов должно быть > 0");
+        }
+        this.operators = operators;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException("Длительность должна быть положительной");
+        }
+        this.durationMillis = durationMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return new EnumMap<>(mix);
+    }
+
+    /**
+     * Пропорция операций в виде "search=40,book=20,check_in=10"; не перечисленные операции не выполняются.
+     */
+    public void setMix(String spec) {
+        Map<Operation, Integer> parsed = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Неверный элемент смеси операций: " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase().replace('-', '_'));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес операции не может быть отрицательным: " + part);
+            }
+            parsed.put(operation, weight);
+        }
+        if (parsed.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Смесь операций пуста: " + spec);
+        }
+        mix.clear();
+        mix.putAll(parsed);
+    }
+
+    /**
+     * Запускает операторов на durationMillis и возвращает отчёт. Данные в БД изменяются.
+     */
+    public Report run() throws InterruptedException {
+        List<Room> rooms = roomService.getAllRooms();
+        List<Guest> guests = guestService.getGuestsPage(null, GUEST_SAMPLE).getItems();
+        if (rooms.isEmpty() || guests.isEmpty()) {
+            throw new IllegalStateException("Для нагрузки нужны номера и гости (см. DatasetGenerator)");
+        }
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        long doubleBookingsBefore = doubleBookings();
+        long doubleCheckoutsBefore = doubleCheckouts();
+        long daoErrorsBefore = daoErrors();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long[] deadline = new long[1];
+        for (int i = 0; i < operators; i++) {
+            Operator operator = new Operator(new Random(seed * 1_000_003 + i), rooms, guests, stats);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    operator.runUntil(deadline[0]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "load-operator-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        logger.info("Нагрузка: {} операторов на {} мс, смесь {}", operators, durationMillis, mix);
+        long started = System.nanoTime();
+        deadline[0] = started + durationMillis * 1_000_000;
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        Report report = new Report(operators, elapsedNanos, stats,
+                doubleBookings() - doubleBookingsBefore,
+                doubleCheckouts() - doubleCheckoutsBefore,
+                daoErrors() - daoErrorsBefore);
+        logger.info("Нагрузка завершена: {} операций, {} оп/с", report.getOperations(),
+                String.format("%.1f", report.getThroughput()));
+        return report;
+    }
+
+    /**
+     * Ошибки SQL, которые методы DAO перехватывают сами (чтения возвращают пустой результат).
+     */
+    private static long daoErrors() {
+        long errors = 0;
+        for (MethodMetrics metrics : Metrics.all()) {
+            if (metrics.getName().contains("DAO.")) {
+                errors += metrics.getErrors();
+            }
+        }
+        return errors;
+    }
+
+    static long doubleBookings() {
+        return count(DOUBLE_BOOKINGS_SQL);
+    }
+
+    static long doubleCheckouts() {
+        return count(DOUBLE_CHECKOUTS_SQL);
+    }
+
+    private static long count(String sql) {
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Не удалось проверить целостность броней", e);
+        }
+    }
+
+    /**
+     * Отказ из-за блокировки: SQLITE_BUSY/SQLITE_LOCKED или ожидание соединения из пула.
+     */
+    static boolean isLockFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                String message = String.valueOf(t.getMessage());
+                if (message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED")
+                        || message.contains("database is locked") || message.contains("Нет свободных соединений")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final class Operator {
+
+        private final Random random;
+        private final List<Room> rooms;
+        private final List<Guest> guests;
+        private final Map<Operation, OperationStats> stats;
+        private final Operation[] wheel;
+
+        private Operator(Random random, List<Room> rooms, List<Guest> guests, Map<Operation, OperationStats> stats) {
+            this.random = random;
+            this.rooms = rooms;
+            this.guests = guests;
+            this.stats = stats;
+            List<Operation> slots = new ArrayList<>();
+            mix.forEach((operation, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(operation);
+                }
+            });
+            this.wheel = slots.toArray(new Operation[0]);
+        }
+
+        private void runUntil(long deadline) {
+            while (System.nanoTime() < deadline) {
+                Operation operation = wheel[random.nextInt(wheel.length)];
+                OperationStats operationStats = stats.get(operation);
+                long t0 = System.nanoTime();
+                try {
+                    if (execute(operation)) {
+                        operationStats.ok.increment();
+                    } else {
+                        operationStats.idle.increment();
+                    }
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    operationStats.rejected.increment();
+                } catch (RuntimeException e) {
+                    if (isLockFailure(e)) {
+                        operationStats.lockFailures.increment();
+                    } else {
+                        operationStats.errors.increment();
+                        logger.debug("Ошибка операции {}", operation, e);
+                    }
+                }
+                operationStats.record(System.nanoTime() - t0);
+            }
+        }
+
+        /**
+         * @return false, если операции не над чем работать (нет броней на заселение и т.п.)
+         */
+        private boolean execute(Operation operation) {
+            LocalDate today = LocalDate.now();
+            switch (operation) {
+                case SEARCH -> {
+                    LocalDate start = today.plusDays(random.nextInt(180));
+                    bookingService.getAvailableRooms(start, start.plusDays(1 + random.nextInt(7)));
+                    return true;
+                }
+                case BOOK -> {
+                    // Треть броней — на сегодня, чтобы было кого заселять
+                    LocalDate start = random.nextInt(3) == 0 ? today : today.plusDays(1 + random.nextInt(60));
+                    LocalDate end = start.plusDays(1 + random.nextInt(5));
+                    List<Room> free = bookingService.getAvailableRooms(start, end);
+                    if (free.isEmpty()) {
+                        return false;
+                    }
+                    // Операторы обычно выбирают из первых строк списка — это и создаёт гонки за номер
+                    Room room = free.get(random.nextInt(Math.min(free.size(), 5)));
+                    Guest guest = guests.get(random.nextInt(guests.size()));
+                    bookingService.createBooking(guest.getId(), room.getId(), start, end);
+                    return true;
+                }
+                case CHECK_IN -> {
+                    List<Booking> arrivals = bookingService.getBookingsForCheckIn(today);
+                    if (arrivals.isEmpty()) {
+                        return false;
+                    }
+                    bookingService.checkIn(arrivals.get(random.nextInt(arrivals.size())).getId());
+                    return true;
+                }
+                case CHECK_OUT -> {
+                    List<Booking> staying = bookingService.getBookingsForCheckOut();
+                    if (staying.isEmpty()) {
+                        return false;
+                    }
+                    bookingService.checkOut(staying.get(random.nextInt(staying.size())).getId(), random.nextBoolean());
+                    return true;
+                }
+                case GUEST_EDIT -> {
+                    String passport = guests.get(random.nextInt(guests.size())).getPassport();
+                    List<Guest> found = guestService.searchGuests(passport, 1);
+                    if (found.isEmpty()) {
+                        return false;
+                    }
+                    Guest guest = found.get(0);
+                    guest.setPhone(String.format("+375 29 %03d %02d %02d",
+                            random.nextInt(1000), random.nextInt(100), random.nextInt(100)));
+                    guestService.saveGuest(guest);
+                    return true;
+                }
+                case ROOM_BOARD -> {
+                    roomService.getAllRooms();
+                    return true;
+                }
+                default -> throw new IllegalStateException("Неизвестная операция " + operation);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+        String mixSpec = null;
+        int operators = 8;
+        long durationSeconds = 30;
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("не задано значение для " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--db" -> config.setUrl(value.startsWith("jdbc:") ? value : "jdbc:sqlite:" + value);
+                case "--operators" -> operators = Integer.parseInt(value);
+                case "--duration" -> durationSeconds = Long.parseLong(value);
+                case "--mix" -> mixSpec = value;
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> usage("неизвестный параметр " + option);
+            }
+        }
+        Database.configure(config);
+        Database.initialize();
+        try {
+            GuestDAO guestDAO = new GuestDAO();
+            RoomDAO roomDAO = new RoomDAO();
+            LoadTest loadTest = new LoadTest(
+                    new BookingService(new BookingDAO(), roomDAO, guestDAO, new PaymentDAO()),
+                    new GuestService(guestDAO),
+                    new RoomService(roomDAO));
+            loadTest.setOperators(operators);
+            loadTest.setDurationMillis(durationSeconds * 1000);
+            loadTest.setSeed(seed);
+            if (mixSpec != null) {
+                loadTest.setMix(mixSpec);
+            }
+            Report report = loadTest.run();
+            System.out.println(report);
+            System.out.println(Database.getPoolStats());
+        } finally {
+            Database.shutdown();
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println("Ошибка: " + error);
+        System.err.println("Параметры: [--db файл] [--operators N] [--duration секунд] [--seed S]"
+                + " [--mix search=40,book=20,check_in=10,check_out=10,guest_edit=10,room_board=10]");
+        System.exit(2);
+    }
+
+    /**
+     * Счётчики и время одной операции; общие для всех операторов.
+     */
+    private static final class OperationStats {
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder idle = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder lockFailures = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            latency.record(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private long total() {
+            return ok.sum() + idle.sum() + rejected.sum() + lockFailures.sum() + errors.sum();
+        }
+
+        private double percentileMillis(double quantile) {
+            return Math.min(latency.percentile(quantile), maxNanos.get()) / 1e6;
+        }
+    }
+
+    /**
+     * Report — итог прогона: по операциям и в целом.
+     */
+    public static final class Report {
+
+        private final int operators;
+        private final long elapsedNanos;
+        private final Map<Operation, OperationStats> stats;
+        private final long doubleBookings;
+        private final long doubleCheckouts;
+        private final long daoErrors;
+
+        private Report(int operators, long elapsedNanos, Map<Operation, OperationStats> stats,
+                       long doubleBookings, long doubleCheckouts, long daoErrors) {
+            this.operators = operators;
+            this.elapsedNanos = elapsedNanos;
+            this.stats = stats;
+            this.doubleBookings = doubleBookings;
+            this.doubleCheckouts = doubleCheckouts;
+            this.daoErrors = daoErrors;
+        }
+
+        public long getOperations() {
+            return stats.values().stream().mapToLong(OperationStats::total).sum();
+        }
+
+        public long getOperations(Operation operation) {
+            return stats.get(operation).total();
+        }
+
+        public double getThroughput() {
+            return getOperations() / (elapsedNanos / 1e9);
+        }
+
+        public long getLockFailures() {
+            return stats.values().stream().mapToLong(s -> s.lockFailures.sum()).sum();
+        }
+
+        public long getErrors() {
+            return stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+        }
+
+        /**
+         * Новые пары пересекающихся активных броней одного номера, появившиеся за прогон.
+         */
+        public long getDoubleBookings() {
+            return doubleBookings;
+        }
+
+        /**
+         * Новые брони с несколькими оплатами (одного гостя выселили дважды).
+         */
+        public long getDoubleCheckouts() {
+            return doubleCheckouts;
+        }
+
+        /**
+         * Ошибки SQL, которые DAO перехватили сами, не сообщив сервису.
+         */
+        public long getDaoErrors() {
+            return daoErrors;
+        }
+
+        /**
+         * Оценка перцентиля времени операции в миллисекундах (верхняя граница корзины гистограммы).
+         */
+        public double getPercentileMillis(Operation operation, double quantile) {
+            return stats.get(operation).percentileMillis(quantile);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Операторов: %d, время: %.1f с, операций: %d, пропускная способность: %.1f оп/с%n",
+                    operators, elapsedNanos / 1e9, getOperations(), getThroughput()));
+            sb.append(String.format("%-11s %8s %8s %8s %8s %8s %8s %9s %9s %9s %9s%n", "операция", "всего", "успех",
+                    "нечего", "отказ", "блокир.", "ошибки", "p50 мс", "p95 мс", "p99 мс", "max мс"));
+            stats.forEach((operation, s) -> {
+                if (s.total() > 0) {
+                    sb.append(String.format("%-11s %8d %8d %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                            operation.name().toLowerCase(), s.total(), s.ok.sum(), s.idle.sum(), s.rejected.sum(),
+                            s.lockFailures.sum(), s.errors.sum(), s.percentileMillis(0.5), s.percentileMillis(0.95),
+                            s.percentileMillis(0.99), s.maxNanos.get() / 1e6));
+                }
+            });
+            sb.append(String.format("Отказов по блокировкам: %d, ошибок: %d, ошибок SQL внутри DAO: %d%n",
+                    getLockFailures(), getErrors(), daoErrors));
+            sb.append(String.format("Нарушения: пересекающихся броней %d, повторных выселений %d",
+                    doubleBookings, doubleCheckouts));
+            return sb.toString();
+        }
+    }
+}
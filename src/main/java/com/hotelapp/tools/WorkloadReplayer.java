@@ -0,0 +1,388 @@
+package com.hotelapp.tools;
+
+import com.hotelapp.capture.CapturedCall;
+import com.hotelapp.capture.ServiceCall;
+import com.hotelapp.capture.WorkloadLog;
+import com.hotelapp.capture.WorkloadRecorder;
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.metrics.LatencyHistogram;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.service.GuestService;
+import com.hotelapp.service.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WorkloadReplayer — воспроизведение журнала нагрузки (WorkloadRecorder) на копии снимка БД,
+ * чтобы разбирать медленные места с продуктивной нагрузки без доступа к продуктиву.
+ * Вызовы выполняются в одном потоке в порядке их начала при записи: результат не зависит от планировщика,
+ * и повторный прогон даёт ту же БД. Скорость: 0 — без пауз, 1 — в темпе записи, 2 — вдвое быстрее и т. д.
+ *
+ * <pre>
+ * java -cp ... com.hotelapp.tools.WorkloadReplayer --log capture.hcap --speed 1
+ * </pre>
+ */
+public class WorkloadReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadReplayer.class);
+
+    private static final int SLOWEST = 10;
+
+    private final BookingService bookingService;
+    private final GuestService guestService;
+    private final RoomService roomService;
+
+    private double speed;
+    private long dateShiftDays;
+
+    public WorkloadReplayer(BookingService bookingService, GuestService guestService, RoomService roomService) {
+        this.bookingService = bookingService;
+        this.guestService = guestService;
+        this.roomService = roomService;
+    }
+
+    /**
+     * Множитель темпа относительно записи; 0 — выполнять вызовы подряд без пауз.
+     */
+    public void setSpeed(double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Скорость не может быть отрицательной");
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Сдвиг всех дат в аргументах вызовов (см. shiftBookingDates).
+     */
+    public void setDateShiftDays(long dateShiftDays) {
+        this.dateShiftDays = dateShiftDays;
+    }
+
+    public Report replay(WorkloadLog log) {
+        Map<ServiceCall, CallStats> stats = new EnumMap<>(ServiceCall.class);
+        List<SlowCall> slowest = new ArrayList<>();
+        long maxLag = 0;
+        long started = System.nanoTime();
+        for (CapturedCall call : log.getCalls()) {
+            if (speed > 0) {
+                long due = started + (long) (call.getOffsetNanos() / speed);
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    LockSupport.parkNanos(due - now);
+                }
+                maxLag = Math.max(maxLag, now - due);
+            }
+            long callStarted = System.nanoTime();
+            boolean failed = false;
+            try {
+                invoke(call.getCall(), shiftDates(call.getArgs()));
+            } catch (RuntimeException e) {
+                failed = true;
+                if (!call.isFailed()) {
+                    logger.warn("Вызов {} завершился ошибкой, при записи — успешно: {}", call, e.getMessage());
+                }
+            }
+            long elapsed = System.nanoTime() - callStarted;
+            stats.computeIfAbsent(call.getCall(), c -> new CallStats()).record(call, elapsed, failed);
+            if (slowest.size() < SLOWEST || elapsed > slowest.get(slowest.size() - 1).replayNanos) {
+                slowest.add(new SlowCall(call, elapsed));
+                slowest.sort(Comparator.comparingLong((SlowCall s) -> s.replayNanos).reversed());
+                if (slowest.size() > SLOWEST) {
+                    slowest.remove(SLOWEST);
+                }
+            }
+        }
+        return new Report(System.nanoTime() - started, log.getDurationNanos(), maxLag, stats, slowest);
+    }
+
+    private Object[] shiftDates(Object[] args) {
+        if (dateShiftDays != 0) {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof LocalDate date) {
+                    args[i] = date.plusDays(dateShiftDays);
+                } else if (args[i] instanceof Booking booking) {
+                    booking.setCheckInDate(booking.getCheckInDate() == null ? null
+                            : booking.getCheckInDate().plusDays(dateShiftDays));
+                    booking.setCheckOutDate(booking.getCheckOutDate() == null ? null
+                            : booking.getCheckOutDate().plusDays(dateShiftDays));
+                }
+            }
+        }
+        return args;
+    }
+
+    private void invoke(ServiceCall call, Object[] a) {
+        switch (call) {
+            case GET_ALL_BOOKINGS -> bookingService.getAllBookings();
+            case GET_BOOKINGS_PAGE -> bookingService.getBookingsPage((String) a[0], (Integer) a[1]);
+            case GET_BOOKINGS_PAGE_SORTED -> bookingService.getBookingsPage(bookingKey(a[0]), (Boolean) a[1],
+                    (String) a[2], (Integer) a[3]);
+            case GET_BOOKINGS_RANGE -> bookingService.getBookingsRange(bookingKey(a[0]), (Boolean) a[1],
+                    (Integer) a[2], (Integer) a[3]);
+            case COUNT_BOOKINGS -> bookingService.countBookings();
+            case GET_AVAILABLE_ROOMS -> bookingService.getAvailableRooms((LocalDate) a[0], (LocalDate) a[1]);
+            case GET_AVAILABLE_ROOMS_FILTERED -> bookingService.getAvailableRooms((LocalDate) a[0], (LocalDate) a[1],
+                    (String) a[2], (Integer) a[3], (Double) a[4]);
+            case CREATE_BOOKING -> bookingService.createBooking((Integer) a[0], (Integer) a[1], (LocalDate) a[2],
+                    (LocalDate) a[3]);
+            case CHECK_IN -> bookingService.checkIn((Integer) a[0]);
+            case CHECK_OUT -> bookingService.checkOut((Integer) a[0], (Boolean) a[1]);
+            case CALCULATE_TOTAL_COST -> bookingService.calculateTotalCost((Booking) a[0]);
+            case FIND_FIRST_FREE_ROOMS -> bookingService.findFirstFreeRooms((String) a[0], (LocalDate) a[1],
+                    (LocalDate) a[2], (Integer) a[3]);
+            case GET_NIGHTLY_OCCUPANCY -> bookingService.getNightlyOccupancy((LocalDate) a[0], (LocalDate) a[1]);
+            case GET_BOOKINGS_FOR_CHECK_IN -> bookingService.getBookingsForCheckIn((LocalDate) a[0]);
+            case GET_BOOKINGS_FOR_CHECK_OUT -> bookingService.getBookingsForCheckOut();
+
+            case GET_ALL_GUESTS -> guestService.getAllGuests();
+            case GET_GUESTS_PAGE -> guestService.getGuestsPage((String) a[0], (Integer) a[1]);
+            case GET_GUESTS_PAGE_SORTED -> guestService.getGuestsPage(guestKey(a[0]), (Boolean) a[1],
+                    (String) a[2], (Integer) a[3]);
+            case GET_GUESTS_RANGE -> guestService.getGuestsRange(guestKey(a[0]), (Boolean) a[1],
+                    (Integer) a[2], (Integer) a[3]);
+            case SEARCH_GUESTS -> guestService.searchGuests((String) a[0], (Integer) a[1]);
+            case SEARCH_GUESTS_FULL_TEXT -> guestService.searchGuestsFullText((String) a[0], (Integer) a[1]);
+            case FIND_SIMILAR_GUESTS -> guestService.findSimilarGuests((String) a[0], (String) a[1],
+                    (Integer) a[2], (Integer) a[3]);
+            case FIND_DUPLICATES -> guestService.findDuplicates();
+            case COUNT_GUESTS -> guestService.countGuests();
+            case SAVE_GUEST -> guestService.saveGuest((Guest) a[0]);
+            case DELETE_GUEST -> guestService.deleteGuest((Guest) a[0]);
+
+            case GET_ALL_ROOMS -> roomService.getAllRooms();
+            case GET_ROOM_CHANGES -> roomService.getRoomChanges((Long) a[0]);
+            case SAVE_ROOM -> roomService.saveRoom((Room) a[0]);
+            case DELETE_ROOM -> roomService.deleteRoom((Room) a[0]);
+            case UPDATE_ROOM_STATUS -> roomService.updateStatus((Integer) a[0],
+                    a[1] == null ? null : Room.RoomStatus.valueOf((String) a[1]));
+            default -> throw new IllegalStateException("Воспроизведение не поддерживает вызов " + call);
+        }
+    }
+
+    private static BookingDAO.SortKey bookingKey(Object name) {
+        return name == null ? null : BookingDAO.SortKey.valueOf((String) name);
+    }
+
+    private static GuestDAO.SortKey guestKey(Object name) {
+        return name == null ? null : GuestDAO.SortKey.valueOf((String) name);
+    }
+
+    /**
+     * Сдвигает даты всех броней текущей БД на days дней. Сервисы сверяют даты с сегодняшним днём
+     * (нельзя бронировать задним числом, заезды на сегодня), поэтому при воспроизведении в другой день
+     * снимок и аргументы вызовов сдвигаются на разницу между днём записи и сегодняшним.
+     */
+    public static void shiftBookingDates(long days) throws SQLException {
+        try (Connection connection = Database.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                     "UPDATE bookings SET check_in_date = check_in_date + ?, check_out_date = check_out_date + ?")) {
+            ps.setLong(1, days);
+            ps.setLong(2, days);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        Path logFile = null;
+        Path snapshot = null;
+        double speed = 0;
+        boolean shiftDates = true;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("не задано значение для " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--log" -> logFile = Path.of(value);
+                case "--db" -> snapshot = Path.of(value);
+                case "--speed" -> speed = Double.parseDouble(value);
+                case "--shift-dates" -> shiftDates = Boolean.parseBoolean(value);
+                default -> usage("неизвестный параметр " + option);
+            }
+        }
+        if (logFile == null) {
+            usage("не задан журнал --log");
+        }
+        if (snapshot == null) {
+            snapshot = WorkloadRecorder.snapshotOf(logFile);
+        }
+        WorkloadLog log = WorkloadLog.read(logFile);
+        String name = snapshot.getFileName().toString().replaceFirst("\\.db$", "");
+        Path copy = snapshot.resolveSibling(name + "-replay.db");
+        Files.copy(snapshot, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+        config.setUrl("jdbc:sqlite:" + copy);
+        if (System.getProperty("hotel.db.slowQuery.file") == null) {
+            config.setSlowQueryLogFile(copy.resolveSibling("slow-queries-replay.log").toString());
+        }
+        Database.configure(config);
+        Database.initialize();
+        try {
+            LocalDate captured = Instant.ofEpochMilli(log.getStartedAtMillis()).atZone(ZoneId.systemDefault())
+                    .toLocalDate();
+            long shift = shiftDates ? ChronoUnit.DAYS.between(captured, LocalDate.now()) : 0;
+            if (shift != 0) {
+                shiftBookingDates(shift);
+                logger.info("Даты броней и вызовов сдвинуты на {} дн. (запись от {})", shift, captured);
+            }
+            GuestDAO guestDAO = new GuestDAO();
+            RoomDAO roomDAO = new RoomDAO();
+            WorkloadReplayer replayer = new WorkloadReplayer(
+                    new BookingService(new BookingDAO(), roomDAO, guestDAO, new PaymentDAO()),
+                    new GuestService(guestDAO),
+                    new RoomService(roomDAO));
+            replayer.setSpeed(speed);
+            replayer.setDateShiftDays(shift);
+            logger.info("Воспроизведение {} вызовов из {} (источник {}) на {}", log.getCalls().size(), logFile,
+                    log.getSource(), copy);
+            System.out.println(replayer.replay(log));
+            System.out.println(Database.getPoolStats());
+        } finally {
+            Database.shutdown();
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println("Ошибка: " + error);
+        System.err.println("Параметры: --log журнал [--db снимок] [--speed 0|1|2...] [--shift-dates true|false]");
+        System.exit(2);
+    }
+
+    /**
+     * Время одного вида вызовов при записи и при воспроизведении.
+     */
+    private static final class CallStats {
+        private final LatencyHistogram original = new LatencyHistogram();
+        private final LatencyHistogram replayed = new LatencyHistogram();
+        private long count;
+        private long failed;
+        private long mismatched;
+        private long originalMax;
+        private long replayedMax;
+
+        private void record(CapturedCall call, long nanos, boolean replayFailed) {
+            count++;
+            original.record(call.getDurationNanos());
+            replayed.record(nanos);
+            originalMax = Math.max(originalMax, call.getDurationNanos());
+            replayedMax = Math.max(replayedMax, nanos);
+            if (replayFailed) {
+                failed++;
+            }
+            if (replayFailed != call.isFailed()) {
+                mismatched++;
+            }
+        }
+    }
+
+    private static final class SlowCall {
+        private final CapturedCall call;
+        private final long replayNanos;
+
+        private SlowCall(CapturedCall call, long replayNanos) {
+            this.call = call;
+            this.replayNanos = replayNanos;
+        }
+    }
+
+    /**
+     * Report — итог воспроизведения: время вызовов при записи и сейчас, расхождения исходов, самые медленные вызовы.
+     */
+    public static final class Report {
+
+        private final long elapsedNanos;
+        private final long capturedNanos;
+        private final long maxLagNanos;
+        private final Map<ServiceCall, CallStats> stats;
+        private final List<SlowCall> slowest;
+
+        private Report(long elapsedNanos, long capturedNanos, long maxLagNanos, Map<ServiceCall, CallStats> stats,
+                       List<SlowCall> slowest) {
+            this.elapsedNanos = elapsedNanos;
+            this.capturedNanos = capturedNanos;
+            this.maxLagNanos = maxLagNanos;
+            this.stats = stats;
+            this.slowest = slowest;
+        }
+
+        public long getCalls() {
+            return stats.values().stream().mapToLong(s -> s.count).sum();
+        }
+
+        public long getCalls(ServiceCall call) {
+            CallStats s = stats.get(call);
+            return s == null ? 0 : s.count;
+        }
+
+        public long getFailed() {
+            return stats.values().stream().mapToLong(s -> s.failed).sum();
+        }
+
+        /**
+         * Вызовы, исход которых (успех или исключение) отличается от записанного.
+         */
+        public long getMismatched() {
+            return stats.values().stream().mapToLong(s -> s.mismatched).sum();
+        }
+
+        /**
+         * Наибольшее отставание начала вызова от расписания записи (только при скорости больше 0).
+         */
+        public long getMaxLagNanos() {
+            return maxLagNanos;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Вызовов: %d, запись: %.1f с, воспроизведение: %.1f с, макс. отставание: %.1f мс%n",
+                    getCalls(), capturedNanos / 1e9, elapsedNanos / 1e9, maxLagNanos / 1e6));
+            sb.append(String.format("%-28s %7s %7s %7s %10s %10s %10s %10s %10s %10s%n", "вызов", "всего", "ошибки",
+                    "расхожд.", "было p50", "было p95", "было max", "p50 мс", "p95 мс", "max мс"));
+            stats.forEach((call, s) -> sb.append(String.format(
+                    "%-28s %7d %7d %7d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    call.name().toLowerCase(), s.count, s.failed, s.mismatched,
+                    Math.min(s.original.percentile(0.5), s.originalMax) / 1e6,
+                    Math.min(s.original.percentile(0.95), s.originalMax) / 1e6, s.originalMax / 1e6,
+                    Math.min(s.replayed.percentile(0.5), s.replayedMax) / 1e6,
+                    Math.min(s.replayed.percentile(0.95), s.replayedMax) / 1e6, s.replayedMax / 1e6)));
+            sb.append("Самые медленные вызовы:");
+            for (SlowCall slow : slowest) {
+                sb.append(String.format("%n  %9.2f мс  %s", slow.replayNanos / 1e6, slow.call));
+            }
+            return sb.toString();
+        }
+    }
+}
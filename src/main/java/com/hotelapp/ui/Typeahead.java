@@ -0,0 +1,86 @@
+package com.hotelapp.ui;
+
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import javafx.animation.PauseTransition;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListCell;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Typeahead — выбор значения из большого справочника через редактируемый ComboBox.
+ * Вместо полного списка в выпадающем списке только подсказки: поиск запускается после паузы
+ * в наборе текста, выполняется в фоне, а ответ на устаревший запрос отбрасывается.
+ */
+public final class Typeahead {
+
+    private static final Duration DEBOUNCE = Duration.millis(250);
+
+    private Typeahead() {
+    }
+
+    /**
+     * @param key    ключ фоновой задачи: новый поиск отменяет предыдущий
+     * @param search поиск по введённому тексту; вызывается вне FX-потока
+     * @param text   подпись значения в списке и в поле ввода
+     */
+    public static <T> void install(ComboBox<T> combo, String key, Function<String, List<T>> search,
+                                   Function<T, String> text, Consumer<Throwable> onFailure) {
+        combo.setEditable(true);
+        combo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(T value) {
+                return value == null ? "" : text.apply(value);
+            }
+
+            @Override
+            public T fromString(String string) {
+                // Текст, не совпадающий ни с одной подсказкой, значением не считается
+                return combo.getItems().stream()
+                        .filter(item -> text.apply(item).equals(string))
+                        .findFirst()
+                        .orElse(null);
+            }
+        });
+        combo.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : text.apply(item));
+            }
+        });
+
+        PauseTransition pause = new PauseTransition(DEBOUNCE);
+        combo.getEditor().textProperty().addListener((obs, oldText, newText) -> {
+            T selected = combo.getValue();
+            // Текст подставлен выбором из списка — искать заново не нужно
+            if (selected != null && text.apply(selected).equals(newText)) {
+                return;
+            }
+            pause.setOnFinished(event -> runSearch(combo, key, newText, search, onFailure));
+            pause.playFromStart();
+        });
+    }
+
+    private static <T> void runSearch(ComboBox<T> combo, String key, String query,
+                                      Function<String, List<T>> search, Consumer<Throwable> onFailure) {
+        if (query == null || query.isBlank()) {
+            BackgroundTasks.cancel(key);
+            combo.getItems().clear();
+            combo.hide();
+            return;
+        }
+        BackgroundTasks.submit(key, () -> search.apply(query), results -> {
+            combo.getItems().setAll(results);
+            if (results.isEmpty()) {
+                combo.hide();
+            } else if (combo.getEditor().isFocused()) {
+                combo.show();
+            }
+        }, onFailure);
+    }
+}
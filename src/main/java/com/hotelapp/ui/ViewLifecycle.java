@@ -0,0 +1,13 @@
+package com.hotelapp.ui;
+
+/**
+ * ViewLifecycle — контроллер вида, который ViewRegistry держит загруженным между переключениями.
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Вызывается при повторном показе вида: обновить данные, не пересоздавая сам вид.
+     * При первом показе данные уже загружены в initialize, и хук не вызывается.
+     */
+    void onShow();
+}
@@ -0,0 +1,95 @@
+package com.hotelapp.ui;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ViewRegistry — загружает каждый FXML-вид один раз и переиспользует узел и контроллер
+ * при следующих показах. Все методы вызываются из FX-потока.
+ */
+public class ViewRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewRegistry.class);
+
+    private final Map<String, LoadedView> views = new HashMap<>();
+
+    /**
+     * Возвращает вид resource: при первом обращении загружает FXML, при повторном —
+     * отдаёт готовый узел и вызывает onShow у контроллера.
+     */
+    public Parent show(String resource) throws IOException {
+        LoadedView view = views.get(resource);
+        if (view == null) {
+            return load(resource).root;
+        }
+        if (view.controller instanceof ViewLifecycle) {
+            ((ViewLifecycle) view.controller).onShow();
+        }
+        return view.root;
+    }
+
+    public boolean isLoaded(String resource) {
+        return views.containsKey(resource);
+    }
+
+    /**
+     * Заранее загружает виды по одному на каждый проход FX-потока, чтобы не задерживать отрисовку.
+     * Узлы и контроллеры (с их ObservableList и фоновыми задачами) создаются в FX-потоке;
+     * чтение данных при этом уже идёт в фоне.
+     */
+    public void preload(List<String> resources) {
+        Deque<String> queue = new ArrayDeque<>(resources);
+        Platform.runLater(() -> preloadNext(queue));
+    }
+
+    private void preloadNext(Deque<String> queue) {
+        String resource = queue.poll();
+        if (resource == null) {
+            return;
+        }
+        if (!views.containsKey(resource)) {
+            try {
+                load(resource);
+                logger.debug("Вид предзагружен: {}", resource);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Не удалось предзагрузить вид {}", resource, e);
+            }
+        }
+        Platform.runLater(() -> preloadNext(queue));
+    }
+
+    private LoadedView load(String resource) throws IOException {
+        URL url = getClass().getResource(resource);
+        if (url == null) {
+            throw new IOException("Не удалось найти файл: " + resource);
+        }
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(url);
+        Parent root = loader.load();
+        LoadedView view = new LoadedView(root, loader.getController());
+        views.put(resource, view);
+        logger.debug("FXML {} загружен за {} мс", resource, (System.nanoTime() - start) / 1_000_000);
+        return view;
+    }
+
+    private static final class LoadedView {
+        private final Parent root;
+        private final Object controller;
+
+        private LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
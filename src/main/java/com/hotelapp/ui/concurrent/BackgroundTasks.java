@@ -0,0 +1,159 @@
+package com.hotelapp.ui.concurrent;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BackgroundTasks — выполнение обращений к сервисам вне FX-потока.
+ * Работа идёт в пуле фоновых потоков, результат и ошибка передаются обратно в FX-поток.
+ * Задачи с одинаковым ключом вытесняют друг друга: новая отменяет ещё не завершённую старую,
+ * и результат устаревшего запроса (например, при быстрой смене дат) не попадает на экран.
+ * Методы submit/execute вызываются из FX-потока.
+ */
+public final class BackgroundTasks {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundTasks.class);
+
+    private static final int THREADS = 4;
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "hotel-background-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, Task<?>> latestByKey = new HashMap<>();
+    private static final ReadOnlyIntegerWrapper running = new ReadOnlyIntegerWrapper();
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Выполняет work в фоне; onSuccess или onFailure вызываются в FX-потоке.
+     * Ошибка в любом случае пишется в журнал; onFailure может быть null.
+     */
+    public static <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return submit(null, work, onSuccess, onFailure);
+    }
+
+    /**
+     * То же, но незавершённая задача с тем же ключом отменяется, а её результат отбрасывается.
+     */
+    public static <T> Task<T> submit(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        if (key != null) {
+            Task<?> previous = latestByKey.put(key, task);
+            if (previous != null) {
+                previous.cancel(true);
+            }
+        }
+        task.setOnSucceeded(event -> {
+            if (finish(key, task)) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (finish(key, task)) {
+                String name = key != null ? key : "без ключа";
+                if (onFailure == null) {
+                    // Обработчика нет — кроме журнала об ошибке никто не узнает
+                    logger.error("Фоновая задача {} завершилась ошибкой", name, task.getException());
+                    return;
+                }
+                logger.warn("Фоновая задача {} завершилась ошибкой", name, task.getException());
+                onFailure.accept(task.getException());
+            }
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, event -> finish(key, task));
+        running.set(running.get() + 1);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Действие без результата (сохранение, удаление): onSuccess или onFailure вызываются в FX-потоке.
+     */
+    public static Task<Void> run(Runnable work, Runnable onSuccess, Consumer<Throwable> onFailure) {
+        return submit(null, () -> {
+            work.run();
+            return null;
+        }, ignored -> onSuccess.run(), onFailure);
+    }
+
+    /**
+     * Фоновое выполнение без ключа — для загрузчиков, которые сами возвращаются в FX-поток.
+     * Ошибка только пишется в журнал.
+     */
+    public static void execute(Runnable work) {
+        execute(work, null);
+    }
+
+    /**
+     * То же, но при ошибке в FX-потоке вызывается onFailure.
+     */
+    public static void execute(Runnable work, Consumer<Throwable> onFailure) {
+        submit(() -> {
+            work.run();
+            return null;
+        }, ignored -> {
+        }, onFailure);
+    }
+
+    /**
+     * Отменяет незавершённую задачу с ключом key, если она есть.
+     */
+    public static void cancel(String key) {
+        Task<?> task = latestByKey.remove(key);
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Число выполняющихся задач — для индикатора занятости.
+     */
+    public static ReadOnlyIntegerProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Снимает задачу с учёта; false — задача вытеснена более новой с тем же ключом.
+     */
+    private static boolean finish(String key, Task<?> task) {
+        running.set(running.get() - 1);
+        if (key == null) {
+            return true;
+        }
+        if (latestByKey.get(key) == task) {
+            latestByKey.remove(key);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotelapp.ui.controllers;
+
+import com.hotelapp.model.Booking;
+
+import java.util.Objects;
+
+/**
+ * BookingRows — сравнение снимков брони для ListDiff: версия строки плюс имена из связанных таблиц.
+ */
+final class BookingRows {
+
+    private BookingRows() {
+    }
+
+    static boolean same(Booking a, Booking b) {
+        return a.getVersion() == b.getVersion()
+                && Objects.equals(a.getGuestName(), b.getGuestName())
+                && Objects.equals(a.getRoomNumber(), b.getRoomNumber());
+    }
+}
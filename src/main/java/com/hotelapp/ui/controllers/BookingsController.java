@@ -1,19 +1,28 @@
 package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
+import com.hotelapp.dao.BookingDAO;
 import com.hotelapp.model.Booking;
 import com.hotelapp.model.Room;
 import com.hotelapp.model.Guest;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.ui.Typeahead;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.LazyPagedList;
+import com.hotelapp.ui.table.PageLoaders;
+import com.hotelapp.ui.table.ServerSort;
 import com.hotelapp.util.ValidationUtils;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 
-public class BookingsController {
+public class BookingsController implements ViewLifecycle {
 
     @FXML
     private TableView<Booking> bookingsTable;
@@ -36,19 +45,34 @@ public class BookingsController {
     private DatePicker checkInPicker;
     @FXML
     private DatePicker checkOutPicker;
+    @FXML
+    private Button createButton;
+
+    private static final int GUEST_SUGGESTIONS = 20;
 
-    private final ObservableList<Booking> bookingsData = FXCollections.observableArrayList();
+    private LazyPagedList<Booking> bookingsData;
 
     @FXML
     private void initialize() {
-        guestColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getGuestName()));
-        roomColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getRoomNumber()));
-        checkInColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getCheckInDate().toString()));
-        checkOutColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getCheckOutDate().toString()));
-        statusColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus().name()));
-
+        // Строка ленивого списка может быть ещё не прочитана (null)
+        guestColumn.setCellValueFactory(CellValues.of(Booking::getGuestName));
+        roomColumn.setCellValueFactory(CellValues.of(Booking::getRoomNumber));
+        checkInColumn.setCellValueFactory(CellValues.of(Booking::getCheckInText));
+        checkOutColumn.setCellValueFactory(CellValues.of(Booking::getCheckOutText));
+        statusColumn.setCellValueFactory(CellValues.of(row -> row.getStatus().name()));
+
+        BookingService service = MainApp.getBookingService();
+        bookingsData = new LazyPagedList<>(PageLoaders.bookings(service, BookingDAO.SortKey.CHECK_IN, true));
+        bookingsData.setOnLoadFailed(error ->
+                showAlert(Alert.AlertType.ERROR, "Ошибка", "Не удалось загрузить брони: " + error.getMessage()));
         bookingsTable.setItems(bookingsData);
-        guestCombo.setItems(FXCollections.observableArrayList(MainApp.getGuestService().getAllGuests()));
+        ServerSort.install(bookingsTable, bookingsData,
+                Map.<TableColumn<Booking, ?>, BookingDAO.SortKey>of(
+                        checkInColumn, BookingDAO.SortKey.CHECK_IN,
+                        checkOutColumn, BookingDAO.SortKey.CHECK_OUT,
+                        statusColumn, BookingDAO.SortKey.STATUS),
+                BookingDAO.SortKey.CHECK_IN,
+                (key, ascending) -> PageLoaders.bookings(service, key, ascending));
         configureGuestCombo();
         configureRoomCombo();
         
@@ -57,9 +81,14 @@ public class BookingsController {
         refreshBookings();
     }
 
+    @Override
+    public void onShow() {
+        refreshBookings();
+    }
+
     @FXML
     private void handleCreateBooking() {
-        Guest guest = guestCombo.getSelectionModel().getSelectedItem();
+        Guest guest = guestCombo.getValue();
         Room room = roomCombo.getSelectionModel().getSelectedItem();
         LocalDate start = checkInPicker.getValue();
         LocalDate end = checkOutPicker.getValue();
@@ -80,19 +109,21 @@ public class BookingsController {
             return;
         }
         
-        try {
-            MainApp.getBookingService().createBooking(guest.getId(), room.getId(), start, end);
+        // Пока бронь создаётся, повторное нажатие недоступно
+        createButton.setDisable(true);
+        BackgroundTasks.run(() -> MainApp.getBookingService().createBooking(guest.getId(), room.getId(), start, end), () -> {
+            createButton.setDisable(false);
             refreshBookings();
             clearForm();
             showAlert(Alert.AlertType.INFORMATION, "Успех", "Бронирование успешно создано");
-        } catch (RuntimeException e) {
-            showAlert(Alert.AlertType.ERROR, "Ошибка", e.getMessage());
-        }
+        }, error -> {
+            createButton.setDisable(false);
+            showAlert(Alert.AlertType.ERROR, "Ошибка", error.getMessage());
+        });
     }
 
     private void refreshBookings() {
-        bookingsData.setAll(MainApp.getBookingService().getAllBookings());
-        guestCombo.setItems(FXCollections.observableArrayList(MainApp.getGuestService().getAllGuests()));
+        bookingsData.refresh();
         updateRoomChoices();
     }
 
@@ -100,22 +131,29 @@ public class BookingsController {
         LocalDate start = checkInPicker.getValue();
         LocalDate end = checkOutPicker.getValue();
         if (start == null || end == null || !start.isBefore(end)) {
+            BackgroundTasks.cancel("bookings.rooms");
             roomCombo.getItems().clear();
             roomCombo.setPromptText("Сначала выберите даты заезда и выезда");
             return;
         }
-        java.util.List<Room> availableRooms = MainApp.getBookingService().getAvailableRooms(start, end);
-        if (availableRooms.isEmpty()) {
-            roomCombo.getItems().clear();
-            roomCombo.setPromptText("Нет свободных номеров на выбранные даты");
-        } else {
-            roomCombo.setItems(FXCollections.observableArrayList(availableRooms));
-            roomCombo.setPromptText("Выберите номер (" + availableRooms.size() + " доступно)");
-        }
+        roomCombo.setPromptText("Поиск свободных номеров...");
+        // При быстрой смене дат более новый запрос отменяет предыдущий
+        BackgroundTasks.submit("bookings.rooms", () -> MainApp.getBookingService().getAvailableRooms(start, end),
+                availableRooms -> {
+                    if (availableRooms.isEmpty()) {
+                        roomCombo.getItems().clear();
+                        roomCombo.setPromptText("Нет свободных номеров на выбранные даты");
+                    } else {
+                        roomCombo.setItems(FXCollections.observableArrayList(availableRooms));
+                        roomCombo.setPromptText("Выберите номер (" + availableRooms.size() + " доступно)");
+                    }
+                },
+                error -> roomCombo.setPromptText("Не удалось найти свободные номера: " + error.getMessage()));
     }
 
     private void clearForm() {
-        guestCombo.getSelectionModel().clearSelection();
+        guestCombo.setValue(null);
+        guestCombo.getItems().clear();
         roomCombo.getSelectionModel().clearSelection();
         roomCombo.setPromptText("Выберите номер");
         checkInPicker.setValue(null);
@@ -123,29 +161,11 @@ public class BookingsController {
     }
 
     private void configureGuestCombo() {
-        guestCombo.setCellFactory(param -> new ListCell<>() {
-            @Override
-            protected void updateItem(Guest guest, boolean empty) {
-                super.updateItem(guest, empty);
-                if (empty || guest == null) {
-                    setText(null);
-                } else {
-                    setText(guest.getName() + " (" + guest.getPassport() + ")");
-                }
-            }
-        });
-
-        guestCombo.setButtonCell(new ListCell<>() {
-            @Override
-            protected void updateItem(Guest guest, boolean empty) {
-                super.updateItem(guest, empty);
-                if (empty || guest == null) {
-                    setText("Выберите гостя");
-                } else {
-                    setText(guest.getName());
-                }
-            }
-        });
+        // Гостей может быть много: в списке только подсказки по введённому паспорту, имени или телефону
+        Typeahead.install(guestCombo, "bookings.guests",
+                query -> MainApp.getGuestService().searchGuests(query, GUEST_SUGGESTIONS),
+                Guest::getDisplayText,
+                error -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Не удалось найти гостей: " + error.getMessage()));
     }
 
     private void configureRoomCombo() {
@@ -157,12 +177,7 @@ public class BookingsController {
                 if (empty || room == null) {
                     setText(null);
                 } else {
-                    String text = String.format("№%s • %s • %.0f руб. • %d мест",
-                            room.getNumber(),
-                            room.getType(),
-                            room.getPrice(),
-                            room.getCapacity());
-                    setText(text);
+                    setText(room.getDisplayText());
                 }
             }
         });
@@ -173,7 +188,7 @@ public class BookingsController {
                 if (empty || room == null) {
                     setText("Выберите номер");
                 } else {
-                    setText("№" + room.getNumber() + " - " + room.getType());
+                    setText(room.getShortText());
                 }
             }
         });
@@ -2,6 +2,10 @@ package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
 import com.hotelapp.model.Booking;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.ListDiff;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -12,7 +16,7 @@ import java.time.LocalDate;
 /**
  * CheckInController — управление заселением гостей.
  */
-public class CheckInController {
+public class CheckInController implements ViewLifecycle {
 
     @FXML
     private TableView<Booking> checkInTable;
@@ -24,14 +28,16 @@ public class CheckInController {
     private TableColumn<Booking, String> dateColumn;
     @FXML
     private DatePicker datePicker;
+    @FXML
+    private Button checkInButton;
 
     private final ObservableList<Booking> data = FXCollections.observableArrayList();
 
     @FXML
     private void initialize() {
-        guestColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getGuestName()));
-        roomColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getRoomNumber()));
-        dateColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getCheckInDate().toString()));
+        guestColumn.setCellValueFactory(CellValues.of(Booking::getGuestName));
+        roomColumn.setCellValueFactory(CellValues.of(Booking::getRoomNumber));
+        dateColumn.setCellValueFactory(CellValues.of(Booking::getCheckInText));
 
         datePicker.setValue(LocalDate.now());
         datePicker.valueProperty().addListener((obs, o, n) -> refreshData());
@@ -39,6 +45,11 @@ public class CheckInController {
         refreshData();
     }
 
+    @Override
+    public void onShow() {
+        refreshData();
+    }
+
     @FXML
     private void handleCheckIn() {
         Booking selected = checkInTable.getSelectionModel().getSelectedItem();
@@ -46,18 +57,24 @@ public class CheckInController {
             showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите бронь для заселения");
             return;
         }
-        try {
-            MainApp.getBookingService().checkIn(selected.getId());
+        // Пока заселение выполняется, повторное нажатие недоступно
+        checkInButton.setDisable(true);
+        BackgroundTasks.run(() -> MainApp.getBookingService().checkIn(selected.getId()), () -> {
+            checkInButton.setDisable(false);
             refreshData();
             showAlert(Alert.AlertType.INFORMATION, "Успех", "Гость успешно заселён в номер " + selected.getRoomNumber());
-        } catch (RuntimeException e) {
-            showAlert(Alert.AlertType.ERROR, "Ошибка", e.getMessage());
-        }
+        }, error -> {
+            checkInButton.setDisable(false);
+            refreshData();
+            showAlert(Alert.AlertType.ERROR, "Ошибка", error.getMessage());
+        });
     }
 
     private void refreshData() {
         LocalDate date = datePicker.getValue() != null ? datePicker.getValue() : LocalDate.now();
-        data.setAll(MainApp.getBookingService().getBookingsForCheckIn(date));
+        BackgroundTasks.submit("checkin.list", () -> MainApp.getBookingService().getBookingsForCheckIn(date),
+                fresh -> ListDiff.apply(data, fresh, Booking::getId, BookingRows::same),
+                error -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Не удалось загрузить брони: " + error.getMessage()));
     }
 
     private void showAlert(Alert.AlertType type, String title, String message) {
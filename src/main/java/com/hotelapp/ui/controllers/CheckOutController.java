@@ -2,6 +2,10 @@ package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
 import com.hotelapp.model.Booking;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.ListDiff;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -10,7 +14,7 @@ import javafx.scene.control.*;
 /**
  * CheckOutController — выселение гостей и учёт оплат.
  */
-public class CheckOutController {
+public class CheckOutController implements ViewLifecycle {
 
     @FXML
     private TableView<Booking> checkOutTable;
@@ -22,18 +26,25 @@ public class CheckOutController {
     private TableColumn<Booking, String> statusColumn;
     @FXML
     private CheckBox paidCheck;
+    @FXML
+    private Button checkOutButton;
 
     private final ObservableList<Booking> data = FXCollections.observableArrayList();
 
     @FXML
     private void initialize() {
-        guestColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getGuestName()));
-        roomColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getRoomNumber()));
-        statusColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getStatus().name()));
+        guestColumn.setCellValueFactory(CellValues.of(Booking::getGuestName));
+        roomColumn.setCellValueFactory(CellValues.of(Booking::getRoomNumber));
+        statusColumn.setCellValueFactory(CellValues.of(row -> row.getStatus().name()));
         checkOutTable.setItems(data);
         refreshData();
     }
 
+    @Override
+    public void onShow() {
+        refreshData();
+    }
+
     @FXML
     private void handleCheckOut() {
         Booking selected = checkOutTable.getSelectionModel().getSelectedItem();
@@ -41,20 +52,26 @@ public class CheckOutController {
             showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите бронь для выселения");
             return;
         }
-        try {
-            boolean paid = paidCheck.isSelected();
-            double total = MainApp.getBookingService().checkOut(selected.getId(), paid);
+        boolean paid = paidCheck.isSelected();
+        // Пока выселение выполняется, повторное нажатие недоступно
+        checkOutButton.setDisable(true);
+        BackgroundTasks.submit(() -> MainApp.getBookingService().checkOut(selected.getId(), paid), total -> {
+            checkOutButton.setDisable(false);
             refreshData();
-            String message = String.format("Выселение завершено.\nСумма к оплате: %.2f руб.\nСтатус оплаты: %s", 
+            String message = String.format("Выселение завершено.\nСумма к оплате: %.2f руб.\nСтатус оплаты: %s",
                     total, paid ? "Оплачено" : "Не оплачено");
             showAlert(Alert.AlertType.INFORMATION, "Успех", message);
-        } catch (RuntimeException e) {
-            showAlert(Alert.AlertType.ERROR, "Ошибка", e.getMessage());
-        }
+        }, error -> {
+            checkOutButton.setDisable(false);
+            refreshData();
+            showAlert(Alert.AlertType.ERROR, "Ошибка", error.getMessage());
+        });
     }
 
     private void refreshData() {
-        data.setAll(MainApp.getBookingService().getBookingsForCheckOut());
+        BackgroundTasks.submit("checkout.list", () -> MainApp.getBookingService().getBookingsForCheckOut(),
+                fresh -> ListDiff.apply(data, fresh, Booking::getId, BookingRows::same),
+                error -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Не удалось загрузить брони: " + error.getMessage()));
     }
 
     private void showAlert(Alert.AlertType type, String title, String message) {
@@ -1,18 +1,31 @@
 package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.index.DuplicatePair;
+import com.hotelapp.index.GuestMatch;
 import com.hotelapp.model.Guest;
+import com.hotelapp.service.GuestService;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.LazyPagedList;
+import com.hotelapp.ui.table.PageLoaders;
+import com.hotelapp.ui.table.ServerSort;
 import com.hotelapp.util.ValidationUtils;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * GuestsController — CRUD гостей с валидацией.
  */
-public class GuestsController {
+public class GuestsController implements ViewLifecycle {
 
     @FXML
     private TableView<Guest> guestsTable;
@@ -31,28 +44,54 @@ public class GuestsController {
     private TextField phoneField;
     @FXML
     private Label errorLabel;
+    @FXML
+    private Label duplicateHint;
 
-    private final ObservableList<Guest> guestsData = FXCollections.observableArrayList();
+    private static final int DUPLICATES_SHOWN = 20;
+
+    private final PauseTransition similarPause = new PauseTransition(Duration.millis(300));
+    private LazyPagedList<Guest> guestsData;
     private Guest selectedGuest;
 
     @FXML
     private void initialize() {
-        nameColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getName()));
-        passportColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getPassport()));
-        phoneColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getPhone()));
+        nameColumn.setCellValueFactory(CellValues.of(Guest::getName));
+        passportColumn.setCellValueFactory(CellValues.of(Guest::getPassport));
+        phoneColumn.setCellValueFactory(CellValues.of(Guest::getPhone));
 
+        GuestService service = MainApp.getGuestService();
+        guestsData = new LazyPagedList<>(PageLoaders.guests(service, GuestDAO.SortKey.NAME, true));
+        guestsData.setOnLoadFailed(error -> showError("Не удалось загрузить гостей: " + error.getMessage()));
         guestsTable.setItems(guestsData);
+        ServerSort.install(guestsTable, guestsData,
+                Map.<TableColumn<Guest, ?>, GuestDAO.SortKey>of(
+                        nameColumn, GuestDAO.SortKey.NAME,
+                        passportColumn, GuestDAO.SortKey.PASSPORT,
+                        phoneColumn, GuestDAO.SortKey.PHONE),
+                GuestDAO.SortKey.NAME,
+                (key, ascending) -> PageLoaders.guests(service, key, ascending));
         guestsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             selectedGuest = newVal;
             populateForm(newVal);
             clearError();
         });
-        refreshGuests();
-        
+
         // Валидация в реальном времени
-        nameField.textProperty().addListener((obs, oldV, newV) -> validateName());
+        nameField.textProperty().addListener((obs, oldV, newV) -> {
+            validateName();
+            scheduleSimilarCheck();
+        });
         passportField.textProperty().addListener((obs, oldV, newV) -> validatePassport());
-        phoneField.textProperty().addListener((obs, oldV, newV) -> validatePhone());
+        phoneField.textProperty().addListener((obs, oldV, newV) -> {
+            validatePhone();
+            scheduleSimilarCheck();
+        });
+        similarPause.setOnFinished(event -> checkSimilarGuests());
+    }
+
+    @Override
+    public void onShow() {
+        refreshGuests();
     }
 
     @FXML
@@ -79,14 +118,16 @@ public class GuestsController {
         }
         
         try {
-            Guest guest = selectedGuest != null ? selectedGuest : new Guest();
-            guest.setName(nameField.getText().trim());
-            guest.setPassport(passportField.getText().trim().toUpperCase());
-            guest.setPhone(phoneField.getText().trim());
-            MainApp.getGuestService().saveGuest(guest);
-            refreshGuests();
-            clearForm();
-            showSuccess("Гость успешно сохранён");
+            // Строка таблицы не меняется на месте — сохранённую подставит перечитывание страниц
+            Guest guest = new Guest(selectedGuest != null ? selectedGuest.getId() : 0,
+                    nameField.getText().trim(),
+                    passportField.getText().trim().toUpperCase(),
+                    phoneField.getText().trim());
+            BackgroundTasks.run(() -> MainApp.getGuestService().saveGuest(guest), () -> {
+                refreshGuests();
+                clearForm();
+                showSuccess("Гость успешно сохранён");
+            }, error -> showError(error.getMessage()));
         } catch (RuntimeException e) {
             showError(e.getMessage());
         }
@@ -105,14 +146,12 @@ public class GuestsController {
         confirm.setContentText("Вы уверены, что хотите удалить гостя " + selectedGuest.getName() + "?");
         
         if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                MainApp.getGuestService().deleteGuest(selectedGuest);
+            Guest guest = selectedGuest;
+            BackgroundTasks.run(() -> MainApp.getGuestService().deleteGuest(guest), () -> {
                 refreshGuests();
                 clearForm();
                 showSuccess("Гость успешно удалён");
-            } catch (RuntimeException e) {
-                showError(e.getMessage());
-            }
+            }, error -> showError(error.getMessage()));
         }
     }
 
@@ -122,8 +161,55 @@ public class GuestsController {
         clearError();
     }
 
+    @FXML
+    private void handleFindDuplicates() {
+        BackgroundTasks.submit("guests.duplicates", () -> MainApp.getGuestService().findDuplicates(), pairs -> {
+            String text = pairs.isEmpty() ? "Вероятных дублей не найдено"
+                    : pairs.stream().limit(DUPLICATES_SHOWN).map(DuplicatePair::toString).collect(Collectors.joining("\n"))
+                    + (pairs.size() > DUPLICATES_SHOWN ? "\n… и ещё " + (pairs.size() - DUPLICATES_SHOWN) : "");
+            showAlert(Alert.AlertType.INFORMATION, "Вероятные дубли: " + pairs.size(), text);
+        }, error -> showError("Не удалось проверить дубли: " + error.getMessage()));
+    }
+
+    private void scheduleSimilarCheck() {
+        similarPause.playFromStart();
+    }
+
+    /**
+     * Подсказка о похожих гостях, пока оператор вводит имя или телефон, — до создания дубля.
+     */
+    private void checkSimilarGuests() {
+        String name = nameField.getText();
+        String phone = phoneField.getText();
+        int excludeId = selectedGuest != null ? selectedGuest.getId() : 0;
+        if ((name == null || name.isBlank()) && (phone == null || phone.isBlank())) {
+            BackgroundTasks.cancel("guests.similar");
+            hideDuplicateHint();
+            return;
+        }
+        BackgroundTasks.submit("guests.similar",
+                () -> MainApp.getGuestService().findSimilarGuests(name, phone, excludeId, 3),
+                matches -> {
+                    if (matches.isEmpty()) {
+                        hideDuplicateHint();
+                    } else {
+                        duplicateHint.setText("Похожие гости уже есть: " + matches.stream()
+                                .map(GuestMatch::toString).collect(Collectors.joining("; ")));
+                        duplicateHint.setVisible(true);
+                        duplicateHint.setManaged(true);
+                    }
+                },
+                error -> hideDuplicateHint());
+    }
+
+    private void hideDuplicateHint() {
+        duplicateHint.setText("");
+        duplicateHint.setVisible(false);
+        duplicateHint.setManaged(false);
+    }
+
     private void refreshGuests() {
-        guestsData.setAll(MainApp.getGuestService().getAllGuests());
+        guestsData.refresh();
     }
 
     private void populateForm(Guest guest) {
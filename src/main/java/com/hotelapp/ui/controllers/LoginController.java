@@ -1,6 +1,7 @@
 package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
@@ -36,16 +37,17 @@ public class LoginController {
             showError("Введите логин и пароль");
             return;
         }
-        boolean success = MainApp.getAuthService().login(username, password);
-        if (success) {
-            try {
-                mainApp.showMainView();
-            } catch (Exception e) {
-                showError("Не удалось открыть главное окно: " + e.getMessage());
+        BackgroundTasks.submit("login", () -> MainApp.getAuthService().login(username, password), success -> {
+            if (success) {
+                try {
+                    mainApp.showMainView();
+                } catch (Exception e) {
+                    showError("Не удалось открыть главное окно: " + e.getMessage());
+                }
+            } else {
+                showError("Неверный логин или пароль");
             }
-        } else {
-            showError("Неверный логин или пароль");
-        }
+        }, error -> showError("Ошибка входа: " + error.getMessage()));
     }
 
     private void showError(String message) {
@@ -1,17 +1,20 @@
 package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
+import com.hotelapp.jfr.ViewLoadEvent;
+import com.hotelapp.ui.ViewRegistry;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.URL;
+import java.util.List;
 
 /**
  * MainController — главное меню и контейнер для вкладок.
@@ -20,65 +23,76 @@ public class MainController {
 
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
 
+    private static final String ROOMS_VIEW = "/ui/view/rooms.fxml";
+    private static final String GUESTS_VIEW = "/ui/view/guests.fxml";
+    private static final String BOOKINGS_VIEW = "/ui/view/bookings.fxml";
+    private static final String CHECK_IN_VIEW = "/ui/view/checkin.fxml";
+    private static final String CHECK_OUT_VIEW = "/ui/view/checkout.fxml";
+    private static final String REPORTS_VIEW = "/ui/view/reports.fxml";
+    private static final List<String> ALL_VIEWS = List.of(ROOMS_VIEW, GUESTS_VIEW, BOOKINGS_VIEW,
+            CHECK_IN_VIEW, CHECK_OUT_VIEW, REPORTS_VIEW);
+
+    private final ViewRegistry viewRegistry = new ViewRegistry();
+
     @FXML
     private BorderPane mainPane;
 
     @FXML
     private StackPane contentHolder;
 
+    @FXML
+    private HBox busyBox;
+
+    @FXML
+    private void initialize() {
+        // Индикатор виден, пока выполняется хотя бы одна фоновая задача
+        busyBox.visibleProperty().bind(BackgroundTasks.runningProperty().greaterThan(0));
+    }
+
     public void setMainApp(MainApp mainApp) {
-        loadView("/ui/view/rooms.fxml");
+        loadView(ROOMS_VIEW);
+        if (Boolean.parseBoolean(System.getProperty("hotel.ui.preloadViews", "true"))) {
+            viewRegistry.preload(ALL_VIEWS);
+        }
     }
 
     @FXML
     private void openRooms() {
-        loadView("/ui/view/rooms.fxml");
+        loadView(ROOMS_VIEW);
     }
 
     @FXML
     private void openGuests() {
-        loadView("/ui/view/guests.fxml");
+        loadView(GUESTS_VIEW);
     }
 
     @FXML
     private void openBookings() {
-        loadView("/ui/view/bookings.fxml");
+        loadView(BOOKINGS_VIEW);
     }
 
     @FXML
     private void openCheckIn() {
-        loadView("/ui/view/checkin.fxml");
+        loadView(CHECK_IN_VIEW);
     }
 
     @FXML
     private void openCheckOut() {
-        loadView("/ui/view/checkout.fxml");
+        loadView(CHECK_OUT_VIEW);
     }
 
     @FXML
     private void openReports() {
-        loadView("/ui/view/reports.fxml");
+        loadView(REPORTS_VIEW);
     }
 
     private void loadView(String resource) {
+        ViewLoadEvent event = ViewLoadEvent.start(resource, viewRegistry.isLoaded(resource));
         try {
-            URL resourceUrl = getClass().getResource(resource);
-            if (resourceUrl == null) {
-                logger.error("Ресурс не найден: {}", resource);
-                Alert alert = new Alert(Alert.AlertType.ERROR);
-                alert.setTitle("Ошибка");
-                alert.setHeaderText("Файл не найден");
-                alert.setContentText("Не удалось найти файл: " + resource);
-                alert.showAndWait();
-                return;
-            }
-            
-            logger.debug("Загрузка FXML: {}", resourceUrl);
-            FXMLLoader loader = new FXMLLoader(resourceUrl);
-            Node content = loader.load();
-            contentHolder.getChildren().clear();
-            contentHolder.getChildren().add(content);
-            logger.debug("FXML успешно загружен: {}", resource);
+            Node content = viewRegistry.show(resource);
+            contentHolder.getChildren().setAll(content);
+            event.succeeded();
+            logger.debug("Вид показан: {}", resource);
         } catch (IOException e) {
             logger.error("Ошибка загрузки FXML: {}", resource, e);
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -86,6 +100,8 @@ public class MainController {
             alert.setHeaderText("Не удалось загрузить вид");
             alert.setContentText("Ошибка при загрузке " + resource + ":\n" + e.getMessage());
             alert.showAndWait();
+        } finally {
+            event.finish();
         }
     }
 }
@@ -1,17 +1,24 @@
 package com.hotelapp.ui.controllers;
 
 import com.hotelapp.MainApp;
+import com.hotelapp.dao.BookingDAO;
 import com.hotelapp.model.Booking;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.LazyPagedList;
+import com.hotelapp.ui.table.PageLoaders;
+import com.hotelapp.ui.table.ServerSort;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
+import java.util.Map;
+
 /**
  * ReportsController — простой отчёт по всем броням.
  */
-public class ReportsController {
+public class ReportsController implements ViewLifecycle {
 
     @FXML
     private TableView<Booking> reportTable;
@@ -22,19 +29,27 @@ public class ReportsController {
     @FXML
     private TableColumn<Booking, String> statusColumn;
 
-    private final ObservableList<Booking> data = FXCollections.observableArrayList();
+    private LazyPagedList<Booking> data;
 
     @FXML
     private void initialize() {
-        guestColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getGuestName()));
-        roomColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getRoomNumber()));
-        statusColumn.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getStatus().name()));
+        guestColumn.setCellValueFactory(CellValues.of(Booking::getGuestName));
+        roomColumn.setCellValueFactory(CellValues.of(Booking::getRoomNumber));
+        statusColumn.setCellValueFactory(CellValues.of(row -> row.getStatus().name()));
+
+        BookingService service = MainApp.getBookingService();
+        data = new LazyPagedList<>(PageLoaders.bookings(service, BookingDAO.SortKey.CHECK_IN, true));
         reportTable.setItems(data);
-        refresh();
+        ServerSort.install(reportTable, data,
+                Map.<TableColumn<Booking, ?>, BookingDAO.SortKey>of(
+                        statusColumn, BookingDAO.SortKey.STATUS),
+                BookingDAO.SortKey.CHECK_IN,
+                (key, ascending) -> PageLoaders.bookings(service, key, ascending));
     }
 
-    private void refresh() {
-        data.setAll(MainApp.getBookingService().getAllBookings());
+    @Override
+    public void onShow() {
+        data.refresh();
     }
 }
 
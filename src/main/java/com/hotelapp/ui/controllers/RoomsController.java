@@ -3,6 +3,10 @@ package com.hotelapp.ui.controllers;
 import com.hotelapp.MainApp;
 import com.hotelapp.model.Room;
 import com.hotelapp.model.Room.RoomStatus;
+import com.hotelapp.ui.ViewLifecycle;
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import com.hotelapp.ui.table.CellValues;
+import com.hotelapp.ui.table.ListDiff;
 import com.hotelapp.util.ValidationUtils;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -10,10 +14,12 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 
+import java.util.Comparator;
+
 /**
  * RoomsController — CRUD по номерам в таблице с валидацией.
  */
-public class RoomsController {
+public class RoomsController implements ViewLifecycle {
 
     @FXML
     private TableView<Room> roomsTable;
@@ -44,16 +50,19 @@ public class RoomsController {
     // Фиксированные типы номеров
     private static final String[] ROOM_TYPES = {"Эконом", "Стандарт", "Премиум", "Люкс"};
 
+    private static final Comparator<Room> ROOM_ORDER = Comparator.comparing(Room::getNumber);
+
     private final ObservableList<Room> roomsData = FXCollections.observableArrayList();
+    private long roomsVersion = -1;
     private Room selectedRoom;
 
     @FXML
     private void initialize() {
-        numberColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getNumber()));
-        typeColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getType()));
-        priceColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleDoubleProperty(data.getValue().getPrice()));
-        capacityColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleIntegerProperty(data.getValue().getCapacity()));
-        statusColumn.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus().name()));
+        numberColumn.setCellValueFactory(CellValues.of(Room::getNumber));
+        typeColumn.setCellValueFactory(CellValues.of(Room::getType));
+        priceColumn.setCellValueFactory(CellValues.of(Room::getPrice));
+        capacityColumn.setCellValueFactory(CellValues.of(Room::getCapacity));
+        statusColumn.setCellValueFactory(CellValues.of(row -> row.getStatus().name()));
 
         roomsTable.setItems(roomsData);
         roomsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> {
@@ -76,6 +85,11 @@ public class RoomsController {
         capacityField.textProperty().addListener((obs, oldV, newV) -> validateCapacity());
     }
 
+    @Override
+    public void onShow() {
+        refreshTable();
+    }
+
     private void populateForm(Room room) {
         if (room == null) {
             clearForm();
@@ -137,16 +151,19 @@ public class RoomsController {
         }
         
         try {
-            Room room = selectedRoom != null ? selectedRoom : new Room();
-            room.setNumber(numberField.getText().trim());
-            room.setType(selectedType);
-            room.setPrice(Double.parseDouble(priceField.getText().trim()));
-            room.setCapacity(Integer.parseInt(capacityField.getText().trim()));
-            room.setStatus(statusCombo.getValue() != null ? statusCombo.getValue() : RoomStatus.FREE);
-            MainApp.getRoomService().saveRoom(room);
-            refreshTable();
-            clearForm();
-            showSuccess("Комната успешно сохранена");
+            // Строка таблицы не меняется на месте: после неудачного сохранения в ней остались бы
+            // несохранённые значения. Сохранённую строку подставит обновление по изменениям
+            Room room = new Room(selectedRoom != null ? selectedRoom.getId() : 0,
+                    numberField.getText().trim(),
+                    selectedType,
+                    Double.parseDouble(priceField.getText().trim()),
+                    Integer.parseInt(capacityField.getText().trim()),
+                    statusCombo.getValue() != null ? statusCombo.getValue() : RoomStatus.FREE);
+            BackgroundTasks.run(() -> MainApp.getRoomService().saveRoom(room), () -> {
+                refreshTable();
+                clearForm();
+                showSuccess("Комната успешно сохранена");
+            }, error -> showError(error.getMessage()));
         } catch (RuntimeException e) {
             showError(e.getMessage());
         }
@@ -165,14 +182,12 @@ public class RoomsController {
         confirm.setContentText("Вы уверены, что хотите удалить комнату " + selectedRoom.getNumber() + "?");
         
         if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                MainApp.getRoomService().deleteRoom(selectedRoom);
+            Room room = selectedRoom;
+            BackgroundTasks.run(() -> MainApp.getRoomService().deleteRoom(room), () -> {
                 refreshTable();
                 clearForm();
                 showSuccess("Комната успешно удалена");
-            } catch (RuntimeException e) {
-                showError(e.getMessage());
-            }
+            }, error -> showError(error.getMessage()));
         }
     }
 
@@ -183,7 +198,12 @@ public class RoomsController {
     }
 
     private void refreshTable() {
-        roomsData.setAll(MainApp.getRoomService().getAllRooms());
+        // Читаются только строки, изменённые после последнего обновления таблицы
+        long since = roomsVersion;
+        BackgroundTasks.submit("rooms.refresh", () -> MainApp.getRoomService().getRoomChanges(since), changes -> {
+            ListDiff.applyChanges(roomsData, changes, Room::getId, ROOM_ORDER);
+            roomsVersion = changes.getVersion();
+        }, error -> showError("Не удалось загрузить номера: " + error.getMessage()));
     }
 
     private void clearForm() {
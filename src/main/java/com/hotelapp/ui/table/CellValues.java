@@ -0,0 +1,74 @@
+package com.hotelapp.ui.table;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * CellValues — фабрика значений ячеек без выделения памяти при прокрутке.
+ * Значение ячейки вычисляется один раз на объект строки и запоминается (по ссылке на строку,
+ * слабо — вместе со строкой уходит и значение); повторные перерисовки получают тот же объект.
+ * Строки таблиц после загрузки не меняются: изменения из БД приходят новыми объектами (см. ListDiff).
+ * Вызывается только из FX-потока.
+ */
+public final class CellValues {
+
+    private CellValues() {
+    }
+
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> of(Function<S, T> getter) {
+        Map<S, ObservableValue<T>> values = new WeakHashMap<>();
+        ObservableValue<T> empty = new Constant<>(null);
+        return features -> {
+            S row = features.getValue();
+            // Строка ленивого списка, которая ещё не прочитана
+            if (row == null) {
+                return empty;
+            }
+            ObservableValue<T> value = values.get(row);
+            if (value == null) {
+                value = new Constant<>(getter.apply(row));
+                values.put(row, value);
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Неизменяемое значение: слушатели не нужны, поэтому и не хранятся.
+     */
+    private static final class Constant<T> implements ObservableValue<T> {
+        private final T value;
+
+        private Constant(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.hotelapp.ui.table;
+
+import com.hotelapp.ui.concurrent.BackgroundTasks;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * LazyPagedList — список для TableView, который держит в памяти только недавно показанные страницы.
+ * TableView запрашивает get(i) лишь для видимых строк; страница, содержащая строку, читается
+ * в фоне при первом обращении (до этого строка равна null), соседние страницы подгружаются заранее,
+ * давно не показанные — вытесняются. Все обращения к списку — из FX-потока.
+ * Если чтение не удалось, страница снова читается при следующем обращении к её строкам.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyPagedList.class);
+
+    private final int pageSize;
+    private final int maxPages;
+    private final int prefetchPages;
+    private final Executor backgroundExecutor;
+    private final Executor fxExecutor;
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> pendingPages = new HashSet<>();
+
+    private PageLoader<T> loader;
+    private Consumer<Throwable> onLoadFailed = error -> logger.warn("Не удалось прочитать строки таблицы", error);
+    private boolean failing;
+    private int size;
+    private int generation;
+    private long loadCount;
+
+    public LazyPagedList(PageLoader<T> loader) {
+        this(loader, 100, 20, 1, BackgroundTasks::execute, Platform::runLater);
+    }
+
+    /**
+     * @param maxPages           сколько страниц держать в памяти
+     * @param prefetchPages      сколько соседних страниц с каждой стороны подгружать заранее
+     * @param backgroundExecutor где читать страницы
+     * @param fxExecutor         как вернуть прочитанную страницу в FX-поток
+     */
+    public LazyPagedList(PageLoader<T> loader, int pageSize, int maxPages, int prefetchPages,
+                         Executor backgroundExecutor, Executor fxExecutor) {
+        if (pageSize <= 0 || maxPages <= prefetchPages * 2) {
+            throw new IllegalArgumentException("Некорректные параметры страниц: pageSize=" + pageSize
+                    + ", maxPages=" + maxPages + ", prefetchPages=" + prefetchPages);
+        }
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.prefetchPages = prefetchPages;
+        this.backgroundExecutor = backgroundExecutor;
+        this.fxExecutor = fxExecutor;
+        reset(loader);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + ", размер " + size);
+        }
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            rows = pages.get(page);
+            if (rows == null) {
+                return null;
+            }
+        }
+        // Соседние страницы — только когда эта уже прочитана: тогда следующая пойдёт по курсору, а не по OFFSET
+        schedulePrefetch(page);
+        int offset = index - page * pageSize;
+        // Строк может оказаться меньше ожидаемого, если таблица изменилась после подсчёта
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перечитывает данные после изменений в БД, не сбрасывая таблицу: загруженные страницы
+     * показываются до прихода новых и заменяются на месте, при изменении числа строк
+     * добавляется или удаляется только хвост списка — выделение и прокрутка сохраняются.
+     */
+    public void refresh() {
+        PageLoader<T> source = loader;
+        int expected = ++generation;
+        pendingPages.clear();
+        backgroundExecutor.execute(() -> {
+            int count;
+            try {
+                count = source.count();
+            } catch (RuntimeException e) {
+                // Загруженные строки остаются на экране до следующего обновления
+                fxExecutor.execute(() -> loadFailed(expected, e));
+                return;
+            }
+            fxExecutor.execute(() -> {
+                if (expected == generation) {
+                    resizeTail(count);
+                    reloadPages();
+                }
+            });
+        });
+    }
+
+    /**
+     * Переключает источник строк (например, при смене сортировки) и начинает чтение заново.
+     */
+    public void setLoader(PageLoader<T> loader) {
+        reset(loader);
+    }
+
+    /**
+     * Что делать при ошибке чтения (вызывается в FX-потоке). Повторные ошибки подряд не сообщаются,
+     * пока какая-нибудь страница не прочитается успешно. По умолчанию ошибка пишется в журнал.
+     */
+    public void setOnLoadFailed(Consumer<Throwable> onLoadFailed) {
+        this.onLoadFailed = onLoadFailed;
+    }
+
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Сколько раз страницы читались из источника.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    private void reset(PageLoader<T> newLoader) {
+        loader = newLoader;
+        int expected = ++generation;
+        pages.clear();
+        pendingPages.clear();
+        backgroundExecutor.execute(() -> {
+            int count;
+            try {
+                count = newLoader.count();
+            } catch (RuntimeException e) {
+                fxExecutor.execute(() -> {
+                    // Строки прежнего источника не показываем: список пуст до refresh() или смены источника
+                    if (expected == generation && size > 0) {
+                        resize(0);
+                    }
+                    loadFailed(expected, e);
+                });
+                return;
+            }
+            fxExecutor.execute(() -> {
+                // Пока считали, список могли перезапустить ещё раз
+                if (expected == generation) {
+                    resize(count);
+                }
+            });
+        });
+    }
+
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.nCopies(oldSize, (T) null));
+        }
+        if (newSize > 0) {
+            nextAdd(0, newSize);
+        }
+        endChange();
+    }
+
+    private void resizeTail(int newSize) {
+        int oldSize = size;
+        if (newSize == oldSize) {
+            return;
+        }
+        size = newSize;
+        if (newSize < oldSize) {
+            int lastPage = newSize == 0 ? -1 : (newSize - 1) / pageSize;
+            pages.keySet().removeIf(page -> page > lastPage);
+        }
+        beginChange();
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else {
+            List<T> removed = new ArrayList<>(oldSize - newSize);
+            for (int i = newSize; i < oldSize; i++) {
+                removed.add(cached(i));
+            }
+            nextRemove(newSize, removed);
+        }
+        endChange();
+    }
+
+    private void reloadPages() {
+        // Строки могли сдвинуться, поэтому курсор по старой предыдущей странице не годится — только OFFSET
+        for (Integer page : new ArrayList<>(pages.keySet())) {
+            requestPage(page, false);
+        }
+    }
+
+    private T cached(int index) {
+        List<T> rows = pages.get(index / pageSize);
+        int offset = index % pageSize;
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    private void requestPage(int page) {
+        requestPage(page, true);
+    }
+
+    private void requestPage(int page, boolean useCursor) {
+        if (!pendingPages.add(page)) {
+            return;
+        }
+        List<T> previousPage = useCursor ? pages.get(page - 1) : null;
+        T previous = previousPage != null && previousPage.size() == pageSize ? previousPage.get(pageSize - 1) : null;
+        int offset = page * pageSize;
+        int limit = Math.min(pageSize, size - offset);
+        PageLoader<T> source = loader;
+        int expected = generation;
+        backgroundExecutor.execute(() -> {
+            List<T> rows;
+            try {
+                rows = source.load(offset, limit, previous);
+            } catch (RuntimeException e) {
+                fxExecutor.execute(() -> {
+                    if (expected == generation) {
+                        // Иначе страница числилась бы читаемой и больше не запрашивалась
+                        pendingPages.remove(page);
+                    }
+                    loadFailed(expected, e);
+                });
+                return;
+            }
+            fxExecutor.execute(() -> install(expected, page, rows));
+        });
+    }
+
+    private void loadFailed(int expected, Throwable error) {
+        if (expected != generation || failing) {
+            return;
+        }
+        failing = true;
+        onLoadFailed.accept(error);
+    }
+
+    private void install(int expected, int page, List<T> rows) {
+        if (expected != generation) {
+            return;
+        }
+        pendingPages.remove(page);
+        failing = false;
+        loadCount++;
+        pages.put(page, rows);
+        if (pages.size() > maxPages) {
+            Map.Entry<Integer, List<T>> eldest = pages.entrySet().iterator().next();
+            pages.remove(eldest.getKey());
+        }
+        // Строки страницы были null — сообщаем таблице, что их нужно перерисовать
+        int from = page * pageSize;
+        int to = Math.min(from + rows.size(), size);
+        if (from < to) {
+            beginChange();
+            for (int i = from; i < to; i++) {
+                nextUpdate(i);
+            }
+            endChange();
+        }
+    }
+
+    private void schedulePrefetch(int page) {
+        int lastPage = (size - 1) / pageSize;
+        for (int distance = 1; distance <= prefetchPages; distance++) {
+            prefetch(page + distance, lastPage);
+            prefetch(page - distance, lastPage);
+        }
+    }
+
+    private void prefetch(int page, int lastPage) {
+        if (page >= 0 && page <= lastPage && !pages.containsKey(page)) {
+            requestPage(page);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.hotelapp.ui.table;
+
+import com.hotelapp.dao.Changes;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * ListDiff — обновление списка таблицы по ключу строки вместо setAll.
+ * Неизменённые строки остаются теми же объектами на тех же местах, поэтому TableView
+ * сохраняет выделение и прокрутку и перерисовывает только затронутые строки.
+ */
+public final class ListDiff {
+
+    private ListDiff() {
+    }
+
+    /**
+     * Приводит target к содержимому и порядку fresh: удаляет исчезнувшие строки, вставляет новые,
+     * заменяет строки, для которых same вернул false, и переставляет сдвинувшиеся.
+     */
+    public static <T, K> Result apply(List<T> target, List<T> fresh, Function<T, K> key, BiPredicate<T, T> same) {
+        Result result = new Result();
+        Set<K> freshKeys = new HashSet<>();
+        for (T item : fresh) {
+            freshKeys.add(key.apply(item));
+        }
+        for (int i = target.size() - 1; i >= 0; i--) {
+            if (!freshKeys.contains(key.apply(target.get(i)))) {
+                target.remove(i);
+                result.removed++;
+            }
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            T item = fresh.get(i);
+            K itemKey = key.apply(item);
+            if (i < target.size() && Objects.equals(key.apply(target.get(i)), itemKey)) {
+                if (!same.test(target.get(i), item)) {
+                    target.set(i, item);
+                    result.updated++;
+                }
+                continue;
+            }
+            int existing = indexOf(target, i + 1, itemKey, key);
+            if (existing >= 0) {
+                target.remove(existing);
+                target.add(i, item);
+                result.moved++;
+            } else {
+                target.add(i, item);
+                result.inserted++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Применяет изменения из БД к списку target, отсортированному по order:
+     * удаляет строки с deletedIds, заменяет изменённые (сравнение по id) и вставляет новые на своё место.
+     * Если изменения полные (isFull), удаляются и все строки, которых в них нет.
+     */
+    public static <T> Result applyChanges(List<T> target, Changes<T> changes, ToIntFunction<T> id, Comparator<T> order) {
+        Result result = new Result();
+        if (changes.isFull()) {
+            Set<Integer> present = new HashSet<>();
+            for (T item : changes.getChanged()) {
+                present.add(id.applyAsInt(item));
+            }
+            for (int i = target.size() - 1; i >= 0; i--) {
+                if (!present.contains(id.applyAsInt(target.get(i)))) {
+                    target.remove(i);
+                    result.removed++;
+                }
+            }
+        }
+        if (!changes.getDeletedIds().isEmpty()) {
+            Set<Integer> deleted = new HashSet<>(changes.getDeletedIds());
+            for (int i = target.size() - 1; i >= 0; i--) {
+                if (deleted.contains(id.applyAsInt(target.get(i)))) {
+                    target.remove(i);
+                    result.removed++;
+                }
+            }
+        }
+        for (T item : changes.getChanged()) {
+            int index = indexOf(target, 0, id.applyAsInt(item), t -> id.applyAsInt(t));
+            if (index < 0) {
+                target.add(insertionPoint(target, item, order), item);
+                result.inserted++;
+                continue;
+            }
+            target.set(index, item);
+            result.updated++;
+            boolean afterPrevious = index == 0 || order.compare(target.get(index - 1), item) <= 0;
+            boolean beforeNext = index == target.size() - 1 || order.compare(item, target.get(index + 1)) <= 0;
+            if (!afterPrevious || !beforeNext) {
+                target.remove(index);
+                target.add(insertionPoint(target, item, order), item);
+                result.moved++;
+            }
+        }
+        return result;
+    }
+
+    private static <T, K> int indexOf(List<T> list, int from, K wanted, Function<T, K> key) {
+        for (int i = from; i < list.size(); i++) {
+            if (Objects.equals(key.apply(list.get(i)), wanted)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> int insertionPoint(List<T> sorted, T item, Comparator<T> order) {
+        int position = Collections.binarySearch(sorted, item, order);
+        return position >= 0 ? position + 1 : -(position + 1);
+    }
+
+    /**
+     * Result — сколько строк затронуло обновление.
+     */
+    public static final class Result {
+        private int inserted;
+        private int removed;
+        private int updated;
+        private int moved;
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getMoved() {
+            return moved;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("добавлено=%d, удалено=%d, изменено=%d, перемещено=%d", inserted, removed, updated, moved);
+        }
+    }
+}
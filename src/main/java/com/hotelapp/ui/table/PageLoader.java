@@ -0,0 +1,20 @@
+package com.hotelapp.ui.table;
+
+import java.util.List;
+
+/**
+ * PageLoader — источник строк для LazyPagedList в фиксированном порядке сортировки.
+ */
+public interface PageLoader<T> {
+
+    /**
+     * Общее число строк.
+     */
+    int count();
+
+    /**
+     * Строки [offset, offset + limit). previous — строка с позицией offset - 1, если она уже загружена:
+     * по ней можно продолжить чтение по курсору вместо OFFSET.
+     */
+    List<T> load(int offset, int limit, T previous);
+}
@@ -0,0 +1,55 @@
+package com.hotelapp.ui.table;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.service.GuestService;
+
+import java.util.List;
+
+/**
+ * PageLoaders — источники страниц для экранов броней и гостей.
+ * Последовательная прокрутка читает по курсору от последней строки предыдущей страницы,
+ * переход в произвольное место (перетаскивание ползунка) — через OFFSET.
+ */
+public final class PageLoaders {
+
+    private PageLoaders() {
+    }
+
+    public static PageLoader<Booking> bookings(BookingService service, BookingDAO.SortKey key, boolean ascending) {
+        return new PageLoader<>() {
+            @Override
+            public int count() {
+                return service.countBookings();
+            }
+
+            @Override
+            public List<Booking> load(int offset, int limit, Booking previous) {
+                if (previous == null) {
+                    return service.getBookingsRange(key, ascending, offset, limit);
+                }
+                return service.getBookingsPage(key, ascending, BookingDAO.cursorOf(previous, key), limit).getItems();
+            }
+        };
+    }
+
+    public static PageLoader<Guest> guests(GuestService service, GuestDAO.SortKey key, boolean ascending) {
+        return new PageLoader<>() {
+            @Override
+            public int count() {
+                return service.countGuests();
+            }
+
+            @Override
+            public List<Guest> load(int offset, int limit, Guest previous) {
+                if (previous == null) {
+                    return service.getGuestsRange(key, ascending, offset, limit);
+                }
+                return service.getGuestsPage(key, ascending, GuestDAO.cursorOf(previous, key), limit).getItems();
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotelapp.ui.table;
+
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * ServerSort — сортировка TableView на стороне БД: щелчок по заголовку столбца
+ * не сортирует строки в памяти, а переключает LazyPagedList на запрос с нужным ORDER BY.
+ */
+public final class ServerSort {
+
+    private ServerSort() {
+    }
+
+    /**
+     * @param keys          ключ сортировки для каждого сортируемого столбца; остальные столбцы не сортируются
+     * @param defaultKey    ключ, когда порядок не задан
+     * @param loaderFactory источник строк для пары (ключ, по возрастанию)
+     */
+    public static <T, K> void install(TableView<T> table, LazyPagedList<T> list, Map<TableColumn<T, ?>, K> keys,
+                                      K defaultKey, BiFunction<K, Boolean, PageLoader<T>> loaderFactory) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(keys.containsKey(column));
+        }
+        Object[] current = {defaultKey, Boolean.TRUE};
+        table.setSortPolicy(t -> {
+            K key = defaultKey;
+            boolean ascending = true;
+            if (!t.getSortOrder().isEmpty()) {
+                TableColumn<T, ?> column = t.getSortOrder().get(0);
+                key = keys.getOrDefault(column, defaultKey);
+                ascending = column.getSortType() == TableColumn.SortType.ASCENDING;
+            }
+            // TableView вызывает политику и при смене items — без смены порядка перечитывать нечего
+            if (!key.equals(current[0]) || ascending != (Boolean) current[1]) {
+                current[0] = key;
+                current[1] = ascending;
+                list.setLoader(loaderFactory.apply(key, ascending));
+            }
+            return true;
+        });
+    }
+}
@@ -1,4 +1,4 @@
-PRAGMA foreign_keys = ON;
+-- Базовая схема: пользователи, номера, гости, бронирования, оплаты
 
 CREATE TABLE IF NOT EXISTS users (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
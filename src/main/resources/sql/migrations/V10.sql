@@ -0,0 +1,3 @@
+-- Слияние сегментов guests_fts в один: после rebuild на большой базе их много, и каждый поиск читает все
+
+INSERT INTO guests_fts(guests_fts) VALUES ('optimize');
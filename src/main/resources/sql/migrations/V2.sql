@@ -0,0 +1,31 @@
+-- Даты бронирований хранятся как INTEGER (дни от 1970-01-01), составные индексы для проверки пересечений
+
+CREATE TABLE bookings_new (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    room_id INTEGER NOT NULL,
+    guest_id INTEGER NOT NULL,
+    check_in_date INTEGER NOT NULL,
+    check_out_date INTEGER NOT NULL,
+    status TEXT NOT NULL,
+    FOREIGN KEY (room_id) REFERENCES rooms(id),
+    FOREIGN KEY (guest_id) REFERENCES guests(id)
+);
+
+INSERT INTO bookings_new(id, room_id, guest_id, check_in_date, check_out_date, status)
+SELECT id,
+       room_id,
+       guest_id,
+       CAST(julianday(check_in_date) - 2440587.5 AS INTEGER),
+       CAST(julianday(check_out_date) - 2440587.5 AS INTEGER),
+       status
+FROM bookings;
+
+DROP TABLE bookings;
+
+ALTER TABLE bookings_new RENAME TO bookings;
+
+CREATE INDEX idx_bookings_room_status_dates ON bookings(room_id, status, check_in_date, check_out_date);
+
+CREATE INDEX idx_bookings_status_check_in ON bookings(status, check_in_date);
+
+CREATE INDEX idx_bookings_check_in ON bookings(check_in_date);
@@ -0,0 +1,25 @@
+-- R*Tree по броням: (номер × [заезд, выезд]) для поиска пересечений по периодам, синхронизируется триггерами
+
+CREATE VIRTUAL TABLE bookings_rtree USING rtree_i32(
+    id,
+    room_lo, room_hi,
+    check_in, check_out
+);
+
+INSERT INTO bookings_rtree(id, room_lo, room_hi, check_in, check_out)
+SELECT id, room_id, room_id, check_in_date, check_out_date FROM bookings;
+
+CREATE TRIGGER bookings_rtree_ai AFTER INSERT ON bookings BEGIN
+    INSERT INTO bookings_rtree(id, room_lo, room_hi, check_in, check_out)
+    VALUES (new.id, new.room_id, new.room_id, new.check_in_date, new.check_out_date);
+END;
+
+CREATE TRIGGER bookings_rtree_au AFTER UPDATE OF id, room_id, check_in_date, check_out_date ON bookings BEGIN
+    DELETE FROM bookings_rtree WHERE id = old.id;
+    INSERT INTO bookings_rtree(id, room_lo, room_hi, check_in, check_out)
+    VALUES (new.id, new.room_id, new.room_id, new.check_in_date, new.check_out_date);
+END;
+
+CREATE TRIGGER bookings_rtree_ad AFTER DELETE ON bookings BEGIN
+    DELETE FROM bookings_rtree WHERE id = old.id;
+END;
@@ -0,0 +1,3 @@
+-- Индекс по имени гостя для постраничного чтения в порядке (name, id)
+
+CREATE INDEX idx_guests_name ON guests(name);
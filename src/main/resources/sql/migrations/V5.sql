@@ -0,0 +1,73 @@
+-- Версии строк: глобальный счётчик изменений, row_version в rooms/guests/bookings и журнал удалений
+
+CREATE TABLE data_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    version INTEGER NOT NULL
+);
+
+INSERT INTO data_version(id, version) VALUES (1, 0);
+
+CREATE TABLE deleted_rows (
+    table_name TEXT NOT NULL,
+    row_id INTEGER NOT NULL,
+    row_version INTEGER NOT NULL
+);
+
+CREATE INDEX idx_deleted_rows_table_version ON deleted_rows(table_name, row_version);
+
+ALTER TABLE rooms ADD COLUMN row_version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE guests ADD COLUMN row_version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN row_version INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_rooms_row_version ON rooms(row_version);
+
+CREATE INDEX idx_guests_row_version ON guests(row_version);
+
+CREATE INDEX idx_bookings_row_version ON bookings(row_version);
+
+CREATE TRIGGER rooms_version_ai AFTER INSERT ON rooms BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE rooms SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER rooms_version_au AFTER UPDATE ON rooms WHEN new.row_version = old.row_version BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE rooms SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER rooms_version_ad AFTER DELETE ON rooms BEGIN
+    UPDATE data_version SET version = version + 1;
+    INSERT INTO deleted_rows(table_name, row_id, row_version) SELECT 'rooms', old.id, version FROM data_version;
+END;
+
+CREATE TRIGGER guests_version_ai AFTER INSERT ON guests BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE guests SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER guests_version_au AFTER UPDATE ON guests WHEN new.row_version = old.row_version BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE guests SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER guests_version_ad AFTER DELETE ON guests BEGIN
+    UPDATE data_version SET version = version + 1;
+    INSERT INTO deleted_rows(table_name, row_id, row_version) SELECT 'guests', old.id, version FROM data_version;
+END;
+
+CREATE TRIGGER bookings_version_ai AFTER INSERT ON bookings BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE bookings SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER bookings_version_au AFTER UPDATE ON bookings WHEN new.row_version = old.row_version BEGIN
+    UPDATE data_version SET version = version + 1;
+    UPDATE bookings SET row_version = (SELECT version FROM data_version) WHERE id = new.id;
+END;
+
+CREATE TRIGGER bookings_version_ad AFTER DELETE ON bookings BEGIN
+    UPDATE data_version SET version = version + 1;
+    INSERT INTO deleted_rows(table_name, row_id, row_version) SELECT 'bookings', old.id, version FROM data_version;
+END;
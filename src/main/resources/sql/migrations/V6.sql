@@ -0,0 +1,3 @@
+-- Индекс по телефону для поиска гостя по началу номера (имя — idx_guests_name, паспорт — UNIQUE)
+
+CREATE INDEX idx_guests_phone ON guests(phone);
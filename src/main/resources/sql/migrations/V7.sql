@@ -0,0 +1,23 @@
+-- Полнотекстовый индекс гостей (FTS5, external content): имя, паспорт, телефон; синхронизируется триггерами
+
+CREATE VIRTUAL TABLE guests_fts USING fts5(
+    name, passport, phone,
+    content='guests', content_rowid='id',
+    tokenize='unicode61 remove_diacritics 2',
+    prefix='2 3'
+);
+
+INSERT INTO guests_fts(guests_fts) VALUES ('rebuild');
+
+CREATE TRIGGER guests_fts_ai AFTER INSERT ON guests BEGIN
+    INSERT INTO guests_fts(rowid, name, passport, phone) VALUES (new.id, new.name, new.passport, new.phone);
+END;
+
+CREATE TRIGGER guests_fts_au AFTER UPDATE OF id, name, passport, phone ON guests BEGIN
+    INSERT INTO guests_fts(guests_fts, rowid, name, passport, phone) VALUES ('delete', old.id, old.name, old.passport, old.phone);
+    INSERT INTO guests_fts(rowid, name, passport, phone) VALUES (new.id, new.name, new.passport, new.phone);
+END;
+
+CREATE TRIGGER guests_fts_ad AFTER DELETE ON guests BEGIN
+    INSERT INTO guests_fts(guests_fts, rowid, name, passport, phone) VALUES ('delete', old.id, old.name, old.passport, old.phone);
+END;
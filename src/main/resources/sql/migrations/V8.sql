@@ -0,0 +1,3 @@
+-- Граница очистки журнала удалений: записи deleted_rows с версией не выше pruned_version удалены
+
+ALTER TABLE data_version ADD COLUMN pruned_version INTEGER NOT NULL DEFAULT 0;
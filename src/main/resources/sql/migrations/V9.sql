@@ -0,0 +1,7 @@
+-- Индексы под постраничную сортировку: (ключ, id) для каждого сортируемого столбца броней и гостей
+
+CREATE INDEX idx_bookings_check_out ON bookings(check_out_date);
+
+CREATE INDEX idx_bookings_status ON bookings(status);
+
+CREATE INDEX idx_guests_phone_sort ON guests(COALESCE(phone, ''));
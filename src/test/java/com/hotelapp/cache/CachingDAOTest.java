@@ -0,0 +1,137 @@
+package com.hotelapp.cache;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Guest;
+import com.hotelapp.model.Room;
+import com.hotelapp.model.Room.RoomStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Кэширующие DAO: повторное чтение идёт из кэша, запись его сбрасывает,
+ * а строка, прочитанная из БД до записи другого потока, в кэш не попадает.
+ */
+class CachingDAOTest {
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "caching-dao.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void readsHitCacheAndWritesInvalidate() throws Exception {
+        LruCache<Integer, Room> byId = new LruCache<>("rooms.byId", 100, 0);
+        CachingRoomDAO dao = new CachingRoomDAO(byId, new LruCache<>("rooms.all", 1, 0));
+        List<Room> rooms = dao.findAll();
+        Room room = dao.findById(rooms.get(0).getId()).orElseThrow();
+        Assertions.assertEquals(1, byId.getStats().getHitCount(), "findAll заполняет кэш по id");
+        room.setStatus(RoomStatus.OCCUPIED);
+        Assertions.assertEquals(RoomStatus.FREE, dao.findById(room.getId()).orElseThrow().getStatus(),
+                "Изменение отданной копии не попадает в кэш");
+
+        dao.updateStatus(room.getId(), RoomStatus.OCCUPIED);
+        Assertions.assertEquals(RoomStatus.OCCUPIED, dao.findById(room.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(RoomStatus.OCCUPIED, dao.findAll().stream()
+                .filter(r -> r.getId() == room.getId()).findFirst().orElseThrow().getStatus());
+        dao.updateStatus(room.getId(), RoomStatus.FREE);
+    }
+
+    @Test
+    void roomReadBeforeConcurrentWriteIsNotCached() throws Exception {
+        RacingCache<Integer, Room> byId = new RacingCache<>("rooms.byId");
+        CachingRoomDAO dao = new CachingRoomDAO(byId, new LruCache<>("rooms.all", 1, 0));
+        int id = 2;
+        byId.beforeFill = () -> inOtherThread(() -> dao.updateStatus(id, RoomStatus.OCCUPIED));
+
+        Assertions.assertEquals(RoomStatus.FREE, dao.findById(id).orElseThrow().getStatus(),
+                "Чтение, начатое до записи, видит прежнюю строку");
+        Assertions.assertEquals(RoomStatus.OCCUPIED, dao.findById(id).orElseThrow().getStatus(),
+                "Прежняя строка не должна остаться в кэше после записи");
+        dao.updateStatus(id, RoomStatus.FREE);
+    }
+
+    @Test
+    void roomListReadBeforeConcurrentWriteIsNotCached() throws Exception {
+        RacingCache<String, List<Room>> lists = new RacingCache<>("rooms.all");
+        CachingRoomDAO dao = new CachingRoomDAO(new LruCache<>("rooms.byId", 100, 0), lists);
+        int id = 3;
+        lists.beforeFill = () -> inOtherThread(() -> dao.updateStatus(id, RoomStatus.OCCUPIED));
+
+        dao.findAll();
+        Assertions.assertEquals(0, lists.size());
+        Assertions.assertEquals(RoomStatus.OCCUPIED, dao.findAll().stream()
+                .filter(r -> r.getId() == id).findFirst().orElseThrow().getStatus());
+        Assertions.assertEquals(RoomStatus.OCCUPIED, dao.findById(id).orElseThrow().getStatus());
+        dao.updateStatus(id, RoomStatus.FREE);
+    }
+
+    @Test
+    void guestReadBeforeConcurrentWriteIsNotCached() throws Exception {
+        RacingCache<Integer, Guest> byId = new RacingCache<>("guests.byId");
+        CachingGuestDAO dao = new CachingGuestDAO(byId, new LruCache<>("guests.all", 1, 0));
+        Guest guest = new Guest("Кэшев Пётр", "KC1234567", null);
+        dao.insert(guest);
+        byId.beforeFill = () -> inOtherThread(() -> {
+            dao.update(new Guest(guest.getId(), "Кэшев Павел", guest.getPassport(), null));
+        });
+
+        Assertions.assertEquals("Кэшев Пётр", dao.findById(guest.getId()).orElseThrow().getName());
+        Assertions.assertEquals("Кэшев Павел", dao.findById(guest.getId()).orElseThrow().getName());
+        Assertions.assertEquals(2, byId.getStats().getMissCount(), "Второе чтение — снова из БД");
+        Assertions.assertEquals("Кэшев Павел", dao.findById(guest.getId()).orElseThrow().getName());
+        Assertions.assertEquals(1, byId.getStats().getHitCount());
+    }
+
+    private static void inOtherThread(Write write) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                write.run();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+    }
+
+    private interface Write {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Кэш, в котором перед первой загрузкой значения выполняется действие —
+     * как запись из другого потока между чтением из БД и put.
+     */
+    private static final class RacingCache<K, V> extends LruCache<K, V> {
+        private Runnable beforeFill;
+
+        private RacingCache(String name) {
+            super(name, 100, 0);
+        }
+
+        @Override
+        public boolean putIfCurrent(K key, V value, long generation) {
+            Runnable action = beforeFill;
+            beforeFill = null;
+            if (action != null) {
+                action.run();
+            }
+            return super.putIfCurrent(key, value, generation);
+        }
+    }
+}
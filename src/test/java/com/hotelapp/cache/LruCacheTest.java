@@ -0,0 +1,58 @@
+package com.hotelapp.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Тест кэша: вытесняется давно не читанная запись, истёкшие записи не отдаются,
+ * значение, загруженное до сброса, не кладётся.
+ */
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 2, 0);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        Assertions.assertEquals("a", cache.get(1));
+        cache.put(3, "c");
+
+        Assertions.assertNull(cache.get(2), "Вытесняется запись, к которой дольше всего не обращались");
+        Assertions.assertEquals("a", cache.get(1));
+        Assertions.assertEquals("c", cache.get(3));
+        CacheStats stats = cache.getStats();
+        Assertions.assertEquals(3, stats.getHitCount());
+        Assertions.assertEquals(1, stats.getMissCount());
+        Assertions.assertEquals(1, stats.getEvictionCount());
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, 100, now::get);
+        cache.put(1, "a");
+        now.addAndGet(99_000_000L);
+        Assertions.assertEquals("a", cache.get(1));
+        now.addAndGet(1_000_000L);
+        Assertions.assertNull(cache.get(1));
+        Assertions.assertEquals(1, cache.getStats().getExpirationCount());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putIfCurrentSkipsValuesLoadedBeforeInvalidation() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, 0);
+        long generation = cache.generation();
+        cache.invalidate(1);
+        Assertions.assertFalse(cache.putIfCurrent(1, "old", generation), "Сброс отсутствующего ключа тоже меняет поколение");
+        Assertions.assertNull(cache.get(1));
+
+        generation = cache.generation();
+        Assertions.assertTrue(cache.putIfCurrent(1, "new", generation));
+        cache.invalidateAll();
+        Assertions.assertFalse(cache.putIfCurrent(2, "old", generation));
+        Assertions.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotelapp.capture;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.service.GuestService;
+import com.hotelapp.service.RoomService;
+import com.hotelapp.tools.WorkloadReplayer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Запись нагрузки: вложенные вызовы не дублируются, аргументы сохраняются на входе,
+ * воспроизведение на снимке приводит к той же БД.
+ */
+class WorkloadCaptureTest {
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void replayOnSnapshotReproducesDatabase() throws Exception {
+        Path db = Path.of("target", "capture-live.db");
+        Path log = Path.of("target", "capture", "workload.hcap");
+        Files.deleteIfExists(db);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + db));
+        Database.initialize();
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.plusDays(10);
+        LocalDate end = start.plusDays(3);
+        try (WorkloadRecorder recorder = WorkloadRecorder.start(log)) {
+            RoomDAO roomDAO = new RoomDAO();
+            GuestDAO guestDAO = new GuestDAO();
+            BookingService bookingService = new RecordingBookingService(new BookingDAO(), roomDAO, guestDAO,
+                    new PaymentDAO(), null, recorder);
+            GuestService guestService = new RecordingGuestService(guestDAO, recorder);
+            RoomService roomService = new RecordingRoomService(roomDAO, recorder);
+
+            roomService.getAllRooms();
+            List<Room> rooms = bookingService.getAvailableRooms(start, end);
+            Guest guest = new Guest("Тестов Тест", "KH7654321", "+375 29 111 22 33");
+            guestService.saveGuest(guest);
+            bookingService.createBooking(guest.getId(), rooms.get(0).getId(), start, end);
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> bookingService.createBooking(guest.getId(), rooms.get(0).getId(), start, end));
+            bookingService.createBooking(guest.getId(), rooms.get(1).getId(), today, today.plusDays(2));
+            Booking arrival = bookingService.getBookingsForCheckIn(today).stream()
+                    .filter(b -> b.getGuestId() == guest.getId()).findFirst().orElseThrow();
+            bookingService.checkIn(arrival.getId());
+            bookingService.checkOut(arrival.getId(), true);
+            guestService.searchGuests("Тестов", 10);
+            roomService.updateStatus(rooms.get(2).getId(), Room.RoomStatus.OCCUPIED);
+            Assertions.assertEquals(11, recorder.getRecordedCount());
+        }
+        String live = digest();
+
+        WorkloadLog workload = WorkloadLog.read(log);
+        List<ServiceCall> expected = List.of(ServiceCall.GET_ALL_ROOMS, ServiceCall.GET_AVAILABLE_ROOMS,
+                ServiceCall.SAVE_GUEST, ServiceCall.CREATE_BOOKING, ServiceCall.CREATE_BOOKING,
+                ServiceCall.CREATE_BOOKING, ServiceCall.GET_BOOKINGS_FOR_CHECK_IN, ServiceCall.CHECK_IN,
+                ServiceCall.CHECK_OUT, ServiceCall.SEARCH_GUESTS, ServiceCall.UPDATE_ROOM_STATUS);
+        Assertions.assertEquals(expected, workload.getCalls().stream().map(CapturedCall::getCall).toList(),
+                "Вложенные вызовы (getAvailableRooms с фильтром, calculateTotalCost) не записываются");
+        Assertions.assertEquals(Database.getConfig().getUrl(), workload.getSource());
+        Assertions.assertTrue(workload.getCalls().get(4).isFailed());
+        Assertions.assertFalse(workload.getCalls().get(3).isFailed());
+        Guest saved = (Guest) workload.getCalls().get(2).getArgs()[0];
+        Assertions.assertEquals(0, saved.getId(), "Аргументы записываются до выполнения вызова");
+        Assertions.assertEquals("KH7654321", saved.getPassport());
+        Assertions.assertArrayEquals(new Object[]{start, end}, workload.getCalls().get(1).getArgs());
+        Assertions.assertArrayEquals(new Object[]{workload.getCalls().get(7).getArgs()[0], Boolean.TRUE},
+                workload.getCalls().get(8).getArgs());
+        Assertions.assertEquals("OCCUPIED", workload.getCalls().get(10).getArgs()[1]);
+
+        Path copy = Path.of("target", "capture-replay.db");
+        Files.copy(WorkloadRecorder.snapshotOf(log.toAbsolutePath()), copy, StandardCopyOption.REPLACE_EXISTING);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + copy));
+        Database.initialize();
+        RoomDAO roomDAO = new RoomDAO();
+        GuestDAO guestDAO = new GuestDAO();
+        WorkloadReplayer replayer = new WorkloadReplayer(
+                new BookingService(new BookingDAO(), roomDAO, guestDAO, new PaymentDAO()),
+                new GuestService(guestDAO), new RoomService(roomDAO));
+        WorkloadReplayer.Report report = replayer.replay(workload);
+
+        Assertions.assertEquals(11, report.getCalls());
+        Assertions.assertEquals(1, report.getFailed());
+        Assertions.assertEquals(0, report.getMismatched());
+        Assertions.assertEquals(live, digest(), "Воспроизведение на снимке должно дать ту же БД");
+    }
+
+    @Test
+    void valuesSurviveEncoding() throws Exception {
+        Booking booking = new Booking(7, 2, 3, LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 2),
+                Booking.BookingStatus.CHECKED_IN);
+        Object[] args = {null, -1, Long.MIN_VALUE, 1234.5, true, "Ёлка ✓", LocalDate.of(1969, 12, 31),
+                BookingDAO.SortKey.STATUS, new Guest(5, "Гость", "AB1234567", null),
+                new Room(4, "101", "Suite", 99.9, 3, Room.RoomStatus.FREE), booking};
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        WorkloadCodec.writeArgs(new DataOutputStream(buffer), args);
+        Object[] decoded = WorkloadCodec.readArgs(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+        Assertions.assertArrayEquals(new Object[]{null, -1, Long.MIN_VALUE, 1234.5, true, "Ёлка ✓",
+                LocalDate.of(1969, 12, 31), "STATUS"}, Arrays.copyOf(decoded, 8));
+        Guest guest = (Guest) decoded[8];
+        Assertions.assertEquals(5, guest.getId());
+        Assertions.assertNull(guest.getPhone());
+        Room room = (Room) decoded[9];
+        Assertions.assertEquals(99.9, room.getPrice());
+        Assertions.assertEquals(Room.RoomStatus.FREE, room.getStatus());
+        Booking copy = (Booking) decoded[10];
+        Assertions.assertEquals(booking.getCheckInDate(), copy.getCheckInDate());
+        Assertions.assertEquals(Booking.BookingStatus.CHECKED_IN, copy.getStatus());
+        Assertions.assertEquals(3, copy.getGuestId());
+    }
+
+    private static String digest() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (String sql : List.of(
+                "SELECT id, room_id, guest_id, check_in_date, check_out_date, status FROM bookings ORDER BY id",
+                "SELECT id, name, passport, phone FROM guests ORDER BY id",
+                "SELECT id, number, status FROM rooms ORDER BY id",
+                "SELECT booking_id, amount, paid FROM payments ORDER BY booking_id")) {
+            try (Connection connection = Database.getReadConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        sb.append(rs.getObject(i)).append('|');
+                    }
+                    sb.append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
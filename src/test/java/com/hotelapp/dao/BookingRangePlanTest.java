@@ -0,0 +1,200 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Планы запросов по периодам: после ANALYZE брони ищутся через R*Tree и индексы, а не просмотром bookings.
+ * Страницы таблиц броней и гостей читаются по индексу ключа сортировки, без сортировки результата.
+ * Для проверки плана хватает небольшой таблицы; время запросов на больших БД меряют бенчмарки (модуль benchmarks).
+ */
+class BookingRangePlanTest {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+
+    private static final BookingDAO bookingDAO = new BookingDAO();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "range-plan.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        fill();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void rangeQueriesUseIndexes() throws Exception {
+        // Индекс R*Tree 2:B0D1C2E3 — ограничения по номеру (room_lo/room_hi) и периоду, 2:C2E3 — только по периоду
+        Assertions.assertEquals(List.of(
+                "SCAN t VIRTUAL TABLE INDEX 2:B0D1C2E3",
+                "SEARCH b USING INTEGER PRIMARY KEY (rowid=?)"), plan(BookingDAO.HAS_OVERLAPS_SQL));
+        Assertions.assertEquals(List.of(
+                "SCAN t VIRTUAL TABLE INDEX 2:C2E3",
+                "SEARCH b USING INTEGER PRIMARY KEY (rowid=?)",
+                "SEARCH r USING INTEGER PRIMARY KEY (rowid=?)",
+                "SEARCH g USING INTEGER PRIMARY KEY (rowid=?)",
+                "USE TEMP B-TREE FOR ORDER BY"), plan(BookingDAO.OVERLAPPING_SQL));
+        Assertions.assertEquals(List.of(
+                "SEARCH b USING INDEX idx_bookings_status_check_in (status=? AND check_in_date<?)",
+                "SEARCH r USING INTEGER PRIMARY KEY (rowid=?)",
+                "SEARCH g USING INTEGER PRIMARY KEY (rowid=?)"), plan(BookingDAO.FOR_CHECK_IN_SQL));
+        // Перебор номеров в порядке номера — внешний цикл поиска свободных номеров, брони — через R*Tree
+        List<String> available = List.of(
+                "SCAN r USING INDEX sqlite_autoindex_rooms_1",
+                "CORRELATED SCALAR SUBQUERY 1",
+                "SCAN t VIRTUAL TABLE INDEX 2:B0D1C2E3",
+                "SEARCH b USING INTEGER PRIMARY KEY (rowid=?)");
+        Assertions.assertEquals(available, plan(RoomDAO.availableQuery(false, false, false)));
+        Assertions.assertEquals(available, plan(RoomDAO.availableQuery(true, true, true)));
+    }
+
+    @Test
+    void sortedPagesUseIndexes() throws Exception {
+        Map<BookingDAO.SortKey, String> bookingIndexes = Map.of(
+                BookingDAO.SortKey.CHECK_IN, "idx_bookings_check_in",
+                BookingDAO.SortKey.CHECK_OUT, "idx_bookings_check_out",
+                BookingDAO.SortKey.STATUS, "idx_bookings_status");
+        for (BookingDAO.SortKey key : BookingDAO.SortKey.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                String index = bookingIndexes.get(key);
+                Assertions.assertEquals(indexedJoin("SCAN b USING INDEX " + index),
+                        plan(BookingDAO.rangeQuery(key, ascending)), key + " " + ascending);
+                List<String> page = plan(BookingDAO.pageQuery(key, ascending, true));
+                Assertions.assertEquals(indexedJoin(page.get(0)), page, key + " " + ascending);
+                Assertions.assertTrue(page.get(0).startsWith("SEARCH b USING INDEX " + index + " ("),
+                        key + " " + ascending + ": " + page);
+            }
+        }
+        Map<GuestDAO.SortKey, String> guestIndexes = Map.of(
+                GuestDAO.SortKey.NAME, "idx_guests_name",
+                GuestDAO.SortKey.PASSPORT, "sqlite_autoindex_guests_1",
+                GuestDAO.SortKey.PHONE, "idx_guests_phone_sort");
+        for (GuestDAO.SortKey key : GuestDAO.SortKey.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                String index = guestIndexes.get(key);
+                Assertions.assertEquals(List.of("SCAN guests USING INDEX " + index),
+                        plan(GuestDAO.rangeQuery(key, ascending)), key + " " + ascending);
+                List<String> page = plan(GuestDAO.pageQuery(key, ascending, true));
+                Assertions.assertEquals(1, page.size(), key + " " + ascending + ": " + page);
+                Assertions.assertTrue(page.get(0).startsWith("SEARCH guests USING INDEX " + index + " ("),
+                        key + " " + ascending + ": " + page);
+            }
+        }
+    }
+
+    private static List<String> indexedJoin(String bookingsStep) {
+        return List.of(bookingsStep,
+                "SEARCH r USING INTEGER PRIMARY KEY (rowid=?)",
+                "SEARCH g USING INTEGER PRIMARY KEY (rowid=?)");
+    }
+
+    @Test
+    void rtreeMatchesBookingsTable() throws Exception {
+        LocalDate today = LocalDate.now();
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            LocalDate start = today.plusDays(random.nextInt(600) - 300);
+            LocalDate end = start.plusDays(1 + random.nextInt(5));
+            int roomId = 1 + random.nextInt(ROOMS);
+
+            Assertions.assertEquals(count("""
+                    SELECT COUNT(*) FROM bookings NOT INDEXED
+                    WHERE check_in_date < ? AND check_out_date > ?
+                    """, end.toEpochDay(), start.toEpochDay()), bookingDAO.findOverlapping(start, end).size());
+            Assertions.assertEquals(count("""
+                    SELECT COUNT(*) FROM bookings NOT INDEXED
+                    WHERE room_id = ? AND status IN ('BOOKED', 'CHECKED_IN')
+                      AND check_in_date < ? AND check_out_date > ?
+                    """, roomId, end.toEpochDay(), start.toEpochDay()) > 0,
+                    bookingDAO.hasOverlaps(roomId, start, end));
+        }
+    }
+
+    private static List<String> plan(String sql) throws Exception {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    private static long count(String sql, long... params) throws Exception {
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setLong(i + 1, params[i]);
+            }
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void fill() throws Exception {
+        Random random = new Random(17);
+        long today = LocalDate.now().toEpochDay();
+        try (Connection connection = Database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement rooms = connection.prepareStatement(
+                    "INSERT INTO rooms(number, type, price, capacity, status) VALUES(?,?,?,?,?)");
+                 PreparedStatement bookings = connection.prepareStatement(
+                         "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?,?,?,?,?)")) {
+                for (int i = 0; i < ROOMS; i++) {
+                    rooms.setString(1, "P" + (10000 + i));
+                    rooms.setString(2, i % 2 == 0 ? "Стандарт" : "Люкс");
+                    rooms.setDouble(3, 100 + i % 5 * 50);
+                    rooms.setInt(4, 1 + i % 4);
+                    rooms.setString(5, "FREE");
+                    rooms.addBatch();
+                }
+                rooms.executeBatch();
+                // Немного истории и брони примерно на год вперёд
+                for (int room = 1; room <= ROOMS; room++) {
+                    long day = today - BOOKINGS_PER_ROOM * 4L + 365;
+                    for (int i = 0; i < BOOKINGS_PER_ROOM; i++) {
+                        day += random.nextInt(2);
+                        long nights = 1 + random.nextInt(5);
+                        bookings.setInt(1, room);
+                        bookings.setInt(2, 1);
+                        bookings.setLong(3, day);
+                        bookings.setLong(4, day + nights);
+                        bookings.setString(5, day + nights < today ? "CHECKED_OUT" : "BOOKED");
+                        bookings.addBatch();
+                        day += nights;
+                    }
+                }
+                bookings.executeBatch();
+            }
+            connection.commit();
+            try (PreparedStatement analyze = connection.prepareStatement("ANALYZE")) {
+                analyze.execute();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Room;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * findChangedSince возвращает только строки, изменённые после переданной версии, и id удалённых;
+ * при ошибке версия не продвигается, после очистки журнала удалений старый клиент получает все строки.
+ */
+class ChangeTrackingTest {
+
+    private static final RoomDAO roomDAO = new RoomDAO();
+
+    private static final Path FILE = Path.of("target", "changes.db");
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Files.deleteIfExists(FILE);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + FILE));
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void deltaContainsOnlyChangedAndDeletedRows() throws Exception {
+        Changes<Room> initial = roomDAO.findChangedSince(-1);
+        Assertions.assertEquals(roomDAO.findAll().size(), initial.getChanged().size(), "Первая загрузка — все строки");
+        long version = initial.getVersion();
+        Assertions.assertTrue(roomDAO.findChangedSince(version).isEmpty());
+
+        roomDAO.insert(new Room("D1", "Стандарт", 100, 2, Room.RoomStatus.FREE));
+        Room updated = initial.getChanged().get(0);
+        updated.setPrice(updated.getPrice() + 1);
+        roomDAO.update(updated);
+        Room deleted = initial.getChanged().get(1);
+        roomDAO.delete(deleted.getId());
+
+        Changes<Room> delta = roomDAO.findChangedSince(version);
+        List<String> numbers = delta.getChanged().stream().map(Room::getNumber).sorted().collect(Collectors.toList());
+        Assertions.assertEquals(List.of("D1", updated.getNumber()).stream().sorted().collect(Collectors.toList()), numbers);
+        Assertions.assertEquals(List.of(deleted.getId()), delta.getDeletedIds());
+        Assertions.assertTrue(delta.getVersion() > version);
+        Assertions.assertTrue(delta.getChanged().stream().allMatch(r -> r.getVersion() > version));
+        Assertions.assertTrue(roomDAO.findChangedSince(delta.getVersion()).isEmpty());
+    }
+
+    @Test
+    void failedReadDoesNotAdvanceVersion() throws Exception {
+        long version = roomDAO.findChangedSince(-1).getVersion();
+        roomDAO.insert(new Room("D2", "Стандарт", 100, 2, Room.RoomStatus.FREE));
+        execute("ALTER TABLE deleted_rows RENAME TO deleted_rows_off");
+        try {
+            Changes<Room> failed = roomDAO.findChangedSince(version);
+            Assertions.assertEquals(version, failed.getVersion(), "Непрочитанные изменения не должны потеряться");
+            Assertions.assertTrue(failed.isEmpty());
+        } finally {
+            execute("ALTER TABLE deleted_rows_off RENAME TO deleted_rows");
+        }
+        Assertions.assertEquals(List.of("D2"), roomDAO.findChangedSince(version).getChanged().stream()
+                .map(Room::getNumber).collect(Collectors.toList()));
+    }
+
+    @Test
+    void clientOlderThanPrunedJournalGetsAllRows() throws Exception {
+        Path file = Path.of("target", "changes-pruned.db");
+        Files.deleteIfExists(file);
+        DatabaseConfig config = new DatabaseConfig("jdbc:sqlite:" + file);
+        config.setDeletedRowsKeepVersions(2);
+        try {
+            Database.configure(config);
+            Database.initialize();
+            long version = roomDAO.findChangedSince(-1).getVersion();
+            Room room = roomDAO.findAll().get(0);
+            roomDAO.delete(room.getId());
+            for (int i = 0; i < 3; i++) {
+                roomDAO.insert(new Room("P" + i, "Стандарт", 100, 2, Room.RoomStatus.FREE));
+            }
+            Assertions.assertEquals(List.of(room.getId()), roomDAO.findChangedSince(version).getDeletedIds());
+
+            // Очистка журнала выполняется при запуске
+            Database.configure(config);
+            Database.initialize();
+            Assertions.assertEquals(0, count("SELECT COUNT(*) FROM deleted_rows"));
+            Changes<Room> changes = roomDAO.findChangedSince(version);
+            Assertions.assertTrue(changes.isFull(), "Удаление уже не в журнале — клиент перечитывает таблицу");
+            Assertions.assertEquals(roomDAO.findAll().size(), changes.getChanged().size());
+            Assertions.assertFalse(roomDAO.findChangedSince(changes.getVersion()).isFull());
+        } finally {
+            Database.configure(new DatabaseConfig("jdbc:sqlite:" + FILE));
+        }
+    }
+
+    private static void execute(String sql) throws Exception {
+        try (Connection connection = Database.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String sql) throws Exception {
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Guest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Полнотекстовый поиск гостей: синхронизация guests_fts с таблицей, план запроса и поиск по имени, паспорту и телефону.
+ * Время поиска на большой базе меряет GuestDAOBenchmark (модуль benchmarks).
+ */
+class GuestFullTextSearchTest {
+
+    private static final int GUESTS = 5000;
+    private static final int LOOKUPS = 300;
+    private static final String[] SYLLABLES = {
+            "ба", "ва", "го", "да", "ер", "жу", "за", "ки", "ло", "ми", "но", "па", "ро", "си", "ту",
+            "фе", "ха", "це", "че", "ша", "ща", "эр", "юн", "ян", "бо", "ве", "ги", "ду", "зе", "ку"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Иван", "Пётр", "Анна", "Мария", "Сергей", "Ольга", "Алексей", "Елена", "Дмитрий", "Наталья",
+            "Андрей", "Татьяна", "Михаил", "Ирина", "Николай", "Светлана", "Павел", "Юлия", "Артём", "Ксения"
+    };
+
+    private static final GuestDAO guestDAO = new GuestDAO();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "guest-fts.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        fill();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void indexFollowsTableChanges() throws Exception {
+        guestDAO.insert(new Guest("Семёнова-Ли Ёлка", "QX000001", "+7 999 5550001"));
+        Guest guest = guestDAO.searchFullText("семёнова", 5).get(0);
+        Assertions.assertEquals("QX000001", guest.getPassport());
+        Assertions.assertEquals(guest.getId(), guestDAO.searchFullText("ли ёл", 5).get(0).getId(), "Дефис и регистр не мешают поиску");
+        Assertions.assertEquals(guest.getId(), guestDAO.searchFullText("5550001", 5).get(0).getId());
+
+        guest.setName("Семёнова Ёлка");
+        guest.setPassport("QX000002");
+        guestDAO.update(guest);
+        Assertions.assertTrue(guestDAO.searchFullText("QX000001", 5).isEmpty());
+        Assertions.assertEquals(guest.getId(), guestDAO.searchFullText("qx000002", 5).get(0).getId());
+
+        guestDAO.delete(guest.getId());
+        Assertions.assertTrue(guestDAO.searchFullText("QX000002", 5).isEmpty());
+        Assertions.assertTrue(guestDAO.searchFullText(" \"* - ", 5).isEmpty(), "Служебные символы FTS5 не разбираются как запрос");
+    }
+
+    @Test
+    void passportMatchRanksFirst() throws Exception {
+        guestDAO.insert(new Guest("Zk11 Тестов", "ZZ100001", null));
+        guestDAO.insert(new Guest("Тестов Пётр", "ZK110000", null));
+        List<Guest> found = guestDAO.searchFullText("zk11", 5);
+        Assertions.assertEquals(2, found.size());
+        Assertions.assertEquals("ZK110000", found.get(0).getPassport(), "Совпадение по паспорту весит больше");
+    }
+
+    @Test
+    void searchUsesFullTextIndex() throws Exception {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN QUERY PLAN " + GuestDAO.FULL_TEXT_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        // Лучшие совпадения выбираются по MATCH в guests_fts, строки гостей читаются по первичному ключу
+        Assertions.assertEquals(List.of(
+                "CO-ROUTINE f",
+                "SCAN guests_fts VIRTUAL TABLE INDEX 0:M3",
+                "USE TEMP B-TREE FOR ORDER BY",
+                "SCAN f",
+                "SEARCH g USING INTEGER PRIMARY KEY (rowid=?)",
+                "USE TEMP B-TREE FOR ORDER BY"), plan);
+    }
+
+    @Test
+    void everyLookupFindsGuest() {
+        Random random = new Random(23);
+        for (int i = 0; i < LOOKUPS; i++) {
+            int id = random.nextInt(GUESTS);
+            String query = switch (i % 3) {
+                // Фамилия и начало имени, как их вводят на стойке
+                case 0 -> surname(id) + " " + FIRST_NAMES[id % FIRST_NAMES.length].substring(0, 2);
+                case 1 -> passport(id).substring(0, 8);
+                default -> phoneTail(id);
+            };
+            List<Guest> result = guestDAO.searchFullText(query, 20);
+            Assertions.assertTrue(result.stream().anyMatch(g -> g.getPassport().equals(passport(id))),
+                    "Запрос «" + query + "» должен находить гостя " + passport(id));
+        }
+    }
+
+    private static String surname(int id) {
+        int a = id % SYLLABLES.length;
+        int b = id / SYLLABLES.length % SYLLABLES.length;
+        int c = id / (SYLLABLES.length * SYLLABLES.length) % SYLLABLES.length;
+        String stem = SYLLABLES[a] + SYLLABLES[b] + SYLLABLES[c];
+        return Character.toUpperCase(stem.charAt(0)) + stem.substring(1) + "ов";
+    }
+
+    private static String passport(int id) {
+        return "MP" + (1_000_000 + id);
+    }
+
+    private static String phoneTail(int id) {
+        return String.valueOf(2_000_000 + id);
+    }
+
+    private static void fill() throws Exception {
+        try (Connection connection = Database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO guests(name, passport, phone) VALUES(?,?,?)")) {
+                for (int id = 0; id < GUESTS; id++) {
+                    ps.setString(1, surname(id) + " " + FIRST_NAMES[id % FIRST_NAMES.length]);
+                    ps.setString(2, passport(id));
+                    ps.setString(3, "+7 9" + (id % 100) + " " + phoneTail(id));
+                    ps.addBatch();
+                    if (id % 1000 == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+}
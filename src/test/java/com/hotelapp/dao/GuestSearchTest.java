@@ -0,0 +1,72 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Guest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск гостя по началу паспорта, имени или телефона: порядок подсказок, ограничение и план по индексам.
+ */
+class GuestSearchTest {
+
+    private static final GuestDAO guestDAO = new GuestDAO();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "guest-search.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        for (int i = 0; i < 500; i++) {
+            guestDAO.insert(new Guest("Гость " + i, "AB" + (100000 + i), "+7 900 " + (1000 + i)));
+        }
+        guestDAO.insert(new Guest("Абрамов Пётр", "CD200001", "+7 911 0000"));
+        guestDAO.insert(new Guest("Абрамова Анна", "AB777777", null));
+        guestDAO.insert(new Guest("Cd Иванов", "ZZ000001", null));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void matchesByPrefixInRankOrder() {
+        // Паспорт совпадает раньше имени; регистр паспорта и первой буквы имени не важен
+        Assertions.assertEquals(List.of("Абрамов Пётр", "Cd Иванов"), names(guestDAO.search("cd", 10)));
+        Assertions.assertEquals(List.of("Абрамова Анна"), names(guestDAO.search("ab7", 10)));
+        Assertions.assertEquals(List.of("Абрамов Пётр", "Абрамова Анна"), names(guestDAO.search("абрам", 10)));
+        Assertions.assertEquals(List.of("Абрамов Пётр"), names(guestDAO.search("+7 911", 10)));
+        Assertions.assertEquals(20, guestDAO.search("Гость", 20).size());
+        Assertions.assertTrue(guestDAO.search("  ", 20).isEmpty());
+        Assertions.assertTrue(guestDAO.search("Неизвестный", 20).isEmpty());
+    }
+
+    @Test
+    void searchUsesIndexes() throws Exception {
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN QUERY PLAN " + GuestDAO.SEARCH_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String step = rs.getString("detail");
+                Assertions.assertFalse(step.startsWith("SCAN guests"), "Полный просмотр guests: " + step);
+            }
+        }
+    }
+
+    private static List<String> names(List<Guest> guests) {
+        return guests.stream().map(Guest::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotelapp.dao;
+
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Постраничное чтение по курсору даёт те же строки и в том же порядке, что и findAll,
+ * в том числе при одинаковых ключах сортировки.
+ */
+class KeysetPaginationTest {
+
+    private static final GuestDAO guestDAO = new GuestDAO();
+    private static final BookingDAO bookingDAO = new BookingDAO();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "pagination.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        LocalDate day = LocalDate.now();
+        for (int i = 0; i < 23; i++) {
+            Guest guest = new Guest(i % 3 == 0 ? "Иванов" : "Гость " + i, "P" + i, i % 2 == 0 ? null : "+7 " + i % 5);
+            guestDAO.insert(guest);
+        }
+        for (int i = 0; i < 23; i++) {
+            Booking booking = new Booking();
+            booking.setRoomId(1);
+            booking.setGuestId(1);
+            booking.setCheckInDate(day.plusDays(i / 4));
+            booking.setCheckOutDate(day.plusDays(i / 4 + 1));
+            booking.setStatus(Booking.BookingStatus.CHECKED_OUT);
+            bookingDAO.insert(booking);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void guestPagesCoverAllRowsInOrder() {
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Guest> page = guestDAO.findPage(cursor, 5);
+            Assertions.assertTrue(page.getItems().size() <= 5);
+            page.getItems().forEach(guest -> paged.add(guest.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Integer> all = guestDAO.findAll().stream()
+                .sorted((a, b) -> a.getName().equals(b.getName())
+                        ? Integer.compare(a.getId(), b.getId())
+                        : a.getName().compareTo(b.getName()))
+                .map(Guest::getId)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(all, paged);
+    }
+
+    @Test
+    void sortedPagesMatchOffsetReads() {
+        for (GuestDAO.SortKey key : GuestDAO.SortKey.values()) {
+            List<Integer> paged = new ArrayList<>();
+            Page<Guest> page = guestDAO.findPage(key, false, null, 4);
+            page.getItems().forEach(guest -> paged.add(guest.getId()));
+            while (page.hasNext()) {
+                page = guestDAO.findPage(key, false, page.getNextCursor(), 4);
+                page.getItems().forEach(guest -> paged.add(guest.getId()));
+            }
+            List<Integer> range = guestDAO.findRange(key, false, 0, guestDAO.count()).stream()
+                    .map(Guest::getId)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(range, paged, "Сортировка " + key);
+        }
+    }
+
+    @Test
+    void bookingPagesCoverAllRowsInOrder() {
+        List<Integer> paged = new ArrayList<>();
+        Page<Booking> page = bookingDAO.findPage(null, 4);
+        paged.addAll(page.getItems().stream().map(Booking::getId).collect(Collectors.toList()));
+        while (page.hasNext()) {
+            page = bookingDAO.findPage(page.getNextCursor(), 4);
+            paged.addAll(page.getItems().stream().map(Booking::getId).collect(Collectors.toList()));
+        }
+        List<Integer> all = bookingDAO.findAll().stream().map(Booking::getId).collect(Collectors.toList());
+        Assertions.assertEquals(all, paged);
+    }
+
+    @Test
+    void readFailuresAreNotReportedAsEmptyPages() {
+        DatabaseConfig working = Database.getConfig();
+        // Файл в несуществующем каталоге: каждое соединение завершается SQLException
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + Path.of("target", "missing-dir", "none.db")));
+        try {
+            Assertions.assertThrows(RuntimeException.class, () -> bookingDAO.findPage(null, 4));
+            Assertions.assertThrows(RuntimeException.class,
+                    () -> bookingDAO.findRange(BookingDAO.SortKey.CHECK_IN, true, 0, 4));
+            Assertions.assertThrows(RuntimeException.class, bookingDAO::count);
+            Assertions.assertThrows(RuntimeException.class, () -> guestDAO.findPage(null, 4));
+            Assertions.assertThrows(RuntimeException.class,
+                    () -> guestDAO.findRange(GuestDAO.SortKey.NAME, true, 0, 4));
+            Assertions.assertThrows(RuntimeException.class, guestDAO::count);
+        } finally {
+            Database.configure(working);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotelapp.database;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Тест пула: соединения переиспользуются, размер пула ограничен.
+ */
+class ConnectionPoolTest {
+
+    @Test
+    void connectionIsReusedAfterClose() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("test", () -> DriverManager.getConnection("jdbc:sqlite::memory:"),
+                2, 60_000, 1_000)) {
+            for (int i = 0; i < 10; i++) {
+                try (Connection connection = pool.borrow()) {
+                    Assertions.assertTrue(connection.isValid(1));
+                }
+            }
+            PoolStats stats = pool.getStats();
+            Assertions.assertEquals(1, stats.getCreatedCount(), "Должно быть создано одно физическое соединение");
+            Assertions.assertEquals(10, stats.getBorrowCount());
+            Assertions.assertEquals(0, stats.getActiveCount());
+            Assertions.assertEquals(1, stats.getIdleCount());
+        }
+    }
+
+    @Test
+    void borrowFailsWhenPoolExhausted() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("test", () -> DriverManager.getConnection("jdbc:sqlite::memory:"),
+                1, 60_000, 50)) {
+            try (Connection ignored = pool.borrow()) {
+                // Ждёт другой поток: поток-владелец получил бы отказ сразу, без таймаута
+                CompletableFuture<Connection> other = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return pool.borrow();
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+                ExecutionException error = Assertions.assertThrows(ExecutionException.class, other::get);
+                Assertions.assertInstanceOf(SQLException.class, error.getCause());
+            }
+            Assertions.assertEquals(1, pool.getStats().getTimeoutCount());
+        }
+    }
+
+    @Test
+    void nestedBorrowFailsFastWhenThreadHoldsWholePool() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("test", () -> DriverManager.getConnection("jdbc:sqlite::memory:"),
+                1, 60_000, 10_000)) {
+            try (Connection ignored = pool.borrow()) {
+                long started = System.nanoTime();
+                Assertions.assertThrows(SQLException.class, pool::borrow);
+                Assertions.assertTrue(System.nanoTime() - started < 1_000_000_000L, "Ожидания таймаута быть не должно");
+            }
+            try (Connection connection = pool.borrow()) {
+                Assertions.assertTrue(connection.isValid(1));
+            }
+            Assertions.assertEquals(0, pool.getStats().getTimeoutCount());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hotelapp.database;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.model.Booking;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Миграция V2: даты броней из TEXT (ISO) переводятся в дни от 1970-01-01 без сдвига на границах,
+ * индексы для проверки пересечений создаются.
+ */
+class EpochDayMigrationTest {
+
+    private static final Path FILE = Path.of("target", "epoch-day-migration.db");
+    // Граница эпохи, день до неё, 29 февраля и переход через год
+    private static final LocalDate[][] STAYS = {
+            {LocalDate.of(1970, 1, 1), LocalDate.of(1970, 1, 3)},
+            {LocalDate.of(1969, 12, 31), LocalDate.of(1970, 1, 1)},
+            {LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 29)},
+            {LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 2)},
+            {LocalDate.of(2030, 12, 31), LocalDate.of(2031, 1, 1)},
+    };
+
+    private static final BookingDAO bookingDAO = new BookingDAO();
+    private static final List<Integer> ids = new ArrayList<>();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Database.shutdown();
+        Files.deleteIfExists(FILE);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + FILE);
+             Statement statement = connection.createStatement()) {
+            // БД версии 1: схема из V1.sql, даты строками, без schema_version
+            for (String sql : SchemaMigrator.splitStatements(resource("/sql/migrations/V1.sql"))) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO guests(name, passport, phone) VALUES('Гость', 'AB1234567', NULL)");
+            for (int room = 1; room <= STAYS.length; room++) {
+                statement.execute("INSERT INTO rooms(number, type, price, capacity, status) VALUES('" + (100 + room)
+                        + "', 'Стандарт', 100, 2, 'FREE')");
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?, 1, ?, ?, 'BOOKED')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < STAYS.length; i++) {
+                    ps.setInt(1, i + 1);
+                    ps.setString(2, STAYS[i][0].toString());
+                    ps.setString(3, STAYS[i][1].toString());
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        keys.next();
+                        ids.add(keys.getInt(1));
+                    }
+                }
+            }
+        }
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + FILE));
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void textDatesBecomeTheSameLocalDates() throws Exception {
+        for (int i = 0; i < STAYS.length; i++) {
+            Booking booking = bookingDAO.findById(ids.get(i)).orElseThrow();
+            Assertions.assertEquals(STAYS[i][0], booking.getCheckInDate());
+            Assertions.assertEquals(STAYS[i][1], booking.getCheckOutDate());
+        }
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT check_in_date, typeof(check_in_date) FROM bookings WHERE id = "
+                     + ids.get(0))) {
+            rs.next();
+            Assertions.assertEquals(0, rs.getLong(1));
+            Assertions.assertEquals("integer", rs.getString(2));
+        }
+    }
+
+    @Test
+    void overlapBoundariesSurviveMigration() {
+        for (int i = 0; i < STAYS.length; i++) {
+            int room = i + 1;
+            LocalDate in = STAYS[i][0];
+            LocalDate out = STAYS[i][1];
+            Assertions.assertTrue(bookingDAO.hasOverlaps(room, in, in.plusDays(1)), "Первая ночь " + in);
+            Assertions.assertTrue(bookingDAO.hasOverlaps(room, out.minusDays(1), out), "Последняя ночь " + out);
+            // Выезд и заезд в один день не пересекаются
+            Assertions.assertFalse(bookingDAO.hasOverlaps(room, in.minusDays(1), in), "Ночь перед " + in);
+            Assertions.assertFalse(bookingDAO.hasOverlaps(room, out, out.plusDays(1)), "Ночь после " + out);
+        }
+    }
+
+    @Test
+    void overlapIndexesAreCreated() throws Exception {
+        Assertions.assertEquals(List.of("room_id", "status", "check_in_date", "check_out_date"),
+                indexColumns("idx_bookings_room_status_dates"));
+        Assertions.assertEquals(List.of("status", "check_in_date"), indexColumns("idx_bookings_status_check_in"));
+        Assertions.assertEquals(List.of("check_in_date"), indexColumns("idx_bookings_check_in"));
+    }
+
+    private static List<String> indexColumns(String index) throws Exception {
+        List<String> columns = new ArrayList<>();
+        try (Connection connection = Database.getReadConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA index_info(" + index + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+
+    private static String resource(String name) throws Exception {
+        try (InputStream inputStream = EpochDayMigrationTest.class.getResourceAsStream(name)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotelapp.database;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Тест миграций: повторный запуск ничего не применяет, триггеры не режутся по ';',
+ * изменённая миграция и упавшая на середине не оставляют схему в промежуточном состоянии,
+ * актуальная версия в user_version пропускает миграции, старая БД без schema_version обновляется.
+ */
+class SchemaMigratorTest {
+
+    @AfterAll
+    static void tearDown() {
+        Database.shutdown();
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void migrateIsIdempotent() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            int applied = SchemaMigrator.migrate(connection);
+            Assertions.assertEquals(SchemaMigrator.latestVersion(), applied);
+            Assertions.assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(connection));
+            Assertions.assertEquals(0, SchemaMigrator.migrate(connection));
+        }
+    }
+
+    @Test
+    void triggerBodyIsSingleStatement() {
+        List<String> statements = SchemaMigrator.splitStatements("""
+                -- описание
+                CREATE TABLE a (id INTEGER);
+                CREATE TRIGGER a_ai AFTER INSERT ON a BEGIN
+                    UPDATE a SET id = id;
+                    DELETE FROM a WHERE id < 0;
+                END;
+                CREATE INDEX a_id ON a(id);
+                """);
+        Assertions.assertEquals(3, statements.size());
+        Assertions.assertTrue(statements.get(1).endsWith("END;"));
+    }
+
+    @Test
+    void changedMigrationIsRejected() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            SchemaMigrator.migrate(connection);
+            statement.execute("UPDATE schema_version SET checksum = 'изменена' WHERE version = 3");
+            IllegalStateException error = Assertions.assertThrows(IllegalStateException.class,
+                    () -> SchemaMigrator.migrate(connection));
+            Assertions.assertTrue(error.getMessage().contains("V3"), error.getMessage());
+        }
+    }
+
+    @Test
+    void failedMigrationIsRolledBack() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            SQLException error = Assertions.assertThrows(SQLException.class,
+                    () -> SchemaMigrator.migrate(connection, "/sql/failing/V"));
+            Assertions.assertTrue(error.getMessage().contains("V2"), error.getMessage());
+            // V1 зафиксирована, от V2 не осталось ни таблицы, ни строки, ни записи о версии
+            Assertions.assertEquals(1, SchemaMigrator.currentVersion(connection));
+            Assertions.assertEquals(1, count(connection, "SELECT COUNT(*) FROM schema_version"));
+            Assertions.assertEquals(1, count(connection, "SELECT COUNT(*) FROM kept"));
+            Assertions.assertEquals(0, count(connection, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'partial'"));
+            Assertions.assertTrue(connection.getAutoCommit(), "Режим автофиксации восстанавливается");
+        }
+    }
+
+    @Test
+    void currentUserVersionSkipsMigrations() throws Exception {
+        Path file = Path.of("target", "migrator-fast-path.db");
+        Database.shutdown();
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        Database.shutdown();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE schema_version SET checksum = 'изменена' WHERE version = 1");
+        }
+        // Версия в user_version актуальна — schema_version не читается, и изменённая сумма не мешает старту
+        Database.initialize();
+        Database.shutdown();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA user_version=" + (SchemaMigrator.latestVersion() - 1));
+        }
+        Assertions.assertThrows(IllegalStateException.class, Database::initialize,
+                "Ниже последней версии миграции проверяются");
+        Database.shutdown();
+    }
+
+    @Test
+    void legacyDatabaseWithoutVersionTableIsUpgraded() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            // hotel.db до появления миграций: таблицы из первой версии схемы и данные, schema_version нет
+            for (String sql : SchemaMigrator.splitStatements(resource("/sql/migrations/V1.sql"))) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO rooms(number, type, price, capacity, status) VALUES('101', 'Стандарт', 100, 2, 'FREE')");
+            statement.execute("INSERT INTO guests(name, passport, phone) VALUES('Старый Гость', 'LG1234567', NULL)");
+            statement.execute("INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status)"
+                    + " VALUES(1, 1, '2024-05-01', '2024-05-03', 'BOOKED')");
+            Assertions.assertEquals(0, SchemaMigrator.currentVersion(connection));
+
+            Assertions.assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.migrate(connection));
+            Assertions.assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(connection));
+            Assertions.assertEquals(SchemaMigrator.latestVersion(), count(connection, "SELECT COUNT(*) FROM schema_version"));
+            Assertions.assertEquals(1, count(connection, "SELECT COUNT(*) FROM guests_fts WHERE guests_fts MATCH 'lg1234567'"),
+                    "Индексы поздних миграций строятся по уже имеющимся строкам");
+            Assertions.assertEquals(1, count(connection, "SELECT COUNT(*) FROM bookings_rtree WHERE id = 1"));
+            Assertions.assertEquals(0, SchemaMigrator.migrate(connection));
+        }
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String resource(String name) throws Exception {
+        try (InputStream inputStream = SchemaMigratorTest.class.getResourceAsStream(name)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
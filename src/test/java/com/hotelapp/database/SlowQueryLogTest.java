@@ -0,0 +1,96 @@
+package com.hotelapp.database;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Журнал медленных запросов с порогом 0: пишутся все запросы с планами,
+ * персональные данные гостей в параметрах скрыты, файл ротируется по размеру.
+ */
+class SlowQueryLogTest {
+
+    private static final Path DIR = Path.of("target", "slow-query-test");
+
+    @BeforeAll
+    static void setup() throws Exception {
+        if (Files.exists(DIR)) {
+            try (Stream<Path> files = Files.list(DIR)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Path db = DIR.resolveSibling("slow-query-test.db");
+        Files.deleteIfExists(db);
+        DatabaseConfig config = new DatabaseConfig("jdbc:sqlite:" + db);
+        config.setSlowQueryThresholdMillis(0);
+        config.setSlowQueryLogFile(DIR.resolve("slow.log").toString());
+        config.setSlowQueryLogMaxBytes(16 * 1024);
+        config.setSlowQueryLogMaxFiles(3);
+        Database.configure(config);
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void logsQueriesWithPlansAndRedactsGuestData() throws Exception {
+        new GuestDAO().search("Иван", 5);
+        new BookingDAO().findForCheckIn(LocalDate.now());
+        for (int i = 0; i < 50; i++) {
+            new BookingDAO().findByStatus(com.hotelapp.model.Booking.BookingStatus.BOOKED);
+        }
+        long logged = Database.getSlowQueryCount();
+        Database.shutdown();
+
+        Assertions.assertTrue(logged > 50, "Все запросы должны попасть в журнал при пороге 0");
+        Assertions.assertTrue(Files.exists(DIR.resolve("slow.log")));
+        Assertions.assertTrue(Files.exists(DIR.resolve("slow.log.1")), "Журнал должен ротироваться по размеру");
+        Assertions.assertTrue(Files.exists(DIR.resolve("slow.log.2")));
+        Assertions.assertFalse(Files.exists(DIR.resolve("slow.log.3")), "Хранится не больше maxFiles файлов");
+
+        StringBuilder all = new StringBuilder();
+        for (String name : List.of("slow.log", "slow.log.1", "slow.log.2")) {
+            all.append(Files.readString(DIR.resolve(name), StandardCharsets.UTF_8));
+        }
+        String text = all.toString();
+        Assertions.assertTrue(text.contains("WHERE b.status=?"), "В журнале должен быть SQL запроса");
+        Assertions.assertTrue(text.contains("1: 'BOOKED'"), "Параметры без персональных данных пишутся как есть");
+        Assertions.assertTrue(text.contains("SEARCH b USING INDEX"), "В журнале должен быть план запроса");
+        for (String pii : Arrays.asList("Иван", "ИВАН", "Петров", "MP123456", "+375291112233")) {
+            Assertions.assertFalse(text.contains(pii), "Персональные данные не должны попадать в журнал: " + pii);
+        }
+    }
+
+    @Test
+    void redactsPersonalDataColumns() {
+        Assertions.assertEquals("[1: <скрыто, 4 симв.>, 2: 5]",
+                SlowQueryLog.redact("SELECT * FROM guests WHERE name >= ? LIMIT ?", Arrays.asList("Иван", 5)));
+        Assertions.assertEquals("[1: <скрыто, 4 симв.>, 2: <скрыто, 8 симв.>, 3: <скрыто, 3 симв.>]",
+                SlowQueryLog.redact("INSERT INTO guests(name, passport, phone) VALUES(?,?,?)",
+                        Arrays.asList("Иван", "MP123456", "+37")));
+        Assertions.assertEquals("[1: 'BOOKED', 2: 7]", SlowQueryLog.redact(
+                "SELECT * FROM bookings b JOIN guests g ON b.guest_id = g.id WHERE b.status=? AND b.id > ?",
+                Arrays.asList("BOOKED", 7)));
+        // Столбец не определить (сравнение кортежей) — строки запроса к гостям скрываются
+        Assertions.assertEquals("[1: <скрыто, 4 симв.>, 2: 7]", SlowQueryLog.redact(
+                "SELECT * FROM guests WHERE (name, id) > (?, ?)", Arrays.asList("Иван", 7)));
+        Assertions.assertEquals("[1: 'FREE', 2: 3]",
+                SlowQueryLog.redact("UPDATE rooms SET status=? WHERE id=?", Arrays.asList("FREE", 3)));
+    }
+}
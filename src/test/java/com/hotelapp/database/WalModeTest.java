@@ -0,0 +1,168 @@
+package com.hotelapp.database;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Режим WAL: читатели не ждут писателя и не могут писать, вложенный запрос писателя не зависает,
+ * фоновый checkpoint выполняется только после порога и усекает WAL.
+ */
+class WalModeTest {
+
+    private static final Path FILE = Path.of("target", "wal-test.db");
+    private static final Path WAL = Path.of(FILE + "-wal");
+
+    @BeforeEach
+    void setup() throws Exception {
+        Database.shutdown();
+        Files.deleteIfExists(FILE);
+        Files.deleteIfExists(WAL);
+        Files.deleteIfExists(Path.of(FILE + "-shm"));
+        DatabaseConfig config = new DatabaseConfig("jdbc:sqlite:" + FILE);
+        config.setStorageMode(DatabaseConfig.StorageMode.WAL);
+        config.setBorrowTimeoutMillis(5_000);
+        config.setCheckpointIntervalMillis(50);
+        config.setCheckpointPassivePages(50);
+        config.setCheckpointTruncatePages(200);
+        Database.configure(config);
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void readersSeeCommittedDataWithoutWaitingForWriter() throws Exception {
+        try (Connection writer = Database.getConnection()) {
+            Assertions.assertEquals("wal", queryString(writer, "PRAGMA journal_mode"));
+            long before = count();
+            writer.setAutoCommit(false);
+            insertGuests(writer, 0, 1);
+            // Транзакция писателя открыта — читатель не ждёт её и видит последнее зафиксированное состояние
+            Assertions.assertEquals(before, count());
+            writer.commit();
+            Assertions.assertEquals(before + 1, count());
+        }
+        try (Connection reader = Database.getReadConnection();
+             Statement st = reader.createStatement()) {
+            Assertions.assertThrows(SQLException.class,
+                    () -> st.executeUpdate("DELETE FROM guests"), "Соединения читателей только для чтения");
+        }
+    }
+
+    @Test
+    void nestedWriterRequestFailsFast() throws Exception {
+        try (Connection ignored = Database.getConnection()) {
+            long started = System.nanoTime();
+            SQLException error = Assertions.assertThrows(SQLException.class, Database::getConnection);
+            Assertions.assertTrue(System.nanoTime() - started < 1_000_000_000L,
+                    "Вложенный запрос писателя не должен ждать таймаута: " + error.getMessage());
+            Assertions.assertTrue(count() > 0, "Читать внутри записи можно через пул читателей");
+        }
+        // Соединение освобождено — следующий запрос проходит
+        try (Connection writer = Database.getConnection()) {
+            Assertions.assertTrue(writer.isValid(1));
+        }
+    }
+
+    @Test
+    void checkpointStartsOnlyAboveThresholdAndTruncatesWal() throws Exception {
+        WalCheckpointer checkpointer = Database.getCheckpointer();
+        Assertions.assertNotNull(checkpointer);
+        try (Connection writer = Database.getConnection()) {
+            // Начинаем с пустого WAL: миграции при инициализации тоже пишут в него
+            queryString(writer, "PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+        Thread.sleep(200);
+        long checkpoints = checkpointer.getCheckpointCount();
+        long truncates = checkpointer.getTruncateCount();
+        try (Connection writer = Database.getConnection()) {
+            insertGuests(writer, 0, 1);
+        }
+        int small = WalCheckpointer.WalState.read(WAL).getFrames();
+        Assertions.assertTrue(small > 0 && small < 50, "Маленькая запись: " + small + " кадров");
+        Thread.sleep(300);
+        Assertions.assertEquals(checkpoints, checkpointer.getCheckpointCount(), "Ниже порога checkpoint не выполняется");
+
+        try (Connection writer = Database.getConnection()) {
+            writer.setAutoCommit(false);
+            insertGuests(writer, 1, 5_000);
+            writer.commit();
+        }
+        Assertions.assertTrue(WalCheckpointer.WalState.read(WAL).getFrames() >= 200);
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (checkpointer.getTruncateCount() == truncates && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertTrue(checkpointer.getCheckpointCount() > checkpoints);
+        Assertions.assertEquals(truncates + 1, checkpointer.getTruncateCount());
+        Assertions.assertEquals(0, Files.size(WAL), "После TRUNCATE файл WAL пуст");
+        Assertions.assertEquals(0, WalCheckpointer.WalState.read(WAL).getFrames());
+    }
+
+    @Test
+    void walStateReadsLargestPageSize() throws Exception {
+        Path file = Path.of("target", "wal-64k.db");
+        Path wal = Path.of(file + "-wal");
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(wal);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement st = connection.createStatement()) {
+            // Страница 65536 записана в заголовке WAL как 1
+            st.execute("PRAGMA page_size=65536");
+            Assertions.assertEquals("wal", queryString(connection, "PRAGMA journal_mode=WAL"));
+            st.execute("PRAGMA wal_autocheckpoint=0");
+            st.execute("CREATE TABLE t(x TEXT)");
+            for (int i = 0; i < 5; i++) {
+                st.execute("INSERT INTO t VALUES(zeroblob(100000))");
+            }
+            Assertions.assertEquals(65536, Integer.parseInt(queryString(connection, "PRAGMA page_size")));
+            int frames = WalCheckpointer.WalState.read(wal).getFrames();
+            try (ResultSet rs = st.executeQuery("PRAGMA wal_checkpoint(PASSIVE)")) {
+                rs.next();
+                Assertions.assertEquals(rs.getInt(2), frames);
+            }
+            Assertions.assertTrue(frames > 5, "Кадров: " + frames);
+        }
+    }
+
+    private static void insertGuests(Connection connection, int from, int count) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO guests(name, passport, phone) VALUES(?,?,?)")) {
+            for (int i = from; i < from + count; i++) {
+                ps.setString(1, "Гость Журнала " + "абвгдежзик".repeat(5) + i);
+                ps.setString(2, String.format("WL%07d", i));
+                ps.setString(3, "+375291234567");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static long count() throws SQLException {
+        try (Connection reader = Database.getReadConnection()) {
+            return Long.parseLong(queryString(reader, "SELECT COUNT(*) FROM guests"));
+        }
+    }
+
+    private static String queryString(Connection connection, String sql) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
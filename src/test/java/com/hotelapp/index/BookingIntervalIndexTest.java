@@ -0,0 +1,115 @@
+package com.hotelapp.index;
+
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Индекс интервалов: добавление, удаление, границы полуинтервалов и окно по самой длинной брони.
+ */
+class BookingIntervalIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void putReplacesAndDropsInactiveBookings() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(booking(1, 10, 0, 5, BookingStatus.BOOKED));
+        Assertions.assertTrue(index.contains(1));
+        Assertions.assertTrue(overlaps(index, 10, 2, 3));
+
+        // Повторный put той же брони переносит её, а не дублирует
+        index.put(booking(1, 11, 0, 5, BookingStatus.CHECKED_IN));
+        Assertions.assertFalse(overlaps(index, 10, 2, 3));
+        Assertions.assertTrue(overlaps(index, 11, 2, 3));
+        Assertions.assertEquals(1, index.getStats().getBookingCount());
+
+        index.put(booking(1, 11, 0, 5, BookingStatus.CHECKED_OUT));
+        Assertions.assertFalse(index.contains(1), "Выселенная бронь удаляется из индекса");
+        Assertions.assertFalse(overlaps(index, 11, 2, 3));
+
+        index.put(booking(2, 12, 0, 5, BookingStatus.BOOKED));
+        index.remove(2);
+        index.remove(2);
+        Assertions.assertFalse(index.contains(2));
+        Assertions.assertEquals(0, index.getStats().getRoomCount());
+    }
+
+    @Test
+    void intervalsAreHalfOpen() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(booking(1, 1, 10, 15, BookingStatus.BOOKED));
+        Assertions.assertFalse(overlaps(index, 1, 15, 20), "Заезд в день выезда не пересекается");
+        Assertions.assertFalse(overlaps(index, 1, 5, 10), "Выезд в день заезда не пересекается");
+        Assertions.assertTrue(overlaps(index, 1, 14, 15));
+        Assertions.assertTrue(overlaps(index, 1, 9, 11));
+        Assertions.assertTrue(overlaps(index, 1, 0, 30));
+        Assertions.assertFalse(overlaps(index, 2, 10, 15), "Другой номер");
+    }
+
+    @Test
+    void longBookingIsFoundBeyondShortOnes() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(booking(1, 1, 0, 100, BookingStatus.CHECKED_IN));
+        for (int i = 0; i < 20; i++) {
+            index.put(booking(10 + i, 1, 200 + i * 3, 201 + i * 3, BookingStatus.BOOKED));
+        }
+        index.put(booking(2, 1, 10, 12, BookingStatus.BOOKED));
+        // Запрос далеко за началом длинной брони: окно просмотра определяется самой длинной бронью
+        Assertions.assertTrue(overlaps(index, 1, 98, 99));
+        Assertions.assertFalse(overlaps(index, 1, 100, 101));
+        Assertions.assertFalse(overlaps(index, 1, 150, 200));
+
+        index.remove(2);
+        Assertions.assertTrue(overlaps(index, 1, 99, 100), "Удаление короткой брони не сужает окно длинной");
+        index.remove(1);
+        Assertions.assertFalse(overlaps(index, 1, 98, 99), "После удаления длинной брони окно сужается");
+        Assertions.assertTrue(overlaps(index, 1, 200, 201));
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomChanges() {
+        Random random = new Random(3);
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        Map<Integer, int[]> active = new HashMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            int id = 1 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                active.remove(id);
+            } else {
+                int room = 1 + random.nextInt(5);
+                int start = random.nextInt(365);
+                int end = start + 1 + (random.nextInt(20) == 0 ? random.nextInt(120) : random.nextInt(7));
+                BookingStatus status = BookingStatus.values()[random.nextInt(3)];
+                index.put(booking(id, room, start, end, status));
+                if (status == BookingStatus.CHECKED_OUT) {
+                    active.remove(id);
+                } else {
+                    active.put(id, new int[]{room, start, end});
+                }
+            }
+            int room = 1 + random.nextInt(5);
+            int start = random.nextInt(400);
+            int end = start + 1 + random.nextInt(10);
+            boolean expected = active.values().stream()
+                    .anyMatch(b -> b[0] == room && b[1] < end && b[2] > start);
+            Assertions.assertEquals(expected, overlaps(index, room, start, end), "Шаг " + step);
+        }
+        Assertions.assertEquals(active.size(), index.getStats().getBookingCount());
+    }
+
+    private static boolean overlaps(BookingIntervalIndex index, int roomId, int startDay, int endDay) {
+        return index.hasOverlaps(roomId, BASE.plusDays(startDay), BASE.plusDays(endDay));
+    }
+
+    private static Booking booking(int id, int roomId, int startDay, int endDay, BookingStatus status) {
+        return new Booking(id, roomId, 1, BASE.plusDays(startDay), BASE.plusDays(endDay), status);
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotelapp.index;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.model.Guest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Нечёткий поиск гостей по триграммам и поиск дублей по блокам.
+ * Размер базы для поиска дублей задаётся -Dbench.guests.duplicates (по умолчанию 5 000); время поиска на 200 000
+ * гостей меряет GuestDuplicatesBenchmark (модуль benchmarks).
+ */
+class GuestTrigramIndexTest {
+
+    private static final int GUESTS = Integer.getInteger("bench.guests.duplicates", 5_000);
+
+    @Test
+    void findsGuestDespiteTyposOrderAndPhoneFormat() {
+        GuestTrigramIndex index = new GuestTrigramIndex();
+        index.reload(List.of(
+                new Guest(1, "Иванов Пётр", "AB100001", "+7 (900) 123-45-67"),
+                new Guest(2, "Семёнова Анна", "AB100002", "+7 911 000 00 00"),
+                new Guest(3, "Петров Иван", "AB100003", null)));
+
+        Assertions.assertEquals(1, index.findSimilar("Пётр Иваноф", null, 0, 5).get(0).getGuest().getId());
+        Assertions.assertEquals(2, index.findSimilar("семенова анна", null, 0, 5).get(0).getGuest().getId());
+        Assertions.assertEquals(1, index.findSimilar(null, "89001234567", 0, 5).get(0).getGuest().getId());
+        Assertions.assertTrue(index.findSimilar("Иванов Пётр", null, 1, 5).stream().noneMatch(m -> m.getGuest().getId() == 1),
+                "Редактируемый гость не подсказывается сам себе");
+        Assertions.assertTrue(index.findSimilar("Кузнецова Ольга", null, 0, 5).isEmpty());
+
+        Guest renamed = new Guest(2, "Орлова Анна", "AB100002", null);
+        index.onGuestSaved(renamed);
+        renamed.setName("Изменено в форме после сохранения");
+        Assertions.assertTrue(index.findSimilar("Семёнова", null, 0, 5).isEmpty());
+        Assertions.assertEquals("Орлова Анна", index.findSimilar("Орлова Анна", null, 0, 5).get(0).getGuest().getName());
+        index.onGuestDeleted(2);
+        Assertions.assertTrue(index.findSimilar("Орлова Анна", null, 0, 5).isEmpty());
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void loadKeepsChangesMadeWhileReading() {
+        GuestTrigramIndex index = new GuestTrigramIndex();
+        GuestDAO guestDAO = new GuestDAO() {
+            @Override
+            public List<Guest> findAll() {
+                // Пока читается снимок, гостя 2 переименовали, а гостя 3 удалили
+                index.onGuestSaved(new Guest(2, "Орлова Анна", "AB100002", null));
+                index.onGuestDeleted(3);
+                return List.of(new Guest(1, "Иванов Пётр", "AB100001", null),
+                        new Guest(2, "Семёнова Анна", "AB100002", null),
+                        new Guest(3, "Кузнецова Ольга", "AB100003", null));
+            }
+        };
+        index.load(guestDAO);
+
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertTrue(index.findSimilar("Семёнова", null, 0, 5).isEmpty(), "Снимок не затирает изменение");
+        Assertions.assertEquals(2, index.findSimilar("Орлова Анна", null, 0, 5).get(0).getGuest().getId());
+        Assertions.assertTrue(index.findSimilar("Кузнецова Ольга", null, 0, 5).isEmpty(), "Удалённый во время чтения гость не возвращается");
+        index.onGuestSaved(new Guest(2, "Семёнова Анна", "AB100002", null));
+        Assertions.assertEquals(2, index.findSimilar("Семёнова Анна", null, 0, 5).get(0).getGuest().getId());
+    }
+
+    @Test
+    void blockingFindsPlantedDuplicates() {
+        Random random = new Random(31);
+        List<Guest> guests = new ArrayList<>(GUESTS + 300);
+        for (int i = 0; i < GUESTS; i++) {
+            // Случайные имена, чтобы случайные совпадения не считались дублями
+            guests.add(new Guest(i + 1, word(random, 5, 9) + " " + word(random, 4, 7), "MP" + (1_000_000 + i),
+                    "+7 9" + (10 + i % 90) + " " + (1_000_000 + i)));
+        }
+        Set<Long> planted = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            Guest original = guests.get(random.nextInt(GUESTS));
+            Guest duplicate = switch (i % 3) {
+                case 0 -> new Guest(0, typo(original.getName(), random), "XX" + i, null);
+                case 1 -> new Guest(0, swapWords(original.getName()), "YY" + i, original.getPhone().replace(" ", "-"));
+                default -> new Guest(0, word(random, 5, 9) + " " + word(random, 4, 7), original.getPassport().toLowerCase(), null);
+            };
+            duplicate.setId(GUESTS + i + 1);
+            guests.add(duplicate);
+            planted.add((long) original.getId() << 32 | duplicate.getId());
+        }
+
+        List<DuplicatePair> pairs = GuestDuplicates.find(guests);
+        Set<Long> found = new HashSet<>();
+        for (DuplicatePair pair : pairs) {
+            found.add((long) pair.getFirst().getId() << 32 | pair.getSecond().getId());
+        }
+        long detected = planted.stream().filter(found::contains).count();
+        Assertions.assertTrue(detected >= planted.size() * 0.95, "Найдено подброшенных дублей: " + detected);
+        Assertions.assertTrue(pairs.size() < planted.size() * 2, "Слишком много ложных пар: " + pairs.size());
+    }
+
+    private static String word(Random random, int minLength, int maxLength) {
+        String letters = "абвгдежзиклмнопрстуфхцчшэюя";
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    private static String typo(String name, Random random) {
+        int position = 1 + random.nextInt(name.length() - 2);
+        if (name.charAt(position) == ' ') {
+            position--;
+        }
+        return name.substring(0, position) + "о" + name.substring(position + 1);
+    }
+
+    private static String swapWords(String name) {
+        String[] words = name.split(" ");
+        return words[1] + " " + words[0];
+    }
+}
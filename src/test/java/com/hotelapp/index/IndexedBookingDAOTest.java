@@ -0,0 +1,65 @@
+package com.hotelapp.index;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * IndexedBookingDAO поддерживает индекс при вставке и смене статуса и совпадает с БД.
+ */
+class IndexedBookingDAOTest {
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "indexed-booking-dao.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void indexFollowsInsertAndStatusChanges() throws Exception {
+        BookingDAO plain = new BookingDAO();
+        BookingIntervalIndex index = BookingIntervalIndex.build(plain);
+        IndexedBookingDAO dao = new IndexedBookingDAO(index);
+        Assertions.assertTrue(index.verify(plain).isEmpty());
+
+        LocalDate start = LocalDate.now().plusDays(40);
+        LocalDate end = start.plusDays(4);
+        Booking booking = new Booking(0, 2, 1, start, end, BookingStatus.BOOKED);
+        dao.insert(booking);
+        Assertions.assertTrue(index.contains(booking.getId()));
+        Assertions.assertTrue(dao.hasOverlaps(2, start.plusDays(3), end.plusDays(1)));
+        Assertions.assertFalse(dao.hasOverlaps(2, end, end.plusDays(2)));
+        Assertions.assertEquals(plain.hasOverlaps(2, start, end), dao.hasOverlaps(2, start, end));
+
+        dao.updateStatus(booking.getId(), BookingStatus.CHECKED_IN);
+        Assertions.assertTrue(dao.hasOverlaps(2, start, end), "Заселённая бронь остаётся активной");
+
+        dao.updateStatus(booking.getId(), BookingStatus.CHECKED_OUT);
+        Assertions.assertFalse(index.contains(booking.getId()), "Выселение удаляет бронь из индекса");
+        Assertions.assertFalse(dao.hasOverlaps(2, start, end));
+        Assertions.assertEquals(plain.hasOverlaps(2, start, end), dao.hasOverlaps(2, start, end));
+        Assertions.assertTrue(index.verify(plain).isEmpty(), "Индекс должен совпадать с БД");
+
+        // Возврат статуса (исправление ошибки оператора) снова добавляет бронь из БД
+        dao.updateStatus(booking.getId(), BookingStatus.BOOKED);
+        Assertions.assertTrue(dao.hasOverlaps(2, start, end));
+        Assertions.assertTrue(index.verify(plain).isEmpty());
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotelapp.jfr;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.metrics.MethodMetrics;
+import com.hotelapp.metrics.Metrics;
+import com.hotelapp.service.BookingService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * События JFR приложения: профиль hotel-admin.jfc объединяется с default, а инициализация БД,
+ * вызовы DAO и операции с бронями попадают в запись с заполненными полями.
+ */
+class JfrEventsTest {
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void recordsApplicationEvents() throws Exception {
+        Path db = Path.of("target", "jfr-test.db");
+        Files.deleteIfExists(db);
+        Path file = Path.of("target", "jfr-test.jfr");
+        List<RecordedEvent> events;
+        int roomId;
+        Map<String, String> settings = FlightRecording.settings();
+        Assertions.assertEquals("1 ms", settings.get("com.hotelapp.DataAccess#elapsedThreshold"));
+        Assertions.assertEquals("true", settings.get("jdk.GarbageCollection#enabled"), "События JVM — из профиля default");
+        settings.put("com.hotelapp.DataAccess#elapsedThreshold", "0 ms");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+
+            Database.configure(new DatabaseConfig("jdbc:sqlite:" + db));
+            Database.initialize();
+            BookingDAO bookingDAO = new BookingDAO();
+            RoomDAO roomDAO = new RoomDAO();
+            BookingService service = new BookingService(bookingDAO, roomDAO, new GuestDAO(), new PaymentDAO());
+            roomId = roomDAO.findAll().get(0).getId();
+            LocalDate start = LocalDate.now().plusDays(400);
+            service.createBooking(1, roomId, start, start.plusDays(2));
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> service.createBooking(1, roomId, start, start.plusDays(1)));
+
+            recording.stop();
+            recording.dump(file);
+        }
+        events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("com.hotelapp."))
+                .collect(Collectors.toList());
+
+        RecordedEvent init = find(events, "com.hotelapp.DatabaseInit");
+        Assertions.assertTrue(init.getBoolean("succeeded"));
+        Assertions.assertTrue(init.getInt("migrations") > 0);
+
+        RecordedEvent findAll = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.hotelapp.DataAccess"))
+                .filter(e -> "RoomDAO.findAll".equals(e.getString("operation")))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals("rooms", findAll.getString("table"));
+        Assertions.assertTrue(findAll.getLong("rows") > 0);
+        Assertions.assertTrue(findAll.getDuration("elapsed").toNanos() > 0);
+        Assertions.assertFalse(findAll.getBoolean("failed"));
+        Assertions.assertNotNull(findAll.getStackTrace(), "Для DAO пишется стек вызова");
+
+        List<RecordedEvent> operations = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.hotelapp.BookingOperation"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(2, operations.size());
+        Assertions.assertTrue(operations.get(0).getBoolean("succeeded"));
+        Assertions.assertEquals(roomId, operations.get(0).getInt("roomId"));
+        Assertions.assertEquals(2, operations.get(0).getLong("nights"));
+        Assertions.assertTrue(operations.get(0).getInt("bookingId") > 0);
+        Assertions.assertFalse(operations.get(1).getBoolean("succeeded"), "Отказ из-за пересечения — неуспешная операция");
+    }
+
+    @Test
+    void dataAccessBelowThresholdIsNotRecorded() throws Exception {
+        Database.initialize();
+        Path file = Path.of("target", "jfr-threshold.jfr");
+        Map<String, String> settings = FlightRecording.settings();
+        settings.put("com.hotelapp.DataAccess#elapsedThreshold", "1 m");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            new RoomDAO().findAll();
+            recording.stop();
+            recording.dump(file);
+        }
+        Assertions.assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(e -> e.getEventType().getName().equals("com.hotelapp.DataAccess")));
+        Assertions.assertEquals("500 us", new ElapsedThreshold().combine(Set.of("1 ms", "500 us", "2 s")),
+                "Из нескольких записей действует меньший порог");
+    }
+
+    @Test
+    void swallowedDaoErrorIsRecordedAsFailed() throws Exception {
+        Path file = Path.of("target", "jfr-failed.jfr");
+        Map<String, String> settings = FlightRecording.settings();
+        settings.put("com.hotelapp.DataAccess#elapsedThreshold", "0 ms");
+        MethodMetrics metrics = Metrics.method("RoomDAO.findAll", "rooms");
+        long errors = metrics.getErrors();
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            // Файл в несуществующем каталоге: findAll поймает SQLException и вернёт пустой список
+            Database.configure(new DatabaseConfig("jdbc:sqlite:" + Path.of("target", "missing-dir", "none.db")));
+            Assertions.assertTrue(new RoomDAO().findAll().isEmpty());
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            Database.configure(DatabaseConfig.fromSystemProperties());
+        }
+        Assertions.assertEquals(errors + 1, metrics.getErrors());
+        RecordedEvent findAll = find(RecordingFile.readAllEvents(file), "com.hotelapp.DataAccess");
+        Assertions.assertEquals("RoomDAO.findAll", findAll.getString("operation"));
+        Assertions.assertTrue(findAll.getBoolean("failed"), "Ошибка, скрытая пустым результатом, видна в записи");
+        Assertions.assertEquals(0, findAll.getLong("rows"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(type))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Нет события " + type));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotelapp.metrics;
+
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.model.Room;
+import com.hotelapp.service.GuestService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Метрики методов: точность гистограммы, учёт вызовов DAO и ошибок сервисов, публикация в JMX.
+ * Стоимость записи одного вызова меряет MetricsBenchmark в модуле benchmarks.
+ */
+class MetricsTest {
+
+    @BeforeAll
+    static void setup() {
+        Database.initialize();
+    }
+
+    @Test
+    void histogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertWithinFactorOfTwo(500_000, histogram.percentile(0.50));
+        assertWithinFactorOfTwo(950_000, histogram.percentile(0.95));
+        assertWithinFactorOfTwo(990_000, histogram.percentile(0.99));
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.percentile(0.5));
+    }
+
+    @Test
+    void daoCallsAreCountedAndPublishedInJmx() throws Exception {
+        MethodMetrics metrics = Metrics.method("RoomDAO.findAll");
+        long calls = metrics.getCalls();
+        long rows = metrics.getRows();
+
+        List<Room> rooms = new RoomDAO().findAll();
+
+        Assertions.assertEquals(calls + 1, metrics.getCalls());
+        Assertions.assertEquals(rows + rooms.size(), metrics.getRows());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = Metrics.objectName("RoomDAO.findAll");
+        Assertions.assertEquals(metrics.getCalls(), server.getAttribute(name, "Calls"));
+        Assertions.assertTrue((Double) server.getAttribute(name, "MaxMillis") > 0);
+    }
+
+    @Test
+    void serviceExceptionsAreCountedAsErrors() {
+        MethodMetrics metrics = Metrics.method("GuestService.searchGuests");
+        long errors = metrics.getErrors();
+        GuestService service = new MeteredGuestService(new GuestDAO());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.searchGuests("Ив", 0));
+        service.searchGuests("Ив", 5);
+
+        Assertions.assertEquals(errors + 1, metrics.getErrors());
+        Metrics.logSummary();
+    }
+
+    @Test
+    void recordedCallsAndRowsAreCounted() {
+        MethodMetrics metrics = Metrics.method("MetricsTest.rows", "test");
+        List<Integer> result = List.of(1, 2, 3);
+        int calls = 1000;
+        for (int i = 0; i < calls; i++) {
+            Assertions.assertSame(result, metrics.done(System.nanoTime(), result));
+        }
+        Assertions.assertEquals(calls, metrics.getCalls());
+        Assertions.assertEquals(3L * calls, metrics.getRows());
+    }
+
+    private static void assertWithinFactorOfTwo(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual < expected * 2,
+                "Ожидалось от " + expected + " до " + 2 * expected + ", получено " + actual);
+    }
+}
@@ -0,0 +1,114 @@
+package com.hotelapp.occupancy;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Календарь занятости: обрезка броней по окну и сдвиг окна с дочитыванием хвоста.
+ */
+class OccupancyCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 1);
+    private static final int PAST = 10;
+    private static final int FUTURE = 100;
+
+    @Test
+    void bookingsOutsideWindowAreClipped() {
+        OccupancyCalendar calendar = new OccupancyCalendar(TODAY, PAST, FUTURE);
+        Assertions.assertEquals(TODAY.minusDays(PAST), calendar.getWindowStart());
+        Assertions.assertEquals(TODAY.plusDays(FUTURE), calendar.getWindowEnd());
+
+        calendar.onBookingCreated(booking(1, 1, -30, -20));
+        calendar.onBookingCreated(booking(2, 2, -15, -5));
+        calendar.onBookingCreated(booking(3, 3, 95, 130));
+        calendar.onBookingCreated(booking(4, 4, 150, 160));
+
+        int[] nights = calendar.occupancyByNight(TODAY.minusDays(PAST), TODAY.plusDays(FUTURE));
+        for (int i = 0; i < nights.length; i++) {
+            int day = i - PAST;
+            int expected = (day < -5 ? 1 : 0) + (day >= 95 ? 1 : 0);
+            Assertions.assertEquals(expected, nights[i], "Ночь " + day);
+        }
+        Assertions.assertTrue(calendar.isFree(1, TODAY.minusDays(PAST), TODAY.plusDays(FUTURE)));
+        Assertions.assertFalse(calendar.isFree(2, TODAY.minusDays(PAST), TODAY.minusDays(PAST - 1)));
+        Assertions.assertTrue(calendar.isFree(2, TODAY.minusDays(5), TODAY));
+        Assertions.assertFalse(calendar.isFree(3, TODAY.plusDays(99), TODAY.plusDays(100)));
+        Assertions.assertTrue(calendar.isFree(4, TODAY, TODAY.plusDays(FUTURE)));
+
+        // Периоды за границами окна календарь не покрывает — сервис идёт в БД
+        Assertions.assertTrue(calendar.covers(TODAY.minusDays(PAST), TODAY.plusDays(FUTURE)));
+        Assertions.assertFalse(calendar.covers(TODAY.plusDays(95), TODAY.plusDays(130)));
+        Assertions.assertFalse(calendar.covers(TODAY.minusDays(PAST + 1), TODAY));
+        // Запрос шире окна учитывает только ночи внутри окна
+        int[] wide = calendar.occupancyByNight(TODAY.minusDays(40), TODAY.minusDays(PAST));
+        Assertions.assertEquals(0, Arrays.stream(wide).sum());
+    }
+
+    @Test
+    void advanceToMatchesFreshCalendar() {
+        Random random = new Random(9);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= 400; i++) {
+            int start = -60 + random.nextInt(500);
+            int length = 1 + (random.nextInt(10) == 0 ? random.nextInt(90) : random.nextInt(7));
+            bookings.add(booking(i, 1 + random.nextInt(12), start, start + length));
+        }
+        BookingDAO dao = new StubBookingDAO(bookings);
+        OccupancyCalendar calendar = OccupancyCalendar.build(dao, TODAY, PAST, FUTURE);
+
+        int day = 0;
+        // Сдвиги внутри слова, на границе слов 64 бита и больше длины окна (полная перезагрузка)
+        for (int shift : new int[]{1, 5, 63, 64, 65, 3, 128, 0, 111, 250}) {
+            day += shift;
+            LocalDate today = TODAY.plusDays(day);
+            calendar.advanceTo(today, dao);
+            OccupancyCalendar fresh = OccupancyCalendar.build(dao, today, PAST, FUTURE);
+            Assertions.assertEquals(fresh.getWindowStart(), calendar.getWindowStart());
+            Assertions.assertArrayEquals(
+                    fresh.occupancyByNight(fresh.getWindowStart(), fresh.getWindowEnd()),
+                    calendar.occupancyByNight(calendar.getWindowStart(), calendar.getWindowEnd()),
+                    "Окно после сдвига на " + shift + " (день " + day + ")");
+            for (int room = 1; room <= 12; room++) {
+                Assertions.assertEquals(fresh.isFree(room, today, today.plusDays(30)),
+                        calendar.isFree(room, today, today.plusDays(30)), "Номер " + room + ", день " + day);
+            }
+        }
+
+        // Назад окно не сдвигается
+        LocalDate start = calendar.getWindowStart();
+        calendar.advanceTo(TODAY, dao);
+        Assertions.assertEquals(start, calendar.getWindowStart());
+    }
+
+    private static Booking booking(int id, int roomId, int startDay, int endDay) {
+        return new Booking(id, roomId, 1, TODAY.plusDays(startDay), TODAY.plusDays(endDay), BookingStatus.BOOKED);
+    }
+
+    /**
+     * Брони из списка вместо БД.
+     */
+    private static final class StubBookingDAO extends BookingDAO {
+        private final List<Booking> bookings;
+
+        private StubBookingDAO(List<Booking> bookings) {
+            this.bookings = bookings;
+        }
+
+        @Override
+        public List<Booking> findOverlapping(LocalDate start, LocalDate end) {
+            return bookings.stream()
+                    .filter(b -> b.getCheckInDate().isBefore(end) && b.getCheckOutDate().isAfter(start))
+                    .collect(Collectors.toList());
+        }
+    }
+}
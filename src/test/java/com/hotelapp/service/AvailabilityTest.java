@@ -0,0 +1,204 @@
+package com.hotelapp.service;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.index.BookingIntervalIndex;
+import com.hotelapp.index.IndexedBookingDAO;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Room;
+import com.hotelapp.occupancy.OccupancyCalendar;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск свободных номеров: anti-join запрос, индекс в памяти и календарь занятости дают тот же результат,
+ * что и прежний цикл findAll() + hasOverlaps() на каждый номер, в том числе с фильтрами по типу, вместимости и цене.
+ * Время сравнивается в benchmarks/ (AvailabilityBenchmark).
+ */
+class AvailabilityTest {
+
+    private static final int ROOMS = 400;
+    private static final int ROUNDS = 20;
+    private static final String[] TYPES = {"Стандарт", "Люкс", "Семейный"};
+
+    private static final RoomDAO roomDAO = new RoomDAO();
+    private static final BookingDAO bookingDAO = new BookingDAO();
+    private static BookingService bookingService;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "availability-bench.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        fill();
+        bookingService = new BookingService(bookingDAO, roomDAO, new GuestDAO(), new PaymentDAO());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void singleQueryMatchesLegacyLoop() {
+        LocalDate today = LocalDate.now();
+        Random random = new Random(42);
+        for (int i = 0; i < ROUNDS; i++) {
+            LocalDate start = today.plusDays(random.nextInt(300));
+            LocalDate end = start.plusDays(1 + random.nextInt(10));
+            List<Room> legacy = legacyAvailableRooms(start, end);
+            List<Room> current = bookingService.getAvailableRooms(start, end);
+            Assertions.assertEquals(ids(legacy), ids(current), "Результаты должны совпадать для " + start + " — " + end);
+        }
+    }
+
+    @Test
+    void intervalIndexMatchesDatabase() {
+        BookingIntervalIndex index = BookingIntervalIndex.build(bookingDAO);
+        BookingService indexed = new BookingService(new IndexedBookingDAO(index), roomDAO, new GuestDAO(),
+                new PaymentDAO(), index);
+        Assertions.assertTrue(index.verify(bookingDAO).isEmpty(), "Индекс должен совпадать с БД");
+
+        LocalDate today = LocalDate.now();
+        Random random = new Random(11);
+        for (int i = 0; i < ROUNDS; i++) {
+            LocalDate start = today.plusDays(random.nextInt(300));
+            LocalDate end = start.plusDays(1 + random.nextInt(10));
+            List<Room> expected = bookingService.getAvailableRooms(start, end);
+            List<Room> actual = indexed.getAvailableRooms(start, end);
+            Assertions.assertEquals(ids(expected), ids(actual));
+        }
+    }
+
+    @Test
+    void filteredSearchMatchesLegacyLoop() {
+        BookingIntervalIndex index = BookingIntervalIndex.build(bookingDAO);
+        BookingService indexed = new BookingService(new IndexedBookingDAO(index), roomDAO, new GuestDAO(),
+                new PaymentDAO(), index);
+        Integer[] capacities = {null, 1, 2, 3, 4};
+        Double[] prices = {null, 100.0, 175.0, 250.0, 300.0};
+
+        LocalDate today = LocalDate.now();
+        Random random = new Random(17);
+        boolean narrowed = false;
+        for (int i = 0; i < ROUNDS * 3; i++) {
+            LocalDate start = today.plusDays(random.nextInt(300));
+            LocalDate end = start.plusDays(1 + random.nextInt(10));
+            String type = random.nextInt(4) == 0 ? null : TYPES[random.nextInt(TYPES.length)];
+            Integer minCapacity = capacities[random.nextInt(capacities.length)];
+            Double maxPrice = prices[random.nextInt(prices.length)];
+            String filter = start + " — " + end + ", " + type + ", от " + minCapacity + " мест, до " + maxPrice;
+
+            List<Integer> expected = ids(legacyAvailableRooms(start, end).stream()
+                    .filter(room -> type == null || type.equals(room.getType()))
+                    .filter(room -> minCapacity == null || room.getCapacity() >= minCapacity)
+                    .filter(room -> maxPrice == null || room.getPrice() <= maxPrice)
+                    .collect(Collectors.toList()));
+            Assertions.assertEquals(expected, ids(roomDAO.findAvailable(start, end, type, minCapacity, maxPrice)),
+                    "Запрос: " + filter);
+            Assertions.assertEquals(expected, ids(indexed.getAvailableRooms(start, end, type, minCapacity, maxPrice)),
+                    "Индекс: " + filter);
+            narrowed |= !expected.isEmpty() && expected.size() < bookingService.getAvailableRooms(start, end).size();
+        }
+        Assertions.assertTrue(narrowed, "Фильтры должны отсеивать часть свободных номеров");
+    }
+
+    @Test
+    void occupancyCalendarMatchesDatabase() {
+        LocalDate today = LocalDate.now();
+        BookingService withCalendar = new BookingService(bookingDAO, roomDAO, new GuestDAO(), new PaymentDAO());
+        withCalendar.setOccupancyCalendar(OccupancyCalendar.build(bookingDAO, today, 30, 365));
+
+        Random random = new Random(5);
+        for (int i = 0; i < ROUNDS; i++) {
+            LocalDate start = today.plusDays(random.nextInt(300));
+            LocalDate end = start.plusDays(1 + random.nextInt(10));
+            List<Room> expected = bookingService.getAvailableRooms(start, end);
+            List<Room> actual = withCalendar.findFirstFreeRooms(null, start, end, 25);
+            Assertions.assertEquals(ids(expected.subList(0, Math.min(25, expected.size()))), ids(actual));
+        }
+
+        LocalDate from = today.minusDays(10);
+        LocalDate to = today.plusDays(60);
+        int[] nights = withCalendar.getNightlyOccupancy(from, to);
+        int[] adHoc = bookingService.getNightlyOccupancy(from, to);
+        Assertions.assertArrayEquals(adHoc, nights);
+        for (int i = 0; i < nights.length; i += 7) {
+            long night = from.toEpochDay() + i;
+            long expected = bookingDAO.findOverlapping(from.plusDays(i), from.plusDays(i + 1)).stream()
+                    .filter(b -> b.getStatus() != Booking.BookingStatus.CHECKED_OUT || night < today.toEpochDay())
+                    .map(Booking::getRoomId)
+                    .distinct()
+                    .count();
+            Assertions.assertEquals(expected, nights[i], "Ночь " + from.plusDays(i));
+        }
+    }
+
+    /**
+     * Прежняя реализация BookingService.getAvailableRooms.
+     */
+    private List<Room> legacyAvailableRooms(LocalDate start, LocalDate end) {
+        return roomDAO.findAll().stream()
+                .filter(room -> room.getStatus() == Room.RoomStatus.FREE)
+                .filter(room -> !bookingDAO.hasOverlaps(room.getId(), start, end))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).collect(Collectors.toList());
+    }
+
+    private static void fill() throws Exception {
+        Random random = new Random(7);
+        long today = LocalDate.now().toEpochDay();
+        try (Connection connection = Database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement rooms = connection.prepareStatement(
+                    "INSERT INTO rooms(number, type, price, capacity, status) VALUES(?,?,?,?,?)");
+                 PreparedStatement bookings = connection.prepareStatement(
+                         "INSERT INTO bookings(room_id, guest_id, check_in_date, check_out_date, status) VALUES(?,?,?,?,?)")) {
+                for (int i = 0; i < ROOMS; i++) {
+                    rooms.setString(1, "B" + (1000 + i));
+                    rooms.setString(2, TYPES[i % TYPES.length]);
+                    rooms.setDouble(3, 100 + i % 5 * 50);
+                    rooms.setInt(4, 1 + i % 4);
+                    rooms.setString(5, i % 10 == 0 ? "OCCUPIED" : "FREE");
+                    rooms.addBatch();
+                }
+                rooms.executeBatch();
+                for (int room = 1; room <= ROOMS + 8; room++) {
+                    long day = today - 30;
+                    while (day < today + 330) {
+                        day += random.nextInt(6);
+                        long nights = 1 + random.nextInt(7);
+                        bookings.setInt(1, room);
+                        bookings.setInt(2, 1);
+                        bookings.setLong(3, day);
+                        bookings.setLong(4, day + nights);
+                        bookings.setString(5, day + nights < today ? "CHECKED_OUT" : "BOOKED");
+                        bookings.addBatch();
+                        day += nights;
+                    }
+                }
+                bookings.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+}
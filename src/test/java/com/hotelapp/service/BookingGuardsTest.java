@@ -0,0 +1,99 @@
+package com.hotelapp.service;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Booking.BookingStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Повторные и параллельные операции с одной бронью: заселение и выселение проходят один раз,
+ * две брони одного номера на те же даты не создаются.
+ */
+class BookingGuardsTest {
+
+    private static final BookingDAO bookingDAO = new BookingDAO();
+    private static final PaymentDAO paymentDAO = new PaymentDAO();
+    private static BookingService bookingService;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "booking-guards.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        bookingService = new BookingService(bookingDAO, new RoomDAO(), new GuestDAO(), paymentDAO);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void secondCheckOutIsRejectedWithoutPayment() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Booking booking = new Booking(0, 1, 1, start, start.plusDays(2), BookingStatus.BOOKED);
+        bookingDAO.insert(booking);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> bookingService.checkOut(booking.getId(), true),
+                "Выселить можно только заселённого гостя");
+        bookingService.checkIn(booking.getId());
+        Assertions.assertThrows(IllegalStateException.class, () -> bookingService.checkIn(booking.getId()));
+
+        bookingService.checkOut(booking.getId(), true);
+        Assertions.assertThrows(IllegalStateException.class, () -> bookingService.checkOut(booking.getId(), true));
+        Assertions.assertEquals(1, paymentDAO.findByBooking(booking.getId()).size());
+    }
+
+    @Test
+    void concurrentCreatesForSameRoomBookItOnce() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(60);
+        LocalDate end = start.plusDays(3);
+        int attempts = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Callable<Void>> creates = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                creates.add(() -> {
+                    bookingService.createBooking(1, 3, start, end);
+                    return null;
+                });
+            }
+            int created = 0;
+            for (Future<Void> result : executor.invokeAll(creates)) {
+                try {
+                    result.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+            Assertions.assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        long active = bookingDAO.findOverlapping(start, end).stream()
+                .filter(b -> b.getRoomId() == 3 && b.getStatus() != BookingStatus.CHECKED_OUT)
+                .count();
+        Assertions.assertEquals(1, active);
+    }
+}
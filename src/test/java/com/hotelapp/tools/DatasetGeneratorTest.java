@@ -0,0 +1,150 @@
+package com.hotelapp.tools;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.model.Guest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Генератор данных: непересекающиеся брони, согласованные R*Tree/FTS/версии строк и воспроизводимость по seed.
+ * Размер задаётся -Dbench.bookings (по умолчанию 50 000).
+ */
+class DatasetGeneratorTest {
+
+    private static final int BOOKINGS = Integer.getInteger("bench.bookings", 50_000);
+    private static final int ROOMS = 100;
+    private static final int GUESTS = 2_000;
+
+    private static DatasetGenerator.Result result;
+    private static long digest;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        result = generate("dataset-a.db", 7);
+        digest = digest();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void bookingsDoNotOverlapAndHavePayments() throws Exception {
+        Assertions.assertEquals(BOOKINGS, result.getBookings());
+        Assertions.assertEquals(ROOMS, result.getRooms());
+        Assertions.assertEquals(0, count("""
+                SELECT COUNT(*) FROM (
+                    SELECT check_in_date,
+                           LAG(check_out_date) OVER (PARTITION BY room_id ORDER BY check_in_date) AS previous_out
+                    FROM bookings
+                ) WHERE check_in_date < previous_out
+                """), "Брони одного номера не должны пересекаться");
+        Assertions.assertEquals(count("SELECT COUNT(*) FROM bookings WHERE status = 'CHECKED_OUT' AND id > 1"),
+                result.getPayments());
+        Assertions.assertEquals(0, count("""
+                SELECT COUNT(*) FROM payments p JOIN bookings b ON b.id = p.booking_id JOIN rooms r ON r.id = b.room_id
+                WHERE p.amount <> (b.check_out_date - b.check_in_date) * r.price
+                """));
+        long today = LocalDate.now().toEpochDay();
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM bookings WHERE status = 'CHECKED_IN'"
+                + " AND NOT (check_in_date <= ? AND check_out_date > ?)", today, today));
+    }
+
+    @Test
+    void derivedStructuresMatchTriggers() throws Exception {
+        Assertions.assertEquals(count("SELECT COUNT(*) FROM bookings"), count("SELECT COUNT(*) FROM bookings_rtree"));
+        Assertions.assertEquals(count("SELECT COUNT(*) FROM bookings"),
+                count("SELECT COUNT(DISTINCT row_version) FROM bookings WHERE row_version > 0"));
+        Assertions.assertEquals(count("SELECT version FROM data_version"), count("""
+                SELECT MAX(v) FROM (SELECT MAX(row_version) AS v FROM rooms UNION ALL SELECT MAX(row_version) FROM guests
+                                    UNION ALL SELECT MAX(row_version) FROM bookings)
+                """));
+        Assertions.assertEquals(15, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger'"),
+                "Триггеры должны быть восстановлены");
+        Assertions.assertEquals(6, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index'"
+                + " AND tbl_name = 'bookings' AND sql IS NOT NULL"), "Индексы броней должны быть восстановлены");
+
+        GuestDAO guestDAO = new GuestDAO();
+        Guest guest = guestDAO.findById(GUESTS / 2).orElseThrow();
+        Assertions.assertTrue(guestDAO.searchFullText(guest.getPassport(), 5).stream()
+                .anyMatch(g -> g.getId() == guest.getId()), "Гость должен находиться полнотекстовым поиском");
+
+        // После загрузки триггеры снова работают для обычных вставок
+        BookingDAO bookingDAO = new BookingDAO();
+        LocalDate start = LocalDate.now().plusYears(5);
+        Assertions.assertFalse(bookingDAO.hasOverlaps(3, start, start.plusDays(2)));
+        bookingDAO.insert(new Booking(0, 3, 1, start, start.plusDays(2), Booking.BookingStatus.BOOKED));
+        Assertions.assertTrue(bookingDAO.hasOverlaps(3, start, start.plusDays(2)));
+        List<Booking> overlapping = bookingDAO.findOverlapping(start, start.plusDays(1));
+        Assertions.assertEquals(1, overlapping.size());
+    }
+
+    @Test
+    void sameSeedGivesSameData() throws Exception {
+        DatasetGenerator.Result again = generate("dataset-b.db", 7);
+        try {
+            Assertions.assertEquals(result.getPayments(), again.getPayments());
+            Assertions.assertEquals(digest, digest());
+        } finally {
+            generate("dataset-a.db", 7);
+        }
+    }
+
+    private static DatasetGenerator.Result generate(String fileName, long seed) throws Exception {
+        Path file = Path.of("target", fileName);
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        DatasetGenerator generator = new DatasetGenerator();
+        generator.setRooms(ROOMS);
+        generator.setGuests(GUESTS);
+        generator.setBookings(BOOKINGS);
+        generator.setSeed(seed);
+        return generator.generate();
+    }
+
+    private static long digest() throws Exception {
+        long hash = 17;
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement("""
+                     SELECT b.room_id, b.guest_id, b.check_in_date, b.check_out_date, b.status, g.name, g.passport, g.phone
+                     FROM bookings b JOIN guests g ON g.id = b.guest_id ORDER BY b.id
+                     """);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                for (int i = 1; i <= 8; i++) {
+                    Object value = rs.getObject(i);
+                    hash = hash * 31 + (value == null ? 0 : value.hashCode());
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long count(String sql, long... params) throws Exception {
+        try (Connection connection = Database.getReadConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setLong(i + 1, params[i]);
+            }
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotelapp.tools;
+
+import com.hotelapp.dao.BookingDAO;
+import com.hotelapp.dao.GuestDAO;
+import com.hotelapp.dao.PaymentDAO;
+import com.hotelapp.dao.RoomDAO;
+import com.hotelapp.database.Database;
+import com.hotelapp.database.DatabaseConfig;
+import com.hotelapp.model.Booking;
+import com.hotelapp.service.BookingService;
+import com.hotelapp.service.GuestService;
+import com.hotelapp.service.RoomService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Нагрузочный прогон на небольшой сгенерированной БД и проверки целостности, которыми он пользуется.
+ */
+class LoadTestTest {
+
+    private static LoadTest loadTest;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Path file = Path.of("target", "load-test.db");
+        Files.deleteIfExists(file);
+        Database.configure(new DatabaseConfig("jdbc:sqlite:" + file));
+        Database.initialize();
+        DatasetGenerator generator = new DatasetGenerator();
+        generator.setRooms(30);
+        generator.setGuests(300);
+        generator.setBookings(3000);
+        generator.generate();
+
+        GuestDAO guestDAO = new GuestDAO();
+        RoomDAO roomDAO = new RoomDAO();
+        loadTest = new LoadTest(new BookingService(new BookingDAO(), roomDAO, guestDAO, new PaymentDAO()),
+                new GuestService(guestDAO), new RoomService(roomDAO));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Database.configure(DatabaseConfig.fromSystemProperties());
+    }
+
+    @Test
+    void runsEveryOperationInTheMix() throws Exception {
+        loadTest.setOperators(4);
+        loadTest.setDurationMillis(1500);
+        loadTest.setMix("search=3,book=3,check_in=2,check_out=2,guest_edit=1,room_board=1");
+        LoadTest.Report report = loadTest.run();
+
+        Assertions.assertEquals(0, report.getErrors(), "Неожиданные ошибки операций");
+        Assertions.assertEquals(0, report.getDaoErrors());
+        for (LoadTest.Operation operation : LoadTest.Operation.values()) {
+            Assertions.assertTrue(report.getOperations(operation) > 0, "Операция не выполнялась: " + operation);
+            Assertions.assertTrue(report.getPercentileMillis(operation, 0.5)
+                    <= report.getPercentileMillis(operation, 0.99));
+        }
+        Assertions.assertTrue(report.getThroughput() > 0);
+    }
+
+    @Test
+    void mixSpecificationIsValidated() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loadTest.setMix("search"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loadTest.setMix("teleport=5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loadTest.setMix("search=0"));
+        loadTest.setMix("search=1, check-out=2");
+        Assertions.assertEquals(2, loadTest.getMix().get(LoadTest.Operation.CHECK_OUT));
+    }
+
+    @Test
+    void detectsDoubleBookingsAndLockFailures() throws Exception {
+        long before = LoadTest.doubleBookings();
+        BookingDAO bookingDAO = new BookingDAO();
+        LocalDate start = LocalDate.now().plusYears(3);
+        // Вставка в обход проверки сервиса — так выглядит проигранная гонка двух операторов
+        bookingDAO.insert(new Booking(0, 5, 1, start, start.plusDays(3), Booking.BookingStatus.BOOKED));
+        bookingDAO.insert(new Booking(0, 5, 2, start.plusDays(2), start.plusDays(4), Booking.BookingStatus.BOOKED));
+        Assertions.assertEquals(before + 1, LoadTest.doubleBookings());
+
+        Assertions.assertTrue(LoadTest.isLockFailure(new RuntimeException("Не удалось создать бронь",
+                new SQLException("[SQLITE_BUSY] The database file is locked (database is locked)"))));
+        Assertions.assertFalse(LoadTest.isLockFailure(new RuntimeException(new SQLException("UNIQUE constraint failed"))));
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotelapp.ui.table;
+
+import com.hotelapp.model.Booking;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+/**
+ * Значения ячеек запоминаются по объекту строки: та же строка получает тот же объект значения,
+ * новая строка (изменение из БД) — новое значение, ещё не прочитанная строка — общее пустое значение.
+ * Память при прокрутке меряет CellValuesBenchmark (модуль benchmarks, -prof gc).
+ */
+class CellValuesTest {
+
+    private final Callback<TableColumn.CellDataFeatures<Booking, String>, ObservableValue<String>> guestName =
+            CellValues.of(Booking::getGuestName);
+
+    @Test
+    void sameRowGetsSameValue() {
+        Booking booking = booking("Иванов Пётр");
+        ObservableValue<String> first = guestName.call(cell(booking));
+        Assertions.assertEquals("Иванов Пётр", first.getValue());
+        Assertions.assertSame(first, guestName.call(cell(booking)), "Повторная перерисовка не создаёт значение");
+    }
+
+    @Test
+    void newRowObjectGetsNewValue() {
+        Booking booking = booking("Иванов Пётр");
+        ObservableValue<String> before = guestName.call(cell(booking));
+        Booking reloaded = booking("Иванова Анна");
+        ObservableValue<String> after = guestName.call(cell(reloaded));
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals("Иванова Анна", after.getValue());
+        Assertions.assertEquals("Иванов Пётр", before.getValue(), "Значение прежней строки не меняется");
+    }
+
+    @Test
+    void unloadedRowGetsEmptyConstant() {
+        ObservableValue<String> empty = guestName.call(cell(null));
+        Assertions.assertNull(empty.getValue());
+        Assertions.assertSame(empty, guestName.call(cell(null)));
+        Assertions.assertNotSame(empty, guestName.call(cell(booking("Иванов Пётр"))));
+    }
+
+    private static Booking booking(String guestName) {
+        LocalDate day = LocalDate.now();
+        Booking booking = new Booking(1, 1, 1, day, day.plusDays(2), Booking.BookingStatus.BOOKED);
+        booking.setGuestName(guestName);
+        return booking;
+    }
+
+    private static TableColumn.CellDataFeatures<Booking, String> cell(Booking booking) {
+        return new TableColumn.CellDataFeatures<>(null, null, booking);
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotelapp.ui.table;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Тест ленивого списка: читаются только нужные страницы, последовательное чтение идёт по курсору,
+ * число страниц в памяти ограничено, страница после ошибки чтения запрашивается снова.
+ */
+class LazyPagedListTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Test
+    void loadsOnlyTouchedPagesAndEvictsOldOnes() {
+        List<String> calls = new ArrayList<>();
+        PageLoader<Integer> loader = new PageLoader<>() {
+            @Override
+            public int count() {
+                return ROWS;
+            }
+
+            @Override
+            public List<Integer> load(int offset, int limit, Integer previous) {
+                calls.add(previous == null ? "offset " + offset : "after " + previous);
+                return IntStream.range(offset, offset + limit).boxed().collect(Collectors.toList());
+            }
+        };
+        LazyPagedList<Integer> list = new LazyPagedList<>(loader, 50, 4, 1, Runnable::run, Runnable::run);
+
+        Assertions.assertEquals(ROWS, list.size());
+        Assertions.assertEquals(0, list.getLoadCount(), "Размер известен без чтения строк");
+
+        Assertions.assertEquals(10, list.get(10));
+        // Страница 0 и упреждающая страница 1, прочитанная по курсору
+        Assertions.assertEquals(List.of("offset 0", "after 49"), calls);
+
+        Assertions.assertEquals(500_123, list.get(500_123));
+        Assertions.assertEquals("offset 500100", calls.get(2), "Переход в середину списка — через OFFSET");
+        Assertions.assertTrue(list.getLoadedPageCount() <= 4);
+        Assertions.assertTrue(list.getLoadCount() <= 5);
+    }
+
+    @Test
+    void rowsArriveAsynchronouslyAndStaleLoadsAreDropped() {
+        Deque<Runnable> background = new ArrayDeque<>();
+        PageLoader<Integer> ascending = rangeLoader(120, 0);
+        LazyPagedList<Integer> list = new LazyPagedList<>(ascending, 50, 4, 1, background::add, Runnable::run);
+        Assertions.assertEquals(0, list.size(), "До подсчёта в фоне список пуст");
+        background.poll().run();
+        Assertions.assertEquals(120, list.size());
+
+        Assertions.assertNull(list.get(0), "Строка ещё не прочитана");
+        list.setLoader(rangeLoader(120, 1000));
+        // Страница от прежнего источника дочитывается уже после переключения и должна быть отброшена
+        background.poll().run();
+        background.poll().run();
+        Assertions.assertNull(list.get(0));
+        background.poll().run();
+        Assertions.assertEquals(1000, list.get(0));
+    }
+
+    @Test
+    void refreshReplacesLoadedRowsWithoutResettingList() {
+        int[] rows = {120};
+        int[] base = {0};
+        PageLoader<Integer> loader = new PageLoader<>() {
+            @Override
+            public int count() {
+                return rows[0];
+            }
+
+            @Override
+            public List<Integer> load(int offset, int limit, Integer previous) {
+                return IntStream.range(base[0] + offset, base[0] + offset + limit).boxed().collect(Collectors.toList());
+            }
+        };
+        LazyPagedList<Integer> list = new LazyPagedList<>(loader, 50, 4, 1, Runnable::run, Runnable::run);
+        list.get(0);
+        List<String> events = new ArrayList<>();
+        list.addListener((ListChangeListener<Integer>) change -> {
+            while (change.next()) {
+                events.add(change.wasUpdated() ? "update" : change.wasAdded() ? "add " + change.getFrom()
+                        : "remove " + change.getFrom());
+            }
+        });
+
+        rows[0] = 130;
+        base[0] = 1000;
+        list.refresh();
+        Assertions.assertEquals(130, list.size());
+        Assertions.assertEquals(1000, list.get(0));
+        Assertions.assertEquals("add 120", events.get(0), "Добавляется только хвост");
+        Assertions.assertTrue(events.subList(1, events.size()).stream().allMatch("update"::equals));
+    }
+
+    @Test
+    void failedLoadsAreReportedOnceAndRetried() {
+        boolean[] broken = {true};
+        PageLoader<Integer> loader = new PageLoader<>() {
+            @Override
+            public int count() {
+                if (broken[0]) {
+                    throw new IllegalStateException("БД недоступна");
+                }
+                return 120;
+            }
+
+            @Override
+            public List<Integer> load(int offset, int limit, Integer previous) {
+                if (broken[0]) {
+                    throw new IllegalStateException("БД недоступна");
+                }
+                return IntStream.range(offset, offset + limit).boxed().collect(Collectors.toList());
+            }
+        };
+        LazyPagedList<Integer> list = new LazyPagedList<>(rangeLoader(120, 0), 50, 4, 1, Runnable::run, Runnable::run);
+        List<String> errors = new ArrayList<>();
+        list.setOnLoadFailed(error -> errors.add(error.getMessage()));
+
+        list.setLoader(loader);
+        Assertions.assertEquals(0, list.size());
+        Assertions.assertEquals(List.of("БД недоступна"), errors);
+
+        broken[0] = false;
+        list.refresh();
+        Assertions.assertEquals(120, list.size());
+        broken[0] = true;
+        Assertions.assertNull(list.get(0));
+        Assertions.assertNull(list.get(0));
+        Assertions.assertEquals(1, errors.size(), "Ошибки подряд сообщаются один раз");
+
+        broken[0] = false;
+        Assertions.assertEquals(0, list.get(0), "Страница после ошибки читается заново");
+        Assertions.assertEquals(2, list.getLoadCount(), "Страница 0 и упреждающая страница 1");
+        broken[0] = true;
+        list.refresh();
+        Assertions.assertEquals(2, errors.size(), "После успешного чтения новая ошибка снова сообщается");
+        Assertions.assertEquals(0, list.get(0), "Загруженные строки остаются на экране");
+    }
+
+    private static PageLoader<Integer> rangeLoader(int rows, int base) {
+        return new PageLoader<>() {
+            @Override
+            public int count() {
+                return rows;
+            }
+
+            @Override
+            public List<Integer> load(int offset, int limit, Integer previous) {
+                return IntStream.range(base + offset, base + offset + limit).boxed().collect(Collectors.toList());
+            }
+        };
+    }
+}
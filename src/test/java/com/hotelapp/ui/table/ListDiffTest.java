@@ -0,0 +1,87 @@
+package com.hotelapp.ui.table;
+
+import com.hotelapp.dao.Changes;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * ListDiff приводит список к новому содержимому, не трогая неизменённые строки.
+ */
+class ListDiffTest {
+
+    @Test
+    void keyedDiffTouchesOnlyChangedRows() {
+        Row a = new Row(1, "a", 0);
+        Row b = new Row(2, "b", 0);
+        Row c = new Row(3, "c", 0);
+        ObservableList<Row> target = FXCollections.observableArrayList(a, b, c);
+        int[] changes = new int[1];
+        target.addListener((ListChangeListener<Row>) change -> changes[0]++);
+
+        ListDiff.Result result = ListDiff.apply(target, List.of(new Row(1, "a", 0), new Row(3, "c2", 1), new Row(4, "d", 0)),
+                Row::id, (x, y) -> x.version == y.version);
+
+        Assertions.assertEquals(List.of("a", "c2", "d"), target.stream().map(Row::name).collect(Collectors.toList()));
+        Assertions.assertSame(a, target.get(0), "Неизменённая строка остаётся тем же объектом");
+        Assertions.assertEquals(1, result.getRemoved());
+        Assertions.assertEquals(1, result.getUpdated());
+        Assertions.assertEquals(1, result.getInserted());
+        Assertions.assertEquals(3, changes[0]);
+
+        ListDiff.apply(target, List.of(new Row(4, "d", 0), new Row(1, "a", 0), new Row(3, "c2", 1)),
+                Row::id, (x, y) -> x.version == y.version);
+        Assertions.assertEquals(List.of("d", "a", "c2"), target.stream().map(Row::name).collect(Collectors.toList()));
+        Assertions.assertSame(a, target.get(1));
+    }
+
+    @Test
+    void changesKeepSortOrder() {
+        ObservableList<Row> target = FXCollections.observableArrayList(new Row(1, "a", 0), new Row(2, "c", 0), new Row(3, "e", 0));
+        Changes<Row> changes = new Changes<>(List.of(new Row(4, "d", 5), new Row(1, "f", 6)), List.of(2), 6);
+
+        ListDiff.Result result = ListDiff.applyChanges(target, changes, Row::id, Comparator.comparing(Row::name));
+
+        Assertions.assertEquals(List.of("d", "e", "f"), target.stream().map(Row::name).collect(Collectors.toList()));
+        Assertions.assertEquals(1, result.getInserted());
+        Assertions.assertEquals(1, result.getRemoved());
+        Assertions.assertEquals(1, result.getMoved());
+    }
+
+    @Test
+    void fullChangesRemoveMissingRows() {
+        ObservableList<Row> target = FXCollections.observableArrayList(new Row(1, "a", 0), new Row(2, "c", 0), new Row(3, "e", 0));
+        Changes<Row> changes = new Changes<>(List.of(new Row(1, "a", 0), new Row(3, "e", 4)), List.of(), 6, true);
+
+        ListDiff.Result result = ListDiff.applyChanges(target, changes, Row::id, Comparator.comparing(Row::name));
+
+        Assertions.assertEquals(List.of("a", "e"), target.stream().map(Row::name).collect(Collectors.toList()));
+        Assertions.assertEquals(1, result.getRemoved(), "Удалённая строка, которой нет в журнале, всё равно убирается");
+    }
+
+    private static final class Row {
+        private final int id;
+        private final String name;
+        private final long version;
+
+        private Row(int id, String name, long version) {
+            this.id = id;
+            this.name = name;
+            this.version = version;
+        }
+
+        private int id() {
+            return id;
+        }
+
+        private String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Таблица, которая создаётся успешно
+
+CREATE TABLE kept (id INTEGER PRIMARY KEY);
+
+INSERT INTO kept(id) VALUES (1);
@@ -0,0 +1,7 @@
+-- Миграция, которая падает на третьем операторе
+
+CREATE TABLE partial (id INTEGER PRIMARY KEY);
+
+INSERT INTO kept(id) VALUES (2);
+
+INSERT INTO missing_table(id) VALUES (1);